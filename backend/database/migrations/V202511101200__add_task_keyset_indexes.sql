@@ -0,0 +1,24 @@
+-- Migration: Keyset pagination indexes for task lists
+-- Purpose: Let /api/tasks/user/page and /api/tasks/project/{id}/page seek directly to the cursor
+--          position for both supported orderings instead of sorting every task of the user/project
+-- Date: 2025-11-10
+
+-- Project-scoped lists: (project_id, due_datetime, id) and (project_id, created_at DESC, id DESC)
+CREATE INDEX IF NOT EXISTS idx_tasks_project_due_keyset
+ON syncup.tasks (project_id, due_datetime ASC NULLS LAST, id)
+WHERE delete_ind = false;
+
+CREATE INDEX IF NOT EXISTS idx_tasks_project_created_keyset
+ON syncup.tasks (project_id, created_at DESC, id DESC)
+WHERE delete_ind = false;
+
+-- Assignee-scoped lists can walk the global ordering and probe task_assignees through its
+-- (task_id, user_id) primary key, or start from idx_task_assignees_user_id for users with few tasks
+CREATE INDEX IF NOT EXISTS idx_tasks_due_keyset
+ON syncup.tasks (due_datetime ASC NULLS LAST, id)
+WHERE delete_ind = false;
+
+CREATE INDEX IF NOT EXISTS idx_tasks_created_keyset
+ON syncup.tasks (created_at DESC, id DESC)
+WHERE delete_ind = false;
+
@@ -0,0 +1,13 @@
+-- Migration: Partial indexes for the overdue and pre-due reminder scanners
+-- Purpose: The scanners run every minute and only look for open tasks whose reminder has not been
+--          sent yet. Indexing just those rows keeps each scan proportional to the pending reminders
+--          instead of the whole task history; rows drop out of the index once flagged or completed.
+-- Date: 2025-11-11
+
+CREATE INDEX IF NOT EXISTS idx_tasks_pending_overdue_notification
+ON syncup.tasks (due_datetime, id)
+WHERE delete_ind = false AND has_sent_overdue = false AND status <> 'COMPLETED';
+
+CREATE INDEX IF NOT EXISTS idx_tasks_pending_predue_notification
+ON syncup.tasks (due_datetime, id)
+WHERE delete_ind = false AND has_sent_predue = false AND status <> 'COMPLETED';
@@ -0,0 +1,9 @@
+-- Migration: Owner index for set-based reporting queries
+-- Purpose: The staff breakdown now counts tasks for a whole batch of users in one grouped query
+--          (owner_id IN (...) UNION task_assignees.user_id IN (...)). task_assignees already has
+--          idx_task_assignees_user_id; this gives the owner side the same access path.
+-- Date: 2025-11-12
+
+CREATE INDEX IF NOT EXISTS idx_tasks_owner_id
+ON syncup.tasks (owner_id)
+WHERE delete_ind = false;
@@ -0,0 +1,48 @@
+-- Migration: Daily reporting rollups
+-- Purpose: Pre-aggregate task counts and tracked hours per day so the task summary and time
+--          analytics reports read a few rollup rows per day instead of scanning tasks and
+--          task_time_tracking. Rows are keyed by owner/tracker user and project; the department is
+--          resolved through users at read time so department moves never leave the rollups stale.
+--          Days touched by task and time tracking writes are re-derived shortly after commit; a
+--          nightly job re-derives the trailing days and backfills history in chunks.
+-- Date: 2025-11-13
+
+-- Non-deleted tasks per creation day, owner, project and status
+CREATE TABLE syncup.report_task_daily_rollup (
+  id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  rollup_date  DATE NOT NULL,
+  owner_id     BIGINT,
+  project_id   BIGINT,
+  status       VARCHAR(32) NOT NULL,
+  task_count   BIGINT NOT NULL
+);
+
+CREATE INDEX idx_report_task_daily_rollup_date ON syncup.report_task_daily_rollup (rollup_date);
+
+-- Completed time tracking per start day, completion day, tracker and project.
+-- Running timers are not rolled up; the reports add them live from task_time_tracking.
+CREATE TABLE syncup.report_hours_daily_rollup (
+  id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  started_date    DATE NOT NULL,
+  completed_date  DATE NOT NULL,
+  user_id         BIGINT NOT NULL,
+  project_id      BIGINT,
+  total_hours     DECIMAL(12,2) NOT NULL
+);
+
+CREATE INDEX idx_report_hours_daily_rollup_started ON syncup.report_hours_daily_rollup (started_date);
+
+-- Single-row backfill progress; the row lock also serializes rollup rebuilds across instances
+CREATE TABLE syncup.report_rollup_state (
+  id                BIGINT PRIMARY KEY,
+  covered_from      DATE,
+  fully_backfilled  BOOLEAN NOT NULL DEFAULT false,
+  compacted_at      TIMESTAMPTZ
+);
+
+INSERT INTO syncup.report_rollup_state (id, fully_backfilled) VALUES (1, false);
+
+-- Live part of the hour reports: running timers by start time
+CREATE INDEX IF NOT EXISTS idx_task_time_tracking_running
+ON syncup.task_time_tracking (started_at)
+WHERE completed_at IS NULL;
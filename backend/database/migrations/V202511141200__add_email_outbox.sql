@@ -0,0 +1,26 @@
+-- Migration: Email outbox
+-- Purpose: Queue outgoing email in the database instead of sending it on the caller's thread.
+--          Callers insert a row; a dispatcher claims due rows, sends them over pooled SMTP
+--          connections under per-domain rate limits and retries failures with exponential backoff.
+--          While a row is being sent, next_attempt_at holds its lease expiry so rows claimed by a
+--          crashed instance are picked up again.
+-- Date: 2025-11-14
+
+CREATE TABLE syncup.email_outbox (
+  id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  recipient         VARCHAR(320) NOT NULL,
+  recipient_domain  VARCHAR(255) NOT NULL,
+  subject           VARCHAR(998) NOT NULL,
+  body              TEXT NOT NULL,
+  html              BOOLEAN NOT NULL DEFAULT false,
+  status            VARCHAR(16) NOT NULL,
+  attempts          INT NOT NULL DEFAULT 0,
+  next_attempt_at   TIMESTAMPTZ NOT NULL,
+  last_error        TEXT,
+  created_at        TIMESTAMPTZ NOT NULL DEFAULT now(),
+  sent_at           TIMESTAMPTZ
+);
+
+-- Claim scan: only rows still waiting to be sent
+CREATE INDEX idx_email_outbox_due ON syncup.email_outbox (next_attempt_at)
+  WHERE status IN ('PENDING', 'SENDING');
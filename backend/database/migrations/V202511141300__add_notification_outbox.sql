@@ -0,0 +1,23 @@
+-- Migration: Notification outbox
+-- Purpose: Publish notification messages from the database instead of inside the business transaction.
+--          Services insert the serialized message in the same transaction as their own writes, so a
+--          rollback discards it and a broker outage no longer loses it or stalls the request. A relay
+--          publishes due rows to notification.exchange and deletes them once the broker confirms.
+--          next_attempt_at doubles as the claim lease while a row is being published.
+-- Date: 2025-11-14
+
+CREATE TABLE syncup.notification_outbox (
+  id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  exchange         VARCHAR(255) NOT NULL,
+  routing_key      VARCHAR(255) NOT NULL,
+  message_id       VARCHAR(64),
+  type_id          VARCHAR(255),
+  payload          TEXT NOT NULL,
+  attempts         INT NOT NULL DEFAULT 0,
+  next_attempt_at  TIMESTAMPTZ NOT NULL DEFAULT now(),
+  last_error       TEXT,
+  created_at       TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Relay scan in publish order
+CREATE INDEX idx_notification_outbox_due ON syncup.notification_outbox (next_attempt_at, id);
@@ -0,0 +1,31 @@
+-- Migration: Notification archive
+-- Purpose: Keep the live notifications table small. A nightly job moves read and dismissed
+--          notifications older than the archive threshold into a compact archive table in bounded
+--          batches, so no single statement locks or rewrites a large part of either table. Archived
+--          rows keep what the inbox shows; metadata and the status flags (implied by read_at and
+--          dismissed_at) are dropped, and channels are folded into one column. Archived rows past
+--          their retention are purged in batches as well.
+-- Date: 2025-11-14
+
+CREATE TABLE syncup.notifications_archive (
+  notification_id    BIGINT PRIMARY KEY,
+  author_id          BIGINT NOT NULL,
+  target_id          BIGINT NOT NULL,
+  notification_type  VARCHAR(50) NOT NULL,
+  subject            VARCHAR(255) NOT NULL,
+  message            TEXT NOT NULL,
+  priority           VARCHAR(20) NOT NULL,
+  link               VARCHAR(500),
+  channels           VARCHAR(255),
+  created_at         TIMESTAMPTZ NOT NULL,
+  read_at            TIMESTAMPTZ,
+  dismissed_at       TIMESTAMPTZ,
+  archived_at        TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_notifications_archive_target_created ON syncup.notifications_archive (target_id, created_at DESC);
+CREATE INDEX idx_notifications_archive_created ON syncup.notifications_archive (created_at);
+
+-- Archival scan: only rows that are eligible, oldest first
+CREATE INDEX idx_notifications_archivable ON syncup.notifications (created_at)
+  WHERE read_status = TRUE OR dismissed_status = TRUE;
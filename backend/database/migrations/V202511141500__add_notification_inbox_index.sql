@@ -0,0 +1,13 @@
+-- Migration: Keyset index for the notification inbox
+-- Purpose: Let /api/notifications/inbox seek to the cursor position of (target_id, created_at DESC,
+--          notification_id DESC) instead of skipping OFFSET rows, whatever the page depth. The INCLUDE
+--          columns are everything the inbox list shows except message and metadata, so a page can be
+--          answered from the index alone once the visibility map is current.
+-- Date: 2025-11-14
+
+CREATE INDEX IF NOT EXISTS idx_notifications_inbox_keyset
+ON syncup.notifications (target_id, created_at DESC, notification_id DESC)
+INCLUDE (author_id, notification_type, subject, read_status, dismissed_status, priority, link, read_at);
+
+-- Same leading columns as the new index; it can serve every query this one did
+DROP INDEX IF EXISTS syncup.idx_notifications_target_created;
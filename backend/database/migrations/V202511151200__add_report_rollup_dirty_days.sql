@@ -0,0 +1,13 @@
+-- Migration: Shared dirty days for the reporting rollups
+-- Purpose: Task and time tracking writes record the days they touch in the same transaction, so
+--          whichever instance flushes or serves a report next re-derives them. Previously the days
+--          were held in memory by the writing instance and other instances served stale rollups
+--          until it flushed or the nightly compaction ran.
+-- Date: 2025-11-15
+
+CREATE TABLE syncup.report_rollup_dirty_day (
+  id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  rollup_date  DATE NOT NULL,
+  kind         VARCHAR(16) NOT NULL,
+  marked_at    TIMESTAMPTZ NOT NULL DEFAULT now()
+);
@@ -0,0 +1,34 @@
+-- Migration: Persistent notification coalescing buffers
+-- Purpose: Bursts of task update notifications used to wait in memory after their message was
+--          acknowledged, for the coalescing window and then for the email digest, so a restart lost
+--          them. Consumers now record each burst in the same transaction as the rest of the message
+--          batch; a flush stores the merged notification and queues its digest entry in one
+--          transaction, and the digest job deletes entries in the transaction that queues the email.
+-- Date: 2025-11-16
+
+CREATE TABLE syncup.notification_coalesce_pending (
+  id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  target_id     BIGINT NOT NULL,
+  task_id       BIGINT NOT NULL,
+  event_type    VARCHAR(50) NOT NULL,
+  latest        TEXT NOT NULL,
+  update_count  INT NOT NULL,
+  first_at      TIMESTAMPTZ NOT NULL,
+  CONSTRAINT uq_notification_coalesce_pending_key UNIQUE (target_id, task_id, event_type)
+);
+
+-- Flush scan for bursts whose window has passed
+CREATE INDEX idx_notification_coalesce_pending_due ON syncup.notification_coalesce_pending (first_at, id);
+
+CREATE TABLE syncup.notification_digest_item (
+  id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  user_id          BIGINT NOT NULL,
+  notification_id  BIGINT,
+  subject          VARCHAR(255) NOT NULL,
+  message          TEXT NOT NULL,
+  link             VARCHAR(500),
+  created_at       TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Digest scan, grouped by recipient
+CREATE INDEX idx_notification_digest_item_user ON syncup.notification_digest_item (user_id, id);
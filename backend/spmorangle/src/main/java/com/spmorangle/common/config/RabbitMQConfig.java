@@ -1,8 +1,10 @@
 package com.spmorangle.common.config;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -27,6 +29,18 @@ public class RabbitMQConfig {
     // Dead Letter Queue
     public static final String DLQ_EXCHANGE = "notification.dlq.exchange";
     public static final String DLQ_QUEUE = "notification.dlq.queue";
+
+    // Fanout exchange every instance's report cache listens on for invalidations
+    public static final String REPORT_CACHE_EXCHANGE = "reports.cache.invalidation.exchange";
+
+    // Listener container factory for the batched notification consumers
+    public static final String NOTIFICATION_BATCH_LISTENER_FACTORY = "notificationBatchListenerContainerFactory";
+
+    @Value("${notifications.consumer.batch-size:50}")
+    private int batchSize = 50;
+
+    @Value("${notifications.consumer.receive-timeout-ms:1000}")
+    private long receiveTimeoutMillis = 1000;
     
     // Exchange
     @Bean
@@ -112,17 +126,50 @@ public class RabbitMQConfig {
             .with(PROJECT_ROUTING_KEY);
     }
     
+    // Report cache invalidation: an auto-deleted queue per instance, so every instance gets every message
+    @Bean
+    public FanoutExchange reportCacheExchange() {
+        return new FanoutExchange(REPORT_CACHE_EXCHANGE);
+    }
+
+    @Bean
+    public Queue reportCacheInvalidationQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("reports.cache.invalidation."));
+    }
+
+    @Bean
+    public Binding reportCacheInvalidationBinding() {
+        return BindingBuilder.bind(reportCacheInvalidationQueue()).to(reportCacheExchange());
+    }
+
     // JSON Message Converter
     @Bean
     public Jackson2JsonMessageConverter messageConverter() {
         return new Jackson2JsonMessageConverter();
     }
     
-    // RabbitTemplate with JSON converter
+    // RabbitTemplate with JSON converter. The notification outbox relay relies on the correlated
+    // publisher confirms set by spring.rabbitmq.publisher-confirm-type.
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(messageConverter());
         return template;
     }
+
+    // Delivers up to batchSize messages per call, or fewer once the queue has been idle for the receive
+    // timeout. Acknowledgement is manual so failed messages can be rejected to the DLQ one by one.
+    @Bean(name = NOTIFICATION_BATCH_LISTENER_FACTORY)
+    public SimpleRabbitListenerContainerFactory notificationBatchListenerContainerFactory(ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(batchSize);
+        factory.setReceiveTimeout(receiveTimeoutMillis);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
 }
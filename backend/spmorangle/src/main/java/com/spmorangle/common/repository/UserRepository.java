@@ -47,6 +47,12 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
             """)
     List<User> findByDepartmentIds(@Param("departmentIds") Set<Long> departmentIds, @Param("excludeUserId") Long excludeUserId);
 
+    /**
+     * (userId, departmentId) pairs for every user with a department, used to build the member index
+     */
+    @Query("SELECT u.id, u.departmentId FROM User u WHERE u.departmentId IS NOT NULL")
+    List<Object[]> findAllUserDepartmentIds();
+
     /**
      * Find all active users with MANAGER role
      * Used for cross-department task/project assignment
@@ -0,0 +1,239 @@
+package com.spmorangle.crm.departmentmgmt.hierarchy;
+
+import com.spmorangle.crm.departmentmgmt.DepartmentConverter;
+import com.spmorangle.crm.departmentmgmt.dto.DepartmentDto;
+import com.spmorangle.crm.departmentmgmt.model.Department;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the department tree, laid out as an Euler tour.
+ *
+ * Departments are stored in pre-order, so the subtree of the node at position {@code p} is exactly
+ * positions {@code [p, subtreeEnd[p])}. That makes "is X under Y" a pair of integer comparisons and
+ * turns a descendant lookup into a slice of the pre-order array.
+ */
+public final class DepartmentHierarchy {
+
+    private static final int NO_PARENT = -1;
+
+    private final long version;
+    private final DepartmentDto[] preOrder;
+    private final int[] subtreeEnd;
+    private final int[] parentPosition;
+    private final Map<Long, Integer> positionById;
+    private final Map<String, DepartmentDto> byLowerCaseName;
+    private final List<DepartmentDto> roots;
+
+    private DepartmentHierarchy(long version, DepartmentDto[] preOrder, int[] subtreeEnd, int[] parentPosition,
+                                Map<Long, Integer> positionById, Map<String, DepartmentDto> byLowerCaseName,
+                                List<DepartmentDto> roots) {
+        this.version = version;
+        this.preOrder = preOrder;
+        this.subtreeEnd = subtreeEnd;
+        this.parentPosition = parentPosition;
+        this.positionById = positionById;
+        this.byLowerCaseName = byLowerCaseName;
+        this.roots = roots;
+    }
+
+    public static DepartmentHierarchy of(Collection<Department> departments, long version) {
+        Map<Long, Department> byId = new HashMap<>();
+        Map<Long, List<Department>> childrenByParent = new HashMap<>();
+        for (Department department : departments) {
+            byId.put(department.getId(), department);
+        }
+        List<Department> rootDepartments = new ArrayList<>();
+        for (Department department : departments) {
+            Long parentId = department.getParentId();
+            if (parentId == null || !byId.containsKey(parentId)) {
+                rootDepartments.add(department);
+            } else {
+                childrenByParent.computeIfAbsent(parentId, k -> new ArrayList<>()).add(department);
+            }
+        }
+        Comparator<Department> byIdOrder = Comparator.comparing(Department::getId);
+        rootDepartments.sort(byIdOrder);
+        childrenByParent.values().forEach(children -> children.sort(byIdOrder));
+
+        int size = byId.size();
+        DepartmentDto[] preOrder = new DepartmentDto[size];
+        int[] subtreeEnd = new int[size];
+        int[] parentPosition = new int[size];
+        Map<Long, Integer> positionById = new HashMap<>(size * 2);
+        int[] next = {0};
+
+        for (Department root : rootDepartments) {
+            visit(root, NO_PARENT, childrenByParent, preOrder, subtreeEnd, parentPosition, positionById, next);
+        }
+        // Departments caught in a parent cycle are unreachable from any root; treat each as a root so
+        // the snapshot still covers every row instead of silently dropping them
+        List<Department> unreached = byId.values().stream()
+                .filter(department -> !positionById.containsKey(department.getId()))
+                .sorted(byIdOrder)
+                .toList();
+        List<DepartmentDto> roots = new ArrayList<>();
+        rootDepartments.forEach(root -> roots.add(preOrder[positionById.get(root.getId())]));
+        for (Department department : unreached) {
+            if (!positionById.containsKey(department.getId())) {
+                visit(department, NO_PARENT, childrenByParent, preOrder, subtreeEnd, parentPosition, positionById, next);
+                roots.add(preOrder[positionById.get(department.getId())]);
+            }
+        }
+
+        Map<String, DepartmentDto> byLowerCaseName = new HashMap<>();
+        for (DepartmentDto dto : preOrder) {
+            if (dto.getName() != null) {
+                byLowerCaseName.putIfAbsent(dto.getName().toLowerCase(Locale.ROOT), dto);
+            }
+        }
+
+        return new DepartmentHierarchy(version, preOrder, subtreeEnd, parentPosition,
+                Collections.unmodifiableMap(positionById), Collections.unmodifiableMap(byLowerCaseName),
+                Collections.unmodifiableList(roots));
+    }
+
+    private static void visit(Department start, int startParent, Map<Long, List<Department>> childrenByParent,
+                              DepartmentDto[] preOrder, int[] subtreeEnd, int[] parentPosition,
+                              Map<Long, Integer> positionById, int[] next) {
+        // Iterative DFS: a frame is (department, parent position); a null department closes the subtree
+        Deque<Object[]> stack = new ArrayDeque<>();
+        stack.push(new Object[]{start, startParent});
+        while (!stack.isEmpty()) {
+            Object[] frame = stack.pop();
+            if (frame[0] == null) {
+                int position = (Integer) frame[1];
+                subtreeEnd[position] = next[0];
+                continue;
+            }
+            Department department = (Department) frame[0];
+            if (positionById.containsKey(department.getId())) {
+                continue;
+            }
+            int position = next[0]++;
+            preOrder[position] = DepartmentConverter.convert(department);
+            parentPosition[position] = (Integer) frame[1];
+            positionById.put(department.getId(), position);
+
+            stack.push(new Object[]{null, position});
+            List<Department> children = childrenByParent.getOrDefault(department.getId(), List.of());
+            for (int i = children.size() - 1; i >= 0; i--) {
+                stack.push(new Object[]{children.get(i), position});
+            }
+        }
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return preOrder.length;
+    }
+
+    public boolean contains(Long id) {
+        return id != null && positionById.containsKey(id);
+    }
+
+    public Optional<DepartmentDto> get(Long id) {
+        Integer position = id == null ? null : positionById.get(id);
+        return position == null ? Optional.empty() : Optional.of(preOrder[position]);
+    }
+
+    public Optional<DepartmentDto> getByNameIgnoreCase(String name) {
+        return name == null ? Optional.empty() : Optional.ofNullable(byLowerCaseName.get(name.toLowerCase(Locale.ROOT)));
+    }
+
+    public Optional<DepartmentDto> getParent(Long id) {
+        Integer position = positionById.get(id);
+        if (position == null || parentPosition[position] == NO_PARENT) {
+            return Optional.empty();
+        }
+        return Optional.of(preOrder[parentPosition[position]]);
+    }
+
+    /**
+     * Direct children, found by hopping from one child subtree to the next. O(number of children).
+     */
+    public List<DepartmentDto> getChildren(Long id) {
+        Integer position = positionById.get(id);
+        if (position == null) {
+            return List.of();
+        }
+        List<DepartmentDto> children = new ArrayList<>();
+        for (int child = position + 1; child < subtreeEnd[position]; child = subtreeEnd[child]) {
+            children.add(preOrder[child]);
+        }
+        return children;
+    }
+
+    /**
+     * Ancestors from the direct parent up to the root. O(depth).
+     */
+    public List<DepartmentDto> getAncestors(Long id, boolean includeSelf) {
+        Integer position = positionById.get(id);
+        if (position == null) {
+            return List.of();
+        }
+        List<DepartmentDto> ancestors = new ArrayList<>();
+        int current = includeSelf ? position : parentPosition[position];
+        while (current != NO_PARENT) {
+            ancestors.add(preOrder[current]);
+            current = parentPosition[current];
+        }
+        return ancestors;
+    }
+
+    /**
+     * Every department below {@code id}, in pre-order. O(1) to locate, O(k) to copy.
+     */
+    public List<DepartmentDto> getDescendants(Long id, boolean includeSelf) {
+        Integer position = positionById.get(id);
+        if (position == null) {
+            return List.of();
+        }
+        int from = includeSelf ? position : position + 1;
+        return List.copyOf(Arrays.asList(preOrder).subList(from, subtreeEnd[position]));
+    }
+
+    public Set<Long> getDescendantIds(Long id, boolean includeSelf) {
+        Integer position = positionById.get(id);
+        if (position == null) {
+            return Set.of();
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        for (int i = includeSelf ? position : position + 1; i < subtreeEnd[position]; i++) {
+            ids.add(preOrder[i].getId());
+        }
+        return ids;
+    }
+
+    /**
+     * True when {@code id} is {@code ancestorId} or sits anywhere below it. O(1).
+     */
+    public boolean isSameOrDescendant(Long id, Long ancestorId) {
+        Integer position = id == null ? null : positionById.get(id);
+        Integer ancestorPosition = ancestorId == null ? null : positionById.get(ancestorId);
+        if (position == null || ancestorPosition == null) {
+            return false;
+        }
+        return ancestorPosition <= position && position < subtreeEnd[ancestorPosition];
+    }
+
+    public List<DepartmentDto> getRoots() {
+        return roots;
+    }
+}
@@ -0,0 +1,73 @@
+package com.spmorangle.crm.departmentmgmt.hierarchy;
+
+import com.spmorangle.crm.departmentmgmt.repository.DepartmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link DepartmentHierarchy} snapshot.
+ *
+ * Readers grab the snapshot once and work against it without locking. Department changes build a
+ * complete new snapshot and swap it in atomically, so a request never sees a half-updated tree.
+ * A periodic refresh picks up changes made by other application instances.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DepartmentHierarchyIndex {
+
+    private final DepartmentRepository departmentRepository;
+
+    private final AtomicReference<DepartmentHierarchy> current = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+
+    public DepartmentHierarchy current() {
+        DepartmentHierarchy snapshot = current.get();
+        return snapshot != null ? snapshot : rebuild();
+    }
+
+    public synchronized DepartmentHierarchy rebuild() {
+        DepartmentHierarchy snapshot = DepartmentHierarchy.of(departmentRepository.findAll(), versions.incrementAndGet());
+        current.set(snapshot);
+        log.info("Rebuilt department hierarchy version {} with {} departments", snapshot.version(), snapshot.size());
+        return snapshot;
+    }
+
+    /**
+     * Rebuilds once the surrounding transaction commits, so the new snapshot reads the committed rows.
+     * Without an active transaction the rebuild happens immediately.
+     */
+    public void rebuildAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rebuild();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                rebuild();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${department.hierarchy.refresh-ms:300000}")
+    public void refresh() {
+        if (current.get() == null) {
+            // Nothing has asked for the tree yet; the first reader will load it
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Failed to refresh department hierarchy, keeping version {}: {}",
+                    current.get().version(), e.getMessage(), e);
+        }
+    }
+}
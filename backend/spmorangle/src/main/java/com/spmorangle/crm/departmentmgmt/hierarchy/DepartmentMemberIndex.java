@@ -0,0 +1,156 @@
+package com.spmorangle.crm.departmentmgmt.hierarchy;
+
+import com.spmorangle.common.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory map of which users belong to which department, with one member bitmap per department.
+ *
+ * Bitmaps are copy-on-write: writers replace a department's bitmap rather than mutating it, so
+ * readers can union them without locking. User management calls the {@code on*} hooks so the index
+ * follows changes made through this instance; they apply once the transaction commits, so a rolled back
+ * change never reaches the bitmaps. A periodic reload covers everything else.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DepartmentMemberIndex {
+
+    private final UserRepository userRepository;
+
+    private final Map<Long, Long> departmentByUser = new ConcurrentHashMap<>();
+    private final Map<Long, BitSet> membersByDepartment = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public VisibleUsers visibleUsers(Collection<Long> departmentIds) {
+        ensureLoaded();
+        if (departmentIds == null || departmentIds.isEmpty()) {
+            return VisibleUsers.none();
+        }
+        BitSet union = new BitSet();
+        for (Long departmentId : departmentIds) {
+            BitSet members = membersByDepartment.get(departmentId);
+            if (members != null) {
+                union.or(members);
+            }
+        }
+        return new VisibleUsers(union);
+    }
+
+    public Long departmentOf(Long userId) {
+        ensureLoaded();
+        return userId == null ? null : departmentByUser.get(userId);
+    }
+
+    /**
+     * Moves the user to the department, or drops them when it is null, once the current transaction commits
+     */
+    public void onUserDepartmentChanged(Long userId, Long departmentId) {
+        if (isIndexable(userId)) {
+            afterCommit(() -> apply(userId, departmentId));
+        }
+    }
+
+    public void onUserRemoved(Long userId) {
+        onUserDepartmentChanged(userId, null);
+    }
+
+    private synchronized void apply(Long userId, Long departmentId) {
+        if (!loaded) {
+            // The first read loads everything from the database
+            return;
+        }
+        Long previous = departmentId == null ? departmentByUser.remove(userId) : departmentByUser.put(userId, departmentId);
+        if (previous != null && !previous.equals(departmentId)) {
+            membersByDepartment.computeIfPresent(previous, (id, members) -> without(members, userId));
+        }
+        if (departmentId != null) {
+            membersByDepartment.compute(departmentId, (id, members) -> with(members, userId));
+        }
+    }
+
+    public synchronized void reload() {
+        Map<Long, Long> departments = new HashMap<>();
+        Map<Long, BitSet> members = new HashMap<>();
+        for (Object[] row : userRepository.findAllUserDepartmentIds()) {
+            Long userId = (Long) row[0];
+            Long departmentId = (Long) row[1];
+            if (!isIndexable(userId)) {
+                log.warn("User id {} cannot be stored in the department member bitmap; skipping", userId);
+                continue;
+            }
+            departments.put(userId, departmentId);
+            members.computeIfAbsent(departmentId, id -> new BitSet()).set(userId.intValue());
+        }
+        // Put new entries before dropping stale ones, so readers never see an empty index mid-reload
+        departmentByUser.putAll(departments);
+        departmentByUser.keySet().retainAll(departments.keySet());
+        membersByDepartment.putAll(members);
+        membersByDepartment.keySet().retainAll(members.keySet());
+        loaded = true;
+        log.info("Loaded department membership for {} users across {} departments", departments.size(), members.size());
+    }
+
+    @Scheduled(fixedDelayString = "${department.members.refresh-ms:300000}")
+    public void refresh() {
+        if (!loaded) {
+            return;
+        }
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Failed to refresh department membership: {}", e.getMessage(), e);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static boolean isIndexable(Long userId) {
+        return userId != null && userId >= 0 && userId <= Integer.MAX_VALUE;
+    }
+
+    private static BitSet with(BitSet members, Long userId) {
+        BitSet copy = members == null ? new BitSet() : (BitSet) members.clone();
+        copy.set(userId.intValue());
+        return copy;
+    }
+
+    private static BitSet without(BitSet members, Long userId) {
+        BitSet copy = (BitSet) members.clone();
+        copy.clear(userId.intValue());
+        return copy.isEmpty() ? null : copy;
+    }
+}
@@ -0,0 +1,54 @@
+package com.spmorangle.crm.departmentmgmt.hierarchy;
+
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * Immutable bitmap of user ids, one bit per user. A viewer's visible users are the union of the
+ * member bitmaps of their visible departments, so checking a task is one bit probe per assignee.
+ */
+public final class VisibleUsers {
+
+    private static final VisibleUsers NONE = new VisibleUsers(new BitSet());
+
+    private final BitSet userIds;
+
+    VisibleUsers(BitSet userIds) {
+        this.userIds = userIds;
+    }
+
+    public static VisibleUsers none() {
+        return NONE;
+    }
+
+    public static VisibleUsers of(Collection<Long> userIds) {
+        BitSet bits = new BitSet();
+        for (Long userId : userIds) {
+            if (userId != null && userId >= 0 && userId <= Integer.MAX_VALUE) {
+                bits.set(userId.intValue());
+            }
+        }
+        return new VisibleUsers(bits);
+    }
+
+    public boolean contains(Long userId) {
+        return userId != null && userId >= 0 && userId <= Integer.MAX_VALUE && userIds.get(userId.intValue());
+    }
+
+    public boolean containsAny(Collection<Long> candidateIds) {
+        for (Long candidateId : candidateIds) {
+            if (contains(candidateId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return userIds.isEmpty();
+    }
+
+    public int size() {
+        return userIds.cardinality();
+    }
+}
@@ -2,6 +2,7 @@ package com.spmorangle.crm.departmentmgmt.service;
 
 import com.spmorangle.crm.departmentmgmt.dto.DepartmentDto;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,6 +11,8 @@ public interface DepartmentQueryService {
 
     Optional<DepartmentDto> getById(Long id);
 
+    List<DepartmentDto> getByIds(Collection<Long> ids);
+
     Optional<DepartmentDto> getByNameCaseInsensitive(String name);
 
     Optional<DepartmentDto> getParent(Long id);
@@ -1,11 +1,18 @@
 package com.spmorangle.crm.departmentmgmt.service;
 
+import com.spmorangle.crm.departmentmgmt.hierarchy.VisibleUsers;
+
 import java.util.Set;
 
 public interface DepartmentalVisibilityService {
 
     Set<Long> visibleDepartmentsForAssignedDept(Long dept);
 
+    /**
+     * Every user whose department is in {@code visibleDeptIds}, as a bitmap for repeated membership checks.
+     */
+    VisibleUsers visibleUsersForDepartments(Set<Long> visibleDeptIds);
+
     boolean canUserSeeTask(Long userId);
 
     boolean canUserSeeTask(Set<Long> viewingUserVisibleDeptIds, Long taskAssigneeId);
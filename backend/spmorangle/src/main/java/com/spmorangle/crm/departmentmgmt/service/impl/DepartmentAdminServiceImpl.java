@@ -5,17 +5,20 @@ import com.spmorangle.crm.departmentmgmt.dto.CreateDepartmentReqDto;
 import com.spmorangle.crm.departmentmgmt.dto.DepartmentDto;
 import com.spmorangle.crm.departmentmgmt.dto.MoveDepartmentReqDto;
 import com.spmorangle.crm.departmentmgmt.dto.UpdateDepartmentReqDto;
+import com.spmorangle.crm.departmentmgmt.hierarchy.DepartmentHierarchyIndex;
 import com.spmorangle.crm.departmentmgmt.model.Department;
 import com.spmorangle.crm.departmentmgmt.repository.DepartmentRepository;
 import com.spmorangle.crm.departmentmgmt.service.DepartmentAdminService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class DepartmentAdminServiceImpl implements DepartmentAdminService {
 
     private final DepartmentRepository departmentRepository;
+    private final DepartmentHierarchyIndex departmentHierarchyIndex;
 
     public DepartmentDto getDepartmentById(Long id) {
         Department department = departmentRepository.findById(id)
@@ -23,29 +26,44 @@ public class DepartmentAdminServiceImpl implements DepartmentAdminService {
         return DepartmentConverter.convert(department);
     }
 
+    @Transactional
     public void createDepartment(CreateDepartmentReqDto req) {
         Department department = new Department();
         department.setName(req.getName());
         department.setParentId(req.getParentId());
         departmentRepository.save(department);
+        departmentHierarchyIndex.rebuildAfterCommit();
     }
 
+    @Transactional
     public void updateDepartment(UpdateDepartmentReqDto req) {
         Department originalDepartment = departmentRepository.findById(req.getId())
             .orElseThrow(() -> new IllegalArgumentException("Department not found with id: " + req.getId()));
         originalDepartment.setName(req.getNewName());
+        departmentRepository.save(originalDepartment);
+        departmentHierarchyIndex.rebuildAfterCommit();
     }
 
+    @Transactional
     public void moveDepartment(MoveDepartmentReqDto req) {
         Department department = departmentRepository.findById(req.getDepartmentId())
             .orElseThrow(() -> new IllegalArgumentException("Department not found with id: " + req.getDepartmentId()));
+        if (req.getNewParentId() != null
+                && departmentHierarchyIndex.current().isSameOrDescendant(req.getNewParentId(), department.getId())) {
+            throw new IllegalArgumentException("Cannot move department " + department.getId()
+                + " under itself or one of its sub-departments: " + req.getNewParentId());
+        }
         department.setParentId(req.getNewParentId());
+        departmentRepository.save(department);
+        departmentHierarchyIndex.rebuildAfterCommit();
     }
 
+    @Transactional
     public void deleteDepartment(Long id) {
         if (!departmentRepository.existsById(id)) {
             throw new IllegalArgumentException("Department not found with id: " + id);
         }
         departmentRepository.deleteById(id);
+        departmentHierarchyIndex.rebuildAfterCommit();
     }
 }
@@ -2,15 +2,15 @@ package com.spmorangle.crm.departmentmgmt.service.impl;
 
 import com.spmorangle.common.model.User;
 import com.spmorangle.common.repository.UserRepository;
-import com.spmorangle.crm.departmentmgmt.dto.DepartmentDto;
-import com.spmorangle.crm.departmentmgmt.service.DepartmentQueryService;
+import com.spmorangle.crm.departmentmgmt.hierarchy.DepartmentHierarchyIndex;
+import com.spmorangle.crm.departmentmgmt.hierarchy.DepartmentMemberIndex;
+import com.spmorangle.crm.departmentmgmt.hierarchy.VisibleUsers;
 import com.spmorangle.crm.departmentmgmt.service.DepartmentalVisibilityService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 
 @Slf4j
@@ -18,7 +18,8 @@ import java.util.Set;
 @RequiredArgsConstructor
 public class DepartmentalVisibilityServiceImpl implements DepartmentalVisibilityService {
 
-    private final DepartmentQueryService departmentQueryService;
+    private final DepartmentHierarchyIndex departmentHierarchyIndex;
+    private final DepartmentMemberIndex departmentMemberIndex;
     private final UserRepository userRepository;
 
     // @Override
@@ -53,42 +54,14 @@ public class DepartmentalVisibilityServiceImpl implements DepartmentalVisibility
         Set<Long> visibleDeptIds = new HashSet<>();
         visibleDeptIds.add(deptId);
 
-        // DOWNWARD TRAVERSAL - Get all child departments recursively
+        // DOWNWARD TRAVERSAL - the whole subtree is one contiguous slice of the hierarchy snapshot
         // This allows managers to see tasks from their subordinates' departments
-        addAllChildDepartments(deptId, visibleDeptIds);
+        visibleDeptIds.addAll(departmentHierarchyIndex.current().getDescendantIds(deptId, false));
 
         log.info("Department {} can see {} departments: {}", deptId, visibleDeptIds.size(), visibleDeptIds);
         return visibleDeptIds;
     }
 
-    /**
-     * Recursively add all child departments (downward traversal)
-     * This allows managers to see tasks from their subordinates' departments
-     *
-     * @param parentDeptId The parent department to get children for
-     * @param visibleDeptIds The set to add child department IDs to
-     */
-    private void addAllChildDepartments(Long parentDeptId, Set<Long> visibleDeptIds) {
-        // Get immediate children of this department
-        List<DepartmentDto> children = departmentQueryService.getChildren(parentDeptId);
-
-        if (!children.isEmpty()) {
-            log.debug("Department {} has {} child departments: {}",
-                     parentDeptId, children.size(), children.stream().map(DepartmentDto::getId).toList());
-        }
-
-        for (DepartmentDto child : children) {
-            // Avoid infinite loops by checking if already added
-            if (!visibleDeptIds.contains(child.getId())) {
-                visibleDeptIds.add(child.getId());
-                log.debug("Added child department {} to visible departments", child.getId());
-
-                // Recursively add children of this child (grandchildren, etc.)
-                addAllChildDepartments(child.getId(), visibleDeptIds);
-            }
-        }
-    }
-
     // Claude says might have bug here as deptId will always be added to the result when you call visibleDepartmentsForAssignedDept
     // Suggested change is to have 2 input. Created a suggested method below this method
     @Override
@@ -103,15 +76,20 @@ public class DepartmentalVisibilityServiceImpl implements DepartmentalVisibility
         return visibleDepts.contains(deptId);
     }
 
+    @Override
+    public VisibleUsers visibleUsersForDepartments(Set<Long> visibleDeptIds) {
+        return departmentMemberIndex.visibleUsers(visibleDeptIds);
+    }
+
     @Override
     public boolean canUserSeeTask(Set<Long> viewingUserVisibleDeptIds, Long taskAssigneeId) {
-        // If user doesn't exist, they can't see the task (return false instead of throwing exception)
-        User assignee = userRepository.findById(taskAssigneeId).orElse(null);
-        if (assignee == null || assignee.getDepartmentId() == null) {
+        // Unknown users and users without a department can't be seen (return false instead of throwing exception)
+        Long assigneeDepartmentId = departmentMemberIndex.departmentOf(taskAssigneeId);
+        if (assigneeDepartmentId == null) {
             return false;
         }
 
-        return viewingUserVisibleDeptIds.contains(assignee.getDepartmentId());
+        return viewingUserVisibleDeptIds.contains(assigneeDepartmentId);
     }
 
 
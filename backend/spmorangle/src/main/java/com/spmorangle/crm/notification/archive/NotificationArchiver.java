@@ -0,0 +1,103 @@
+package com.spmorangle.crm.notification.archive;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.spmorangle.crm.notification.cache.UnreadCountCache;
+import com.spmorangle.crm.notification.model.ArchivedNotification;
+import com.spmorangle.crm.notification.model.Notification;
+import com.spmorangle.crm.notification.repository.ArchivedNotificationRepository;
+import com.spmorangle.crm.notification.repository.NotificationRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves and deletes old notifications one bounded batch per transaction.
+ *
+ * Callers loop until a batch comes back short. Each batch selects its ids oldest first and deletes them
+ * by id, so it only locks the rows it touches and commits before the next one starts, instead of a
+ * single statement that locks every matching row and leaves the whole range for vacuum at once.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationArchiver {
+
+    private final NotificationRepository notificationRepository;
+    private final ArchivedNotificationRepository archivedNotificationRepository;
+    private final UnreadCountCache unreadCountCache;
+
+    /**
+     * Copies up to {@code limit} read or dismissed notifications created before the cutoff into the
+     * archive and removes them from the live table
+     *
+     * @return how many notifications were archived
+     */
+    @Transactional
+    public int archiveBatch(Instant cutoff, int limit) {
+        List<Long> ids = notificationRepository.findArchivableIdsCreatedBefore(cutoff, PageRequest.of(0, limit));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        Instant now = Instant.now();
+        List<Notification> notifications = notificationRepository.findAllWithChannelsByIds(ids);
+        Map<Long, Long> unreadRemoved = new HashMap<>();
+        for (Notification notification : notifications) {
+            // Dismissed without being read; it still counts as unread until it leaves the table
+            if (notification.isUnread()) {
+                unreadRemoved.merge(notification.getTargetId(), -1L, Long::sum);
+            }
+        }
+        archivedNotificationRepository.saveAll(notifications.stream()
+                .map(notification -> ArchivedNotification.from(notification, now))
+                .toList());
+
+        deleteByIds(ids);
+        if (!unreadRemoved.isEmpty()) {
+            unreadCountCache.addAfterCommit(unreadRemoved);
+        }
+        return ids.size();
+    }
+
+    /**
+     * Deletes up to {@code limit} read notifications created before the cutoff without archiving them
+     *
+     * @return how many notifications were deleted
+     */
+    @Transactional
+    public int deleteReadBatch(Instant cutoff, int limit) {
+        List<Long> ids = notificationRepository.findReadIdsCreatedBefore(cutoff, PageRequest.of(0, limit));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        deleteByIds(ids);
+        return ids.size();
+    }
+
+    /**
+     * Deletes up to {@code limit} archived notifications created before the cutoff
+     *
+     * @return how many archived notifications were deleted
+     */
+    @Transactional
+    public int purgeArchiveBatch(Instant cutoff, int limit) {
+        List<Long> ids = archivedNotificationRepository.findIdsCreatedBefore(cutoff, PageRequest.of(0, limit));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return archivedNotificationRepository.deleteByIds(ids);
+    }
+
+    private void deleteByIds(List<Long> ids) {
+        notificationRepository.deleteChannelsByNotificationIds(ids);
+        notificationRepository.deleteByIds(ids);
+    }
+}
@@ -0,0 +1,240 @@
+package com.spmorangle.crm.notification.cache;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.spmorangle.crm.notification.repository.NotificationRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-user unread notification counts kept in memory, so polling the unread count does not run a
+ * COUNT query on every request.
+ *
+ * A count is loaded from the database on first read and then kept current by the notification
+ * service, which adds or resets it after its transaction commits. A load that overlaps a change for the
+ * same user is returned but not cached, since it may or may not include that change. Entries not read
+ * for the TTL are evicted, and the remaining ones are re-counted periodically with one grouped query per
+ * batch, which corrects drift from writes on other instances or outside the service.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UnreadCountCache {
+
+    // Keeps the IN list of the grouped unread count query well below driver bind-parameter limits
+    private static final int COUNT_BATCH_SIZE = 1000;
+
+    private final NotificationRepository notificationRepository;
+
+    @Value("${notifications.unread-cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${notifications.unread-cache.ttl-ms:600000}")
+    private long ttlMillis = 600_000;
+
+    @Value("${notifications.unread-cache.reconcile-ms:60000}")
+    private long reconcileMillis = 60_000;
+
+    @Value("${notifications.unread-cache.max-entries:50000}")
+    private int maxEntries = 50_000;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder corrections = new LongAdder();
+
+    private ScheduledExecutorService reconciler;
+
+    public record Stats(long hits, long misses, long corrections, int size) {
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "unread-count-reconcile");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reconciler.scheduleWithFixedDelay(this::reconcileSafely, reconcileMillis, reconcileMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (reconciler != null) {
+            reconciler.shutdownNow();
+            reconciler = null;
+        }
+    }
+
+    /**
+     * Returns the cached unread count for a user, loading it with the given query on a miss
+     */
+    public long get(Long userId, LongSupplier loader) {
+        if (!enabled) {
+            return loader.getAsLong();
+        }
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.loaded && now - entry.lastReadAt < ttlMillis) {
+            entry.lastReadAt = now;
+            hits.increment();
+            return Math.max(0, entry.count.sum());
+        }
+
+        misses.increment();
+        if (entries.size() >= maxEntries && entry == null) {
+            return loader.getAsLong();
+        }
+        // Changes that arrive while loading mark the placeholder, so a possibly stale load is not kept
+        Entry placeholder = new Entry(now);
+        entries.put(userId, placeholder);
+        long count;
+        try {
+            count = loader.getAsLong();
+        } catch (RuntimeException e) {
+            entries.remove(userId, placeholder);
+            throw e;
+        }
+        entries.compute(userId, (id, current) -> {
+            if (current != placeholder) {
+                return current;
+            }
+            if (placeholder.changed) {
+                return null;
+            }
+            placeholder.count.add(count);
+            placeholder.loaded = true;
+            return placeholder;
+        });
+        return count;
+    }
+
+    /**
+     * Adds to the cached counts once the current transaction commits
+     *
+     * @param deltas change in unread notifications per user
+     */
+    public void addAfterCommit(Map<Long, Long> deltas) {
+        if (enabled && !deltas.isEmpty()) {
+            afterCommit(() -> deltas.forEach((userId, delta) -> update(userId, entry -> entry.count.add(delta))));
+        }
+    }
+
+    /**
+     * Sets a user's cached count to zero once the current transaction commits
+     */
+    public void resetAfterCommit(Long userId) {
+        if (enabled) {
+            afterCommit(() -> update(userId, entry -> entry.count.reset()));
+        }
+    }
+
+    private void update(Long userId, Consumer<Entry> change) {
+        entries.computeIfPresent(userId, (id, entry) -> {
+            if (entry.loaded) {
+                change.accept(entry);
+            }
+            entry.changed = true;
+            entry.version++;
+            return entry;
+        });
+    }
+
+    private void reconcileSafely() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.error("Failed to reconcile unread notification counts: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Evicts idle entries and re-counts the rest. An entry changed while its batch was being counted is
+     * left as is and checked again next time.
+     */
+    void reconcile() {
+        long now = System.currentTimeMillis();
+        entries.entrySet().removeIf(e -> now - e.getValue().lastReadAt >= ttlMillis);
+
+        Map<Long, Long> versions = new HashMap<>();
+        entries.forEach((userId, entry) -> {
+            if (entry.loaded) {
+                versions.put(userId, entry.version);
+            }
+        });
+        List<Long> userIds = new ArrayList<>(versions.keySet());
+        for (int start = 0; start < userIds.size(); start += COUNT_BATCH_SIZE) {
+            List<Long> chunk = userIds.subList(start, Math.min(start + COUNT_BATCH_SIZE, userIds.size()));
+            Map<Long, Long> counts = new HashMap<>();
+            for (Object[] row : notificationRepository.countUnreadByTargetIds(chunk)) {
+                counts.put((Long) row[0], ((Number) row[1]).longValue());
+            }
+            for (Long userId : chunk) {
+                long actual = counts.getOrDefault(userId, 0L);
+                entries.computeIfPresent(userId, (id, entry) -> {
+                    if (entry.version == versions.get(userId) && entry.count.sum() != actual) {
+                        entry.count.reset();
+                        entry.count.add(actual);
+                        corrections.increment();
+                    }
+                    return entry;
+                });
+            }
+        }
+
+        Stats stats = stats();
+        log.debug("Unread count cache: {} entries, {} hits, {} misses, {} corrections",
+                stats.size(), stats.hits(), stats.misses(), stats.corrections());
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), corrections.sum(), entries.size());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static final class Entry {
+        private final LongAdder count = new LongAdder();
+        private volatile long lastReadAt;
+        private volatile boolean loaded;
+        // Only changed inside compute calls on the entry's key
+        private boolean changed;
+        private volatile long version;
+
+        Entry(long lastReadAt) {
+            this.lastReadAt = lastReadAt;
+        }
+    }
+}
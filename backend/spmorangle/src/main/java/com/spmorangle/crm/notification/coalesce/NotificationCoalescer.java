@@ -0,0 +1,320 @@
+package com.spmorangle.crm.notification.coalesce;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spmorangle.common.config.FrontendConfig;
+import com.spmorangle.crm.notification.dto.CreateNotificationDto;
+import com.spmorangle.crm.notification.dto.NotificationDigestDto;
+import com.spmorangle.crm.notification.dto.NotificationDto;
+import com.spmorangle.crm.notification.enums.Channel;
+import com.spmorangle.crm.notification.model.NotificationDigestItem;
+import com.spmorangle.crm.notification.model.PendingCoalescedNotification;
+import com.spmorangle.crm.notification.push.NotificationPushService;
+import com.spmorangle.crm.notification.repository.NotificationDigestItemRepository;
+import com.spmorangle.crm.notification.repository.PendingCoalescedNotificationRepository;
+import com.spmorangle.crm.notification.service.EmailService;
+import com.spmorangle.crm.notification.service.EmailTemplateService;
+import com.spmorangle.crm.notification.service.NotificationService;
+import com.spmorangle.crm.usermanagement.cache.RecipientProfileCache;
+import com.spmorangle.crm.usermanagement.cache.RecipientProfileCache.RecipientProfile;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Merges bursts of task update notifications before they are stored.
+ *
+ * Notifications for the configured event types are buffered per (recipient, task, event type) for the
+ * coalescing window, counted from the first one, and then stored as a single notification carrying the
+ * latest text and how many updates it stands for. Their email channel is not sent one by one: each
+ * recipient gets a periodic digest listing what was stored since the previous one.
+ *
+ * Both buffers are database tables, so nothing is lost when an instance stops. Bursts are recorded in the
+ * caller's transaction, together with the rest of its message batch. A flush stores the merged
+ * notifications and queues their digest entries in one transaction, and a digest deletes its entries in the
+ * transaction that queues the email, so a failure at any point leaves the rows for the next run. Instances
+ * skip rows another one has locked, so each burst and digest entry is handled once.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationCoalescer {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final NotificationService notificationService;
+    private final NotificationPushService notificationPushService;
+    private final RecipientProfileCache recipientProfileCache;
+    private final EmailService emailService;
+    private final EmailTemplateService emailTemplateService;
+    private final FrontendConfig frontendConfig;
+    private final PendingCoalescedNotificationRepository pendingRepository;
+    private final NotificationDigestItemRepository digestItemRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${notifications.coalesce.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${notifications.coalesce.event-types:TASK_UPDATED,STATUS_UPDATED}")
+    private Set<String> eventTypes = Set.of("TASK_UPDATED", "STATUS_UPDATED");
+
+    @Value("${notifications.coalesce.window-ms:60000}")
+    private long windowMillis = 60_000;
+
+    @Value("${notifications.coalesce.flush-batch-size:500}")
+    private int flushBatchSize = 500;
+
+    @Value("${notifications.digest.interval-ms:900000}")
+    private long digestIntervalMillis = 900_000;
+
+    @Value("${notifications.digest.max-items:20}")
+    private int maxDigestItems = 20;
+
+    @Value("${notifications.digest.batch-size:5000}")
+    private int digestBatchSize = 5000;
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long flushMillis = Math.max(1000, windowMillis / 10);
+        scheduler.scheduleWithFixedDelay(() -> runSafely(this::flush, "flush coalesced notifications"),
+                flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(() -> runSafely(this::sendDigests, "send notification digests"),
+                digestIntervalMillis, digestIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            // Whatever is still buffered is stored by another instance, or by this one after a restart
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Whether notifications of this event type for the task are buffered by {@link #offer}
+     */
+    public boolean coalesces(Long taskId, String eventType) {
+        return enabled && taskId != null && eventTypes.contains(eventType);
+    }
+
+    /**
+     * Buffers the notifications of an event type {@link #coalesces} accepts, merging each into the burst
+     * already waiting for its recipient; joins the caller's transaction, so a rollback discards them
+     */
+    @Transactional
+    public void offer(Long taskId, String eventType, List<CreateNotificationDto> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        Map<Long, CreateNotificationDto> latestByTarget = new LinkedHashMap<>();
+        Map<Long, Integer> countByTarget = new HashMap<>();
+        for (CreateNotificationDto notification : notifications) {
+            latestByTarget.put(notification.getTargetId(), notification);
+            countByTarget.merge(notification.getTargetId(), 1, Integer::sum);
+        }
+
+        Map<Long, PendingCoalescedNotification> existing = new HashMap<>();
+        for (PendingCoalescedNotification pending : pendingRepository.findForUpdate(taskId, eventType, latestByTarget.keySet())) {
+            existing.put(pending.getTargetId(), pending);
+        }
+        Instant now = Instant.now();
+        List<PendingCoalescedNotification> changed = new ArrayList<>(latestByTarget.size());
+        for (Map.Entry<Long, CreateNotificationDto> entry : latestByTarget.entrySet()) {
+            int count = countByTarget.get(entry.getKey());
+            PendingCoalescedNotification pending = existing.get(entry.getKey());
+            if (pending == null) {
+                pending = PendingCoalescedNotification.builder()
+                        .targetId(entry.getKey())
+                        .taskId(taskId)
+                        .eventType(eventType)
+                        .firstAt(now)
+                        .build();
+            }
+            pending.setLatest(write(entry.getValue()));
+            pending.setUpdateCount(pending.getUpdateCount() + count);
+            changed.add(pending);
+        }
+        pendingRepository.saveAll(changed);
+    }
+
+    /**
+     * Stores one merged notification per burst whose window has passed
+     */
+    void flush() {
+        int claimed;
+        do {
+            claimed = flushBatch();
+        } while (claimed >= flushBatchSize);
+    }
+
+    private int flushBatch() {
+        List<NotificationDto> created = new ArrayList<>();
+        Integer claimed = inTransaction().execute(status -> {
+            List<PendingCoalescedNotification> due = pendingRepository.findDueForUpdate(
+                    Instant.now().minusMillis(windowMillis), PageRequest.of(0, Math.max(1, flushBatchSize)));
+            if (due.isEmpty()) {
+                return 0;
+            }
+            created.addAll(notificationService.createBulkNotifications(due.stream().map(NotificationCoalescer::merged).toList()));
+
+            List<NotificationDigestItem> digestItems = new ArrayList<>();
+            for (NotificationDto notification : created) {
+                if (notification.getChannels() != null && notification.getChannels().contains(Channel.EMAIL)) {
+                    digestItems.add(NotificationDigestItem.builder()
+                            .userId(notification.getTargetId())
+                            .notificationId(notification.getNotificationId())
+                            .subject(notification.getSubject())
+                            .message(notification.getMessage())
+                            .link(notification.getLink())
+                            .build());
+                }
+            }
+            if (!digestItems.isEmpty()) {
+                digestItemRepository.saveAll(digestItems);
+            }
+            pendingRepository.deleteByIds(due.stream().map(PendingCoalescedNotification::getId).toList());
+            return due.size();
+        });
+        if (!created.isEmpty()) {
+            notificationPushService.push(created);
+            log.info("Stored {} coalesced notifications", created.size());
+        }
+        return claimed != null ? claimed : 0;
+    }
+
+    /**
+     * Emails every recipient with held-back notifications one digest, looking all of them up at once
+     */
+    void sendDigests() {
+        int claimed;
+        do {
+            claimed = sendDigestBatch();
+        } while (claimed >= digestBatchSize);
+    }
+
+    private int sendDigestBatch() {
+        Integer claimed = inTransaction().execute(status -> {
+            List<NotificationDigestItem> items = digestItemRepository.findForUpdate(PageRequest.of(0, Math.max(1, digestBatchSize)));
+            if (items.isEmpty()) {
+                return 0;
+            }
+            Map<Long, List<NotificationDigestItem>> byUser = new LinkedHashMap<>();
+            for (NotificationDigestItem item : items) {
+                byUser.computeIfAbsent(item.getUserId(), id -> new ArrayList<>()).add(item);
+            }
+            Map<Long, RecipientProfile> users = recipientProfileCache.getAll(byUser.keySet());
+
+            int sent = 0;
+            for (Map.Entry<Long, List<NotificationDigestItem>> entry : byUser.entrySet()) {
+                RecipientProfile user = users.get(entry.getKey());
+                if (user == null || !user.active() || user.email() == null || user.email().trim().isEmpty()) {
+                    log.debug("Skipping notification digest for user {} - inactive or no email", entry.getKey());
+                    continue;
+                }
+                List<NotificationDigestItem> userItems = entry.getValue();
+                int omitted = Math.max(0, userItems.size() - maxDigestItems);
+                NotificationDigestDto digestDto = NotificationDigestDto.builder()
+                        .user(user)
+                        .notifications(userItems.subList(omitted, userItems.size()).stream()
+                                .map(NotificationCoalescer::toDto)
+                                .toList())
+                        .frontendBaseUrl(frontendConfig.getBaseUrl())
+                        .omittedCount(omitted)
+                        .build();
+                try {
+                    emailService.sendHtmlEmail(user.email(), "Updates on your tasks",
+                            emailTemplateService.generateNotificationDigestEmail(digestDto));
+                    sent++;
+                } catch (Exception e) {
+                    log.error("Failed to send notification digest to user {}: {}", user.id(), e.getMessage());
+                }
+            }
+            digestItemRepository.deleteByIds(items.stream().map(NotificationDigestItem::getId).toList());
+            log.info("Sent {} notification digests", sent);
+            return items.size();
+        });
+        return claimed != null ? claimed : 0;
+    }
+
+    private TransactionTemplate inTransaction() {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    private static void runSafely(Runnable task, String description) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            log.error("Failed to {}: {}", description, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * The burst's latest notification, noting how many updates it stands for
+     */
+    static CreateNotificationDto merged(PendingCoalescedNotification pending) {
+        CreateNotificationDto latest = read(pending.getLatest());
+        if (pending.getUpdateCount() <= 1) {
+            return latest;
+        }
+        latest.setMessage(String.format("%s (%d updates)", latest.getMessage(), pending.getUpdateCount()));
+        return latest;
+    }
+
+    private static NotificationDto toDto(NotificationDigestItem item) {
+        return NotificationDto.builder()
+                .notificationId(item.getNotificationId())
+                .targetId(item.getUserId())
+                .subject(item.getSubject())
+                .message(item.getMessage())
+                .link(item.getLink())
+                .createdAt(item.getCreatedAt())
+                .build();
+    }
+
+    private static String write(CreateNotificationDto notification) {
+        try {
+            return JSON.writeValueAsString(notification);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize notification for coalescing", e);
+        }
+    }
+
+    private static CreateNotificationDto read(String json) {
+        try {
+            return JSON.readValue(json, CreateNotificationDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read coalesced notification", e);
+        }
+    }
+}
@@ -1,14 +1,31 @@
 package com.spmorangle.crm.notification.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    // Backpressure for slow subscribers: a session that cannot take its messages within the time
+    // limit, or lets more than the buffer limit queue up, is closed and reconnects to a fresh state
+    @Value("${notifications.push.send-time-limit-ms:10000}")
+    private int sendTimeLimitMillis = 10_000;
+
+    @Value("${notifications.push.send-buffer-limit-bytes:524288}")
+    private int sendBufferSizeLimit = 512 * 1024;
+
+    @Value("${notifications.push.outbound-threads:4}")
+    private int outboundThreads = 4;
+
+    @Value("${notifications.push.outbound-queue-capacity:1000}")
+    private int outboundQueueCapacity = 1000;
     
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
@@ -19,6 +36,21 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         config.setApplicationDestinationPrefixes("/app");
     }
 
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMillis);
+        registration.setSendBufferSizeLimit(sendBufferSizeLimit);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // Bounded so a backlog of pushes cannot grow without limit
+        registration.taskExecutor()
+            .corePoolSize(outboundThreads)
+            .maxPoolSize(outboundThreads)
+            .queueCapacity(outboundQueueCapacity);
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // WebSocket endpoint that FE will connect to
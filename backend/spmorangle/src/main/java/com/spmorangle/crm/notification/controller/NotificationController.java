@@ -18,6 +18,8 @@ import com.spmorangle.common.model.User;
 import com.spmorangle.common.service.UserContextService;
 import com.spmorangle.crm.notification.dto.NotificationDto;
 import com.spmorangle.crm.notification.dto.NotificationFilterDto;
+import com.spmorangle.crm.notification.dto.NotificationInboxPageDto;
+import com.spmorangle.crm.notification.dto.NotificationInboxRequestDto;
 import com.spmorangle.crm.notification.dto.UnreadCountDto;
 import com.spmorangle.crm.notification.enums.Priority;
 import com.spmorangle.crm.notification.service.NotificationService;
@@ -66,6 +68,38 @@ public class NotificationController {
         return ResponseEntity.ok(notificationPage.getContent());
     }
 
+    /**
+     * Get one keyset page of the current user's inbox, newest first. Dismissed notifications are left out,
+     * as in the list above; the message body is only included when asked for.
+     *
+     * @param cursor nextCursor from the previous page, omitted for the first page
+     * @param limit Page size (capped at 100)
+     * @return NotificationInboxPageDto
+     */
+    @GetMapping("/inbox")
+    public ResponseEntity<NotificationInboxPageDto> getInbox(
+            @RequestParam(required = false, defaultValue = "false") boolean unreadOnly,
+            @RequestParam(required = false) NotificationType type,
+            @RequestParam(required = false) Priority priority,
+            @RequestParam(required = false, defaultValue = "false") boolean includeMessage,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "" + NotificationInboxRequestDto.DEFAULT_LIMIT) int limit) {
+
+        User user = userContextService.getRequestingUser();
+        log.info("Getting inbox page for user: {} (unreadOnly: {})", user.getId(), unreadOnly);
+
+        NotificationInboxRequestDto request = NotificationInboxRequestDto.builder()
+                .unreadOnly(unreadOnly)
+                .activeOnly(true)
+                .notificationType(type)
+                .priority(priority)
+                .includeMessage(includeMessage)
+                .cursor(cursor)
+                .limit(limit)
+                .build();
+        return ResponseEntity.ok(notificationService.getInbox(user.getId(), request));
+    }
+
     @GetMapping("/unread-count")
     public ResponseEntity<UnreadCountDto> getUnreadCount() {
         User user = userContextService.getRequestingUser();
@@ -0,0 +1,19 @@
+package com.spmorangle.crm.notification.dto;
+
+import java.util.List;
+
+import com.spmorangle.crm.usermanagement.cache.RecipientProfileCache.RecipientProfile;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Builder
+@Getter
+public class NotificationDigestDto {
+    private final RecipientProfile user;
+    private final List<NotificationDto> notifications;
+    private final String frontendBaseUrl;
+    private final int omittedCount;
+}
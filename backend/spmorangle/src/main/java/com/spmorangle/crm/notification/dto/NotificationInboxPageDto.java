@@ -0,0 +1,17 @@
+package com.spmorangle.crm.notification.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+@AllArgsConstructor
+public class NotificationInboxPageDto {
+    private final List<NotificationDto> items;
+    /** Opaque cursor for the next page, null when there are no more rows. */
+    private final String nextCursor;
+    private final boolean hasMore;
+}
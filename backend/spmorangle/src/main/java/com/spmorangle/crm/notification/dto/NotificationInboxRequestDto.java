@@ -0,0 +1,35 @@
+package com.spmorangle.crm.notification.dto;
+
+import com.spmorangle.common.enums.NotificationType;
+import com.spmorangle.crm.notification.enums.Priority;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Filters and cursor for one keyset page of a user's notification inbox.
+ * The message body is left out of the rows unless {@code includeMessage} is set.
+ */
+@Getter
+@Builder
+public class NotificationInboxRequestDto {
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private final boolean unreadOnly;
+    @Builder.Default
+    private final boolean activeOnly = true;
+    private final NotificationType notificationType;
+    private final Priority priority;
+    private final boolean includeMessage;
+    private final String cursor;
+    @Builder.Default
+    private final int limit = DEFAULT_LIMIT;
+
+    public int getEffectiveLimit() {
+        if (limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
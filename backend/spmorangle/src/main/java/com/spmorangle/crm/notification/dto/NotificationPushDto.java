@@ -0,0 +1,25 @@
+package com.spmorangle.crm.notification.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Payload pushed to a user's notification topic
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class NotificationPushDto {
+
+    // Notifications created since the previous push, oldest first
+    private final List<NotificationDto> notifications;
+
+    // Unread count after these notifications were stored
+    private final int unreadCount;
+
+    // True when older pending notifications were left out; the client should refetch its list
+    private final boolean truncated;
+}
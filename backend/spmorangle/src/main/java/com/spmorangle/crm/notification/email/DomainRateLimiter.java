@@ -0,0 +1,78 @@
+package com.spmorangle.crm.notification.email;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token bucket per recipient domain, so a burst of email to one provider stays under its acceptance rate
+ */
+final class DomainRateLimiter {
+
+    private final double tokensPerMilli;
+    private final double burst;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    DomainRateLimiter(double perSecond, int burst) {
+        this.tokensPerMilli = perSecond / 1000.0;
+        this.burst = Math.max(1, burst);
+    }
+
+    /**
+     * Takes up to {@code wanted} tokens for the domain
+     *
+     * @return how many were granted
+     */
+    int acquire(String domain, int wanted, long now) {
+        Bucket bucket = buckets.computeIfAbsent(domain, d -> new Bucket(burst, now));
+        synchronized (bucket) {
+            bucket.refill(now);
+            int granted = (int) Math.min(wanted, Math.floor(bucket.tokens));
+            bucket.tokens -= granted;
+            return granted;
+        }
+    }
+
+    /**
+     * Milliseconds until the domain has {@code wanted} tokens again
+     */
+    long millisUntilAvailable(String domain, int wanted, long now) {
+        Bucket bucket = buckets.get(domain);
+        if (bucket == null) {
+            return 0;
+        }
+        synchronized (bucket) {
+            bucket.refill(now);
+            double missing = Math.min(wanted, burst) - bucket.tokens;
+            return missing <= 0 ? 0 : (long) Math.ceil(missing / tokensPerMilli);
+        }
+    }
+
+    /**
+     * Drops buckets that have refilled completely, which behave the same as a new one
+     */
+    void evictIdle(long now) {
+        buckets.values().removeIf(bucket -> {
+            synchronized (bucket) {
+                bucket.refill(now);
+                return bucket.tokens >= burst;
+            }
+        });
+    }
+
+    private final class Bucket {
+        private double tokens;
+        private long updatedAt;
+
+        Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+
+        void refill(long now) {
+            if (now > updatedAt) {
+                tokens = Math.min(burst, tokens + (now - updatedAt) * tokensPerMilli);
+                updatedAt = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.spmorangle.crm.notification.email;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import com.spmorangle.crm.notification.model.EmailOutboxMessage;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers email from the outbox.
+ *
+ * Every poll claims a batch of due messages and holds back those over their recipient domain's rate limit.
+ * The rest are split across a fixed number of sender threads, each sending its share over one pooled SMTP
+ * connection. Delivered messages are marked sent; failures are handed back to the outbox for a retry
+ * with backoff. Claims expire, so messages claimed by an instance that stops mid-send are picked up again.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmailDispatcher {
+
+    private static final long PURGE_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    private final EmailOutbox emailOutbox;
+    private final JavaMailSender mailSender;
+
+    @Value("${spring.mail.from:noreply@spmorangle.com}")
+    private String fromEmail = "noreply@spmorangle.com";
+
+    @Value("${notifications.email.dispatch.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${notifications.email.dispatch.poll-ms:1000}")
+    private long pollMillis = 1000;
+
+    @Value("${notifications.email.dispatch.batch-size:200}")
+    private int batchSize = 200;
+
+    @Value("${notifications.email.dispatch.connections:4}")
+    private int connections = 4;
+
+    @Value("${notifications.email.dispatch.max-messages-per-connection:100}")
+    private int maxMessagesPerConnection = 100;
+
+    @Value("${notifications.email.dispatch.idle-connection-ms:30000}")
+    private long idleConnectionMillis = 30_000;
+
+    @Value("${notifications.email.dispatch.lease-ms:300000}")
+    private long leaseMillis = 300_000;
+
+    @Value("${notifications.email.rate-limit.per-second:5}")
+    private double domainRatePerSecond = 5;
+
+    @Value("${notifications.email.rate-limit.burst:20}")
+    private int domainBurst = 20;
+
+    @Value("${notifications.email.outbox.retention-days:7}")
+    private int retentionDays = 7;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder abandoned = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+    private final LongAdder connectionsOpened = new LongAdder();
+
+    private DomainRateLimiter rateLimiter;
+    private SmtpConnectionPool connectionPool;
+    private ScheduledExecutorService scheduler;
+    private ExecutorService senders;
+    private long lastPurgeAt;
+
+    public record Stats(long sent, long retried, long abandoned, long deferred, long connectionsOpened) {
+    }
+
+    @PostConstruct
+    public void start() {
+        rateLimiter = new DomainRateLimiter(domainRatePerSecond, domainBurst);
+        if (!enabled) {
+            return;
+        }
+        if (mailSender instanceof JavaMailSenderImpl impl) {
+            connectionPool = new SmtpConnectionPool(impl, maxMessagesPerConnection, connectionsOpened);
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(connections, runnable -> {
+            Thread thread = new Thread(runnable, "email-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "email-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lastPurgeAt = System.currentTimeMillis();
+        scheduler.scheduleWithFixedDelay(this::pollSafely, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        if (senders != null) {
+            senders.shutdown();
+            try {
+                senders.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            senders = null;
+        }
+        if (connectionPool != null) {
+            connectionPool.close();
+            connectionPool = null;
+        }
+    }
+
+    private void pollSafely() {
+        try {
+            while (dispatch() == batchSize && !Thread.currentThread().isInterrupted()) {
+                // Keep draining while full batches are coming back
+            }
+            long now = System.currentTimeMillis();
+            if (connectionPool != null) {
+                connectionPool.closeIdle(idleConnectionMillis);
+            }
+            rateLimiter.evictIdle(now);
+            if (now - lastPurgeAt >= PURGE_INTERVAL_MILLIS) {
+                lastPurgeAt = now;
+                int purged = emailOutbox.purgeSentBefore(Instant.now().minus(Duration.ofDays(retentionDays)));
+                log.info("Purged {} delivered emails from the outbox", purged);
+            }
+        } catch (Exception e) {
+            log.error("Failed to dispatch outbox email: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Claims and sends one batch, waiting for the sender threads to finish with it
+     *
+     * @return how many messages were claimed
+     */
+    int dispatch() {
+        List<EmailOutboxMessage> claimed = emailOutbox.claim(batchSize, Duration.ofMillis(leaseMillis));
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        long now = System.currentTimeMillis();
+        Map<String, List<EmailOutboxMessage>> byDomain = new LinkedHashMap<>();
+        for (EmailOutboxMessage message : claimed) {
+            byDomain.computeIfAbsent(message.getRecipientDomain(), domain -> new ArrayList<>()).add(message);
+        }
+        List<EmailOutboxMessage> ready = new ArrayList<>(claimed.size());
+        for (Map.Entry<String, List<EmailOutboxMessage>> entry : byDomain.entrySet()) {
+            List<EmailOutboxMessage> messages = entry.getValue();
+            int granted = rateLimiter.acquire(entry.getKey(), messages.size(), now);
+            ready.addAll(messages.subList(0, granted));
+            List<EmailOutboxMessage> held = messages.subList(granted, messages.size());
+            if (!held.isEmpty()) {
+                long wait = Math.max(pollMillis, rateLimiter.millisUntilAvailable(entry.getKey(), held.size(), now));
+                emailOutbox.defer(ids(held), Instant.ofEpochMilli(now + wait));
+                deferred.add(held.size());
+            }
+        }
+
+        List<Future<?>> pending = new ArrayList<>();
+        int perSender = (ready.size() + connections - 1) / connections;
+        for (int start = 0; start < ready.size(); start += perSender) {
+            List<EmailOutboxMessage> share = ready.subList(start, Math.min(start + perSender, ready.size()));
+            pending.add(senders.submit(() -> send(share)));
+        }
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                log.error("Email sender failed: {}", e.getCause().getMessage(), e.getCause());
+            }
+        }
+
+        Stats stats = stats();
+        log.debug("Email outbox: claimed {}, sent {}, retried {}, abandoned {}, deferred {}, connections opened {}",
+                claimed.size(), stats.sent(), stats.retried(), stats.abandoned(), stats.deferred(), stats.connectionsOpened());
+        return claimed.size();
+    }
+
+    private void send(List<EmailOutboxMessage> messages) {
+        List<Outgoing> outgoing = new ArrayList<>(messages.size());
+        List<Long> delivered = new ArrayList<>(messages.size());
+        List<Failure> failed = new ArrayList<>();
+        for (EmailOutboxMessage message : messages) {
+            try {
+                outgoing.add(new Outgoing(message, toMimeMessage(message)));
+            } catch (MessagingException e) {
+                failed.add(new Failure(message, e.getMessage()));
+            }
+        }
+
+        if (connectionPool != null) {
+            sendPooled(outgoing, delivered, failed);
+        } else {
+            sendBatch(outgoing, delivered, failed);
+        }
+
+        emailOutbox.markSent(delivered);
+        sent.add(delivered.size());
+        for (Failure failure : failed) {
+            EmailOutboxMessage message = failure.message();
+            log.warn("Failed to send email {} to {}: {}", message.getId(), message.getRecipient(), failure.error());
+            if (emailOutbox.markFailed(message, failure.error())) {
+                retried.increment();
+            } else {
+                abandoned.increment();
+            }
+        }
+    }
+
+    private void sendPooled(List<Outgoing> outgoing, List<Long> delivered, List<Failure> failed) {
+        SmtpConnectionPool.Connection connection = null;
+        for (int i = 0; i < outgoing.size(); i++) {
+            Outgoing next = outgoing.get(i);
+            if (connection == null) {
+                try {
+                    connection = connectionPool.borrow();
+                } catch (MessagingException e) {
+                    // The server is unreachable; fail the rest now rather than reconnecting for each
+                    outgoing.subList(i, outgoing.size()).forEach(rest -> failed.add(new Failure(rest.message(), e.getMessage())));
+                    return;
+                }
+            }
+            try {
+                connection.send(next.mimeMessage());
+                delivered.add(next.message().getId());
+            } catch (SendFailedException e) {
+                // Rejected recipient; the session itself is still usable
+                failed.add(new Failure(next.message(), e.getMessage()));
+            } catch (MessagingException e) {
+                failed.add(new Failure(next.message(), e.getMessage()));
+                connectionPool.discard(connection);
+                connection = null;
+            }
+        }
+        if (connection != null) {
+            connectionPool.release(connection);
+        }
+    }
+
+    private void sendBatch(List<Outgoing> outgoing, List<Long> delivered, List<Failure> failed) {
+        if (outgoing.isEmpty()) {
+            return;
+        }
+        // JavaMailSender sends the whole array over one connection and reports failures per message
+        Map<Object, Exception> rejected = new IdentityHashMap<>();
+        try {
+            mailSender.send(outgoing.stream().map(Outgoing::mimeMessage).toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            rejected.putAll(e.getFailedMessages());
+            if (rejected.isEmpty()) {
+                outgoing.forEach(next -> rejected.put(next.mimeMessage(), e));
+            }
+        } catch (MailException e) {
+            outgoing.forEach(next -> rejected.put(next.mimeMessage(), e));
+        }
+        for (Outgoing next : outgoing) {
+            Exception error = rejected.get(next.mimeMessage());
+            if (error == null) {
+                delivered.add(next.message().getId());
+            } else {
+                failed.add(new Failure(next.message(), error.getMessage()));
+            }
+        }
+    }
+
+    private MimeMessage toMimeMessage(EmailOutboxMessage message) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(message.getRecipient());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getBody(), message.isHtml());
+        return mimeMessage;
+    }
+
+    public Stats stats() {
+        return new Stats(sent.sum(), retried.sum(), abandoned.sum(), deferred.sum(), connectionsOpened.sum());
+    }
+
+    private record Outgoing(EmailOutboxMessage message, MimeMessage mimeMessage) {
+    }
+
+    private record Failure(EmailOutboxMessage message, String error) {
+    }
+
+    private static List<Long> ids(List<EmailOutboxMessage> messages) {
+        return messages.stream().map(EmailOutboxMessage::getId).toList();
+    }
+}
@@ -0,0 +1,134 @@
+package com.spmorangle.crm.notification.email;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.spmorangle.crm.notification.enums.EmailOutboxStatus;
+import com.spmorangle.crm.notification.model.EmailOutboxMessage;
+import com.spmorangle.crm.notification.repository.EmailOutboxRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Durable queue of outgoing email.
+ *
+ * Callers only insert a row, so sending never waits on SMTP. The dispatcher claims due rows, which marks
+ * them SENDING until a lease expires, and reports back whether each one was delivered. Failed messages are
+ * retried with exponential backoff and jitter until the attempt limit, after which they stay FAILED.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmailOutbox {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+
+    @Value("${notifications.email.outbox.max-attempts:6}")
+    private int maxAttempts = 6;
+
+    @Value("${notifications.email.outbox.initial-backoff-ms:30000}")
+    private long initialBackoffMillis = 30_000;
+
+    @Value("${notifications.email.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMillis = 3_600_000;
+
+    @Transactional
+    public EmailOutboxMessage enqueue(String recipient, String subject, String body, boolean html) {
+        if (recipient == null || recipient.isBlank()) {
+            throw new IllegalArgumentException("Email recipient is required");
+        }
+        String address = recipient.trim();
+        int at = address.lastIndexOf('@');
+        if (at <= 0 || at == address.length() - 1) {
+            throw new IllegalArgumentException("Invalid email recipient: " + recipient);
+        }
+
+        EmailOutboxMessage message = EmailOutboxMessage.builder()
+                .recipient(address)
+                .recipientDomain(address.substring(at + 1).toLowerCase(Locale.ROOT))
+                .subject(subject != null ? subject : "")
+                .body(body != null ? body : "")
+                .html(html)
+                .nextAttemptAt(Instant.now())
+                .build();
+        return emailOutboxRepository.save(message);
+    }
+
+    /**
+     * Claims up to {@code limit} due messages for sending until the lease expires
+     */
+    @Transactional
+    public List<EmailOutboxMessage> claim(int limit, Duration lease) {
+        Instant now = Instant.now();
+        List<EmailOutboxMessage> due = emailOutboxRepository.findDueForUpdate(now, PageRequest.of(0, limit));
+        for (EmailOutboxMessage message : due) {
+            message.setStatus(EmailOutboxStatus.SENDING);
+            message.setNextAttemptAt(now.plus(lease));
+        }
+        return emailOutboxRepository.saveAll(due);
+    }
+
+    @Transactional
+    public void markSent(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            emailOutboxRepository.markSent(ids, Instant.now());
+        }
+    }
+
+    /**
+     * Returns claimed messages to the queue without using up an attempt, e.g. when rate limited
+     */
+    @Transactional
+    public void defer(Collection<Long> ids, Instant nextAttemptAt) {
+        if (!ids.isEmpty()) {
+            emailOutboxRepository.defer(ids, nextAttemptAt);
+        }
+    }
+
+    /**
+     * Records a failed attempt and schedules the next one, or gives up after the last attempt
+     *
+     * @return whether the message will be retried
+     */
+    @Transactional
+    public boolean markFailed(EmailOutboxMessage message, String error) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setLastError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        if (attempts >= maxAttempts) {
+            message.setStatus(EmailOutboxStatus.FAILED);
+            log.error("Giving up on email {} to {} after {} attempts: {}", message.getId(), message.getRecipient(), attempts, error);
+        } else {
+            message.setStatus(EmailOutboxStatus.PENDING);
+            message.setNextAttemptAt(Instant.now().plusMillis(backoffMillis(attempts)));
+        }
+        emailOutboxRepository.save(message);
+        return message.getStatus() == EmailOutboxStatus.PENDING;
+    }
+
+    @Transactional
+    public int purgeSentBefore(Instant cutoff) {
+        return emailOutboxRepository.deleteSentBefore(cutoff);
+    }
+
+    /**
+     * Doubles per attempt up to the cap, with up to 20% jitter so retries of one outage spread out
+     */
+    long backoffMillis(int attempts) {
+        long backoff = initialBackoffMillis << Math.min(attempts - 1, 20);
+        backoff = Math.min(backoff, maxBackoffMillis);
+        return backoff + ThreadLocalRandom.current().nextLong(backoff / 5 + 1);
+    }
+}
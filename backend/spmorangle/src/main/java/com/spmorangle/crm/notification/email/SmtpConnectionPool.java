@@ -0,0 +1,116 @@
+package com.spmorangle.crm.notification.email;
+
+import java.util.Date;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Open SMTP transports kept between sends, so each message does not pay for a new TCP, TLS and AUTH
+ * handshake. A connection is retired after a fixed number of messages, since servers cap messages per
+ * session, and closed once it has been idle for a while. The pool holds at most as many connections as
+ * threads borrow from it at once.
+ */
+@Slf4j
+final class SmtpConnectionPool {
+
+    private final JavaMailSenderImpl mailSender;
+    private final int maxMessagesPerConnection;
+    private final LongAdder opened;
+    private final BlockingDeque<Connection> idle = new LinkedBlockingDeque<>();
+
+    SmtpConnectionPool(JavaMailSenderImpl mailSender, int maxMessagesPerConnection, LongAdder opened) {
+        this.mailSender = mailSender;
+        this.maxMessagesPerConnection = Math.max(1, maxMessagesPerConnection);
+        this.opened = opened;
+    }
+
+    Connection borrow() throws MessagingException {
+        Connection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            if (connection.transport.isConnected()) {
+                return connection;
+            }
+            close(connection);
+        }
+        return open();
+    }
+
+    void release(Connection connection) {
+        if (connection.sent >= maxMessagesPerConnection) {
+            close(connection);
+            return;
+        }
+        connection.lastUsedAt = System.currentTimeMillis();
+        // Most recently used first, so surplus connections at the back go idle and get closed
+        idle.offerFirst(connection);
+    }
+
+    /**
+     * Drops a connection after an error that may have left it unusable
+     */
+    void discard(Connection connection) {
+        close(connection);
+    }
+
+    void closeIdle(long idleMillis) {
+        long cutoff = System.currentTimeMillis() - idleMillis;
+        for (Connection connection : idle) {
+            if (connection.lastUsedAt < cutoff && idle.remove(connection)) {
+                close(connection);
+            }
+        }
+    }
+
+    void close() {
+        Connection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            close(connection);
+        }
+    }
+
+    private Connection open() throws MessagingException {
+        String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : JavaMailSenderImpl.DEFAULT_PROTOCOL;
+        Transport transport = mailSender.getSession().getTransport(protocol);
+        String username = mailSender.getUsername();
+        String password = mailSender.getPassword();
+        transport.connect(mailSender.getHost(), mailSender.getPort(),
+                username == null || username.isEmpty() ? null : username, password);
+        opened.increment();
+        return new Connection(transport);
+    }
+
+    private static void close(Connection connection) {
+        try {
+            connection.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Failed to close SMTP connection cleanly: {}", e.getMessage());
+        }
+    }
+
+    static final class Connection {
+        private final Transport transport;
+        private int sent;
+        private volatile long lastUsedAt;
+
+        private Connection(Transport transport) {
+            this.transport = transport;
+        }
+
+        void send(MimeMessage message) throws MessagingException {
+            if (message.getSentDate() == null) {
+                message.setSentDate(new Date());
+            }
+            message.saveChanges();
+            transport.sendMessage(message, message.getAllRecipients());
+            sent++;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.spmorangle.crm.notification.enums;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
@@ -1,8 +1,14 @@
 package com.spmorangle.crm.notification.messaging.consumer;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
@@ -14,8 +20,10 @@ import com.spmorangle.crm.notification.enums.Channel;
 import com.spmorangle.crm.notification.messaging.dto.CommentNotificationMessageDto;
 import com.spmorangle.crm.notification.service.EmailService;
 import com.spmorangle.crm.notification.service.NotificationService;
+import com.spmorangle.crm.notification.push.NotificationPushService;
 import com.spmorangle.crm.taskmanagement.repository.TaskAssigneeRepository;
-import com.spmorangle.crm.usermanagement.service.UserManagementService;
+import com.spmorangle.crm.usermanagement.cache.RecipientProfileCache;
+import com.spmorangle.crm.usermanagement.cache.RecipientProfileCache.RecipientProfile;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,58 +34,72 @@ import lombok.extern.slf4j.Slf4j;
 public class CommentNotificationConsumer {
 
     private final NotificationService notificationService;
-    private final UserManagementService userManagementService; // To get user email
+    private final RecipientProfileCache recipientProfileCache; // To get user email
     private final EmailService emailService;
     private final TaskAssigneeRepository taskAssigneeRepository; // To get current assignees
     private final FrontendConfig frontendConfig;
+    private final NotificationPushService notificationPushService;
+
+    @RabbitListener(queues = RabbitMQConfig.COMMENT_QUEUE,
+            containerFactory = RabbitMQConfig.NOTIFICATION_BATCH_LISTENER_FACTORY)
+    public void handleCommentNotifications(List<Message> messages, com.rabbitmq.client.Channel channel)
+            throws IOException {
+        log.info("🔔 RECEIVED batch of {} comment notification messages", messages.size());
+        NotificationBatchSupport.process(messages, channel, CommentNotificationMessageDto.class, this::processMessages);
+    }
 
-    @RabbitListener(queues = RabbitMQConfig.COMMENT_QUEUE)
-    public void handleCommentNotification(CommentNotificationMessageDto message) {
-        log.info("🔔 RECEIVED comment notification message: {} for comment: {}", 
-                message.getEventType(), message.getCommentId());
-        log.info("📋 Message details - Has Mentions: {}, Mentioned Users: {}, Author: {}", 
-                message.hasMentions(), message.getMentionedUserIds(), message.getAuthorId());
-
+    /**
+     * Handles the messages as one unit: a single bulk insert of every in-app notification, then one
+     * lookup for the email recipients among them
+     */
+    private void processMessages(List<CommentNotificationMessageDto> messages) {
         try {
             // Step 1: Create in-app notifications (existing logic)
             List<CreateNotificationDto> notificationsToCreate = new ArrayList<>();
-            
-            switch (message.getEventType()) {
-                case "COMMENT_CREATED":
-                    notificationsToCreate.addAll(processCommentCreated(message));
-                    break;
-                case "COMMENT_REPLY":
-                    notificationsToCreate.addAll(processCommentReply(message));
-                    break;
-                case "MENTION":
-                    notificationsToCreate.addAll(processMentions(message));
-                    break;
-                default:
-                    log.warn("Unknown event type: {}", message.getEventType());
-                    return;
+            for (CommentNotificationMessageDto message : messages) {
+                log.info("📋 Message details - Event: {}, Comment: {}, Has Mentions: {}, Mentioned Users: {}, Author: {}",
+                        message.getEventType(), message.getCommentId(), message.hasMentions(),
+                        message.getMentionedUserIds(), message.getAuthorId());
+                notificationsToCreate.addAll(buildNotifications(message));
             }
 
             // Step 2: Save in-app notifications to database
             List<NotificationDto> createdNotifications = List.of();
             if (!notificationsToCreate.isEmpty()) {
-                log.info("Creating {} in-app notifications for message: {}", 
-                        notificationsToCreate.size(), message.getMessageId());
+                log.info("Creating {} in-app notifications for {} messages",
+                        notificationsToCreate.size(), messages.size());
                 createdNotifications = notificationService.createBulkNotifications(notificationsToCreate);
+                notificationPushService.push(createdNotifications);
             }
 
             // Step 3: Send external notifications (EMAIL, SMS)
             sendExternalNotifications(createdNotifications);
 
-            log.info("Successfully processed comment notification message: {}", message.getMessageId());
+            log.info("Successfully processed {} comment notification messages", messages.size());
 
         } catch (Exception e) {
-            log.error("Error processing comment notification message {}: {}", 
-                    message.getMessageId(), e.getMessage(), e);
+            log.error("Error processing {} comment notification messages: {}",
+                    messages.size(), e.getMessage(), e);
             throw e;
         }
     }
 
+    private List<CreateNotificationDto> buildNotifications(CommentNotificationMessageDto message) {
+        switch (message.getEventType()) {
+            case "COMMENT_CREATED":
+                return processCommentCreated(message);
+            case "COMMENT_REPLY":
+                return processCommentReply(message);
+            case "MENTION":
+                return processMentions(message);
+            default:
+                log.warn("Unknown event type: {}", message.getEventType());
+                return List.of();
+        }
+    }
+
     private void sendExternalNotifications(List<NotificationDto> notifications) {
+        Map<Long, String> emails = getUserEmails(notifications);
         for (NotificationDto notification : notifications) {
             for (Channel channel : notification.getChannels()) {
                 try {
@@ -87,7 +109,7 @@ public class CommentNotificationConsumer {
                             break;
                             
                         case EMAIL:
-                            sendEmailNotification(notification);
+                            sendEmailNotification(notification, emails);
                             break;
                             
                         default:
@@ -102,12 +124,12 @@ public class CommentNotificationConsumer {
         }
     }
 
-    private void sendEmailNotification(NotificationDto notification) {
+    private void sendEmailNotification(NotificationDto notification, Map<Long, String> emails) {
         log.info("Sending email notification to user: {}", notification.getTargetId());
         
         try {
             // Get user email address
-            String userEmail = getUserEmail(notification.getTargetId());
+            String userEmail = emails.get(notification.getTargetId());
             if (userEmail == null || userEmail.trim().isEmpty()) {
                 log.warn("No email address found for user: {}", notification.getTargetId());
                 return;
@@ -130,14 +152,30 @@ public class CommentNotificationConsumer {
         }
     }
 
-    private String getUserEmail(Long userId) {
+    /**
+     * Looks up the email addresses of every email recipient at once
+     */
+    private Map<Long, String> getUserEmails(List<NotificationDto> notifications) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (NotificationDto notification : notifications) {
+            if (notification.getChannels() != null && notification.getChannels().contains(Channel.EMAIL)) {
+                userIds.add(notification.getTargetId());
+            }
+        }
+        Map<Long, String> emails = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return emails;
+        }
         try {
-            var user = userManagementService.getUserById(userId);
-            return user.email(); // UserResponseDto is a record with email() method
+            for (RecipientProfile user : recipientProfileCache.getAll(userIds).values()) {
+                if (user.email() != null) {
+                    emails.put(user.id(), user.email());
+                }
+            }
         } catch (Exception e) {
-            log.error("Failed to get email for user {}: {}", userId, e.getMessage());
-            return null;
+            log.error("Failed to get emails for users {}: {}", userIds, e.getMessage());
         }
+        return emails;
     }
 
     private String formatEmailBody(NotificationDto notification) {
@@ -0,0 +1,92 @@
+package com.spmorangle.crm.notification.messaging.consumer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.support.converter.Jackson2JavaTypeMapper;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import com.rabbitmq.client.Channel;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Acknowledgement handling shared by the batch notification listeners.
+ *
+ * A batch is handled as a unit first. If that fails, each message is handled on its own so one bad
+ * message does not hold back the rest. Messages that cannot be converted or still fail alone are
+ * rejected without requeue, which the queue's dead-letter exchange routes to the notification DLQ.
+ * Handlers must leave nothing stored when they throw, since a failed batch is replayed message by message.
+ */
+@Slf4j
+final class NotificationBatchSupport {
+
+    private static final Jackson2JsonMessageConverter CONVERTER = new Jackson2JsonMessageConverter();
+
+    static {
+        // Convert to the listener's type rather than the publisher's __TypeId__ header
+        CONVERTER.setTypePrecedence(Jackson2JavaTypeMapper.TypePrecedence.INFERRED);
+    }
+
+    private NotificationBatchSupport() {
+    }
+
+    static <T> void process(List<Message> messages, Channel channel, Class<T> type, Consumer<List<T>> handler)
+            throws IOException {
+        List<T> payloads = new ArrayList<>(messages.size());
+        List<Message> converted = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            try {
+                message.getMessageProperties().setInferredArgumentType(type);
+                payloads.add(type.cast(CONVERTER.fromMessage(message)));
+                converted.add(message);
+            } catch (Exception e) {
+                log.error("Rejecting unreadable {} message: {}", type.getSimpleName(), e.getMessage());
+                reject(channel, message);
+            }
+        }
+        if (payloads.isEmpty()) {
+            return;
+        }
+
+        if (handle(handler, payloads)) {
+            for (Message message : converted) {
+                channel.basicAck(deliveryTag(message), false);
+            }
+            return;
+        }
+        log.warn("Batch of {} {} messages failed, retrying one by one", payloads.size(), type.getSimpleName());
+
+        for (int i = 0; i < payloads.size(); i++) {
+            Message message = converted.get(i);
+            if (handle(handler, List.of(payloads.get(i)))) {
+                channel.basicAck(deliveryTag(message), false);
+            } else {
+                log.error("Routing {} message with delivery tag {} to the dead letter queue",
+                        type.getSimpleName(), deliveryTag(message));
+                reject(channel, message);
+            }
+        }
+    }
+
+    private static <T> boolean handle(Consumer<List<T>> handler, List<T> payloads) {
+        try {
+            handler.accept(payloads);
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to handle {} notification messages: {}", payloads.size(), e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private static void reject(Channel channel, Message message) throws IOException {
+        channel.basicNack(deliveryTag(message), false, false);
+    }
+
+    private static long deliveryTag(Message message) {
+        return message.getMessageProperties().getDeliveryTag();
+    }
+}
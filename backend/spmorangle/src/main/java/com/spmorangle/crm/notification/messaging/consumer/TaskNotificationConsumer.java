@@ -1,21 +1,32 @@
 package com.spmorangle.crm.notification.messaging.consumer;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.spmorangle.common.config.FrontendConfig;
 import com.spmorangle.common.config.RabbitMQConfig;
+import com.spmorangle.crm.notification.coalesce.NotificationCoalescer;
 import com.spmorangle.crm.notification.dto.CreateNotificationDto;
 import com.spmorangle.crm.notification.dto.NotificationDto;
 import com.spmorangle.crm.notification.enums.Channel;
 import com.spmorangle.crm.notification.messaging.dto.TaskNotificationMessageDto;
 import com.spmorangle.crm.notification.service.EmailService;
 import com.spmorangle.crm.notification.service.NotificationService;
-import com.spmorangle.crm.usermanagement.dto.UserResponseDto;
-import com.spmorangle.crm.usermanagement.service.UserManagementService;
+import com.spmorangle.crm.notification.push.NotificationPushService;
+import com.spmorangle.crm.notification.template.HtmlTemplate;
+import com.spmorangle.crm.usermanagement.cache.RecipientProfileCache;
+import com.spmorangle.crm.usermanagement.cache.RecipientProfileCache.RecipientProfile;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,65 +37,145 @@ import lombok.extern.slf4j.Slf4j;
 public class TaskNotificationConsumer {
 
     private final NotificationService notificationService;
-    private final UserManagementService userManagementService;
+    private final RecipientProfileCache recipientProfileCache;
     private final EmailService emailService;
     private final FrontendConfig frontendConfig;
+    private final NotificationPushService notificationPushService;
+    private final NotificationCoalescer notificationCoalescer;
+    private final PlatformTransactionManager transactionManager;
 
-    @RabbitListener(queues = RabbitMQConfig.TASK_QUEUE)
-    public void handleTaskNotification(TaskNotificationMessageDto message) {
-        log.info("🔔 RECEIVED task notification message: {} for task: {}",
-                message.getEventType(), message.getTaskId());
-        log.info("📋 Message details - Event: {}, Author: {}, Assignees: {}",
-                message.getEventType(), message.getAuthorId(), message.getAssignedUserIds());
+    private static final HtmlTemplate NOTIFICATION_EMAIL = HtmlTemplate.compile("""
+            <html>
+            <body style="font-family: Arial, sans-serif;">
+                <h2 style="color: #007bff;">{{subject}}</h2>
+                <p>Hi {{name}},</p>
+                <div style="border-left: 4px solid #007bff; padding-left: 15px; margin: 20px 0; background-color: #f8f9fa; padding: 15px;">
+                    <p>{{message}}</p>
+                    {{{taskLink}}}
+                </div>
+                <p>Best regards,<br><strong>SPM Orange Team</strong></p>
+            </body>
+            </html>
+            """);
 
+    private static final HtmlTemplate TASK_LINK = HtmlTemplate.compile(
+            "<p><a href=\"{{url}}\" style=\"display: inline-block; margin-top: 10px; padding: 10px 20px; background-color: #007bff; color: white; text-decoration: none; border-radius: 5px;\">View Task</a></p>");
+
+    @RabbitListener(queues = RabbitMQConfig.TASK_QUEUE,
+            containerFactory = RabbitMQConfig.NOTIFICATION_BATCH_LISTENER_FACTORY)
+    public void handleTaskNotifications(List<Message> messages, com.rabbitmq.client.Channel channel)
+            throws IOException {
+        log.info("🔔 RECEIVED batch of {} task notification messages", messages.size());
+        NotificationBatchSupport.process(messages, channel, TaskNotificationMessageDto.class, this::processMessages);
+    }
+
+    /**
+     * Handles the messages as one unit: a single user lookup, a single bulk insert of every in-app
+     * notification, then pushes and emails for what was stored. Bursts of update events go to the coalescer,
+     * which stores and emails them itself. They are buffered in the same transaction as the bulk insert, so
+     * the messages are only acknowledged once both are saved, and a failed batch replayed message by message
+     * neither loses them nor counts them twice.
+     */
+    private void processMessages(List<TaskNotificationMessageDto> messages) {
         try {
+            Map<Long, RecipientProfile> users = getUsers(messages);
+
             // Step 1: Create in-app notifications
             List<CreateNotificationDto> notificationsToCreate = new ArrayList<>();
-
-            switch (message.getEventType()) {
-                case "TASK_CREATED":
-                    notificationsToCreate.addAll(processTaskCreated(message));
-                    break;
-                case "TASK_ASSIGNED":
-                    notificationsToCreate.addAll(processTaskAssigned(message));
-                    break;
-                case "TASK_COMPLETED":
-                    notificationsToCreate.addAll(processTaskCompleted(message));
-                    break;
-                case "TASK_UPDATED":
-                    notificationsToCreate.addAll(processTaskUpdated(message));
-                    break;
-                case "STATUS_UPDATED":
-                    notificationsToCreate.addAll(processStatusUpdated(message));
-                    break;
-                case "TASK_UNASSIGNED":
-                    notificationsToCreate.addAll(processTaskUnassigned(message));
-                    break;
-                default:
-                    log.warn("Unknown event type: {}", message.getEventType());
-                    return;
+            List<CoalescedNotifications> toCoalesce = new ArrayList<>();
+            for (TaskNotificationMessageDto message : messages) {
+                log.info("📋 Message details - Event: {}, Task: {}, Author: {}, Assignees: {}",
+                        message.getEventType(), message.getTaskId(), message.getAuthorId(), message.getAssignedUserIds());
+                List<CreateNotificationDto> notifications = buildNotifications(message, users);
+                if (notificationCoalescer.coalesces(message.getTaskId(), message.getEventType())) {
+                    toCoalesce.add(new CoalescedNotifications(message.getTaskId(), message.getEventType(), notifications));
+                } else {
+                    notificationsToCreate.addAll(notifications);
+                }
             }
 
-            // Step 2: Save in-app notifications to database
-            List<NotificationDto> createdNotifications = List.of();
-            if (!notificationsToCreate.isEmpty()) {
-                log.info("Creating {} in-app notifications for message: {}",
-                        notificationsToCreate.size(), message.getMessageId());
-                createdNotifications = notificationService.createBulkNotifications(notificationsToCreate);
+            // Step 2: Save in-app notifications and hand update bursts to the coalescer, together
+            List<NotificationDto> createdNotifications = new TransactionTemplate(transactionManager).execute(status -> {
+                List<NotificationDto> created = store(notificationsToCreate, messages.size());
+                for (CoalescedNotifications offered : toCoalesce) {
+                    notificationCoalescer.offer(offered.taskId(), offered.eventType(), offered.notifications());
+                }
+                return created;
+            });
+            if (createdNotifications == null || createdNotifications.isEmpty()) {
+                createdNotifications = List.of();
+            } else {
+                notificationPushService.push(createdNotifications);
             }
 
             // Step 3: Send external notifications (EMAIL)
-            sendExternalNotifications(createdNotifications);
+            sendExternalNotifications(createdNotifications, users);
 
-            log.info("Successfully processed task notification message: {}", message.getMessageId());
+            log.info("Successfully processed {} task notification messages", messages.size());
 
         } catch (Exception e) {
-            log.error("Error processing task notification message {}: {}",
-                    message.getMessageId(), e.getMessage(), e);
+            log.error("Error processing {} task notification messages: {}",
+                    messages.size(), e.getMessage(), e);
             throw e;
         }
     }
 
+    private List<NotificationDto> store(List<CreateNotificationDto> notificationsToCreate, int messageCount) {
+        if (notificationsToCreate.isEmpty()) {
+            return List.of();
+        }
+        log.info("Creating {} in-app notifications for {} messages", notificationsToCreate.size(), messageCount);
+        return notificationService.createBulkNotifications(notificationsToCreate);
+    }
+
+    private record CoalescedNotifications(Long taskId, String eventType, List<CreateNotificationDto> notifications) {
+    }
+
+    private List<CreateNotificationDto> buildNotifications(TaskNotificationMessageDto message,
+                                                           Map<Long, RecipientProfile> users) {
+        switch (message.getEventType()) {
+            case "TASK_CREATED":
+                return processTaskCreated(message);
+            case "TASK_ASSIGNED":
+                return processTaskAssigned(message);
+            case "TASK_COMPLETED":
+                return processTaskCompleted(message);
+            case "TASK_UPDATED":
+                return processTaskUpdated(message);
+            case "STATUS_UPDATED":
+                return processStatusUpdated(message, users);
+            case "TASK_UNASSIGNED":
+                return processTaskUnassigned(message);
+            default:
+                log.warn("Unknown event type: {}", message.getEventType());
+                return List.of();
+        }
+    }
+
+    /**
+     * Looks up every author and assignee of the messages at once; authors are needed for editor names
+     */
+    private Map<Long, RecipientProfile> getUsers(List<TaskNotificationMessageDto> messages) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (TaskNotificationMessageDto message : messages) {
+            if (message.getAuthorId() != null) {
+                userIds.add(message.getAuthorId());
+            }
+            if (message.hasAssignees()) {
+                userIds.addAll(message.getAssignedUserIds());
+            }
+        }
+        if (userIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        try {
+            return recipientProfileCache.getAll(userIds);
+        } catch (Exception e) {
+            log.error("Failed to get users {}: {}", userIds, e.getMessage());
+            return new HashMap<>();
+        }
+    }
+
     private List<CreateNotificationDto> processTaskCreated(TaskNotificationMessageDto message) {
         List<CreateNotificationDto> notifications = new ArrayList<>();
         log.info("🔄 Processing TASK_CREATED for {} assignees", 
@@ -189,7 +280,8 @@ public class TaskNotificationConsumer {
         return notifications;
     }
 
-    private List<CreateNotificationDto> processStatusUpdated(TaskNotificationMessageDto message) {
+    private List<CreateNotificationDto> processStatusUpdated(TaskNotificationMessageDto message,
+                                                             Map<Long, RecipientProfile> users) {
         List<CreateNotificationDto> notifications = new ArrayList<>();
         log.info("🔄 Processing STATUS_UPDATED for {} assignees",
                 message.hasAssignees() ? message.getAssignedUserIds().size() : 0);
@@ -202,7 +294,7 @@ public class TaskNotificationConsumer {
                         message.getTaskTitle(),
                         message.getPrevTaskStatus(),
                         message.getTaskStatus(),
-                        getEditorName(message.getAuthorId())
+                        getEditorName(message.getAuthorId(), users)
                     );
                     notifications.add(CreateNotificationDto.builder()
                             .authorId(message.getAuthorId())
@@ -246,7 +338,7 @@ public class TaskNotificationConsumer {
         return notifications;
     }
 
-    private void sendExternalNotifications(List<NotificationDto> notifications) {
+    private void sendExternalNotifications(List<NotificationDto> notifications, Map<Long, RecipientProfile> users) {
         for (NotificationDto notification : notifications) {
             for (Channel channel : notification.getChannels()) {
                 try {
@@ -256,7 +348,7 @@ public class TaskNotificationConsumer {
                             break;
 
                         case EMAIL:
-                            sendEmailNotification(notification);
+                            sendEmailNotification(notification, users);
                             break;
 
                         default:
@@ -270,18 +362,19 @@ public class TaskNotificationConsumer {
         }
     }
 
-    private void sendEmailNotification(NotificationDto notification) {
+    private void sendEmailNotification(NotificationDto notification, Map<Long, RecipientProfile> users) {
         log.info("Sending email notification to user: {}", notification.getTargetId());
 
         try {
-            String userEmail = getUserEmail(notification.getTargetId());
+            RecipientProfile user = users.get(notification.getTargetId());
+            String userEmail = user != null ? user.email() : null;
             if (userEmail == null || userEmail.trim().isEmpty()) {
                 log.warn("No email address found for user: {}", notification.getTargetId());
                 return;
             }
 
             String emailSubject = notification.getSubject();
-            String emailBody = formatEmailBodyHtml(notification);
+            String emailBody = formatEmailBodyHtml(notification, user);
 
             emailService.sendHtmlEmail(userEmail, emailSubject, emailBody);
 
@@ -294,65 +387,24 @@ public class TaskNotificationConsumer {
         }
     }
 
-    private String getUserEmail(Long userId) {
-        try {
-            var user = userManagementService.getUserById(userId);
-            return user.email();
-        } catch (Exception e) {
-            log.error("Failed to get email for user {}: {}", userId, e.getMessage());
-            return null;
-        }
-    }
-
-    private String formatEmailBodyHtml(NotificationDto notification) {
-        String userName = getUserName(notification.getTargetId());
-        String taskLink = "";
-
-        if (notification.getLink() != null) {
-            String fullUrl = frontendConfig.getBaseUrl() + notification.getLink();
-            taskLink = String.format(
-                "<p><a href=\"%s\" style=\"display: inline-block; margin-top: 10px; padding: 10px 20px; background-color: #007bff; color: white; text-decoration: none; border-radius: 5px;\">View Task</a></p>",
-                fullUrl
-            );
-        }
-
-        return String.format("""
-            <html>
-            <body style="font-family: Arial, sans-serif;">
-                <h2 style="color: #007bff;">%s</h2>
-                <p>Hi %s,</p>
-                <div style="border-left: 4px solid #007bff; padding-left: 15px; margin: 20px 0; background-color: #f8f9fa; padding: 15px;">
-                    <p>%s</p>
-                    %s
-                </div>
-                <p>Best regards,<br><strong>SPM Orange Team</strong></p>
-            </body>
-            </html>
-            """,
-            notification.getSubject(),
-            userName,
-            notification.getMessage(),
-            taskLink
-        );
-    }
+    private String formatEmailBodyHtml(NotificationDto notification, RecipientProfile user) {
+        String taskLink = notification.getLink() != null
+                ? TASK_LINK.render(HtmlTemplate.values().with("url", frontendConfig.getBaseUrl() + notification.getLink()))
+                : null;
 
-    private String getUserName(Long userId) {
-        try {
-            UserResponseDto user = userManagementService.getUserById(userId);
-            return user.username();
-        } catch (Exception e) {
-            log.error("Failed to get username for userid {}: {}", userId, e.getMessage());
-            return "User";
-        }
+        return NOTIFICATION_EMAIL.render(HtmlTemplate.values()
+                .with("subject", notification.getSubject())
+                .with("name", user.username())
+                .with("message", notification.getMessage())
+                .with("taskLink", taskLink));
     }
 
-    private String getEditorName(Long userId) {
-        try {
-            UserResponseDto user = userManagementService.getUserById(userId);
-            return user.username();
-        } catch (Exception e) {
-            log.error("Failed to get username for userid {}: {}", userId, e.getMessage());
+    private String getEditorName(Long userId, Map<Long, RecipientProfile> users) {
+        RecipientProfile user = users.get(userId);
+        if (user == null) {
+            log.error("Failed to get username for userid {}", userId);
             return "Unknown User";
         }
+        return user.username();
     }
 }
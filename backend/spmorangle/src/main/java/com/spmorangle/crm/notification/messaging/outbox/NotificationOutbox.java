@@ -0,0 +1,108 @@
+package com.spmorangle.crm.notification.messaging.outbox;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.spmorangle.crm.notification.model.NotificationOutboxMessage;
+import com.spmorangle.crm.notification.repository.NotificationOutboxRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Notification messages waiting to be published, stored in the caller's transaction.
+ *
+ * A message is serialized with the same converter the RabbitTemplate uses, so what the relay publishes
+ * later is identical to what used to be sent directly. Rows are deleted once the broker confirms them;
+ * rows the broker rejected or did not confirm in time are retried with exponential backoff.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationOutbox {
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final MessageConverter messageConverter;
+
+    @Value("${notifications.outbox.initial-backoff-ms:1000}")
+    private long initialBackoffMillis = 1000;
+
+    @Value("${notifications.outbox.max-backoff-ms:300000}")
+    private long maxBackoffMillis = 300_000;
+
+    /**
+     * Stores a message for publishing; joins the current transaction, so a rollback discards it
+     */
+    @Transactional
+    public NotificationOutboxMessage enqueue(String exchange, String routingKey, Object payload, String messageId) {
+        Message message = messageConverter.toMessage(payload, new MessageProperties());
+        Object typeId = message.getMessageProperties().getHeaders().get(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME);
+        return notificationOutboxRepository.save(NotificationOutboxMessage.builder()
+                .exchange(exchange)
+                .routingKey(routingKey)
+                .messageId(messageId)
+                .typeId(typeId != null ? typeId.toString() : null)
+                .payload(new String(message.getBody(), StandardCharsets.UTF_8))
+                .build());
+    }
+
+    /**
+     * Claims up to {@code limit} due messages for publishing until the lease expires
+     */
+    @Transactional
+    public List<NotificationOutboxMessage> claim(int limit, Duration lease) {
+        Instant now = Instant.now();
+        List<NotificationOutboxMessage> due = notificationOutboxRepository.findDueForUpdate(now, PageRequest.of(0, limit));
+        if (!due.isEmpty()) {
+            notificationOutboxRepository.lease(due.stream().map(NotificationOutboxMessage::getId).toList(), now.plus(lease));
+        }
+        return due;
+    }
+
+    /**
+     * Removes messages the broker has confirmed
+     */
+    @Transactional
+    public void delete(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            notificationOutboxRepository.deleteByIds(ids);
+        }
+    }
+
+    /**
+     * Schedules another publish attempt for each message after a backoff based on its attempts so far
+     */
+    @Transactional
+    public void retry(Collection<NotificationOutboxMessage> messages, String error) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        String lastError = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        for (NotificationOutboxMessage message : messages) {
+            message.setAttempts(message.getAttempts() + 1);
+            message.setLastError(lastError);
+            message.setNextAttemptAt(now.plusMillis(backoffMillis(message.getAttempts())));
+        }
+        notificationOutboxRepository.saveAll(messages);
+        log.warn("Retrying {} notification messages later: {}", messages.size(), error);
+    }
+
+    long backoffMillis(int attempts) {
+        return Math.min(initialBackoffMillis << Math.min(attempts - 1, 20), maxBackoffMillis);
+    }
+}
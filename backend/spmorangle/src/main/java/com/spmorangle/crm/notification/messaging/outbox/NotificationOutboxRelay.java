@@ -0,0 +1,257 @@
+package com.spmorangle.crm.notification.messaging.outbox;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.spmorangle.crm.notification.model.NotificationOutboxMessage;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes the notification outbox to RabbitMQ.
+ *
+ * The relay is woken after each transaction that queued a message and also polls, so messages left by a
+ * failed publish or another instance are picked up. Each round claims a batch, publishes all of it and then
+ * waits for the broker's confirms: confirmed rows are deleted and the rest retried later. A message can
+ * therefore be delivered twice if a confirm is lost, which the consumers already tolerate as they store
+ * whatever they receive.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationOutboxRelay {
+
+    private final NotificationOutbox notificationOutbox;
+    private final RabbitTemplate rabbitTemplate;
+
+    @Value("${notifications.outbox.relay.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${notifications.outbox.relay.poll-ms:1000}")
+    private long pollMillis = 1000;
+
+    @Value("${notifications.outbox.relay.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${notifications.outbox.relay.confirm-timeout-ms:10000}")
+    private long confirmTimeoutMillis = 10_000;
+
+    @Value("${notifications.outbox.relay.lease-ms:60000}")
+    private long leaseMillis = 60_000;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder confirmNanos = new LongAdder();
+    private final LongAdder confirmBatches = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean wakeScheduled = new AtomicBoolean();
+    private volatile long lastLagMillis;
+
+    private boolean confirms;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param inFlight messages published and still waiting for a confirm
+     * @param averageConfirmMillis average time from publishing a batch to its last confirm
+     * @param lastLagMillis time from queueing to confirm of the oldest message in the latest batch
+     */
+    public record Stats(long published, long failed, int inFlight, long averageConfirmMillis, long lastLagMillis) {
+    }
+
+    @PostConstruct
+    public void start() {
+        ConnectionFactory connectionFactory = rabbitTemplate.getConnectionFactory();
+        confirms = connectionFactory != null && connectionFactory.isPublisherConfirms();
+        if (!confirms) {
+            log.warn("Publisher confirms are off; notification outbox rows are deleted once sent, not once confirmed");
+        }
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::drainSafely, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Drains the outbox once the current transaction commits, instead of waiting for the next poll
+     */
+    public void wakeUpAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            wakeUp();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                wakeUp();
+            }
+        });
+    }
+
+    private void wakeUp() {
+        ScheduledExecutorService current = scheduler;
+        // Commits that arrive while a drain is already queued share it
+        if (current != null && wakeScheduled.compareAndSet(false, true)) {
+            try {
+                current.execute(() -> {
+                    wakeScheduled.set(false);
+                    drainSafely();
+                });
+            } catch (RuntimeException e) {
+                wakeScheduled.set(false);
+                log.debug("Notification outbox relay is not accepting work: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void drainSafely() {
+        try {
+            while (relay() == batchSize && !Thread.currentThread().isInterrupted()) {
+                // Keep going while full batches are coming back
+            }
+        } catch (Exception e) {
+            log.error("Failed to relay notification outbox: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Claims one batch, publishes it and settles each row by its confirm
+     *
+     * @return how many messages were claimed
+     */
+    int relay() {
+        List<NotificationOutboxMessage> batch = notificationOutbox.claim(batchSize, Duration.ofMillis(leaseMillis));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        long startNanos = System.nanoTime();
+        List<Published> sent = new ArrayList<>(batch.size());
+        Map<String, List<NotificationOutboxMessage>> rejected = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            NotificationOutboxMessage message = batch.get(i);
+            CorrelationData correlation = new CorrelationData(String.valueOf(message.getId()));
+            try {
+                rabbitTemplate.send(message.getExchange(), message.getRoutingKey(), toAmqpMessage(message), correlation);
+                sent.add(new Published(message, correlation));
+                inFlight.incrementAndGet();
+            } catch (AmqpException e) {
+                // The broker is unreachable; the rest of the batch would fail the same way
+                rejected.computeIfAbsent(e.getMessage(), reason -> new ArrayList<>()).addAll(batch.subList(i, batch.size()));
+                break;
+            }
+        }
+
+        List<Long> confirmed = new ArrayList<>(sent.size());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMillis);
+        for (Published next : sent) {
+            String failure = confirms ? awaitConfirm(next.correlation(), deadline) : null;
+            inFlight.decrementAndGet();
+            if (failure == null) {
+                confirmed.add(next.message().getId());
+            } else {
+                rejected.computeIfAbsent(failure, reason -> new ArrayList<>()).add(next.message());
+            }
+        }
+        if (!sent.isEmpty()) {
+            confirmNanos.add(System.nanoTime() - startNanos);
+            confirmBatches.increment();
+        }
+
+        notificationOutbox.delete(confirmed);
+        published.add(confirmed.size());
+        rejected.forEach((reason, messages) -> {
+            notificationOutbox.retry(messages, reason);
+            failed.add(messages.size());
+        });
+        if (!confirmed.isEmpty()) {
+            lastLagMillis = Duration.between(batch.get(0).getCreatedAt(), Instant.now()).toMillis();
+        }
+
+        Stats stats = stats();
+        log.debug("Notification outbox: claimed {}, published {}, failed {}, in flight {}, avg confirm {} ms, lag {} ms",
+                batch.size(), stats.published(), stats.failed(), stats.inFlight(), stats.averageConfirmMillis(),
+                stats.lastLagMillis());
+        return batch.size();
+    }
+
+    /**
+     * @return why the message was not confirmed, or null if the broker acknowledged it
+     */
+    private static String awaitConfirm(CorrelationData correlation, long deadlineNanos) {
+        try {
+            CorrelationData.Confirm confirm = correlation.getFuture()
+                    .get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return confirm.isAck() ? null : "Nacked by broker: " + confirm.getReason();
+        } catch (TimeoutException e) {
+            return "Publisher confirm timed out";
+        } catch (ExecutionException e) {
+            return e.getCause().getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "Interrupted waiting for publisher confirm";
+        }
+    }
+
+    private static Message toAmqpMessage(NotificationOutboxMessage message) {
+        byte[] body = message.getPayload().getBytes(StandardCharsets.UTF_8);
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setContentLength(body.length);
+        properties.setMessageId(message.getMessageId());
+        if (message.getTypeId() != null) {
+            properties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, message.getTypeId());
+        }
+        return new Message(body, properties);
+    }
+
+    private record Published(NotificationOutboxMessage message, CorrelationData correlation) {
+    }
+
+    public Stats stats() {
+        long batches = confirmBatches.sum();
+        long averageConfirmMillis = batches == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(confirmNanos.sum() / batches);
+        return new Stats(published.sum(), failed.sum(), inFlight.get(), averageConfirmMillis, lastLagMillis);
+    }
+}
@@ -1,24 +1,31 @@
 package com.spmorangle.crm.notification.messaging.publisher;
 
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
 
 import com.spmorangle.common.config.RabbitMQConfig;
 import com.spmorangle.crm.notification.messaging.dto.CommentNotificationMessageDto;
 import com.spmorangle.crm.notification.messaging.dto.TaskNotificationMessageDto;
+import com.spmorangle.crm.notification.messaging.outbox.NotificationOutbox;
+import com.spmorangle.crm.notification.messaging.outbox.NotificationOutboxRelay;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Queues notification messages in the notification outbox as part of the caller's transaction. The
+ * outbox relay publishes them to RabbitMQ after the transaction commits, so a rolled back change sends
+ * nothing and a slow or unavailable broker does not hold up the request.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class NotificationMessagePublisher {
 
-    private final RabbitTemplate rabbitTemplate;
+    private final NotificationOutbox notificationOutbox;
+    private final NotificationOutboxRelay notificationOutboxRelay;
 
     /**
-     * Publish comment notification message to RabbitMQ
+     * Queue comment notification message for publishing to RabbitMQ
      */
     public void publishCommentNotification(CommentNotificationMessageDto message) {
         try {
@@ -27,23 +34,19 @@ public class NotificationMessagePublisher {
                     message.getCommentId(), message.getEventType(), routingKey,
                     getTotalRecipients(message));
 
-            rabbitTemplate.convertAndSend(
-                    RabbitMQConfig.NOTIFICATION_EXCHANGE,
-                    routingKey,
-                    message
-            );
+            notificationOutbox.enqueue(RabbitMQConfig.NOTIFICATION_EXCHANGE, routingKey, message, message.getMessageId());
+            notificationOutboxRelay.wakeUpAfterCommit();
 
-            log.info("✅ Successfully published comment notification message with ID: {}", message.getMessageId());
+            log.info("✅ Queued comment notification message with ID: {}", message.getMessageId());
 
         } catch (Exception e) {
             log.error("❌ Failed to publish comment notification message: {}", e.getMessage(), e);
-            // Consider implementing retry logic or dead letter handling
             throw new RuntimeException("Failed to publish notification message", e);
         }
     }
 
     /**
-     * Publish task notification message to RabbitMQ
+     * Queue task notification message for publishing to RabbitMQ
      */
     public void publishTaskNotification(TaskNotificationMessageDto message) {
         try {
@@ -52,13 +55,10 @@ public class NotificationMessagePublisher {
                     message.getTaskId(), message.getEventType(), routingKey,
                     message.hasAssignees() ? message.getAssignedUserIds().size() : 0);
 
-            rabbitTemplate.convertAndSend(
-                    RabbitMQConfig.NOTIFICATION_EXCHANGE,
-                    routingKey,
-                    message
-            );
+            notificationOutbox.enqueue(RabbitMQConfig.NOTIFICATION_EXCHANGE, routingKey, message, message.getMessageId());
+            notificationOutboxRelay.wakeUpAfterCommit();
 
-            log.info("✅ Successfully published task notification message with ID: {}", message.getMessageId());
+            log.info("✅ Queued task notification message with ID: {}", message.getMessageId());
 
         } catch (Exception e) {
             log.error("❌ Failed to publish task notification message: {}", e.getMessage(), e);
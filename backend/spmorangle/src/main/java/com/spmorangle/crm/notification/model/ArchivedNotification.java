@@ -0,0 +1,102 @@
+package com.spmorangle.crm.notification.model;
+
+import java.time.Instant;
+
+import org.springframework.data.domain.Persistable;
+
+import com.spmorangle.common.enums.NotificationType;
+import com.spmorangle.crm.notification.enums.Priority;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A read or dismissed notification moved out of the live table, keyed by its original id
+ */
+@Entity
+@Table(name = "notifications_archive", schema = "syncup")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedNotification implements Persistable<Long> {
+
+    @Id
+    @Column(name = "notification_id")
+    private Long notificationId;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Column(name = "target_id", nullable = false)
+    private Long targetId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "notification_type", nullable = false, length = 50)
+    private NotificationType notificationType;
+
+    @Column(name = "subject", nullable = false)
+    private String subject;
+
+    @Column(name = "message", nullable = false, columnDefinition = "TEXT")
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority", nullable = false, length = 20)
+    private Priority priority;
+
+    @Column(name = "link", length = 500)
+    private String link;
+
+    // Comma-separated channel names
+    @Column(name = "channels")
+    private String channels;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "read_at")
+    private Instant readAt;
+
+    @Column(name = "dismissed_at")
+    private Instant dismissedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    @Builder.Default
+    private Instant archivedAt = Instant.now();
+
+    public static ArchivedNotification from(Notification notification, Instant archivedAt) {
+        return ArchivedNotification.builder()
+                .notificationId(notification.getNotificationId())
+                .authorId(notification.getAuthorId())
+                .targetId(notification.getTargetId())
+                .notificationType(notification.getNotificationType())
+                .subject(notification.getSubject())
+                .message(notification.getMessage())
+                .priority(notification.getPriority())
+                .link(notification.getLink())
+                .channels(notification.getChannels() == null || notification.getChannels().isEmpty() ? null
+                        : String.join(",", notification.getChannels().stream().map(Enum::name).toList()))
+                .createdAt(notification.getCreatedAt())
+                .readAt(notification.getReadAt())
+                .dismissedAt(notification.getDismissedAt())
+                .archivedAt(archivedAt)
+                .build();
+    }
+
+    @Override
+    public Long getId() {
+        return notificationId;
+    }
+
+    /**
+     * Archived rows are only ever inserted, so saving one never needs to look it up first
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,47 @@
+package com.spmorangle.crm.notification.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Task update notifications for one recipient, task and event type waiting to be stored as one
+ */
+@Entity
+@Table(name = "notification_coalesce_pending", schema = "syncup",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"target_id", "task_id", "event_type"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PendingCoalescedNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "target_id", nullable = false)
+    private Long targetId;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String eventType;
+
+    // The newest notification of the burst, serialized as JSON
+    @Column(name = "latest", nullable = false, columnDefinition = "TEXT")
+    private String latest;
+
+    @Column(name = "update_count", nullable = false)
+    private int updateCount;
+
+    // The coalescing window is counted from here
+    @Column(name = "first_at", nullable = false)
+    private Instant firstAt;
+}
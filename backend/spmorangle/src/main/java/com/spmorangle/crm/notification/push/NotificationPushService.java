@@ -0,0 +1,197 @@
+package com.spmorangle.crm.notification.push;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import com.spmorangle.crm.notification.constants.WebSocketTopics;
+import com.spmorangle.crm.notification.dto.NotificationDto;
+import com.spmorangle.crm.notification.dto.NotificationPushDto;
+import com.spmorangle.crm.notification.repository.NotificationRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pushes newly stored notifications and the resulting unread count to each recipient's
+ * {@link WebSocketTopics#userNotifications(Long)} topic, so clients do not have to poll.
+ *
+ * Notifications are buffered per user and flushed every coalescing window: a burst of notifications
+ * for one user becomes a single message, and the unread counts of every flushed user come from one
+ * grouped query. Memory is bounded on both axes. A user's buffer keeps only the newest notifications
+ * and flags the push as truncated so the client refetches, and once too many users are waiting new
+ * users are skipped until the next flush; their notifications are still stored and show up on the
+ * next fetch. Slow subscribers are handled by the transport limits in WebSocketConfig.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationPushService {
+
+    // Keeps the IN list of the grouped unread count query well below driver bind-parameter limits
+    private static final int COUNT_BATCH_SIZE = 1000;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationRepository notificationRepository;
+
+    @Value("${notifications.push.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${notifications.push.coalesce-ms:250}")
+    private long coalesceMillis = 250;
+
+    @Value("${notifications.push.max-pending-per-user:20}")
+    private int maxPendingPerUser = 20;
+
+    @Value("${notifications.push.max-pending-users:10000}")
+    private int maxPendingUsers = 10_000;
+
+    private final Map<Long, PendingPush> pending = new ConcurrentHashMap<>();
+    private final AtomicLong skipped = new AtomicLong();
+
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-push");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushSafely, coalesceMillis, coalesceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+            flusher = null;
+        }
+    }
+
+    /**
+     * Queues stored notifications for their recipients; they are sent with the next flush
+     */
+    public void push(List<NotificationDto> notifications) {
+        if (!enabled || notifications == null) {
+            return;
+        }
+        for (NotificationDto notification : notifications) {
+            Long targetId = notification.getTargetId();
+            if (targetId == null) {
+                continue;
+            }
+            if (pending.size() >= maxPendingUsers && !pending.containsKey(targetId)) {
+                skipped.incrementAndGet();
+                continue;
+            }
+            // compute() is atomic with the remove() in flush, so nothing is added to a buffer already taken
+            pending.compute(targetId, (id, push) -> {
+                PendingPush buffer = push != null ? push : new PendingPush();
+                buffer.add(notification, maxPendingPerUser);
+                return buffer;
+            });
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Failed to flush notification pushes: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sends one message per waiting user with everything buffered for them since the last flush
+     */
+    void flush() {
+        long skippedCount = skipped.getAndSet(0);
+        if (skippedCount > 0) {
+            log.warn("Skipped {} notification pushes, more than {} users were waiting", skippedCount, maxPendingUsers);
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<Long, PendingPush> batch = new HashMap<>();
+        for (Long userId : new ArrayList<>(pending.keySet())) {
+            PendingPush push = pending.remove(userId);
+            if (push != null) {
+                batch.put(userId, push);
+            }
+        }
+
+        Map<Long, Long> unreadCounts = countUnread(new ArrayList<>(batch.keySet()));
+        batch.forEach((userId, push) -> {
+            NotificationPushDto payload = NotificationPushDto.builder()
+                .notifications(push.notifications())
+                .unreadCount(unreadCounts.getOrDefault(userId, 0L).intValue())
+                .truncated(push.truncated())
+                .build();
+            try {
+                messagingTemplate.convertAndSend(WebSocketTopics.userNotifications(userId), payload);
+            } catch (Exception e) {
+                log.warn("Failed to push {} notifications to user {}: {}",
+                        payload.getNotifications().size(), userId, e.getMessage());
+            }
+        });
+        log.debug("Pushed notifications to {} users", batch.size());
+    }
+
+    private Map<Long, Long> countUnread(List<Long> userIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (int start = 0; start < userIds.size(); start += COUNT_BATCH_SIZE) {
+            List<Long> chunk = userIds.subList(start, Math.min(start + COUNT_BATCH_SIZE, userIds.size()));
+            for (Object[] row : notificationRepository.countUnreadByTargetIds(chunk)) {
+                counts.put((Long) row[0], ((Number) row[1]).longValue());
+            }
+        }
+        return counts;
+    }
+
+    int pendingUsers() {
+        return pending.size();
+    }
+
+    /**
+     * Newest notifications for one user, capped; older ones are dropped and the push is marked truncated
+     */
+    private static final class PendingPush {
+        private final Deque<NotificationDto> notifications = new ArrayDeque<>();
+        private boolean truncated;
+
+        void add(NotificationDto notification, int limit) {
+            notifications.addLast(notification);
+            while (notifications.size() > limit) {
+                notifications.removeFirst();
+                truncated = true;
+            }
+        }
+
+        List<NotificationDto> notifications() {
+            return new ArrayList<>(notifications);
+        }
+
+        boolean truncated() {
+            return truncated;
+        }
+    }
+}
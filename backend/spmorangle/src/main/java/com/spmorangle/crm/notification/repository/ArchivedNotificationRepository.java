@@ -0,0 +1,28 @@
+package com.spmorangle.crm.notification.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.spmorangle.crm.notification.model.ArchivedNotification;
+
+@Repository
+public interface ArchivedNotificationRepository extends JpaRepository<ArchivedNotification, Long> {
+
+    /**
+     * Ids of archived notifications created before the cutoff, oldest first
+     */
+    @Query("SELECT a.notificationId FROM ArchivedNotification a WHERE a.createdAt < :cutoffDate ORDER BY a.createdAt")
+    List<Long> findIdsCreatedBefore(@Param("cutoffDate") Instant cutoffDate, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ArchivedNotification a WHERE a.notificationId IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,59 @@
+package com.spmorangle.crm.notification.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.spmorangle.crm.notification.model.EmailOutboxMessage;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    /**
+     * Lock the oldest due messages, skipping rows another dispatcher has locked (lock timeout -2 is SKIP LOCKED).
+     * SENDING rows are due once their claim has expired.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM EmailOutboxMessage m " +
+           "WHERE m.status IN (com.spmorangle.crm.notification.enums.EmailOutboxStatus.PENDING, " +
+           "com.spmorangle.crm.notification.enums.EmailOutboxStatus.SENDING) " +
+           "AND m.nextAttemptAt <= :now ORDER BY m.nextAttemptAt")
+    List<EmailOutboxMessage> findDueForUpdate(@Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Mark claimed messages as delivered
+     */
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = com.spmorangle.crm.notification.enums.EmailOutboxStatus.SENT, " +
+           "m.sentAt = :sentAt, m.lastError = null WHERE m.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") Instant sentAt);
+
+    /**
+     * Put claimed messages back in the queue without counting an attempt
+     */
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = com.spmorangle.crm.notification.enums.EmailOutboxStatus.PENDING, " +
+           "m.nextAttemptAt = :nextAttemptAt WHERE m.id IN :ids")
+    int defer(@Param("ids") Collection<Long> ids, @Param("nextAttemptAt") Instant nextAttemptAt);
+
+    /**
+     * Delete delivered messages sent before the cutoff
+     */
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m " +
+           "WHERE m.status = com.spmorangle.crm.notification.enums.EmailOutboxStatus.SENT AND m.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") Instant cutoff);
+}
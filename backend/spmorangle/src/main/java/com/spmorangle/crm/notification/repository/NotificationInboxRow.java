@@ -0,0 +1,24 @@
+package com.spmorangle.crm.notification.repository;
+
+import java.time.Instant;
+
+import com.spmorangle.common.enums.NotificationType;
+import com.spmorangle.crm.notification.enums.Priority;
+
+/**
+ * The columns of a notification an inbox list shows. The message is only selected when asked for, and
+ * metadata never is, so the usual page is read from the inbox index without touching the TEXT columns.
+ */
+public record NotificationInboxRow(Long notificationId, Long authorId, Long targetId,
+                                   NotificationType notificationType, String subject, String message,
+                                   Boolean readStatus, Boolean dismissedStatus, Priority priority, String link,
+                                   Instant createdAt, Instant readAt) {
+
+    public NotificationInboxRow(Long notificationId, Long authorId, Long targetId,
+                                NotificationType notificationType, String subject,
+                                Boolean readStatus, Boolean dismissedStatus, Priority priority, String link,
+                                Instant createdAt, Instant readAt) {
+        this(notificationId, authorId, targetId, notificationType, subject, null,
+                readStatus, dismissedStatus, priority, link, createdAt, readAt);
+    }
+}
@@ -0,0 +1,43 @@
+package com.spmorangle.crm.notification.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.spmorangle.crm.notification.model.NotificationOutboxMessage;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxMessage, Long> {
+
+    /**
+     * Lock the oldest due messages in publish order, skipping rows another relay has locked
+     * (lock timeout -2 is SKIP LOCKED)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM NotificationOutboxMessage m WHERE m.nextAttemptAt <= :now ORDER BY m.nextAttemptAt, m.id")
+    List<NotificationOutboxMessage> findDueForUpdate(@Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Move the claim expiry of claimed messages to the given time
+     */
+    @Modifying
+    @Query("UPDATE NotificationOutboxMessage m SET m.nextAttemptAt = :leaseUntil WHERE m.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("leaseUntil") Instant leaseUntil);
+
+    @Modifying
+    @Query("DELETE FROM NotificationOutboxMessage m WHERE m.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
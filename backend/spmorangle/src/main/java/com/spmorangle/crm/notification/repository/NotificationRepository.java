@@ -1,6 +1,7 @@
 package com.spmorangle.crm.notification.repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
@@ -16,7 +17,7 @@ import com.spmorangle.crm.notification.enums.Priority;
 import com.spmorangle.crm.notification.model.Notification;
 
 @Repository
-public interface NotificationRepository extends JpaRepository<Notification, Long> {
+public interface NotificationRepository extends JpaRepository<Notification, Long>, NotificationRepositoryCustom {
 
     /**
      * Find all notifications for a specific target user
@@ -64,6 +65,14 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.targetId = :targetId AND n.readStatus = false")
     long countUnreadByTargetId(@Param("targetId") Long targetId);
 
+    /**
+     * Count unread notifications for several target users
+     * Returns: targetId, count (users without unread notifications are omitted)
+     */
+    @Query("SELECT n.targetId, COUNT(n) FROM Notification n WHERE n.targetId IN :targetIds AND n.readStatus = false " +
+           "GROUP BY n.targetId")
+    List<Object[]> countUnreadByTargetIds(@Param("targetIds") Collection<Long> targetIds);
+
     /**
      * Count active notifications for a target user
      */
@@ -81,22 +90,46 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
                                @Param("updatedAt") Instant updatedAt);
 
     /**
-     * Mark specific notifications as read
+     * Mark specific notifications as read; returns how many were unread before
      */
     @Modifying
     @Query("UPDATE Notification n SET n.readStatus = true, n.readAt = :readAt, n.updatedAt = :updatedAt " +
-           "WHERE n.notificationId IN :notificationIds AND n.targetId = :targetId")
+           "WHERE n.notificationId IN :notificationIds AND n.targetId = :targetId AND n.readStatus = false")
     int markAsReadByIds(@Param("notificationIds") List<Long> notificationIds, 
                        @Param("targetId") Long targetId,
                        @Param("readAt") Instant readAt, 
                        @Param("updatedAt") Instant updatedAt);
 
     /**
-     * Delete old read notifications (cleanup)
+     * Ids of read notifications created before the cutoff, oldest first (cleanup in batches)
+     */
+    @Query("SELECT n.notificationId FROM Notification n WHERE n.readStatus = true AND n.createdAt < :cutoffDate " +
+           "ORDER BY n.createdAt")
+    List<Long> findReadIdsCreatedBefore(@Param("cutoffDate") Instant cutoffDate, Pageable pageable);
+
+    /**
+     * Ids of read or dismissed notifications created before the cutoff, oldest first (archival in batches)
+     */
+    @Query("SELECT n.notificationId FROM Notification n WHERE (n.readStatus = true OR n.dismissedStatus = true) " +
+           "AND n.createdAt < :cutoffDate ORDER BY n.createdAt")
+    List<Long> findArchivableIdsCreatedBefore(@Param("cutoffDate") Instant cutoffDate, Pageable pageable);
+
+    /**
+     * Load notifications together with their channels in one query
      */
+    @Query("SELECT DISTINCT n FROM Notification n LEFT JOIN FETCH n.channels WHERE n.notificationId IN :ids")
+    List<Notification> findAllWithChannelsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Delete the channel rows of notifications about to be bulk deleted, which a JPQL delete does not cascade to
+     */
+    @Modifying
+    @Query(value = "DELETE FROM syncup.notification_channels WHERE notification_id IN (:ids)", nativeQuery = true)
+    int deleteChannelsByNotificationIds(@Param("ids") Collection<Long> ids);
+
     @Modifying
-    @Query("DELETE FROM Notification n WHERE n.readStatus = true AND n.createdAt < :cutoffDate")
-    int deleteOldReadNotifications(@Param("cutoffDate") Instant cutoffDate);
+    @Query("DELETE FROM Notification n WHERE n.notificationId IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 
     /**
      * Find recent notifications by author and type (for deduplication)
@@ -0,0 +1,28 @@
+package com.spmorangle.crm.notification.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.spmorangle.crm.notification.dto.NotificationInboxRequestDto;
+import com.spmorangle.crm.notification.enums.Channel;
+import com.spmorangle.crm.notification.util.NotificationCursor;
+
+/**
+ * Inbox queries that do not fit a fixed {@code @Query}: keyset pagination over a user's notifications
+ * with optional filters, returning a projection rather than entities.
+ */
+public interface NotificationRepositoryCustom {
+
+    /**
+     * Fetch up to {@code limit} of the user's notifications that sort strictly after {@code after}
+     * (or from the newest when {@code after} is null), newest first.
+     */
+    List<NotificationInboxRow> findInboxPage(Long targetId, NotificationInboxRequestDto request,
+                                             NotificationCursor after, int limit);
+
+    /**
+     * Channels of the given notifications, in one query
+     */
+    Map<Long, List<Channel>> findChannelsByNotificationIds(Collection<Long> notificationIds);
+}
@@ -0,0 +1,83 @@
+package com.spmorangle.crm.notification.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.spmorangle.crm.notification.dto.NotificationInboxRequestDto;
+import com.spmorangle.crm.notification.enums.Channel;
+import com.spmorangle.crm.notification.util.NotificationCursor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * JPQL-based implementation of {@link NotificationRepositoryCustom}. Only the requested filters are
+ * rendered, and the ordering matches {@code idx_notifications_inbox_keyset}, so every page is a seek into
+ * that index followed by a short range scan however deep the page is.
+ */
+public class NotificationRepositoryImpl implements NotificationRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<NotificationInboxRow> findInboxPage(Long targetId, NotificationInboxRequestDto request,
+                                                    NotificationCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT new ")
+                .append(NotificationInboxRow.class.getName())
+                .append("(n.notificationId, n.authorId, n.targetId, n.notificationType, n.subject, ")
+                .append(request.isIncludeMessage() ? "n.message, " : "")
+                .append("n.readStatus, n.dismissedStatus, n.priority, n.link, n.createdAt, n.readAt)")
+                .append(" FROM Notification n WHERE n.targetId = :targetId");
+        Map<String, Object> params = new HashMap<>();
+        params.put("targetId", targetId);
+
+        if (request.isUnreadOnly()) {
+            jpql.append(" AND n.readStatus = false");
+        }
+        if (request.isActiveOnly()) {
+            jpql.append(" AND n.dismissedStatus = false");
+        }
+        if (request.getNotificationType() != null) {
+            jpql.append(" AND n.notificationType = :notificationType");
+            params.put("notificationType", request.getNotificationType());
+        }
+        if (request.getPriority() != null) {
+            jpql.append(" AND n.priority = :priority");
+            params.put("priority", request.getPriority());
+        }
+        if (after != null) {
+            jpql.append(" AND (n.createdAt < :afterCreatedAt")
+                .append(" OR (n.createdAt = :afterCreatedAt AND n.notificationId < :afterId))");
+            params.put("afterCreatedAt", after.createdAt());
+            params.put("afterId", after.notificationId());
+        }
+        jpql.append(" ORDER BY n.createdAt DESC, n.notificationId DESC");
+
+        TypedQuery<NotificationInboxRow> query = entityManager.createQuery(jpql.toString(), NotificationInboxRow.class);
+        params.forEach(query::setParameter);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    @Override
+    public Map<Long, List<Channel>> findChannelsByNotificationIds(Collection<Long> notificationIds) {
+        Map<Long, List<Channel>> channels = new HashMap<>();
+        if (notificationIds.isEmpty()) {
+            return channels;
+        }
+        List<Object[]> rows = entityManager.createQuery(
+                        "SELECT n.notificationId, c FROM Notification n JOIN n.channels c WHERE n.notificationId IN :ids",
+                        Object[].class)
+                .setParameter("ids", notificationIds)
+                .getResultList();
+        for (Object[] row : rows) {
+            channels.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Channel) row[1]);
+        }
+        return channels;
+    }
+}
@@ -0,0 +1,46 @@
+package com.spmorangle.crm.notification.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.spmorangle.crm.notification.model.PendingCoalescedNotification;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface PendingCoalescedNotificationRepository extends JpaRepository<PendingCoalescedNotification, Long> {
+
+    /**
+     * Lock the bursts of the task's recipients, so a flush that is storing them waits or is waited for
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM PendingCoalescedNotification p "
+            + "WHERE p.taskId = :taskId AND p.eventType = :eventType AND p.targetId IN :targetIds")
+    List<PendingCoalescedNotification> findForUpdate(@Param("taskId") Long taskId,
+                                                     @Param("eventType") String eventType,
+                                                     @Param("targetIds") Collection<Long> targetIds);
+
+    /**
+     * Lock the oldest bursts whose window started before the cutoff, skipping rows another instance has
+     * locked (lock timeout -2 is SKIP LOCKED)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT p FROM PendingCoalescedNotification p WHERE p.firstAt <= :cutoff ORDER BY p.firstAt, p.id")
+    List<PendingCoalescedNotification> findDueForUpdate(@Param("cutoff") Instant cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM PendingCoalescedNotification p WHERE p.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
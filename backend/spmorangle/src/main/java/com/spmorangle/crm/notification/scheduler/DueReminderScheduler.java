@@ -0,0 +1,225 @@
+package com.spmorangle.crm.notification.scheduler;
+
+import com.spmorangle.crm.notification.service.OverdueTaskCheckerService;
+import com.spmorangle.crm.notification.service.PreDueTaskCheckerService;
+import com.spmorangle.crm.taskmanagement.event.TaskDeadlineChangedEvent;
+import com.spmorangle.crm.taskmanagement.model.Task;
+import com.spmorangle.crm.taskmanagement.repository.TaskRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires pre-due and overdue reminders at the moment each task's deadline passes, instead of polling
+ * the tasks table every minute.
+ *
+ * Upcoming deadlines inside a rolling horizon sit in a {@link DelayQueue} drained by a single worker
+ * thread. The queue is loaded once on startup and kept current by {@link TaskDeadlineChangedEvent}s
+ * published after task changes commit. A reschedule simply enqueues the new deadline; the superseded
+ * entry stays in the queue and is discarded when it expires because it no longer matches the latest
+ * deadline recorded for the task.
+ *
+ * The reminder services re-check each task against the database before sending, so an entry that
+ * fires for a task completed or deleted elsewhere does nothing. A low-frequency reconciliation reloads
+ * the horizon to pick up tasks entering it and changes made by other instances.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DueReminderScheduler {
+
+    enum ReminderKind { PRE_DUE, OVERDUE }
+
+    private static final Duration PRE_DUE_LEAD = Duration.ofHours(24);
+    private static final Duration RESCHEDULED_PRE_DUE_LEAD = Duration.ofHours(12);
+    private static final Duration OVERDUE_GRACE = Duration.ofHours(24);
+    // The reminder queries compare against "now" with strict inequalities; fire just past the boundary
+    private static final long FIRE_SLACK_MILLIS = 1_000L;
+
+    private final TaskRepository taskRepository;
+    private final PreDueTaskCheckerService preDueTaskCheckerService;
+    private final OverdueTaskCheckerService overdueTaskCheckerService;
+
+    @Value("${due.reminders.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${due.reminders.horizon-hours:48}")
+    private long horizonHours = 48;
+
+    private final DelayQueue<Deadline> queue = new DelayQueue<>();
+    // Latest deadline per task, one map per reminder kind; the value is the fire time in epoch millis
+    private final Map<Long, Long> pendingPreDue = new ConcurrentHashMap<>();
+    private final Map<Long, Long> pendingOverdue = new ConcurrentHashMap<>();
+
+    private volatile Thread worker;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || worker != null) {
+            return;
+        }
+        reload();
+        worker = new Thread(this::drainLoop, "due-reminder-scheduler");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTaskDeadlineChanged(TaskDeadlineChangedEvent event) {
+        if (!enabled || event.taskId() == null) {
+            return;
+        }
+        schedule(event, System.currentTimeMillis());
+    }
+
+    @Scheduled(fixedDelayString = "${due.reminders.reconcile-ms:900000}",
+            initialDelayString = "${due.reminders.reconcile-ms:900000}")
+    public void reconcile() {
+        if (worker == null) {
+            return;
+        }
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Failed to reconcile due reminder schedule: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Loads every open task with a reminder deadline inside the horizon from one windowed query. Deadlines
+     * that are already in the queue are not enqueued again. Overdue deadlines that passed before the window
+     * are left to the overdue sweep, so the reload stays proportional to the horizon and not the task history.
+     */
+    void reload() {
+        long now = System.currentTimeMillis();
+        OffsetDateTime start = Instant.ofEpochMilli(now).atOffset(ZoneOffset.UTC);
+        OffsetDateTime horizonEnd = start.plusHours(horizonHours);
+        // A pre-due deadline inside the horizon can belong to a task due up to a full lead time later
+        List<Task> tasks = taskRepository.findTasksWithPendingRemindersInWindow(start,
+                horizonEnd.plus(PRE_DUE_LEAD), start.minus(OVERDUE_GRACE), horizonEnd.minus(OVERDUE_GRACE));
+        for (Task task : tasks) {
+            schedule(TaskDeadlineChangedEvent.of(task), now);
+        }
+        log.info("Due reminder schedule loaded {} tasks, {} deadlines queued", tasks.size(), queue.size());
+    }
+
+    void schedule(TaskDeadlineChangedEvent event, long nowMillis) {
+        Long preDueAt = null;
+        Long overdueAt = null;
+        if (event.active() && event.dueDateTime() != null) {
+            long horizon = nowMillis + TimeUnit.HOURS.toMillis(horizonHours);
+            long dueMillis = event.dueDateTime().toInstant().toEpochMilli();
+            if (!event.preDueSent() && dueMillis > nowMillis) {
+                Duration lead = event.rescheduled() ? RESCHEDULED_PRE_DUE_LEAD : PRE_DUE_LEAD;
+                long fireAt = dueMillis - lead.toMillis() + FIRE_SLACK_MILLIS;
+                preDueAt = fireAt <= horizon ? fireAt : null;
+            }
+            if (!event.overdueSent()) {
+                long fireAt = dueMillis + OVERDUE_GRACE.toMillis() + FIRE_SLACK_MILLIS;
+                overdueAt = fireAt <= horizon ? fireAt : null;
+            }
+        }
+        track(ReminderKind.PRE_DUE, event.taskId(), preDueAt);
+        track(ReminderKind.OVERDUE, event.taskId(), overdueAt);
+    }
+
+    private void track(ReminderKind kind, Long taskId, Long fireAt) {
+        Map<Long, Long> pending = pendingFor(kind);
+        if (fireAt == null) {
+            pending.remove(taskId);
+            return;
+        }
+        Long previous = pending.put(taskId, fireAt);
+        if (!fireAt.equals(previous)) {
+            queue.offer(new Deadline(taskId, kind, fireAt));
+        }
+    }
+
+    private void drainLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<Deadline> expired = new ArrayList<>();
+                expired.add(queue.take());
+                queue.drainTo(expired);
+                dispatch(expired);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                // Anything lost here is picked up by the reconciliation sweep
+                log.error("Failed to dispatch due reminders: {}", e.getMessage(), e);
+            }
+        }
+        log.info("Due reminder scheduler stopped");
+    }
+
+    void dispatch(List<Deadline> expired) {
+        List<Long> preDueTaskIds = new ArrayList<>();
+        List<Long> overdueTaskIds = new ArrayList<>();
+        for (Deadline deadline : expired) {
+            // Only the latest deadline of a task counts; superseded entries are dropped here
+            if (pendingFor(deadline.kind()).remove(deadline.taskId(), deadline.fireAtMillis())) {
+                (deadline.kind() == ReminderKind.PRE_DUE ? preDueTaskIds : overdueTaskIds).add(deadline.taskId());
+            }
+        }
+        if (!preDueTaskIds.isEmpty()) {
+            log.info("Pre due deadline reached for tasks {}", preDueTaskIds);
+            preDueTaskCheckerService.notifyPreDueTasks(preDueTaskIds);
+        }
+        if (!overdueTaskIds.isEmpty()) {
+            log.info("Overdue deadline reached for tasks {}", overdueTaskIds);
+            overdueTaskCheckerService.notifyOverdueTasks(overdueTaskIds);
+        }
+    }
+
+    Long pendingFireTime(ReminderKind kind, Long taskId) {
+        return pendingFor(kind).get(taskId);
+    }
+
+    int queuedDeadlines() {
+        return queue.size();
+    }
+
+    private Map<Long, Long> pendingFor(ReminderKind kind) {
+        return kind == ReminderKind.PRE_DUE ? pendingPreDue : pendingOverdue;
+    }
+
+    record Deadline(Long taskId, ReminderKind kind, long fireAtMillis) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(fireAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(fireAtMillis, ((Deadline) other).fireAtMillis);
+        }
+    }
+}
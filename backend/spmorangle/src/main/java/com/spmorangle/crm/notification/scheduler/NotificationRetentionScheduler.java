@@ -0,0 +1,109 @@
+package com.spmorangle.crm.notification.scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.spmorangle.crm.notification.archive.NotificationArchiver;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Nightly retention for notifications.
+ *
+ * Read and dismissed notifications older than the archive threshold are moved to the archive table, and
+ * archived notifications past their retention are deleted. Both run as a series of small batches with a
+ * short pause between them, so the job shares the tables with normal traffic instead of holding locks on
+ * them for the whole run. A run stops early at its batch limit and continues the next night.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationRetentionScheduler {
+
+    private final NotificationArchiver notificationArchiver;
+
+    @Value("${notifications.retention.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${notifications.retention.archive-after-days:30}")
+    private int archiveAfterDays = 30;
+
+    @Value("${notifications.retention.archive-keep-days:365}")
+    private int archiveKeepDays = 365;
+
+    @Value("${notifications.retention.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${notifications.retention.max-batches:2000}")
+    private int maxBatches = 2000;
+
+    @Value("${notifications.retention.pause-ms:100}")
+    private long pauseMillis = 100;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final LongAdder archived = new LongAdder();
+    private final LongAdder purged = new LongAdder();
+    private volatile long lastRunMillis;
+
+    public record Stats(long archived, long purged, long lastRunMillis) {
+    }
+
+    @Scheduled(cron = "${notifications.retention.cron:0 30 3 * * *}")
+    public void runRetention() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            Instant now = Instant.now();
+            int archivedNow = drain(cutoff -> notificationArchiver.archiveBatch(cutoff, batchSize),
+                    now.minus(Duration.ofDays(archiveAfterDays)));
+            archived.add(archivedNow);
+            int purgedNow = drain(cutoff -> notificationArchiver.purgeArchiveBatch(cutoff, batchSize),
+                    now.minus(Duration.ofDays(archiveKeepDays)));
+            purged.add(purgedNow);
+
+            lastRunMillis = System.currentTimeMillis() - start;
+            log.info("Notification retention archived {} and purged {} notifications in {} ms",
+                    archivedNow, purgedNow, lastRunMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Notification retention failed: {}", e.getMessage(), e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Runs batches until one comes back short or the batch limit is reached
+     *
+     * @return the total number of rows the batches handled
+     */
+    int drain(ToIntFunction<Instant> batch, Instant cutoff) throws InterruptedException {
+        int total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            int handled = batch.applyAsInt(cutoff);
+            total += handled;
+            if (handled < batchSize) {
+                break;
+            }
+            if (pauseMillis > 0) {
+                Thread.sleep(pauseMillis);
+            }
+        }
+        return total;
+    }
+
+    public Stats stats() {
+        return new Stats(archived.sum(), purged.sum(), lastRunMillis);
+    }
+}
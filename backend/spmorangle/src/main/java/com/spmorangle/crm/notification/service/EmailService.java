@@ -9,6 +9,7 @@ public interface EmailService {
      * @param toEmail recipient email address
      * @param subject email subject
      * @param body email body content
+     * @return completes once the email is queued for delivery, or fails if it could not be queued
      */
     CompletableFuture<Void> sendEmail(String toEmail, String subject, String body);
     
@@ -17,6 +18,7 @@ public interface EmailService {
      * @param toEmail recipient email address
      * @param subject email subject
      * @param htmlBody HTML email body content
+     * @return completes once the email is queued for delivery, or fails if it could not be queued
      */
     CompletableFuture<Void> sendHtmlEmail(String toEmail, String subject, String htmlBody);
 
@@ -1,6 +1,7 @@
 package com.spmorangle.crm.notification.service;
 
 import com.spmorangle.crm.notification.dto.DailyDigestDto;
+import com.spmorangle.crm.notification.dto.NotificationDigestDto;
 import com.spmorangle.crm.notification.dto.NotificationDto;
 
 public interface EmailTemplateService {
@@ -20,4 +21,11 @@ public interface EmailTemplateService {
     String generatePlainTextBody(NotificationDto notification);
 
     String generateDailyDigestEmail(DailyDigestDto dailyDigestDto);
+
+    /**
+     * Generate HTML email listing notifications that were held back for a periodic digest
+     * @param digestDto the recipient and their held-back notifications
+     * @return formatted HTML email body
+     */
+    String generateNotificationDigestEmail(NotificationDigestDto digestDto);
 }
\ No newline at end of file
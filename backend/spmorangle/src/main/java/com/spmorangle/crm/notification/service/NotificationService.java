@@ -9,6 +9,8 @@ import com.spmorangle.common.enums.NotificationType;
 import com.spmorangle.crm.notification.dto.CreateNotificationDto;
 import com.spmorangle.crm.notification.dto.NotificationDto;
 import com.spmorangle.crm.notification.dto.NotificationFilterDto;
+import com.spmorangle.crm.notification.dto.NotificationInboxPageDto;
+import com.spmorangle.crm.notification.dto.NotificationInboxRequestDto;
 import com.spmorangle.crm.notification.dto.UnreadCountDto;
 import com.spmorangle.crm.notification.enums.Priority;
 
@@ -44,6 +46,13 @@ public interface NotificationService {
      */
     Page<NotificationDto> getNotificationsWithFilters(Long userId, NotificationFilterDto filters, Pageable pageable);
 
+    /**
+     * Get one keyset page of a user's inbox, newest first
+     *
+     * @throws IllegalArgumentException if the request's cursor is malformed
+     */
+    NotificationInboxPageDto getInbox(Long userId, NotificationInboxRequestDto request);
+
     /**
      * Get notification by ID (with user validation)
      */
@@ -80,7 +89,7 @@ public interface NotificationService {
     void deleteNotification(Long notificationId);
 
     /**
-     * Cleanup old read notifications
+     * Cleanup old read notifications, deleting them in bounded batches
      */
     int cleanupOldNotifications(int daysToKeep);
 
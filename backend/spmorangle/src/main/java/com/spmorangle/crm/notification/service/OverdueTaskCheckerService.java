@@ -1,5 +1,12 @@
 package com.spmorangle.crm.notification.service;
 
+import java.util.Collection;
+
 public interface OverdueTaskCheckerService {
     void checkAndNotifyOverdueTasks();
+
+    /**
+     * Sends the overdue reminder for the given tasks, skipping any that no longer qualify.
+     */
+    void notifyOverdueTasks(Collection<Long> taskIds);
 }
@@ -1,5 +1,12 @@
 package com.spmorangle.crm.notification.service;
 
+import java.util.Collection;
+
 public interface PreDueTaskCheckerService {
     void checkAndNotifyPredueTasks();
+
+    /**
+     * Sends the pre due reminder for the given tasks, skipping any that no longer qualify.
+     */
+    void notifyPreDueTasks(Collection<Long> taskIds);
 }
@@ -5,14 +5,11 @@ import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import com.spmorangle.crm.notification.dto.DailyDigestDto;
+import com.spmorangle.crm.notification.email.EmailOutbox;
 import com.spmorangle.crm.notification.service.EmailService;
 import com.spmorangle.crm.notification.service.EmailTemplateService;
 import com.spmorangle.crm.taskmanagement.dto.TaskResponseDto;
@@ -21,8 +18,6 @@ import com.spmorangle.crm.taskmanagement.service.TaskService;
 import com.spmorangle.crm.usermanagement.dto.UserResponseDto;
 import com.spmorangle.crm.usermanagement.service.UserManagementService;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -31,60 +26,34 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class EmailServiceImpl implements EmailService {
 
-    private final JavaMailSender mailSender;
+    private final EmailOutbox emailOutbox;
     private final TaskService taskService;
     private final UserManagementService userManagementService;
     private final EmailTemplateService emailTemplateService;
     
-    @Value("${spring.mail.from:noreply@spmorangle.com}")
-    private String fromEmail;
-
     @Value("${app.frontend.base-url}")
     private String frontendBaseUrl;
 
-    @Async("emailExecutor")
     @Override
     public CompletableFuture<Void> sendEmail(String toEmail, String subject, String body) {
-        try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
-            
-            helper.setFrom(fromEmail);
-            helper.setTo(toEmail);
-            helper.setSubject(subject);
-            helper.setText(body);
-
-            mailSender.send(mimeMessage);
-            
-            log.info("Email sent successfully to: {}", toEmail);
-            return CompletableFuture.completedFuture(null);
-            
-        } catch (MessagingException e) {
-            log.error("Failed to send email to {}: {}", toEmail, e.getMessage(), e);
-            return CompletableFuture.failedFuture(e);
-
-        }
+        return enqueue(toEmail, subject, body, false);
     }
 
-    @Async("emailExecutor")
     @Override
     public CompletableFuture<Void> sendHtmlEmail(String toEmail, String subject, String htmlBody) {
+        return enqueue(toEmail, subject, htmlBody, true);
+    }
+
+    /**
+     * Queues the email in the outbox; the returned future completes once it is stored, not delivered
+     */
+    private CompletableFuture<Void> enqueue(String toEmail, String subject, String body, boolean html) {
         try {
-            MimeMessage mimeMessage = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
-            
-            helper.setFrom(fromEmail);
-            helper.setTo(toEmail);
-            helper.setSubject(subject);
-            helper.setText(htmlBody, true); // true = HTML content
-            
-            mailSender.send(mimeMessage);
-            
-            log.info("HTML email sent successfully to: {}", toEmail);
+            emailOutbox.enqueue(toEmail, subject, body, html);
+            log.info("Email queued for: {}", toEmail);
             return CompletableFuture.completedFuture(null);
-            
-        } catch (MessagingException e) {
-            log.error("Failed to send HTML email to {}: {}", toEmail, e.getMessage(), e);
+        } catch (RuntimeException e) {
+            log.error("Failed to queue email to {}: {}", toEmail, e.getMessage(), e);
             return CompletableFuture.failedFuture(e);
         }
     }
@@ -3,6 +3,7 @@ package com.spmorangle.crm.notification.service.impl;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
@@ -11,14 +12,21 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.spmorangle.common.enums.NotificationType;
+import com.spmorangle.crm.notification.archive.NotificationArchiver;
+import com.spmorangle.crm.notification.cache.UnreadCountCache;
 import com.spmorangle.crm.notification.dto.CreateNotificationDto;
 import com.spmorangle.crm.notification.dto.NotificationDto;
 import com.spmorangle.crm.notification.dto.NotificationFilterDto;
+import com.spmorangle.crm.notification.dto.NotificationInboxPageDto;
+import com.spmorangle.crm.notification.dto.NotificationInboxRequestDto;
 import com.spmorangle.crm.notification.dto.UnreadCountDto;
+import com.spmorangle.crm.notification.enums.Channel;
 import com.spmorangle.crm.notification.enums.Priority;
 import com.spmorangle.crm.notification.model.Notification;
+import com.spmorangle.crm.notification.repository.NotificationInboxRow;
 import com.spmorangle.crm.notification.repository.NotificationRepository;
 import com.spmorangle.crm.notification.service.NotificationService;
+import com.spmorangle.crm.notification.util.NotificationCursor;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -28,7 +36,11 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class NotificationServiceImpl implements NotificationService {
 
+    private static final int CLEANUP_BATCH_SIZE = 500;
+
     private final NotificationRepository notificationRepository;
+    private final UnreadCountCache unreadCountCache;
+    private final NotificationArchiver notificationArchiver;
 
     @Override
     @Transactional
@@ -55,6 +67,7 @@ public class NotificationServiceImpl implements NotificationService {
                 .build();
 
         Notification saved = notificationRepository.save(notification);
+        unreadCountCache.addAfterCommit(Map.of(saved.getTargetId(), 1L));
         log.info("Created notification with ID: {}", saved.getNotificationId());
         
         return mapToDto(saved);
@@ -106,6 +119,35 @@ public class NotificationServiceImpl implements NotificationService {
         return notifications.map(this::mapToDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public NotificationInboxPageDto getInbox(Long userId, NotificationInboxRequestDto request) {
+        log.info("Getting inbox page for user: {} (cursor: {})", userId, request.getCursor());
+        String cursor = request.getCursor();
+        NotificationCursor after = cursor == null || cursor.isBlank() ? null : NotificationCursor.decode(cursor);
+        int limit = request.getEffectiveLimit();
+
+        // Fetch one extra row to know whether another page exists
+        List<NotificationInboxRow> rows = notificationRepository.findInboxPage(userId, request, after, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<NotificationInboxRow> page = hasMore ? rows.subList(0, limit) : rows;
+
+        Map<Long, List<Channel>> channels = notificationRepository.findChannelsByNotificationIds(
+                page.stream().map(NotificationInboxRow::notificationId).toList());
+        List<NotificationDto> items = page.stream()
+                .map(row -> mapToDto(row, channels.getOrDefault(row.notificationId(), List.of())))
+                .collect(Collectors.toList());
+
+        NotificationInboxRow last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return NotificationInboxPageDto.builder()
+                .items(items)
+                .nextCursor(hasMore && last != null
+                        ? new NotificationCursor(last.createdAt(), last.notificationId()).encode()
+                        : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
     @Override
     public NotificationDto getNotificationById(Long notificationId, Long userId) {
         log.info("Getting notification {} for user: {}", notificationId, userId);
@@ -135,6 +177,7 @@ public class NotificationServiceImpl implements NotificationService {
         if (!notification.getReadStatus()) {
             notification.markAsRead();
             notificationRepository.save(notification);
+            unreadCountCache.addAfterCommit(Map.of(userId, -1L));
             log.info("Notification {} marked as read", notificationId);
         }
     }
@@ -145,6 +188,9 @@ public class NotificationServiceImpl implements NotificationService {
         log.info("Marking {} notifications as read for user: {}", notificationIds.size(), userId);
         Instant now = Instant.now();
         int updated = notificationRepository.markAsReadByIds(notificationIds, userId, now, now);
+        if (updated > 0) {
+            unreadCountCache.addAfterCommit(Map.of(userId, (long) -updated));
+        }
         log.info("Marked {} notifications as read", updated);
     }
 
@@ -154,6 +200,7 @@ public class NotificationServiceImpl implements NotificationService {
         log.info("Marking all notifications as read for user: {}", userId);
         Instant now = Instant.now();
         int updated = notificationRepository.markAllAsReadByTargetId(userId, now, now);
+        unreadCountCache.resetAfterCommit(userId);
         log.info("Marked {} notifications as read for user: {}", updated, userId);
     }
 
@@ -179,7 +226,7 @@ public class NotificationServiceImpl implements NotificationService {
     @Override
     public UnreadCountDto getUnreadCount(Long userId) {
         log.debug("Getting unread count for user: {}", userId);
-        long count = notificationRepository.countUnreadByTargetId(userId);
+        long count = unreadCountCache.get(userId, () -> notificationRepository.countUnreadByTargetId(userId));
         return new UnreadCountDto((int) count);
     }
 
@@ -191,11 +238,16 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     @Override
-    @Transactional
     public int cleanupOldNotifications(int daysToKeep) {
         log.info("Cleaning up notifications older than {} days", daysToKeep);
         Instant cutoffDate = Instant.now().minus(daysToKeep, ChronoUnit.DAYS);
-        int deleted = notificationRepository.deleteOldReadNotifications(cutoffDate);
+        // One transaction per batch, so a large backlog never locks the table in a single delete
+        int deleted = 0;
+        int batch;
+        do {
+            batch = notificationArchiver.deleteReadBatch(cutoffDate, CLEANUP_BATCH_SIZE);
+            deleted += batch;
+        } while (batch == CLEANUP_BATCH_SIZE);
         log.info("Cleaned up {} old notifications", deleted);
         return deleted;
     }
@@ -238,6 +290,8 @@ public class NotificationServiceImpl implements NotificationService {
                 .collect(Collectors.toList());
         
         List<Notification> saved = notificationRepository.saveAll(notifications);
+        unreadCountCache.addAfterCommit(saved.stream()
+                .collect(Collectors.groupingBy(Notification::getTargetId, Collectors.counting())));
         log.info("Created {} notifications in bulk", saved.size());
         
         return saved.stream()
@@ -280,4 +334,22 @@ public class NotificationServiceImpl implements NotificationService {
                 .readAt(notification.getReadAt())
                 .build();
     }
-}
\ No newline at end of file
+
+    private NotificationDto mapToDto(NotificationInboxRow row, List<Channel> channels) {
+        return NotificationDto.builder()
+                .notificationId(row.notificationId())
+                .authorId(row.authorId())
+                .targetId(row.targetId())
+                .notificationType(row.notificationType())
+                .subject(row.subject())
+                .message(row.message())
+                .channels(channels)
+                .readStatus(row.readStatus())
+                .dismissedStatus(row.dismissedStatus())
+                .priority(row.priority())
+                .link(row.link())
+                .createdAt(row.createdAt())
+                .readAt(row.readAt())
+                .build();
+    }
+}
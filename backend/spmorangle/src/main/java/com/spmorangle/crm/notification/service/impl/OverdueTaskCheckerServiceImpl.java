@@ -8,14 +8,32 @@ import com.spmorangle.crm.taskmanagement.repository.TaskAssigneeRepository;
 import com.spmorangle.crm.taskmanagement.repository.TaskRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
 
+/**
+ * Sends one overdue reminder per task, 24 hours after it fell due.
+ *
+ * Each run walks only the tasks still waiting for their reminder, in id order and in chunks of
+ * {@code overdue.check.batch-size}. The last id of a chunk is the checkpoint for the next query, so
+ * tasks that keep failing are not picked up again within the same run, and the flags of a chunk
+ * are committed before the next chunk is read.
+ *
+ * Reminders normally go out the moment their deadline passes via {@code DueReminderScheduler}, which
+ * calls {@link #notifyOverdueTasks}. The scheduled sweep is only a low-frequency reconciliation that
+ * catches anything the scheduler missed.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -27,37 +45,86 @@ public class OverdueTaskCheckerServiceImpl implements OverdueTaskCheckerService
 
     private static final Long SYSTEM_USER_ID = -1L;
 
+    @Value("${overdue.check.batch-size:200}")
+    private int batchSize = 200;
+
+    // Email delivery is synchronous; a slow sweep must not overlap the next tick, and reminders fired by
+    // the due-date scheduler wait for a running sweep instead of mailing the same tasks alongside it
+    private final Semaphore scanPermit = new Semaphore(1);
+
     @Override
-    @Scheduled(fixedRateString = "${overdue.check.rate-ms:60000}")
-    @Transactional
+    @Scheduled(fixedRateString = "${overdue.check.rate-ms:900000}")
     public void checkAndNotifyOverdueTasks() {
-        OffsetDateTime threshold = OffsetDateTime.now(ZoneOffset.UTC).minusHours(24);
-        log.info("Checking for tasks overdue before {}", threshold);
-
-        List<Task> candidates = taskRepository.findByDueDateTimeBefore(threshold);
-        if (candidates.isEmpty()) {
-            log.debug("No overdue candidate tasks found");
+        if (!scanPermit.tryAcquire()) {
+            log.warn("Previous overdue check is still running, skipping this run");
             return;
         }
+        try {
+            scan();
+        } finally {
+            scanPermit.release();
+        }
+    }
 
-        for (Task task : candidates) {
-            // Skip if overdue notification has already been sent
-            if (Boolean.TRUE.equals(task.getHasSentOverdue())) {
-                log.debug("Skipping task {} - overdue notification already sent", task.getId());
-                continue;
+    @Override
+    public void notifyOverdueTasks(Collection<Long> taskIds) {
+        if (taskIds == null || taskIds.isEmpty()) {
+            return;
+        }
+        scanPermit.acquireUninterruptibly();
+        try {
+            OffsetDateTime threshold = OffsetDateTime.now(ZoneOffset.UTC).minusHours(24);
+            List<Long> ids = List.copyOf(taskIds);
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                List<Task> chunk = taskRepository.findOverdueNotificationCandidatesIn(
+                        threshold, ids.subList(from, Math.min(from + batchSize, ids.size())));
+                if (!chunk.isEmpty()) {
+                    processChunk(chunk);
+                }
             }
+        } finally {
+            scanPermit.release();
+        }
+    }
 
-            if (task.getStatus() != null) {
-                String s = task.getStatus().name();
-                if ("COMPLETED".equalsIgnoreCase(s)) {
-                    log.debug("Skipping task {} because status is {}", task.getId(), s);
-                    continue;
-                }
+    private void scan() {
+        OffsetDateTime threshold = OffsetDateTime.now(ZoneOffset.UTC).minusHours(24);
+        log.info("Checking for tasks overdue before {}", threshold);
+
+        long checkpoint = 0L;
+        int marked = 0;
+        while (true) {
+            List<Task> chunk = taskRepository.findOverdueNotificationCandidates(
+                    threshold, checkpoint, PageRequest.of(0, batchSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            marked += processChunk(chunk);
+            checkpoint = chunk.get(chunk.size() - 1).getId();
+            if (chunk.size() < batchSize) {
+                break;
             }
+        }
 
-            List<TaskAssignee> assignees = taskAssigneeRepository.findByTaskId(task.getId());
-            if (assignees == null || assignees.isEmpty()) {
-                log.warn("Task {} is overdue but has no assignees", task.getId());
+        if (checkpoint == 0L) {
+            log.debug("No overdue candidate tasks found");
+        } else {
+            log.info("Overdue check finished, {} tasks marked as notified", marked);
+        }
+    }
+
+    private int processChunk(List<Task> chunk) {
+        List<Long> taskIds = chunk.stream().map(Task::getId).toList();
+        Map<Long, List<TaskAssignee>> assigneesByTask = taskAssigneeRepository.findByTaskIdIn(taskIds).stream()
+                .collect(Collectors.groupingBy(TaskAssignee::getTaskId));
+
+        List<Long> notifiedTaskIds = new ArrayList<>();
+        for (Task task : chunk) {
+            List<TaskAssignee> assignees = assigneesByTask.getOrDefault(task.getId(), List.of());
+            if (assignees.isEmpty()) {
+                // Nobody to remind; flag the task anyway so the scans stop picking it up
+                log.warn("Task {} is overdue but has no assignees, skipping its reminder", task.getId());
+                notifiedTaskIds.add(task.getId());
                 continue;
             }
 
@@ -74,11 +141,15 @@ public class OverdueTaskCheckerServiceImpl implements OverdueTaskCheckerService
 
             // Mark as sent only if all emails were sent successfully
             if (emailSentSuccessfully) {
-                task.setHasSentOverdue(true);
-                task.setUpdatedBy(SYSTEM_USER_ID);
-                taskRepository.save(task);
-                log.info("Marked task {} as overdue notification sent", task.getId());
+                notifiedTaskIds.add(task.getId());
             }
         }
+
+        if (notifiedTaskIds.isEmpty()) {
+            return 0;
+        }
+        int updated = taskRepository.markOverdueNotificationSent(notifiedTaskIds, SYSTEM_USER_ID);
+        log.info("Marked tasks {} as overdue notification sent", notifiedTaskIds);
+        return updated;
     }
 }
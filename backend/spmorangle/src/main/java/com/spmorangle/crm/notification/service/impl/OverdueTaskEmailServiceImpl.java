@@ -5,6 +5,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import com.spmorangle.crm.notification.service.EmailService;
+import com.spmorangle.crm.notification.template.HtmlTemplate;
 import com.spmorangle.crm.notification.service.OverdueTaskEmailService;
 import com.spmorangle.crm.usermanagement.service.UserManagementService;
 import com.spmorangle.crm.taskmanagement.model.Task;
@@ -25,6 +26,51 @@ public class OverdueTaskEmailServiceImpl implements OverdueTaskEmailService {
             DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm:ss");
     private static final ZoneId SINGAPORE_ZONE = ZoneId.of("Asia/Singapore"); // UTC+8
 
+    private static final HtmlTemplate OVERDUE_TASK_EMAIL = HtmlTemplate.compile("""
+            <html>
+            <body style="font-family: Arial, sans-serif;">
+                <h2 style="color: #dc3545;">Task Overdue Reminder</h2>
+                <p>Hi {{name}},</p>
+                <p>The following task is overdue:</p>
+                <div style="border-left: 4px solid #dc3545; padding-left: 15px; margin: 20px 0; background-color: #fff3cd; padding: 15px;">
+                    <h3 style="margin-top: 0;">{{title}}</h3>
+                    <p><strong>Due Date:</strong> {{dueDate}}</p>
+                    <p><strong>Status:</strong> {{status}}</p>
+                    {{{description}}}
+                    <p><a href="{{taskUrl}}" style="display: inline-block; margin-top: 10px; padding: 10px 20px; background-color: #007bff; color: white; text-decoration: none; border-radius: 5px;">View Task</a></p>
+                </div>
+                <p>Please take action as soon as possible.</p>
+                <p>Best regards,<br><strong>SPM Orangle Team</strong></p>
+            </body>
+            </html>
+            """);
+
+    private static final HtmlTemplate DESCRIPTION = HtmlTemplate.compile(
+            "<p><strong>Description:</strong> {{description}}</p>");
+
+    private static final HtmlTemplate MULTIPLE_OVERDUE_TASKS_EMAIL = HtmlTemplate.compile("""
+            <html>
+            <body style="font-family: Arial, sans-serif;">
+                <h2 style="color: #dc3545;">Multiple Tasks Overdue</h2>
+                <p>Hi {{name}},</p>
+                <p>You have <strong>{{count}} overdue tasks</strong> that require your attention:</p>
+                <div style="margin: 20px 0;">
+                    {{{tasks}}}
+                </div>
+                <p>Please review and prioritize these tasks.</p>
+                <p>Best regards,<br><strong>SPM Orangle Team</strong></p>
+            </body>
+            </html>
+            """);
+
+    private static final HtmlTemplate TASK_ROW = HtmlTemplate.compile("""
+            <div style="border-left: 4px solid #dc3545; padding-left: 15px; margin: 10px 0; background-color: #f8f9fa; padding: 10px;">
+                <h4 style="margin: 0 0 10px 0;">{{title}}</h4>
+                <p style="margin: 5px 0;"><strong>Due Date:</strong> {{dueDate}}</p>
+                <p style="margin: 5px 0;"><strong>Status:</strong> {{status}}</p>
+                <p style="margin: 5px 0;"><a href="{{taskUrl}}" style="color: #007bff; text-decoration: none;">View Task →</a></p>
+            </div>
+            """);
 
     @Override
     public void sendOverdueTaskEmail(Task task, TaskAssignee assignee) {
@@ -34,10 +80,10 @@ public class OverdueTaskEmailServiceImpl implements OverdueTaskEmailService {
         String assigneeEmail = userManagementService.getAssigneeEmail(assignee);
 
         try {
-            // Wait for async email to complete - this will throw if email fails
+            // Throws if the email could not be queued for delivery
             emailService.sendHtmlEmail(assigneeEmail, subject, htmlBody).join();
 
-            log.info("Sent overdue task email for task {} to {}",
+            log.info("Queued overdue task email for task {} to {}",
                     task.getId(), assigneeEmail);
         } catch (Exception e) {
             log.error("Failed to send overdue task email for task {} to {}: {}",
@@ -58,10 +104,10 @@ public class OverdueTaskEmailServiceImpl implements OverdueTaskEmailService {
         String htmlBody = buildMultipleOverdueTasksEmailHtml(tasks, assignee);
 
         try {
-            // Wait for async email to complete
+            // Throws if the email could not be queued for delivery
             emailService.sendHtmlEmail(assigneeEmail, subject, htmlBody).join();
 
-            log.info("Sent overdue tasks summary email ({} tasks) to {}",
+            log.info("Queued overdue tasks summary email ({} tasks) to {}",
                     tasks.size(), assigneeEmail);
         } catch (Exception e) {
             log.error("Failed to send overdue tasks summary email ({} tasks) to {}: {}",
@@ -71,85 +117,43 @@ public class OverdueTaskEmailServiceImpl implements OverdueTaskEmailService {
     }
 
     private String buildOverdueTaskEmailHtml(Task task, TaskAssignee assignee) {
-        // Convert UTC time to Singapore time (UTC+8)
-        String formattedDueDate = task.getDueDateTime()
-                .atZoneSameInstant(SINGAPORE_ZONE)
-                .format(DATE_FORMATTER);
-
-        String taskUrl = String.format("https://spm-orangle.vercel.app/tasks/%d", task.getId());
-
-        return String.format("""
-            <html>
-            <body style="font-family: Arial, sans-serif;">
-                <h2 style="color: #dc3545;">Task Overdue Reminder</h2>
-                <p>Hi %s,</p>
-                <p>The following task is overdue:</p>
-                <div style="border-left: 4px solid #dc3545; padding-left: 15px; margin: 20px 0; background-color: #fff3cd; padding: 15px;">
-                    <h3 style="margin-top: 0;">%s</h3>
-                    <p><strong>Due Date:</strong> %s</p>
-                    <p><strong>Status:</strong> %s</p>
-                    %s
-                    <p><a href="%s" style="display: inline-block; margin-top: 10px; padding: 10px 20px; background-color: #007bff; color: white; text-decoration: none; border-radius: 5px;">View Task</a></p>
-                </div>
-                <p>Please take action as soon as possible.</p>
-                <p>Best regards,<br><strong>SPM Orangle Team</strong></p>
-            </body>
-            </html>
-            """,
-                userManagementService.getAssigneeName(assignee),
-                task.getTitle(),
-                formattedDueDate,
-                task.getStatus(),
-                task.getDescription() != null
-                        ? "<p><strong>Description:</strong> " + task.getDescription() + "</p>"
-                        : "",
-                taskUrl
-        );
+        String description = task.getDescription() != null
+                ? DESCRIPTION.render(HtmlTemplate.values().with("description", task.getDescription()))
+                : null;
+
+        return OVERDUE_TASK_EMAIL.render(HtmlTemplate.values()
+                .with("name", userManagementService.getAssigneeName(assignee))
+                .with("title", task.getTitle())
+                .with("dueDate", formatDueDate(task))
+                .with("status", task.getStatus())
+                .with("description", description)
+                .with("taskUrl", taskUrl(task)));
     }
 
     private String buildMultipleOverdueTasksEmailHtml(List<Task> tasks, TaskAssignee assignee) {
-        StringBuilder taskList = new StringBuilder();
-
+        StringBuilder taskList = new StringBuilder(tasks.size() * 512);
         for (Task task : tasks) {
-            // Convert UTC time to Singapore time (UTC+8)
-            String formattedDueDate = task.getDueDateTime()
-                    .atZoneSameInstant(SINGAPORE_ZONE)
-                    .format(DATE_FORMATTER);
-
-            String taskUrl = String.format("https://spm-orangle.vercel.app/tasks/%d", task.getId());
-
-            taskList.append(String.format("""
-                <div style="border-left: 4px solid #dc3545; padding-left: 15px; margin: 10px 0; background-color: #f8f9fa; padding: 10px;">
-                    <h4 style="margin: 0 0 10px 0;">%s</h4>
-                    <p style="margin: 5px 0;"><strong>Due Date:</strong> %s</p>
-                    <p style="margin: 5px 0;"><strong>Status:</strong> %s</p>
-                    <p style="margin: 5px 0;"><a href="%s" style="color: #007bff; text-decoration: none;">View Task →</a></p>
-                </div>
-                """,
-                    task.getTitle(),
-                    formattedDueDate,
-                    task.getStatus(),
-                    taskUrl
-            ));
+            TASK_ROW.renderTo(taskList, HtmlTemplate.values()
+                    .with("title", task.getTitle())
+                    .with("dueDate", formatDueDate(task))
+                    .with("status", task.getStatus())
+                    .with("taskUrl", taskUrl(task)));
         }
 
-        return String.format("""
-            <html>
-            <body style="font-family: Arial, sans-serif;">
-                <h2 style="color: #dc3545;">Multiple Tasks Overdue</h2>
-                <p>Hi %s,</p>
-                <p>You have <strong>%d overdue tasks</strong> that require your attention:</p>
-                <div style="margin: 20px 0;">
-                    %s
-                </div>
-                <p>Please review and prioritize these tasks.</p>
-                <p>Best regards,<br><strong>SPM Orangle Team</strong></p>
-            </body>
-            </html>
-            """,
-                userManagementService.getAssigneeName(assignee),
-                tasks.size(),
-                taskList
-        );
+        return MULTIPLE_OVERDUE_TASKS_EMAIL.render(HtmlTemplate.values()
+                .with("name", userManagementService.getAssigneeName(assignee))
+                .with("count", tasks.size())
+                .with("tasks", taskList));
+    }
+
+    private static String formatDueDate(Task task) {
+        // Convert UTC time to Singapore time (UTC+8)
+        return task.getDueDateTime()
+                .atZoneSameInstant(SINGAPORE_ZONE)
+                .format(DATE_FORMATTER);
+    }
+
+    private static String taskUrl(Task task) {
+        return "https://spm-orangle.vercel.app/tasks/" + task.getId();
     }
-}
\ No newline at end of file
+}
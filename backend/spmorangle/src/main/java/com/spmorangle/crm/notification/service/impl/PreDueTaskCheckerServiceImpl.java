@@ -8,14 +8,26 @@ import com.spmorangle.crm.taskmanagement.repository.TaskAssigneeRepository;
 import com.spmorangle.crm.taskmanagement.repository.TaskRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
 
+/**
+ * Sends one reminder per task before it falls due: 24 hours ahead, or 12 hours ahead once the task
+ * has been rescheduled. Works in id-ordered chunks with a checkpoint, like
+ * {@link OverdueTaskCheckerServiceImpl}. Each sweep also flags the reminders of tasks that are already
+ * due, since those can no longer be sent.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -27,58 +39,100 @@ public class PreDueTaskCheckerServiceImpl implements PreDueTaskCheckerService {
 
     private static final Long SYSTEM_USER_ID = -1L;
 
+    @Value("${predue.check.batch-size:200}")
+    private int batchSize = 200;
+
+    private final Semaphore scanPermit = new Semaphore(1);
+
     @Override
-    @Scheduled(fixedRateString = "${predue.check.rate-ms:60000}")
-    @Transactional
+    @Scheduled(fixedRateString = "${predue.check.rate-ms:900000}")
     public void checkAndNotifyPredueTasks() {
-        OffsetDateTime threshold24h = OffsetDateTime.now(ZoneOffset.UTC).plusHours(24);
-        OffsetDateTime threshold12h = OffsetDateTime.now(ZoneOffset.UTC).plusHours(12);
-
-        log.info("Checking for tasks pre due before 24h: {} and rescheduled before 12h: {}", threshold24h, threshold12h);
+        if (!scanPermit.tryAcquire()) {
+            log.warn("Previous pre due check is still running, skipping this run");
+            return;
+        }
+        try {
+            scan();
+        } finally {
+            scanPermit.release();
+        }
+    }
 
-        // Get all candidates within 24 hours (covers both thresholds)
-        List<Task> candidates = taskRepository.findByDueDateTimeBefore(threshold24h);
-        if (candidates.isEmpty()) {
-            log.debug("No pre due candidate tasks found");
+    @Override
+    public void notifyPreDueTasks(Collection<Long> taskIds) {
+        if (taskIds == null || taskIds.isEmpty()) {
             return;
         }
+        scanPermit.acquireUninterruptibly();
+        try {
+            OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+            OffsetDateTime threshold24h = now.plusHours(24);
+            OffsetDateTime threshold12h = now.plusHours(12);
+            List<Long> ids = List.copyOf(taskIds);
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                List<Task> chunk = taskRepository.findPreDueNotificationCandidatesIn(
+                        now, threshold24h, threshold12h, ids.subList(from, Math.min(from + batchSize, ids.size())));
+                if (!chunk.isEmpty()) {
+                    processChunk(chunk);
+                }
+            }
+        } finally {
+            scanPermit.release();
+        }
+    }
 
-        for (Task task : candidates) {
-            // Determine threshold based on reschedule status
-            boolean isRescheduled = Boolean.TRUE.equals(task.getIsRescheduled());
-            OffsetDateTime applicableThreshold = isRescheduled ? threshold12h : threshold24h;
-            int hoursUntilDue = isRescheduled ? 12 : 24;
+    private void scan() {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        OffsetDateTime threshold24h = now.plusHours(24);
+        OffsetDateTime threshold12h = now.plusHours(12);
 
-            // Skip if task is outside the applicable threshold
-            if (task.getDueDateTime() != null && task.getDueDateTime().isAfter(applicableThreshold)) {
-                log.debug("Skipping task {} - due date {} is outside {} threshold",
-                        task.getId(), task.getDueDateTime(), isRescheduled ? "12h" : "24h");
-                continue;
-            }
+        log.info("Checking for tasks pre due before 24h: {} and rescheduled before 12h: {}", threshold24h, threshold12h);
 
-            // Skip if pre due notification has already been sent for this schedule state
-            if (Boolean.TRUE.equals(task.getHasSentPreDue())) {
-                log.debug("Skipping task {} - pre due notification already sent", task.getId());
-                continue;
-            }
+        int missed = taskRepository.markMissedPreDueNotifications(now, SYSTEM_USER_ID);
+        if (missed > 0) {
+            log.info("Marked {} tasks that are already due as pre due notification sent", missed);
+        }
 
-            // Skip if completed
-            if (task.getStatus() != null) {
-                String s = task.getStatus().name();
-                if ("COMPLETED".equalsIgnoreCase(s)) {
-                    log.debug("Skipping task {} because status is {}", task.getId(), s);
-                    continue;
-                }
+        long checkpoint = 0L;
+        int marked = 0;
+        while (true) {
+            List<Task> chunk = taskRepository.findPreDueNotificationCandidates(
+                    now, threshold24h, threshold12h, checkpoint, PageRequest.of(0, batchSize));
+            if (chunk.isEmpty()) {
+                break;
             }
+            marked += processChunk(chunk);
+            checkpoint = chunk.get(chunk.size() - 1).getId();
+            if (chunk.size() < batchSize) {
+                break;
+            }
+        }
 
-            // Get assignees
-            List<TaskAssignee> assignees = taskAssigneeRepository.findByTaskId(task.getId());
-            if (assignees == null || assignees.isEmpty()) {
-                log.warn("Task {} is pre due but has no assignees", task.getId());
+        if (checkpoint == 0L) {
+            log.debug("No pre due candidate tasks found");
+        } else {
+            log.info("Pre due check finished, {} tasks marked as notified", marked);
+        }
+    }
+
+    private int processChunk(List<Task> chunk) {
+        List<Long> taskIds = chunk.stream().map(Task::getId).toList();
+        Map<Long, List<TaskAssignee>> assigneesByTask = taskAssigneeRepository.findByTaskIdIn(taskIds).stream()
+                .collect(Collectors.groupingBy(TaskAssignee::getTaskId));
+
+        List<Long> notifiedTaskIds = new ArrayList<>();
+        for (Task task : chunk) {
+            boolean isRescheduled = Boolean.TRUE.equals(task.getIsRescheduled());
+            int hoursUntilDue = isRescheduled ? 12 : 24;
+
+            List<TaskAssignee> assignees = assigneesByTask.getOrDefault(task.getId(), List.of());
+            if (assignees.isEmpty()) {
+                // Nobody to remind; flag the task anyway so the scans stop picking it up
+                log.warn("Task {} is pre due but has no assignees, skipping its reminder", task.getId());
+                notifiedTaskIds.add(task.getId());
                 continue;
             }
 
-            // Send emails to all assignees
             boolean emailSentSuccessfully = true;
             for (TaskAssignee assignee : assignees) {
                 try {
@@ -94,12 +148,15 @@ public class PreDueTaskCheckerServiceImpl implements PreDueTaskCheckerService {
 
             // Mark as sent only if all emails were sent successfully
             if (emailSentSuccessfully) {
-                task.setHasSentPreDue(true);
-                task.setUpdatedBy(SYSTEM_USER_ID);
-                taskRepository.save(task);
-                log.info("Marked task {} as pre due notification sent ({})",
-                        task.getId(), isRescheduled ? "rescheduled 12h" : "standard 24h");
+                notifiedTaskIds.add(task.getId());
             }
         }
+
+        if (notifiedTaskIds.isEmpty()) {
+            return 0;
+        }
+        int updated = taskRepository.markPreDueNotificationSent(notifiedTaskIds, SYSTEM_USER_ID);
+        log.info("Marked tasks {} as pre due notification sent", notifiedTaskIds);
+        return updated;
     }
 }
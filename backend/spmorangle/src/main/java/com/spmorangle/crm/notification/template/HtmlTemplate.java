@@ -0,0 +1,175 @@
+package com.spmorangle.crm.notification.template;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An HTML email template parsed once into literal and variable segments.
+ *
+ * {@code {{name}}} inserts a value HTML-escaped and {@code {{{name}}}} inserts it as is, for fragments the
+ * caller has already rendered with another template. Missing and null values render as nothing. The literal
+ * parts, including the inline stylesheet, are kept as single strings and copied in one append each, and
+ * rendering writes into a per-thread buffer that is reused between calls, so a sweep rendering thousands of
+ * similar emails does not rebuild or regrow a builder for every one.
+ */
+public final class HtmlTemplate {
+
+    // Buffers that grew past this are dropped after use instead of being kept by the thread
+    private static final int MAX_RETAINED_CAPACITY = 256 * 1024;
+    private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(Buffer::new);
+
+    private final Segment[] segments;
+    private final int literalLength;
+
+    private HtmlTemplate(Segment[] segments, int literalLength) {
+        this.segments = segments;
+        this.literalLength = literalLength;
+    }
+
+    /**
+     * Parses a template
+     *
+     * @throws IllegalArgumentException if a placeholder is not closed or has no name
+     */
+    public static HtmlTemplate compile(String source) {
+        List<Segment> segments = new ArrayList<>();
+        int literalLength = 0;
+        int position = 0;
+        while (position < source.length()) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                open = source.length();
+            }
+            if (open > position) {
+                String literal = source.substring(position, open);
+                segments.add(new Segment(literal, null, false));
+                literalLength += literal.length();
+            }
+            if (open == source.length()) {
+                break;
+            }
+
+            boolean raw = source.startsWith("{{{", open);
+            String close = raw ? "}}}" : "}}";
+            int nameStart = open + (raw ? 3 : 2);
+            int end = source.indexOf(close, nameStart);
+            if (end < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + open);
+            }
+            String name = source.substring(nameStart, end).trim();
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Empty placeholder at offset " + open);
+            }
+            segments.add(new Segment(null, name, !raw));
+            position = end + close.length();
+        }
+        return new HtmlTemplate(segments.toArray(new Segment[0]), literalLength);
+    }
+
+    public static Values values() {
+        return new Values();
+    }
+
+    public String render(Values values) {
+        Buffer buffer = BUFFER.get();
+        if (buffer.inUse) {
+            // Rendering from inside another render on this thread, e.g. from a value's toString()
+            StringBuilder out = new StringBuilder(literalLength + 256);
+            renderTo(out, values);
+            return out.toString();
+        }
+        buffer.inUse = true;
+        try {
+            renderTo(buffer.chars, values);
+            return buffer.chars.toString();
+        } finally {
+            if (buffer.chars.capacity() > MAX_RETAINED_CAPACITY) {
+                BUFFER.remove();
+            } else {
+                buffer.chars.setLength(0);
+                buffer.inUse = false;
+            }
+        }
+    }
+
+    /**
+     * Appends the rendered template, e.g. one row of a list that is then passed on as a raw value
+     */
+    public void renderTo(StringBuilder out, Values values) {
+        out.ensureCapacity(out.length() + literalLength);
+        for (Segment segment : segments) {
+            if (segment.literal != null) {
+                out.append(segment.literal);
+                continue;
+            }
+            Object value = values.get(segment.name);
+            if (value == null) {
+                continue;
+            }
+            CharSequence text = value instanceof CharSequence chars ? chars : String.valueOf(value);
+            if (segment.escape) {
+                escapeTo(out, text);
+            } else {
+                out.append(text);
+            }
+        }
+    }
+
+    public static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(text.length() + 16);
+        escapeTo(out, text);
+        return out.toString();
+    }
+
+    public static void escapeTo(StringBuilder out, CharSequence text) {
+        // Runs between special characters are copied in one append rather than char by char
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            String entity = switch (text.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (entity != null) {
+                out.append(text, start, i).append(entity);
+                start = i + 1;
+            }
+        }
+        out.append(text, start, text.length());
+    }
+
+    /**
+     * Values for one rendering; unlike {@link Map#of} it accepts nulls, which render as nothing
+     */
+    public static final class Values {
+        private final Map<String, Object> values = new HashMap<>();
+
+        private Values() {
+        }
+
+        public Values with(String name, Object value) {
+            values.put(name, value);
+            return this;
+        }
+
+        Object get(String name) {
+            return values.get(name);
+        }
+    }
+
+    private static final class Buffer {
+        private final StringBuilder chars = new StringBuilder(8192);
+        private boolean inUse;
+    }
+
+    private record Segment(String literal, String name, boolean escape) {
+    }
+}
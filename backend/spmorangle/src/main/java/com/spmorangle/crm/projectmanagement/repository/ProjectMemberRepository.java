@@ -1,5 +1,6 @@
 package com.spmorangle.crm.projectmanagement.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -28,6 +29,10 @@ public interface ProjectMemberRepository extends JpaRepository<ProjectMember, Pr
     @Query("SELECT pm FROM ProjectMember pm WHERE pm.projectId IN :projectIds AND pm.isOwner = true")
     List<ProjectMember> findOwnersByProjectIds(@Param("projectIds") Set<Long> projectIds);
 
+    @Query("SELECT pm.projectId FROM ProjectMember pm " +
+           "WHERE pm.userId = :userId AND pm.isOwner = true AND pm.projectId IN :projectIds")
+    List<Long> findOwnedProjectIds(@Param("userId") Long userId, @Param("projectIds") Collection<Long> projectIds);
+
     @Query("SELECT CASE WHEN COUNT(pm) > 0 THEN true ELSE false END FROM ProjectMember pm " +
            "WHERE pm.projectId = :projectId AND pm.userId = :userId AND pm.isOwner = true")
     boolean existsByProjectIdAndUserIdAndIsOwner(@Param("projectId") Long projectId,
@@ -1,5 +1,6 @@
 package com.spmorangle.crm.projectmanagement.service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -20,6 +21,7 @@ public interface ProjectService {
 
     // New methods for owner management
     boolean isUserProjectOwner(Long userId, Long projectId);
+    Set<Long> getOwnedProjectIds(Long userId, Collection<Long> projectIds);
     List<Long> getProjectOwnerIds(Long projectId);
     void addProjectOwner(Long projectId, Long userId, Long addedBy);
     void removeProjectOwner(Long projectId, Long userId);
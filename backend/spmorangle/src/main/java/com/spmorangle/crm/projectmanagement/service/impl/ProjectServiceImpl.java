@@ -2,6 +2,7 @@ package com.spmorangle.crm.projectmanagement.service.impl;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
@@ -373,19 +374,8 @@ public class ProjectServiceImpl implements ProjectService {
 
         memberIds.add(project.getOwnerId());
 
-
-        for (Long memberId : memberIds) {
-            User member = userRepository.findById(memberId).orElse(null);
-            if (member == null || member.getDepartmentId() == null) {
-                continue;
-            }
-
-            if (departmentalVisibilityService.canUserSeeTask(userVisibleDepartmentIds, memberId)) {
-                return true;
-            }
-        }
-
-        return false;
+        return departmentalVisibilityService.visibleUsersForDepartments(userVisibleDepartmentIds)
+            .containsAny(memberIds);
     }
 
     @Override
@@ -408,6 +398,14 @@ public class ProjectServiceImpl implements ProjectService {
         return projectMemberRepository.existsByProjectIdAndUserIdAndIsOwner(projectId, userId, true);
     }
 
+    @Override
+    public Set<Long> getOwnedProjectIds(Long userId, Collection<Long> projectIds) {
+        if (userId == null || projectIds == null || projectIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return new HashSet<>(projectMemberRepository.findOwnedProjectIds(userId, projectIds));
+    }
+
     @Override
     public List<Long> getProjectOwnerIds(Long projectId) {
         List<ProjectMember> owners = projectMemberRepository.findOwnersByProjectId(projectId);
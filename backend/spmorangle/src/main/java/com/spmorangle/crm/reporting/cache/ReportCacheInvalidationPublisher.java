@@ -0,0 +1,74 @@
+package com.spmorangle.crm.reporting.cache;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.spmorangle.common.config.RabbitMQConfig;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fans report cache invalidations out to the other instances.
+ *
+ * Sends are best effort and made on a background thread, so a slow or unreachable broker never holds up
+ * the request whose write triggered them. An invalidation that is dropped, because the queue is full or the
+ * send fails, only leaves the other instances serving those reports until their TTL runs out.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReportCacheInvalidationPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    @Value("${reports.cache.broadcast-queue-capacity:1000}")
+    private int queueCapacity = 1000;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-cache-broadcast");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> log.warn("Report cache broadcast queue is full; dropping an invalidation"));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    public void publish(ReportResultCache.Invalidation invalidation) {
+        ExecutorService current = executor;
+        if (current == null) {
+            return;
+        }
+        current.execute(() -> send(invalidation));
+    }
+
+    private void send(ReportResultCache.Invalidation invalidation) {
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.REPORT_CACHE_EXCHANGE, "", invalidation);
+        } catch (AmqpException e) {
+            log.warn("Failed to broadcast report cache invalidation: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package com.spmorangle.crm.reporting.cache;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.converter.Jackson2JavaTypeMapper;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.spmorangle.common.util.BoundedLruCache;
+import com.spmorangle.crm.departmentmgmt.hierarchy.DepartmentMemberIndex;
+import com.spmorangle.crm.reporting.dto.ReportFilterDto;
+import com.spmorangle.crm.taskmanagement.event.TaskReportingChangedEvent;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Task summary and time analytics reports, kept in memory so a department head refreshing the same
+ * dashboard does not run the report queries again every time.
+ *
+ * A report is keyed by the caller's role and the department scope the role resolved to, and by the filters
+ * that shape it, with the project list sorted so the same selection in another order is the same report.
+ * Windows reaching today still change as timers run, so they are kept for a short TTL; fully historical
+ * windows are kept far longer. Task and time tracking writes drop, once they commit, the reports of the
+ * departments involved whose window contains the changed day, along with the all-department reports. Time
+ * analytics also counts the tasks of the tracked projects whatever their creation day, so task writes drop
+ * all of those for the department. The changes of one transaction are merged into a single invalidation,
+ * which is also broadcast to every other instance so they drop the same reports. A broadcast that does not
+ * reach an instance only shows up there once the entry expires.
+ *
+ * Cached reports are shared between callers and must not be modified. Hit ratio and the query time saved
+ * are logged periodically.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReportResultCache {
+
+    private static final Jackson2JsonMessageConverter CONVERTER = new Jackson2JsonMessageConverter();
+
+    static {
+        // Convert to the listener's type rather than the publisher's __TypeId__ header
+        CONVERTER.setTypePrecedence(Jackson2JavaTypeMapper.TypePrecedence.INFERRED);
+    }
+
+    private final DepartmentMemberIndex departmentMemberIndex;
+    private final ReportCacheInvalidationPublisher invalidationPublisher;
+
+    // Tells this instance's own broadcasts apart from those of other instances
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${reports.cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${reports.cache.live-ttl-ms:60000}")
+    private long liveTtlMillis = 60_000;
+
+    @Value("${reports.cache.historical-ttl-ms:3600000}")
+    private long historicalTtlMillis = 3_600_000;
+
+    @Value("${reports.cache.max-entries:500}")
+    private int maxEntries = 500;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder savedNanos = new LongAdder();
+    private final LongAdder invalidated = new LongAdder();
+    // Bumped by every invalidation so a report generated while one ran is not stored
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile BoundedLruCache<Key, Entry> entries;
+
+    public enum Report {
+        TASK_SUMMARY,
+        TIME_ANALYTICS
+    }
+
+    /**
+     * @param savedMillis time the report queries took when first run, summed over every hit
+     */
+    public record Stats(long hits, long misses, double hitRatio, long savedMillis, long invalidated, int size) {
+    }
+
+    record Key(Report report, String roleType, Long departmentScope, List<Long> projectIds,
+               LocalDate startDate, LocalDate endDate) {
+
+        boolean covers(Set<Long> departments) {
+            return departmentScope == null || departments.contains(departmentScope);
+        }
+
+        boolean containsAny(Set<LocalDate> days) {
+            for (LocalDate day : days) {
+                if (!day.isBefore(startDate) && !day.isAfter(endDate)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private record Entry(Object report, long expiresAtMillis, long generateNanos) {
+    }
+
+    /**
+     * Reports to drop after a transaction's writes, sent to every instance. Time tracking changes leave task
+     * summaries as they are, so they are kept apart from task changes.
+     *
+     * @param origin instance the writes were made on
+     * @param taskDepartmentIds departments of the owners of changed tasks
+     * @param taskDays creation days of changed tasks
+     * @param trackingDepartmentIds departments of the users whose time tracking changed
+     * @param trackingDays start days of changed time tracking records
+     */
+    public record Invalidation(String origin, Set<Long> taskDepartmentIds, Set<LocalDate> taskDays,
+                               Set<Long> trackingDepartmentIds, Set<LocalDate> trackingDays) {
+
+        boolean matches(Key key) {
+            if (!taskDays.isEmpty() && key.covers(taskDepartmentIds)
+                    && (key.report() == Report.TIME_ANALYTICS || key.containsAny(taskDays))) {
+                return true;
+            }
+            return !trackingDays.isEmpty() && key.covers(trackingDepartmentIds)
+                    && key.report() == Report.TIME_ANALYTICS && key.containsAny(trackingDays);
+        }
+    }
+
+    /**
+     * Changes made so far in one transaction
+     */
+    private static final class Pending {
+        private final Set<Long> taskDepartmentIds = new HashSet<>();
+        private final Set<LocalDate> taskDays = new HashSet<>();
+        private final Set<Long> trackingDepartmentIds = new HashSet<>();
+        private final Set<LocalDate> trackingDays = new HashSet<>();
+
+        Invalidation toInvalidation(String origin) {
+            return new Invalidation(origin, Set.copyOf(taskDepartmentIds), Set.copyOf(taskDays),
+                    Set.copyOf(trackingDepartmentIds), Set.copyOf(trackingDays));
+        }
+    }
+
+    /**
+     * Returns the cached report, or generates and caches it
+     *
+     * @param roleType role of the caller
+     * @param departmentScope department the caller's role limits the report to, or null for all of them
+     * @param generate runs the report queries
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Report report, String roleType, Long departmentScope, ReportFilterDto filters,
+                     Supplier<T> generate) {
+        if (!enabled || filters.getStartDate() == null || filters.getEndDate() == null) {
+            return generate.get();
+        }
+
+        Key key = keyOf(report, roleType, departmentScope, filters);
+        BoundedLruCache<Key, Entry> cache = entries();
+        long now = System.currentTimeMillis();
+        Entry entry = cache.get(key);
+        if (entry != null && entry.expiresAtMillis() > now) {
+            hits.increment();
+            savedNanos.add(entry.generateNanos());
+            return (T) entry.report();
+        }
+
+        misses.increment();
+        long startGeneration = generation.get();
+        long started = System.nanoTime();
+        T generated = generate.get();
+        long elapsed = System.nanoTime() - started;
+        if (generated != null && generation.get() == startGeneration) {
+            long ttl = isLive(key.endDate()) ? liveTtlMillis : historicalTtlMillis;
+            cache.put(key, new Entry(generated, System.currentTimeMillis() + ttl, elapsed));
+        }
+        return generated;
+    }
+
+    // Before commit, so the change is merged into the transaction's single invalidation
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onTaskReportingChanged(TaskReportingChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Set<Long> departments = departmentsOf(List.of(event.ownerId()));
+        Set<LocalDate> days = daysOf(List.of(event.createdAt() != null ? event.createdAt() : OffsetDateTime.now()));
+        Pending pending = pending();
+        pending.taskDepartmentIds.addAll(departments);
+        pending.taskDays.addAll(days);
+        flushIfNoTransaction(pending);
+    }
+
+    /**
+     * Drops the time analytics of the given users' departments covering the start days of changed time
+     * tracking records, once the current transaction commits
+     *
+     * @param userIds users whose records changed, and the task owner
+     * @param startedAt start times of the changed records, before and after the change
+     */
+    public void invalidateTracking(Collection<Long> userIds, Collection<OffsetDateTime> startedAt) {
+        if (!enabled || userIds.isEmpty() || startedAt.isEmpty()) {
+            return;
+        }
+        Set<Long> departments = departmentsOf(userIds);
+        Set<LocalDate> days = daysOf(startedAt);
+        Pending pending = pending();
+        pending.trackingDepartmentIds.addAll(departments);
+        pending.trackingDays.addAll(days);
+        flushIfNoTransaction(pending);
+    }
+
+    @RabbitListener(queues = "#{reportCacheInvalidationQueue.name}")
+    public void onInvalidation(Message message) {
+        try {
+            message.getMessageProperties().setInferredArgumentType(Invalidation.class);
+            Invalidation invalidation = (Invalidation) CONVERTER.fromMessage(message);
+            if (!instanceId.equals(invalidation.origin())) {
+                remove(invalidation::matches);
+            }
+        } catch (Exception e) {
+            // Not requeued: the entries it was meant for expire anyway
+            log.warn("Ignoring unreadable report cache invalidation: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Changes of the current transaction, applied and broadcast together once it commits
+     */
+    private Pending pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new Pending();
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        Pending created = new Pending();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReportResultCache.this);
+                apply(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ReportResultCache.this);
+            }
+        });
+        return created;
+    }
+
+    private void flushIfNoTransaction(Pending pending) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(pending);
+        }
+    }
+
+    private void apply(Pending pending) {
+        Invalidation invalidation = pending.toInvalidation(instanceId);
+        remove(invalidation::matches);
+        invalidationPublisher.publish(invalidation);
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        entries().clear();
+    }
+
+    @Scheduled(fixedDelayString = "${reports.cache.stats-log-interval-ms:300000}",
+            initialDelayString = "${reports.cache.stats-log-interval-ms:300000}")
+    public void logStats() {
+        Stats stats = stats();
+        if (stats.hits() + stats.misses() == 0) {
+            return;
+        }
+        log.info("Report cache: {} entries, {} hits, {} misses, hit ratio {}, {} ms of report queries saved, {} invalidated",
+                stats.size(), stats.hits(), stats.misses(), String.format(Locale.ROOT, "%.2f", stats.hitRatio()),
+                stats.savedMillis(), stats.invalidated());
+    }
+
+    public Stats stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        return new Stats(hitCount, missCount, lookups == 0 ? 0.0 : (double) hitCount / lookups,
+                savedNanos.sum() / 1_000_000, invalidated.sum(), entries().size());
+    }
+
+    static Key keyOf(Report report, String roleType, Long departmentScope, ReportFilterDto filters) {
+        List<Long> projectIds = filters.getProjectIds() == null ? List.of()
+                : filters.getProjectIds().stream().distinct().sorted().toList();
+        return new Key(report, roleType, departmentScope, projectIds, filters.getStartDate(), filters.getEndDate());
+    }
+
+    private void remove(Predicate<Key> stale) {
+        generation.incrementAndGet();
+        int removed = entries().removeIf(stale);
+        if (removed > 0) {
+            invalidated.add(removed);
+            log.debug("Dropped {} cached reports", removed);
+        }
+    }
+
+    private Set<Long> departmentsOf(Collection<Long> userIds) {
+        Set<Long> departments = new HashSet<>();
+        for (Long userId : userIds) {
+            Long departmentId = departmentMemberIndex.departmentOf(userId);
+            if (departmentId != null) {
+                departments.add(departmentId);
+            }
+        }
+        return departments;
+    }
+
+    /**
+     * Reports bucket by the database's date of a timestamp, so both the UTC and the local day are dropped
+     */
+    private static Set<LocalDate> daysOf(Collection<OffsetDateTime> times) {
+        Set<LocalDate> days = new HashSet<>();
+        for (OffsetDateTime time : times) {
+            if (time != null) {
+                days.add(time.atZoneSameInstant(ZoneOffset.UTC).toLocalDate());
+                days.add(time.atZoneSameInstant(ZoneId.systemDefault()).toLocalDate());
+            }
+        }
+        return days;
+    }
+
+    private static boolean isLive(LocalDate endDate) {
+        LocalDate utcToday = LocalDate.now(ZoneOffset.UTC);
+        LocalDate localToday = LocalDate.now(ZoneId.systemDefault());
+        return !endDate.isBefore(utcToday.isBefore(localToday) ? utcToday : localToday);
+    }
+
+    private BoundedLruCache<Key, Entry> entries() {
+        BoundedLruCache<Key, Entry> cache = entries;
+        if (cache == null) {
+            synchronized (this) {
+                cache = entries;
+                if (cache == null) {
+                    // Created on first use so the configured size is in place by then
+                    cache = new BoundedLruCache<>(Math.max(1, maxEntries));
+                    entries = cache;
+                }
+            }
+        }
+        return cache;
+    }
+}
@@ -5,20 +5,26 @@ import com.spmorangle.common.service.UserContextService;
 import com.spmorangle.crm.departmentmgmt.dto.DepartmentDto;
 import com.spmorangle.crm.departmentmgmt.service.DepartmentQueryService;
 import com.spmorangle.crm.reporting.dto.ReportFilterDto;
-import com.spmorangle.crm.reporting.dto.StaffBreakdownDto;
+import com.spmorangle.crm.reporting.dto.ReportJobDto;
 import com.spmorangle.crm.reporting.dto.TaskSummaryReportDto;
 import com.spmorangle.crm.reporting.dto.TimeAnalyticsReportDto;
-import com.spmorangle.crm.reporting.dto.TimeSeriesDataPoint;
+import com.spmorangle.crm.reporting.enums.ReportJobStatus;
 import com.spmorangle.crm.reporting.export.ReportExportService;
+import com.spmorangle.crm.reporting.job.ReportJobService;
 import com.spmorangle.crm.reporting.service.ReportService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.file.Files;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +41,7 @@ public class ReportController {
     private final UserContextService userContextService;
     private final ReportExportService reportExportService;
     private final DepartmentQueryService departmentQueryService;
+    private final ReportJobService reportJobService;
     
     @GetMapping("/task-summary")
     public ResponseEntity<TaskSummaryReportDto> getTaskSummaryReport(
@@ -127,54 +134,20 @@ public class ReportController {
     }
     
     @PostMapping("/generate")
-    public ResponseEntity<?> generateReport(@Valid @RequestBody ReportFilterDto filters) {
+    public ResponseEntity<?> generateReport(
+            @Valid @RequestBody ReportFilterDto filters,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         User user = userContextService.getRequestingUser();
         log.info("Generating comprehensive report for user: {} with filters: {}", user.getId(), filters);
         
         try {
-            // Convert department name to ID if provided
-            Long departmentId = filters.getDepartmentId();
-            if (departmentId == null && filters.getDepartment() != null && !filters.getDepartment().isEmpty()) {
-                Optional<DepartmentDto> deptOpt = departmentQueryService.getByNameCaseInsensitive(filters.getDepartment());
-                if (deptOpt.isPresent()) {
-                    departmentId = deptOpt.get().getId();
-                    log.info("Converted department name '{}' to ID: {}", filters.getDepartment(), departmentId);
-                } else {
-                    log.warn("Department not found: {}", filters.getDepartment());
-                }
-            }
-            
-            // Create final filters with departmentId set
-            ReportFilterDto finalFilters = ReportFilterDto.builder()
-                .departmentId(departmentId)
-                .projectIds(filters.getProjectIds())
-                .startDate(filters.getStartDate())
-                .endDate(filters.getEndDate())
-                .timeRange(filters.getTimeRange())
-                .exportFormat(filters.getExportFormat())
-                .build();
-            
+            ReportFilterDto finalFilters = resolveFilters(filters);
+
             // Generate all report components
-            TaskSummaryReportDto taskSummary = reportService.generateTaskSummaryReport(finalFilters, user.getId());
-            TimeAnalyticsReportDto timeAnalytics = reportService.generateTimeAnalyticsReport(finalFilters, user.getId());
-            List<StaffBreakdownDto> staffBreakdown = reportService.generateStaffBreakdown(finalFilters, user.getId());
-            List<TimeSeriesDataPoint> timeSeriesData = reportService.generateTimeSeriesData(finalFilters, user.getId());
-            
-            // Build report data map
-            Map<String, Object> reportData = new java.util.HashMap<>();
-            reportData.put("taskSummary", taskSummary);
-            reportData.put("timeAnalytics", timeAnalytics);
-            reportData.put("staffBreakdown", staffBreakdown);
-            reportData.put("filters", finalFilters);
-            reportData.put("generatedAt", java.time.OffsetDateTime.now());
-            
-            // Include time-series data only if it exists
-            if (timeSeriesData != null && !timeSeriesData.isEmpty()) {
-                reportData.put("timeSeriesData", timeSeriesData);
-            }
+            Map<String, Object> reportData = reportService.generateReportData(finalFilters, user.getId());
             
             // Use export service to handle formatting and response
-            return reportExportService.exportReport(reportData, finalFilters);
+            return reportExportService.exportReport(reportData, finalFilters, acceptsGzip(acceptEncoding));
             
         } catch (Exception e) {
             log.error("Error generating report for user: {}", user.getId(), e);
@@ -182,5 +155,119 @@ public class ReportController {
                 .body(Map.of("error", "Failed to generate report: " + e.getMessage()));
         }
     }
-}
 
+    /**
+     * Queue a report to be generated in the background
+     * Poll the returned job until it is COMPLETED, then fetch it from its downloadUrl
+     * @param filters Same filters as /generate
+     * @return The queued job, or the caller's identical job that is already in progress
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<?> submitReportJob(@Valid @RequestBody ReportFilterDto filters) {
+        User user = userContextService.getRequestingUser();
+        log.info("Queueing report job for user: {} with filters: {}", user.getId(), filters);
+
+        try {
+            ReportJobDto job = reportJobService.submit(resolveFilters(filters), user.getId());
+            return ResponseEntity.accepted().body(job);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ReportJobDto> getReportJob(@PathVariable String jobId) {
+        User user = userContextService.getRequestingUser();
+        return reportJobService.getJob(jobId, user.getId())
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Download the report of a completed job
+     * @return The report file, 409 if the job is not completed yet, or 404 if it is unknown or expired
+     */
+    @GetMapping("/jobs/{jobId}/download")
+    public ResponseEntity<?> downloadReportJob(@PathVariable String jobId) {
+        User user = userContextService.getRequestingUser();
+        Optional<ReportJobDto> job = reportJobService.getJob(jobId, user.getId());
+        if (job.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (job.get().getStatus() != ReportJobStatus.COMPLETED) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(job.get());
+        }
+
+        Optional<ReportJobService.ReportJobResult> result = reportJobService.getResult(jobId, user.getId());
+        if (result.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        ReportJobService.ReportJobResult file = result.get();
+        StreamingResponseBody body = outputStream -> Files.copy(file.file(), outputStream);
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.filename() + "\"")
+            .contentType(MediaType.parseMediaType(file.contentType()))
+            .contentLength(file.size())
+            .body(body);
+    }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip: listed by name, or through "*", with a non-zero
+     * q-value. A q-value for gzip itself overrides the one for "*"
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase();
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().toLowerCase();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0.0;
+                    }
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzipQuality = quality;
+            } else if (name.equals("*")) {
+                anyQuality = quality;
+            }
+        }
+        Double quality = gzipQuality != null ? gzipQuality : anyQuality;
+        return quality != null && quality > 0;
+    }
+
+    /**
+     * Copy of the filters with the department name, if given, converted to its ID
+     */
+    private ReportFilterDto resolveFilters(ReportFilterDto filters) {
+        Long departmentId = filters.getDepartmentId();
+        if (departmentId == null && filters.getDepartment() != null && !filters.getDepartment().isEmpty()) {
+            Optional<DepartmentDto> deptOpt = departmentQueryService.getByNameCaseInsensitive(filters.getDepartment());
+            if (deptOpt.isPresent()) {
+                departmentId = deptOpt.get().getId();
+                log.info("Converted department name '{}' to ID: {}", filters.getDepartment(), departmentId);
+            } else {
+                log.warn("Department not found: {}", filters.getDepartment());
+            }
+        }
+
+        return ReportFilterDto.builder()
+            .departmentId(departmentId)
+            .projectIds(filters.getProjectIds())
+            .startDate(filters.getStartDate())
+            .endDate(filters.getEndDate())
+            .timeRange(filters.getTimeRange())
+            .exportFormat(filters.getExportFormat())
+            .build();
+    }
+}
@@ -0,0 +1,24 @@
+package com.spmorangle.crm.reporting.dto;
+
+import com.spmorangle.crm.reporting.enums.ReportJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobDto {
+    private String jobId;
+    private ReportJobStatus status;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant completedAt;
+    private String error;
+    private String filename;
+    private String downloadUrl; // Set once the report is ready
+}
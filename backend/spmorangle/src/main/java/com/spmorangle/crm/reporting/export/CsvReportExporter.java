@@ -9,9 +9,12 @@ import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import org.springframework.stereotype.Component;
 
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
@@ -24,57 +27,71 @@ import java.util.Map;
 @Component
 public class CsvReportExporter implements ReportExporter {
 
+    private static final int WRITE_BUFFER_SIZE = 16 * 1024;
+
     @Override
     public byte[] export(Map<String, Object> reportData, ReportFilterDto filters) {
         try {
-            log.debug("Exporting report as CSV");
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            OutputStreamWriter writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
-
-            // Use RFC4180 format for CSV
-            CSVFormat csvFormat = CSVFormat.RFC4180.builder()
-                    .setHeader()
-                    .setSkipHeaderRecord(true)
-                    .build();
-
-            try (CSVPrinter csvPrinter = new CSVPrinter(writer, csvFormat)) {
-                // Add report metadata
-                addReportMetadata(csvPrinter, reportData, filters);
-                csvPrinter.println();
-
-                // Add Task Summary section
-                TaskSummaryReportDto taskSummary = (TaskSummaryReportDto) reportData.get("taskSummary");
-                if (taskSummary != null) {
-                    addTaskSummarySection(csvPrinter, taskSummary);
-                    csvPrinter.println();
-                }
-
-                // Add Time Analytics section
-                TimeAnalyticsReportDto timeAnalytics = (TimeAnalyticsReportDto) reportData.get("timeAnalytics");
-                if (timeAnalytics != null) {
-                    addTimeAnalyticsSection(csvPrinter, timeAnalytics);
-                    csvPrinter.println();
-                }
-
-                // Add Staff Breakdown section
-                @SuppressWarnings("unchecked")
-                List<StaffBreakdownDto> staffBreakdown = (List<StaffBreakdownDto>) reportData.get("staffBreakdown");
-                if (staffBreakdown != null && !staffBreakdown.isEmpty()) {
-                    addStaffBreakdownSection(csvPrinter, staffBreakdown);
-                }
-
-                csvPrinter.flush();
-                writer.flush();
-            }
-
+            export(reportData, filters, outputStream);
             return outputStream.toByteArray();
-
         } catch (IOException e) {
             log.error("Error exporting report as CSV", e);
             throw new RuntimeException("Failed to export report as CSV: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Writes the CSV section by section, each row as it is read from the report data, so only the
+     * writer's buffer is held no matter how large the report is
+     */
+    @Override
+    public void export(Map<String, Object> reportData, ReportFilterDto filters, OutputStream out) throws IOException {
+        log.debug("Exporting report as CSV");
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+
+        // Use RFC4180 format for CSV
+        CSVFormat csvFormat = CSVFormat.RFC4180.builder()
+                .setHeader()
+                .setSkipHeaderRecord(true)
+                .build();
+
+        // Not closed, as that would close the caller's stream
+        CSVPrinter csvPrinter = new CSVPrinter(writer, csvFormat);
+
+        // Add report metadata
+        addReportMetadata(csvPrinter, reportData, filters);
+        csvPrinter.println();
+
+        // Add Task Summary section
+        TaskSummaryReportDto taskSummary = (TaskSummaryReportDto) reportData.get("taskSummary");
+        if (taskSummary != null) {
+            addTaskSummarySection(csvPrinter, taskSummary);
+            csvPrinter.println();
+        }
+
+        // Add Time Analytics section
+        TimeAnalyticsReportDto timeAnalytics = (TimeAnalyticsReportDto) reportData.get("timeAnalytics");
+        if (timeAnalytics != null) {
+            addTimeAnalyticsSection(csvPrinter, timeAnalytics);
+            csvPrinter.println();
+        }
+
+        // Add Staff Breakdown section
+        @SuppressWarnings("unchecked")
+        List<StaffBreakdownDto> staffBreakdown = (List<StaffBreakdownDto>) reportData.get("staffBreakdown");
+        if (staffBreakdown != null && !staffBreakdown.isEmpty()) {
+            addStaffBreakdownSection(csvPrinter, staffBreakdown);
+        }
+
+        csvPrinter.flush();
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return true;
+    }
+
     private void addReportMetadata(CSVPrinter csvPrinter, Map<String, Object> reportData, ReportFilterDto filters) throws IOException {
         csvPrinter.printRecord("Report Generated", reportData.get("generatedAt"));
 
@@ -113,14 +130,11 @@ public class CsvReportExporter implements ReportExporter {
             csvPrinter.printRecord("TASKS BY DEPARTMENT");
             csvPrinter.printRecord("Department", "Total", "Completed", "In Progress", "To Do", "Blocked");
 
-            taskSummary.getDepartmentBreakdown().forEach((dept, counts) -> {
-                try {
-                    csvPrinter.printRecord(dept, counts.getTotal(), counts.getCompleted(),
-                            counts.getInProgress(), counts.getTodo(), counts.getBlocked());
-                } catch (IOException e) {
-                    log.error("Error writing department breakdown", e);
-                }
-            });
+            for (var entry : taskSummary.getDepartmentBreakdown().entrySet()) {
+                var counts = entry.getValue();
+                csvPrinter.printRecord(entry.getKey(), counts.getTotal(), counts.getCompleted(),
+                        counts.getInProgress(), counts.getTodo(), counts.getBlocked());
+            }
         }
 
         // Add project breakdown if available
@@ -129,14 +143,11 @@ public class CsvReportExporter implements ReportExporter {
             csvPrinter.printRecord("TASKS BY PROJECT");
             csvPrinter.printRecord("Project", "Total", "Completed", "In Progress", "To Do", "Blocked");
 
-            taskSummary.getProjectBreakdown().forEach((project, counts) -> {
-                try {
-                    csvPrinter.printRecord(project, counts.getTotal(), counts.getCompleted(),
-                            counts.getInProgress(), counts.getTodo(), counts.getBlocked());
-                } catch (IOException e) {
-                    log.error("Error writing project breakdown", e);
-                }
-            });
+            for (var entry : taskSummary.getProjectBreakdown().entrySet()) {
+                var counts = entry.getValue();
+                csvPrinter.printRecord(entry.getKey(), counts.getTotal(), counts.getCompleted(),
+                        counts.getInProgress(), counts.getTodo(), counts.getBlocked());
+            }
         }
     }
 
@@ -153,14 +164,10 @@ public class CsvReportExporter implements ReportExporter {
             csvPrinter.printRecord("HOURS BY DEPARTMENT");
             csvPrinter.printRecord("Department", "Hours");
 
-            timeAnalytics.getHoursByDepartment().forEach((dept, hours) -> {
-                try {
-                    csvPrinter.printRecord(dept,
-                            hours != null ? String.format("%.1f", hours.doubleValue()) : "0.0");
-                } catch (IOException e) {
-                    log.error("Error writing hours by department", e);
-                }
-            });
+            for (var entry : timeAnalytics.getHoursByDepartment().entrySet()) {
+                csvPrinter.printRecord(entry.getKey(),
+                        entry.getValue() != null ? String.format("%.1f", entry.getValue().doubleValue()) : "0.0");
+            }
         }
 
         // Add hours by project
@@ -169,14 +176,10 @@ public class CsvReportExporter implements ReportExporter {
             csvPrinter.printRecord("HOURS BY PROJECT");
             csvPrinter.printRecord("Project", "Hours");
 
-            timeAnalytics.getHoursByProject().forEach((project, hours) -> {
-                try {
-                    csvPrinter.printRecord(project,
-                            hours != null ? String.format("%.1f", hours.doubleValue()) : "0.0");
-                } catch (IOException e) {
-                    log.error("Error writing hours by project", e);
-                }
-            });
+            for (var entry : timeAnalytics.getHoursByProject().entrySet()) {
+                csvPrinter.printRecord(entry.getKey(),
+                        entry.getValue() != null ? String.format("%.1f", entry.getValue().doubleValue()) : "0.0");
+            }
         }
     }
 
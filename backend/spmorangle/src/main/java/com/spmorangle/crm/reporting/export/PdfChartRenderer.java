@@ -0,0 +1,270 @@
+package com.spmorangle.crm.reporting.export;
+
+import com.spmorangle.common.util.BoundedLruCache;
+import com.spmorangle.crm.reporting.dto.TaskSummaryReportDto;
+import com.spmorangle.crm.reporting.dto.TimeAnalyticsReportDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.jfree.chart.ChartFactory;
+import org.jfree.chart.ChartUtils;
+import org.jfree.chart.JFreeChart;
+import org.jfree.chart.labels.StandardPieSectionLabelGenerator;
+import org.jfree.chart.plot.CategoryPlot;
+import org.jfree.chart.plot.PiePlot;
+import org.jfree.data.category.DefaultCategoryDataset;
+import org.jfree.data.general.DefaultPieDataset;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.NumberFormat;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Renders the charts of PDF reports to PNG
+ * Charts are rendered on a small bounded pool so the charts of one report are drawn at the same time, and the
+ * PNGs are cached by a digest of the chart's data, so exporting the same report again does not redraw them.
+ * The chart title and styling are part of the code, not the key, so the cache only needs the data.
+ */
+@Slf4j
+@Component
+public class PdfChartRenderer {
+
+    private static final int CHART_WIDTH = 400;
+    private static final int CHART_HEIGHT = 300;
+
+    @Value("${reports.pdf.chart-threads:4}")
+    private int threads = 4;
+
+    @Value("${reports.pdf.chart-queue-capacity:64}")
+    private int queueCapacity = 64;
+
+    @Value("${reports.pdf.chart-cache.max-entries:256}")
+    private int cacheMaxEntries = 256;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder renders = new LongAdder();
+
+    private volatile BoundedLruCache<String, byte[]> cache;
+    private ExecutorService executor;
+
+    public record Stats(long hits, long renders, int size) {
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger count = new AtomicInteger();
+        // When the queue is full the exporting thread draws the chart itself rather than failing the export
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "pdf-chart-renderer-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Pie chart of tasks by status
+     * @return PNG bytes, or null if the chart could not be drawn
+     */
+    public CompletableFuture<byte[]> taskStatusPieChart(TaskSummaryReportDto taskSummary) {
+        long completed = count(taskSummary.getCompletedTasks());
+        long inProgress = count(taskSummary.getInProgressTasks());
+        long todo = count(taskSummary.getTodoTasks());
+        long blocked = count(taskSummary.getBlockedTasks());
+        String key = digest("pie|" + completed + "|" + inProgress + "|" + todo + "|" + blocked);
+        return render(key, () -> drawTaskStatusPieChart(completed, inProgress, todo, blocked));
+    }
+
+    /**
+     * Bar chart of logged hours by department, in the order of the map
+     * @return PNG bytes, or null if the chart could not be drawn
+     */
+    public CompletableFuture<byte[]> hoursByDepartmentBarChart(TimeAnalyticsReportDto timeAnalytics) {
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+        StringBuilder key = new StringBuilder("bar");
+        Map<String, ? extends Number> hoursByDepartment = timeAnalytics.getHoursByDepartment();
+        if (hoursByDepartment != null) {
+            hoursByDepartment.forEach((dept, hours) -> {
+                if (hours != null && hours.doubleValue() > 0) {
+                    dataset.addValue(hours.doubleValue(), "Hours", dept);
+                    key.append('|').append(dept).append('=').append(hours.doubleValue());
+                }
+            });
+        }
+        return render(digest(key.toString()), () -> drawHoursByDepartmentBarChart(dataset));
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), renders.sum(), cache().size());
+    }
+
+    private CompletableFuture<byte[]> render(String key, Supplier<byte[]> draw) {
+        byte[] cached = cache().get(key);
+        if (cached != null) {
+            hits.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+        Supplier<byte[]> drawAndCache = () -> {
+            byte[] png = draw.get();
+            renders.increment();
+            if (png != null) {
+                cache().put(key, png);
+            }
+            return png;
+        };
+        ExecutorService current = executor;
+        if (current == null) {
+            return CompletableFuture.completedFuture(drawAndCache.get());
+        }
+        try {
+            return CompletableFuture.supplyAsync(drawAndCache, current);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            return CompletableFuture.completedFuture(drawAndCache.get());
+        }
+    }
+
+    private byte[] drawTaskStatusPieChart(long completed, long inProgress, long todo, long blocked) {
+        try {
+            DefaultPieDataset<String> dataset = new DefaultPieDataset<>();
+
+            if (completed > 0) {
+                dataset.setValue("Completed", completed);
+            }
+            if (inProgress > 0) {
+                dataset.setValue("In Progress", inProgress);
+            }
+            if (todo > 0) {
+                dataset.setValue("To Do", todo);
+            }
+            if (blocked > 0) {
+                dataset.setValue("Blocked", blocked);
+            }
+
+            JFreeChart chart = ChartFactory.createPieChart(
+                    "Task Status Distribution",
+                    dataset,
+                    true,  // legend
+                    false, // tooltips
+                    false  // URLs
+            );
+
+            // Customize chart appearance
+            chart.setBackgroundPaint(Color.WHITE);
+            PiePlot plot = (PiePlot) chart.getPlot();
+            plot.setBackgroundPaint(Color.WHITE);
+            plot.setOutlineStroke(null);
+
+            // Set colors to match frontend
+            plot.setSectionPaint("Completed", new Color(34, 197, 94));    // Green
+            plot.setSectionPaint("In Progress", new Color(59, 130, 246)); // Blue
+            plot.setSectionPaint("To Do", new Color(234, 179, 8));        // Yellow
+            plot.setSectionPaint("Blocked", new Color(239, 68, 68));      // Red
+
+            // Show labels with values on pie chart segments
+            plot.setLabelGenerator(new StandardPieSectionLabelGenerator(
+                "{0}: {1} ({2})", // Format: "Category: Value (Percentage)"
+                NumberFormat.getIntegerInstance(),
+                NumberFormat.getPercentInstance()
+            ));
+            plot.setLabelFont(new Font("SansSerif", Font.PLAIN, 10));
+            plot.setLabelPaint(Color.BLACK);
+            plot.setLabelBackgroundPaint(Color.WHITE);
+            plot.setLabelOutlinePaint(Color.LIGHT_GRAY);
+            plot.setLabelShadowPaint(null);
+
+            return toPng(chart);
+
+        } catch (Exception e) {
+            log.error("Failed to generate pie chart", e);
+            return null;
+        }
+    }
+
+    private byte[] drawHoursByDepartmentBarChart(DefaultCategoryDataset dataset) {
+        try {
+            JFreeChart chart = ChartFactory.createBarChart(
+                    "Hours by Department",
+                    "Department",
+                    "Hours",
+                    dataset
+            );
+
+            // Customize chart appearance
+            chart.setBackgroundPaint(Color.WHITE);
+            CategoryPlot plot = chart.getCategoryPlot();
+            plot.setBackgroundPaint(Color.WHITE);
+            plot.setDomainGridlinesVisible(false);
+            plot.setRangeGridlinesVisible(true);
+            plot.setRangeGridlinePaint(Color.LIGHT_GRAY);
+            plot.getRenderer().setSeriesPaint(0, new Color(59, 130, 246)); // Blue
+
+            return toPng(chart);
+
+        } catch (Exception e) {
+            log.error("Failed to generate bar chart", e);
+            return null;
+        }
+    }
+
+    private static byte[] toPng(JFreeChart chart) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ChartUtils.writeChartAsPNG(outputStream, chart, CHART_WIDTH, CHART_HEIGHT);
+        return outputStream.toByteArray();
+    }
+
+    private static long count(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    private static String digest(String data) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(data.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private BoundedLruCache<String, byte[]> cache() {
+        BoundedLruCache<String, byte[]> current = cache;
+        if (current == null) {
+            synchronized (this) {
+                current = cache;
+                if (current == null) {
+                    // Created on first use so the configured size is in place by then
+                    current = new BoundedLruCache<>(Math.max(1, cacheMaxEntries));
+                    cache = current;
+                }
+            }
+        }
+        return current;
+    }
+}
@@ -12,35 +12,35 @@ import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
 import com.itextpdf.io.image.ImageDataFactory;
-import org.jfree.chart.ChartFactory;
-import org.jfree.chart.ChartUtils;
-import org.jfree.chart.JFreeChart;
-import org.jfree.chart.plot.CategoryPlot;
-import org.jfree.chart.plot.PiePlot;
-import org.jfree.data.category.DefaultCategoryDataset;
-import org.jfree.data.general.DefaultPieDataset;
-
-import java.awt.*;
+
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import com.spmorangle.crm.reporting.dto.ReportFilterDto;
 import com.spmorangle.crm.reporting.dto.StaffBreakdownDto;
 import com.spmorangle.crm.reporting.dto.TaskSummaryReportDto;
 import com.spmorangle.crm.reporting.dto.TimeAnalyticsReportDto;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.jfree.chart.labels.StandardPieSectionLabelGenerator;
-import java.text.NumberFormat;
-import java.io.ByteArrayOutputStream;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * PDF report exporter
  * Exports report data as a professionally formatted PDF document
+ * The charts are drawn by {@link PdfChartRenderer} while the rest of the document is laid out, and pages are
+ * written to the output as soon as they are complete
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class PdfReportExporter implements ReportExporter {
 
     private static final DeviceRgb HEADER_BACKGROUND = new DeviceRgb(41, 98, 255);
@@ -48,29 +48,52 @@ public class PdfReportExporter implements ReportExporter {
     private static final float TITLE_FONT_SIZE = 24f;
     private static final float SECTION_FONT_SIZE = 16f;
     private static final float NORMAL_FONT_SIZE = 10f;
+    // Rows of the staff table laid out per flush, so a long table is written page by page
+    private static final int TABLE_FLUSH_ROWS = 50;
+
+    private final PdfChartRenderer chartRenderer;
+
+    @Value("${reports.pdf.chart-timeout-ms:10000}")
+    private long chartTimeoutMillis = 10_000;
 
     @Override
     public byte[] export(Map<String, Object> reportData, ReportFilterDto filters) {
         try {
-            log.debug("Exporting report as PDF");
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            export(reportData, filters, outputStream);
+            return outputStream.toByteArray();
 
-            PdfWriter writer = new PdfWriter(outputStream);
-            PdfDocument pdfDoc = new PdfDocument(writer);
-            Document document = new Document(pdfDoc);
+        } catch (Exception e) {
+            log.error("Error exporting report as PDF", e);
+            throw new RuntimeException("Failed to export report as PDF: " + e.getMessage(), e);
+        }
+    }
 
+    @Override
+    public void export(Map<String, Object> reportData, ReportFilterDto filters, OutputStream out) throws IOException {
+        log.debug("Exporting report as PDF");
+        TaskSummaryReportDto taskSummary = (TaskSummaryReportDto) reportData.get("taskSummary");
+        TimeAnalyticsReportDto timeAnalytics = (TimeAnalyticsReportDto) reportData.get("timeAnalytics");
+
+        boolean hasTaskData = taskSummary != null && taskSummary.getTotalTasks() != null && taskSummary.getTotalTasks() > 0;
+        boolean hasTimeData = timeAnalytics != null && timeAnalytics.getHoursByDepartment() != null && !timeAnalytics.getHoursByDepartment().isEmpty();
+
+        // Start drawing the charts before laying out the header
+        CompletableFuture<byte[]> pieChart = hasTaskData ? chartRenderer.taskStatusPieChart(taskSummary) : null;
+        CompletableFuture<byte[]> barChart = hasTimeData ? chartRenderer.hoursByDepartmentBarChart(timeAnalytics) : null;
+
+        PdfWriter writer = new PdfWriter(out);
+        // Closing the document must not close the caller's stream
+        writer.setCloseStream(false);
+        PdfDocument pdfDoc = new PdfDocument(writer);
+        Document document = new Document(pdfDoc);
+        try {
             // Add title and metadata
             addReportHeader(document, reportData, filters);
 
             // Add Charts section
-            TaskSummaryReportDto taskSummary = (TaskSummaryReportDto) reportData.get("taskSummary");
-            TimeAnalyticsReportDto timeAnalytics = (TimeAnalyticsReportDto) reportData.get("timeAnalytics");
-            
-            boolean hasTaskData = taskSummary != null && taskSummary.getTotalTasks() != null && taskSummary.getTotalTasks() > 0;
-            boolean hasTimeData = timeAnalytics != null && timeAnalytics.getHoursByDepartment() != null && !timeAnalytics.getHoursByDepartment().isEmpty();
-            
             if (hasTaskData || hasTimeData) {
-                addChartsSection(document, taskSummary, timeAnalytics);
+                addChartsSection(document, pieChart, barChart);
             }
 
             // Add Task Summary section
@@ -89,14 +112,27 @@ public class PdfReportExporter implements ReportExporter {
             if (staffBreakdown != null && !staffBreakdown.isEmpty()) {
                 addStaffBreakdownSection(document, staffBreakdown);
             }
-
+        } finally {
+            if (pieChart != null) {
+                pieChart.cancel(false);
+            }
+            if (barChart != null) {
+                barChart.cancel(false);
+            }
             document.close();
-            return outputStream.toByteArray();
-
-        } catch (Exception e) {
-            log.error("Error exporting report as PDF", e);
-            throw new RuntimeException("Failed to export report as PDF: " + e.getMessage(), e);
         }
+        out.flush();
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return true;
+    }
+
+    @Override
+    public boolean isCompressible() {
+        // PDF content streams are already deflated
+        return false;
     }
 
     private void addReportHeader(Document document, Map<String, Object> reportData, ReportFilterDto filters) {
@@ -274,7 +310,8 @@ public class PdfReportExporter implements ReportExporter {
     private void addStaffBreakdownSection(Document document, List<StaffBreakdownDto> staffBreakdown) {
         addSectionTitle(document, "Staff Breakdown");
 
-        Table staffTable = new Table(UnitValue.createPercentArray(new float[]{20, 15, 10, 13, 13, 10, 12}))
+        // A large table is laid out and written as rows are added instead of once it is complete
+        Table staffTable = new Table(UnitValue.createPercentArray(new float[]{20, 15, 10, 13, 13, 10, 12}), true)
                 .useAllAvailableWidth()
                 .setMarginBottom(15);
 
@@ -285,7 +322,9 @@ public class PdfReportExporter implements ReportExporter {
         staffTable.addHeaderCell(createHeaderCell("Completed"));
         staffTable.addHeaderCell(createHeaderCell("Blocked"));
         staffTable.addHeaderCell(createHeaderCell("Hours"));
+        document.add(staffTable);
 
+        int rows = 0;
         for (StaffBreakdownDto staff : staffBreakdown) {
             staffTable.addCell(createCell(staff.getUserName(), false));
             staffTable.addCell(createCell(staff.getDepartment(), false));
@@ -296,9 +335,12 @@ public class PdfReportExporter implements ReportExporter {
             String hoursStr = staff.getLoggedHours() != null ?
                     String.format("%.1f", staff.getLoggedHours().doubleValue()) : "0.0";
             staffTable.addCell(createCell(hoursStr, false));
+            if (++rows % TABLE_FLUSH_ROWS == 0) {
+                staffTable.flush();
+            }
         }
 
-        document.add(staffTable);
+        staffTable.complete();
     }
 
     private void addSectionTitle(Document document, String title) {
@@ -359,7 +401,7 @@ public class PdfReportExporter implements ReportExporter {
     /**
      * Add charts section to the PDF document
      */
-    private void addChartsSection(Document document, TaskSummaryReportDto taskSummary, TimeAnalyticsReportDto timeAnalytics) {
+    private void addChartsSection(Document document, CompletableFuture<byte[]> pieChart, CompletableFuture<byte[]> barChart) {
         addSectionTitle(document, "Visual Analytics");
 
         try {
@@ -368,9 +410,11 @@ public class PdfReportExporter implements ReportExporter {
                     .useAllAvailableWidth()
                     .setMarginBottom(20);
 
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(chartTimeoutMillis);
+
             // Add pie chart for task status
-            if (taskSummary != null && taskSummary.getTotalTasks() > 0) {
-                byte[] pieChartBytes = generateTaskStatusPieChart(taskSummary);
+            if (pieChart != null) {
+                byte[] pieChartBytes = awaitChart(pieChart, deadline);
                 if (pieChartBytes != null) {
                     Image pieChartImage = new Image(ImageDataFactory.create(pieChartBytes))
                             .setWidth(250)
@@ -387,8 +431,8 @@ public class PdfReportExporter implements ReportExporter {
             }
 
             // Add bar chart for time analytics
-            if (timeAnalytics != null && timeAnalytics.getHoursByDepartment() != null && !timeAnalytics.getHoursByDepartment().isEmpty()) {
-                byte[] barChartBytes = generateTimeAnalyticsBarChart(timeAnalytics);
+            if (barChart != null) {
+                byte[] barChartBytes = awaitChart(barChart, deadline);
                 if (barChartBytes != null) {
                     Image barChartImage = new Image(ImageDataFactory.create(barChartBytes))
                             .setWidth(250)
@@ -418,107 +462,19 @@ public class PdfReportExporter implements ReportExporter {
     }
 
     /**
-     * Generate pie chart for task status distribution
+     * @return the chart, or null if it failed or was not ready by the deadline
      */
-    private byte[] generateTaskStatusPieChart(TaskSummaryReportDto taskSummary) {
+    private byte[] awaitChart(CompletableFuture<byte[]> chart, long deadlineNanos) {
         try {
-            DefaultPieDataset<String> dataset = new DefaultPieDataset<>();
-            
-            if (taskSummary.getCompletedTasks() > 0) {
-                dataset.setValue("Completed", taskSummary.getCompletedTasks());
-            }
-            if (taskSummary.getInProgressTasks() > 0) {
-                dataset.setValue("In Progress", taskSummary.getInProgressTasks());
-            }
-            if (taskSummary.getTodoTasks() > 0) {
-                dataset.setValue("To Do", taskSummary.getTodoTasks());
-            }
-            if (taskSummary.getBlockedTasks() > 0) {
-                dataset.setValue("Blocked", taskSummary.getBlockedTasks());
-            }
-
-            JFreeChart chart = ChartFactory.createPieChart(
-                    "Task Status Distribution",
-                    dataset,
-                    true,  // legend
-                    false, // tooltips
-                    false  // URLs
-            );
-
-            // Customize chart appearance
-            chart.setBackgroundPaint(Color.WHITE);
-            PiePlot plot = (PiePlot) chart.getPlot();
-            plot.setBackgroundPaint(Color.WHITE);
-            plot.setOutlineStroke(null);
-            
-            // Set colors to match frontend
-            plot.setSectionPaint("Completed", new Color(34, 197, 94));    // Green
-            plot.setSectionPaint("In Progress", new Color(59, 130, 246)); // Blue
-            plot.setSectionPaint("To Do", new Color(234, 179, 8));        // Yellow
-            plot.setSectionPaint("Blocked", new Color(239, 68, 68));      // 
-            
-            // Show labels with values on pie chart segments
-            plot.setLabelGenerator(new StandardPieSectionLabelGenerator(
-                "{0}: {1} ({2})", // Format: "Category: Value (Percentage)"
-                NumberFormat.getIntegerInstance(),
-                NumberFormat.getPercentInstance()
-            ));
-            plot.setLabelFont(new Font("SansSerif", Font.PLAIN, 10));
-            plot.setLabelPaint(Color.BLACK);
-            plot.setLabelBackgroundPaint(Color.WHITE);
-            plot.setLabelOutlinePaint(Color.LIGHT_GRAY);
-            plot.setLabelShadowPaint(null);
-
-            // Generate image
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            ChartUtils.writeChartAsPNG(outputStream, chart, 400, 300);
-            return outputStream.toByteArray();
-
-        } catch (Exception e) {
-            log.error("Failed to generate pie chart", e);
+            return chart.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Chart was not rendered within {} ms; leaving it out of the PDF report", chartTimeoutMillis);
             return null;
-        }
-    }
-
-    /**
-     * Generate bar chart for time analytics
-     */
-    private byte[] generateTimeAnalyticsBarChart(TimeAnalyticsReportDto timeAnalytics) {
-        try {
-            DefaultCategoryDataset dataset = new DefaultCategoryDataset();
-
-            // Add data from hours by department
-            if (timeAnalytics.getHoursByDepartment() != null) {
-                timeAnalytics.getHoursByDepartment().forEach((dept, hours) -> {
-                    if (hours != null && hours.doubleValue() > 0) {
-                        dataset.addValue(hours.doubleValue(), "Hours", dept);
-                    }
-                });
-            }
-
-            JFreeChart chart = ChartFactory.createBarChart(
-                    "Hours by Department",
-                    "Department",
-                    "Hours",
-                    dataset
-            );
-
-            // Customize chart appearance
-            chart.setBackgroundPaint(Color.WHITE);
-            CategoryPlot plot = chart.getCategoryPlot();
-            plot.setBackgroundPaint(Color.WHITE);
-            plot.setDomainGridlinesVisible(false);
-            plot.setRangeGridlinesVisible(true);
-            plot.setRangeGridlinePaint(Color.LIGHT_GRAY);
-            plot.getRenderer().setSeriesPaint(0, new Color(59, 130, 246)); // Blue
-
-            // Generate image
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            ChartUtils.writeChartAsPNG(outputStream, chart, 400, 300);
-            return outputStream.toByteArray();
-
-        } catch (Exception e) {
-            log.error("Failed to generate bar chart", e);
+        } catch (ExecutionException e) {
+            log.error("Failed to generate chart", e.getCause());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             return null;
         }
     }
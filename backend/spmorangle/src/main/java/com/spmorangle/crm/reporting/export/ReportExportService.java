@@ -7,10 +7,12 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Service for exporting reports in different formats
@@ -21,17 +23,31 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class ReportExportService {
 
+    private static final int GZIP_BUFFER_SIZE = 16 * 1024;
+
     private final JsonReportExporter jsonExporter;
     private final CsvReportExporter csvExporter;
     private final PdfReportExporter pdfExporter;
     
     /**
-     * Export report data in the requested format
+     * Export report data in the requested format, without compressing streamed exports
      * @param reportData Complete report data
      * @param filters Report filters (includes exportFormat)
      * @return ResponseEntity with appropriate content type and file attachment
      */
     public ResponseEntity<?> exportReport(Map<String, Object> reportData, ReportFilterDto filters) {
+        return exportReport(reportData, filters, false);
+    }
+
+    /**
+     * Export report data in the requested format
+     * Formats whose exporter can stream are written straight to the response instead of being built in memory
+     * @param reportData Complete report data
+     * @param filters Report filters (includes exportFormat)
+     * @param gzip Whether the client accepts gzip; streamed exports are then compressed as they are written
+     * @return ResponseEntity with appropriate content type and file attachment
+     */
+    public ResponseEntity<?> exportReport(Map<String, Object> reportData, ReportFilterDto filters, boolean gzip) {
         ReportFilterDto.ExportFormat format = filters.getExportFormat();
         
         // If no export format specified or JSON, return as regular JSON response
@@ -43,13 +59,17 @@ public class ReportExportService {
         // Select appropriate exporter based on format
         ReportExporter exporter = selectExporter(format);
         
-        // Export the data
-        byte[] exportedData = exporter.export(reportData, filters);
-        
         // Generate filename with timestamp
         String filename = generateFilename(filters, exporter.getFileExtension());
         
         log.info("Exporting report as {} (filename: {})", format, filename);
+
+        if (exporter.isStreaming()) {
+            return streamReport(exporter, reportData, filters, filename, gzip && exporter.isCompressible());
+        }
+
+        // Export the data
+        byte[] exportedData = exporter.export(reportData, filters);
         
         // Return as file download
         return ResponseEntity.ok()
@@ -59,6 +79,55 @@ public class ReportExportService {
                 .body(exportedData);
     }
     
+    /**
+     * Streams the export to the response as it is written; the length is unknown up front, so the response
+     * is sent chunked
+     */
+    private ResponseEntity<StreamingResponseBody> streamReport(ReportExporter exporter, Map<String, Object> reportData,
+                                                               ReportFilterDto filters, String filename, boolean gzip) {
+        StreamingResponseBody body = outputStream -> {
+            if (!gzip) {
+                exporter.export(reportData, filters, outputStream);
+                outputStream.flush();
+                return;
+            }
+            GZIPOutputStream compressed = new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE);
+            exporter.export(reportData, filters, compressed);
+            // Writes the trailer without closing the servlet stream
+            compressed.finish();
+            outputStream.flush();
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.parseMediaType(exporter.getContentType()));
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * The exporter that writes the file for the requested format, JSON when none is given
+     * @param filters Report filters (includes exportFormat)
+     * @return ReportExporter implementation
+     */
+    public ReportExporter exporterFor(ReportFilterDto filters) {
+        ReportFilterDto.ExportFormat format = filters.getExportFormat();
+        return selectExporter(format != null ? format : ReportFilterDto.ExportFormat.JSON);
+    }
+
+    /**
+     * Download filename for a report written by the given exporter
+     * @param filters Report filters
+     * @param exporter Exporter that writes the file
+     * @return Generated filename
+     */
+    public String filenameFor(ReportFilterDto filters, ReportExporter exporter) {
+        return generateFilename(filters, exporter.getFileExtension());
+    }
+
     /**
      * Select the appropriate exporter based on the export format
      * @param format Export format
@@ -2,6 +2,8 @@ package com.spmorangle.crm.reporting.export;
 
 import com.spmorangle.crm.reporting.dto.ReportFilterDto;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Map;
 
 /**
@@ -17,6 +19,32 @@ public interface ReportExporter {
      * @return Byte array of the exported data
      */
     byte[] export(Map<String, Object> reportData, ReportFilterDto filters);
+
+    /**
+     * Write the exported report to a stream, e.g. the HTTP response
+     * Exporters that can produce their output incrementally override this and {@link #isStreaming()}
+     * @param reportData Complete report data
+     * @param filters The filters used to generate the report
+     * @param out Stream to write to; it is left open
+     */
+    default void export(Map<String, Object> reportData, ReportFilterDto filters, OutputStream out) throws IOException {
+        out.write(export(reportData, filters));
+    }
+
+    /**
+     * Whether {@link #export(Map, ReportFilterDto, OutputStream)} writes as it goes instead of building the
+     * whole file first
+     */
+    default boolean isStreaming() {
+        return false;
+    }
+
+    /**
+     * Whether compressing the output for transfer is worthwhile
+     */
+    default boolean isCompressible() {
+        return true;
+    }
     
     /**
      * Get the content type for HTTP response headers
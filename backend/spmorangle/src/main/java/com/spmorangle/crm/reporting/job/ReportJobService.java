@@ -0,0 +1,264 @@
+package com.spmorangle.crm.reporting.job;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.spmorangle.crm.reporting.dto.ReportFilterDto;
+import com.spmorangle.crm.reporting.dto.ReportJobDto;
+import com.spmorangle.crm.reporting.enums.ReportJobStatus;
+import com.spmorangle.crm.reporting.export.ReportExportService;
+import com.spmorangle.crm.reporting.export.ReportExporter;
+import com.spmorangle.crm.reporting.service.ReportService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Generates reports in the background so large exports are not bound by the request timeout.
+ *
+ * Each job runs on its own virtual thread, as the work is mostly waiting on report queries, and a semaphore
+ * caps how many generate at once so a burst of submissions cannot exhaust the connection pool. A request
+ * with the same filters from the same user as a job that is still queued or running gets that job back
+ * instead of a new one. Results go to {@link ReportResultStore}; jobs and their files are forgotten once
+ * the store's TTL has passed since they finished.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReportJobService {
+
+    private static final String DOWNLOAD_URL = "/api/reports/jobs/%s/download";
+
+    private final ReportService reportService;
+    private final ReportExportService reportExportService;
+    private final ReportResultStore reportResultStore;
+
+    @Value("${reports.jobs.max-concurrent:4}")
+    private int maxConcurrent = 4;
+
+    @Value("${reports.jobs.max-active:100}")
+    private int maxActive = 100;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<String, Job> activeByKey = new ConcurrentHashMap<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+
+    private Semaphore permits;
+    private ExecutorService executor;
+
+    /**
+     * @param active jobs queued or running
+     */
+    public record Stats(int active, long completed, long failed, long deduplicated) {
+    }
+
+    public record ReportJobResult(Path file, String contentType, String filename, long size) {
+    }
+
+    @PostConstruct
+    public void start() {
+        permits = new Semaphore(Math.max(1, maxConcurrent), true);
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("report-job-", 0).factory());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Queues a report, or returns the user's identical report that is already queued or running
+     *
+     * @param filters Report filters with the department already resolved to an ID
+     * @throws IllegalStateException if too many reports are already being generated
+     */
+    public ReportJobDto submit(ReportFilterDto filters, Long userId) {
+        String key = dedupeKey(filters, userId);
+        Job[] created = new Job[1];
+        Job job = activeByKey.compute(key, (k, existing) -> {
+            if (existing != null) {
+                return existing;
+            }
+            if (active.get() >= maxActive) {
+                throw new IllegalStateException("Too many reports are being generated, please try again later");
+            }
+            active.incrementAndGet();
+            created[0] = new Job(UUID.randomUUID().toString(), userId, key, filters, Instant.now());
+            return created[0];
+        });
+
+        if (created[0] == null) {
+            deduplicated.increment();
+            log.info("Report request from user {} joins job {}", userId, job.id);
+            return toDto(job);
+        }
+
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            finish(job, "Report generation is shutting down");
+        }
+        log.info("Queued report job {} for user {}", job.id, userId);
+        return toDto(job);
+    }
+
+    /**
+     * @return the job, or empty if it does not exist, has expired or belongs to another user
+     */
+    public Optional<ReportJobDto> getJob(String jobId, Long userId) {
+        return findJob(jobId, userId).map(this::toDto);
+    }
+
+    /**
+     * @return the report file of a completed job, or empty if it is not ready, has expired or belongs to
+     * another user
+     */
+    public Optional<ReportJobResult> getResult(String jobId, Long userId) {
+        return findJob(jobId, userId)
+                .filter(job -> job.status == ReportJobStatus.COMPLETED)
+                .flatMap(job -> reportResultStore.find(job.id)
+                        .map(file -> new ReportJobResult(file, job.contentType, job.filename, job.size)));
+    }
+
+    @Scheduled(fixedDelayString = "${reports.jobs.purge-interval-ms:300000}")
+    public void purgeExpired() {
+        Instant cutoff = Instant.now().minus(reportResultStore.getTtl());
+        List<Job> expired = jobs.values().stream()
+                .filter(job -> job.status.isFinished() && job.completedAt.isBefore(cutoff))
+                .toList();
+        for (Job job : expired) {
+            jobs.remove(job.id);
+            reportResultStore.delete(job.id);
+        }
+        int orphans = reportResultStore.purgeOlderThan(cutoff);
+        if (!expired.isEmpty() || orphans > 0) {
+            log.info("Purged {} expired report jobs and {} stray result files", expired.size(), orphans);
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(active.get(), completed.sum(), failed.sum(), deduplicated.sum());
+    }
+
+    private void run(Job job) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(job, "Report generation was interrupted");
+            return;
+        }
+        try {
+            job.startedAt = Instant.now();
+            job.status = ReportJobStatus.RUNNING;
+
+            Map<String, Object> reportData = reportService.generateReportData(job.filters, job.userId);
+            ReportExporter exporter = reportExportService.exporterFor(job.filters);
+            long size = reportResultStore.write(job.id, out -> exporter.export(reportData, job.filters, out));
+
+            job.contentType = exporter.getContentType();
+            job.filename = reportExportService.filenameFor(job.filters, exporter);
+            job.size = size;
+            finish(job, null);
+            log.info("Report job {} completed in {} ms ({} bytes)", job.id,
+                    job.completedAt.toEpochMilli() - job.startedAt.toEpochMilli(), size);
+        } catch (Exception e) {
+            log.error("Report job {} failed: {}", job.id, e.getMessage(), e);
+            finish(job, "Failed to generate report: " + e.getMessage());
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * @param error why the job failed, or null if it completed
+     */
+    private void finish(Job job, String error) {
+        job.error = error;
+        job.completedAt = Instant.now();
+        job.status = error == null ? ReportJobStatus.COMPLETED : ReportJobStatus.FAILED;
+        (error == null ? completed : failed).increment();
+        if (activeByKey.remove(job.key, job)) {
+            active.decrementAndGet();
+        }
+    }
+
+    private Optional<Job> findJob(String jobId, Long userId) {
+        Job job = jobId != null ? jobs.get(jobId) : null;
+        return job != null && job.userId.equals(userId) ? Optional.of(job) : Optional.empty();
+    }
+
+    private ReportJobDto toDto(Job job) {
+        ReportJobStatus status = job.status;
+        return ReportJobDto.builder()
+                .jobId(job.id)
+                .status(status)
+                .createdAt(job.createdAt)
+                .startedAt(job.startedAt)
+                .completedAt(job.completedAt)
+                .error(job.error)
+                .filename(job.filename)
+                .downloadUrl(status == ReportJobStatus.COMPLETED ? String.format(DOWNLOAD_URL, job.id) : null)
+                .build();
+    }
+
+    /**
+     * Two requests are the same report when they are from the same user, whose role and department decide
+     * what the report covers, and ask for the same data in the same format
+     */
+    static String dedupeKey(ReportFilterDto filters, Long userId) {
+        List<Long> projectIds = filters.getProjectIds() == null ? List.of()
+                : filters.getProjectIds().stream().distinct().sorted().toList();
+        ReportFilterDto.ExportFormat format = filters.getExportFormat() != null
+                ? filters.getExportFormat() : ReportFilterDto.ExportFormat.JSON;
+        return userId + "|" + filters.getDepartmentId() + "|" + projectIds + "|" + filters.getStartDate()
+                + "|" + filters.getEndDate() + "|" + filters.getTimeRange() + "|" + format;
+    }
+
+    private static final class Job {
+        private final String id;
+        private final Long userId;
+        private final String key;
+        private final ReportFilterDto filters;
+        private final Instant createdAt;
+        private volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant completedAt;
+        private volatile String error;
+        private volatile String contentType;
+        private volatile String filename;
+        private volatile long size;
+
+        private Job(String id, Long userId, String key, ReportFilterDto filters, Instant createdAt) {
+            this.id = id;
+            this.userId = userId;
+            this.key = key;
+            this.filters = filters;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.spmorangle.crm.reporting.job;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local directory holding the files of finished report jobs.
+ *
+ * A result is written to a temporary file and moved into place once complete, so a download never sees a
+ * partial file. Results are kept for the TTL and then purged. The job registry lives in memory, so whatever
+ * is left over from a previous run can no longer be downloaded and is cleared on startup.
+ */
+@Slf4j
+@Component
+public class ReportResultStore {
+
+    private static final String SUFFIX = ".report";
+
+    @Value("${reports.jobs.store-dir:${java.io.tmpdir}/spmorangle-report-jobs}")
+    private String storeDir;
+
+    @Value("${reports.jobs.result-ttl-ms:3600000}")
+    private long ttlMillis = 3_600_000;
+
+    private Path directory;
+
+    @FunctionalInterface
+    public interface ResultWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        directory = Files.createDirectories(Path.of(storeDir));
+        int removed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (Files.deleteIfExists(file)) {
+                    removed++;
+                }
+            }
+        }
+        if (removed > 0) {
+            log.info("Removed {} report job files left from a previous run", removed);
+        }
+    }
+
+    public Duration getTtl() {
+        return Duration.ofMillis(ttlMillis);
+    }
+
+    /**
+     * Writes a job's result
+     *
+     * @return size of the stored file in bytes
+     */
+    public long write(String jobId, ResultWriter writer) throws IOException {
+        Path target = resolve(jobId);
+        Path partial = Files.createTempFile(directory, jobId, ".partial");
+        try {
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                writer.writeTo(out);
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return Files.size(target);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    /**
+     * @return the job's result file, or empty if there is none or it has expired
+     */
+    public Optional<Path> find(String jobId) {
+        Path file = resolve(jobId);
+        try {
+            if (Files.isRegularFile(file) && !isExpired(file, Instant.now().minus(getTtl()))) {
+                return Optional.of(file);
+            }
+        } catch (IOException e) {
+            log.warn("Could not read report job result {}: {}", jobId, e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    public void delete(String jobId) {
+        try {
+            Files.deleteIfExists(resolve(jobId));
+        } catch (IOException e) {
+            log.warn("Could not delete report job result {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes every file written before the cutoff
+     *
+     * @return how many were deleted
+     */
+    public int purgeOlderThan(Instant cutoff) {
+        int removed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                try {
+                    if (isExpired(file, cutoff) && Files.deleteIfExists(file)) {
+                        removed++;
+                    }
+                } catch (IOException e) {
+                    log.warn("Could not purge report job file {}: {}", file.getFileName(), e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to purge report job results: {}", e.getMessage(), e);
+        }
+        return removed;
+    }
+
+    private static boolean isExpired(Path file, Instant cutoff) throws IOException {
+        return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+    }
+
+    private Path resolve(String jobId) {
+        // Job ids are UUIDs; parsing one rules out anything that could point outside the directory
+        return directory.resolve(UUID.fromString(jobId) + SUFFIX);
+    }
+}
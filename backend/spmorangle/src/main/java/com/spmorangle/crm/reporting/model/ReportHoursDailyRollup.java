@@ -0,0 +1,38 @@
+package com.spmorangle.crm.reporting.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Completed time tracking per start day, completion day, tracker and project.
+ * Running timers are not rolled up; reports add them live from task_time_tracking
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "report_hours_daily_rollup", schema = "syncup")
+public class ReportHoursDailyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "started_date", nullable = false)
+    private LocalDate startedDate;
+
+    @Column(name = "completed_date", nullable = false)
+    private LocalDate completedDate;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Column(name = "total_hours", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalHours;
+}
@@ -0,0 +1,39 @@
+package com.spmorangle.crm.reporting.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * A day whose task or hours rollups must be re-derived, recorded by the write that changed it so any
+ * instance can flush it
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "report_rollup_dirty_day", schema = "syncup")
+public class ReportRollupDirtyDay {
+
+    public enum Kind {
+        TASKS,
+        HOURS
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false, length = 16)
+    private Kind kind;
+
+    @Column(name = "marked_at", nullable = false)
+    private OffsetDateTime markedAt;
+}
@@ -0,0 +1,30 @@
+package com.spmorangle.crm.reporting.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * Single-row record of how far back the daily rollups have been backfilled
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "report_rollup_state", schema = "syncup")
+public class ReportRollupState {
+    @Id
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "covered_from")
+    private LocalDate coveredFrom;
+
+    @Column(name = "fully_backfilled", nullable = false)
+    private boolean fullyBackfilled;
+
+    @Column(name = "compacted_at")
+    private OffsetDateTime compactedAt;
+}
@@ -0,0 +1,39 @@
+package com.spmorangle.crm.reporting.model;
+
+import com.spmorangle.crm.taskmanagement.enums.Status;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Non-deleted tasks created on one day, per owner, project and status.
+ * Rows are derived from the tasks table by {@link com.spmorangle.crm.reporting.repository.ReportRollupRepository}
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "report_task_daily_rollup", schema = "syncup")
+public class ReportTaskDailyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 32)
+    private Status status;
+
+    @Column(name = "task_count", nullable = false)
+    private Long taskCount;
+}
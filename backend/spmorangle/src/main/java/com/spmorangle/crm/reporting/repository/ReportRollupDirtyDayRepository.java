@@ -0,0 +1,13 @@
+package com.spmorangle.crm.reporting.repository;
+
+import com.spmorangle.crm.reporting.model.ReportRollupDirtyDay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface ReportRollupDirtyDayRepository extends JpaRepository<ReportRollupDirtyDay, Long> {
+
+    boolean existsByRollupDateBetween(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,203 @@
+package com.spmorangle.crm.reporting.repository;
+
+import com.spmorangle.crm.reporting.model.ReportTaskDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Daily reporting rollups: the rebuild statements that derive them from tasks and task_time_tracking,
+ * and the reads that mirror the task summary and time analytics queries of
+ * {@link ReportingRepository} and {@link TaskTimeTrackingRepository}
+ *
+ * The rebuild statements take a timestamp window one day wider than the day range on each side so
+ * the indexed created_at/started_at columns narrow the scan before the day cast is applied
+ */
+@Repository
+public interface ReportRollupRepository extends JpaRepository<ReportTaskDailyRollup, Long> {
+
+    @Modifying
+    @Query("DELETE FROM ReportTaskDailyRollup r WHERE r.rollupDate >= :fromDay AND r.rollupDate <= :toDay")
+    int deleteTaskRollups(@Param("fromDay") LocalDate fromDay, @Param("toDay") LocalDate toDay);
+
+    @Modifying
+    @Query("""
+        INSERT INTO ReportTaskDailyRollup (rollupDate, ownerId, projectId, status, taskCount)
+        SELECT CAST(t.createdAt AS DATE), t.ownerId, t.projectId, t.status, COUNT(t)
+        FROM Task t
+        WHERE t.deleteInd = false
+        AND t.createdAt >= :fromTime
+        AND t.createdAt < :toTime
+        AND (CAST(t.createdAt AS DATE) >= :fromDay)
+        AND (CAST(t.createdAt AS DATE) <= :toDay)
+        GROUP BY CAST(t.createdAt AS DATE), t.ownerId, t.projectId, t.status
+        """)
+    int insertTaskRollups(
+        @Param("fromDay") LocalDate fromDay,
+        @Param("toDay") LocalDate toDay,
+        @Param("fromTime") OffsetDateTime fromTime,
+        @Param("toTime") OffsetDateTime toTime
+    );
+
+    @Modifying
+    @Query("DELETE FROM ReportHoursDailyRollup h WHERE h.startedDate >= :fromDay AND h.startedDate <= :toDay")
+    int deleteHoursRollups(@Param("fromDay") LocalDate fromDay, @Param("toDay") LocalDate toDay);
+
+    @Modifying
+    @Query("""
+        INSERT INTO ReportHoursDailyRollup (startedDate, completedDate, userId, projectId, totalHours)
+        SELECT CAST(ttt.startedAt AS DATE), CAST(ttt.completedAt AS DATE), ttt.userId, t.projectId,
+               COALESCE(SUM(ttt.totalHours), 0)
+        FROM TaskTimeTracking ttt
+        JOIN Task t ON ttt.taskId = t.id
+        WHERE ttt.completedAt IS NOT NULL
+        AND ttt.startedAt >= :fromTime
+        AND ttt.startedAt < :toTime
+        AND (CAST(ttt.startedAt AS DATE) >= :fromDay)
+        AND (CAST(ttt.startedAt AS DATE) <= :toDay)
+        GROUP BY CAST(ttt.startedAt AS DATE), CAST(ttt.completedAt AS DATE), ttt.userId, t.projectId
+        """)
+    int insertHoursRollups(
+        @Param("fromDay") LocalDate fromDay,
+        @Param("toDay") LocalDate toDay,
+        @Param("fromTime") OffsetDateTime fromTime,
+        @Param("toTime") OffsetDateTime toTime
+    );
+
+    @Query("SELECT MIN(t.createdAt) FROM Task t WHERE t.deleteInd = false")
+    OffsetDateTime findEarliestTaskCreatedAt();
+
+    @Query("SELECT MIN(ttt.startedAt) FROM TaskTimeTracking ttt WHERE ttt.completedAt IS NOT NULL")
+    OffsetDateTime findEarliestCompletedTrackingStartedAt();
+
+    /**
+     * Rollup counterpart of ReportingRepository.getTaskCountsByStatus
+     * Returns: status, count
+     */
+    @Query("""
+        SELECT r.status, SUM(r.taskCount)
+        FROM ReportTaskDailyRollup r
+        JOIN User u ON r.ownerId = u.id
+        WHERE (:departmentId IS NULL OR u.departmentId = :departmentId)
+        AND r.rollupDate >= :startDate
+        AND r.rollupDate <= :endDate
+        GROUP BY r.status
+        """)
+    List<Object[]> getTaskCountsByStatus(
+        @Param("departmentId") Long departmentId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Rollup counterpart of ReportingRepository.getTaskCountsByDepartmentAndStatus
+     * Returns: departmentId, status, count
+     */
+    @Query("""
+        SELECT u.departmentId, r.status, SUM(r.taskCount)
+        FROM ReportTaskDailyRollup r
+        JOIN User u ON r.ownerId = u.id
+        WHERE (:departmentId IS NULL OR u.departmentId = :departmentId)
+        AND r.rollupDate >= :startDate
+        AND r.rollupDate <= :endDate
+        AND u.departmentId IS NOT NULL
+        GROUP BY u.departmentId, r.status
+        """)
+    List<Object[]> getTaskCountsByDepartmentAndStatus(
+        @Param("departmentId") Long departmentId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Rollup counterpart of ReportingRepository.getTaskCountsByProjectAndStatus
+     * Returns: projectName, status, count
+     */
+    @Query("""
+        SELECT p.name, r.status, SUM(r.taskCount)
+        FROM ReportTaskDailyRollup r
+        JOIN Project p ON r.projectId = p.id
+        JOIN User u ON r.ownerId = u.id
+        WHERE (:departmentId IS NULL OR u.departmentId = :departmentId)
+        AND r.projectId IN :projectIds
+        AND r.rollupDate >= :startDate
+        AND r.rollupDate <= :endDate
+        GROUP BY p.name, r.status
+        """)
+    List<Object[]> getTaskCountsByProjectAndStatus(
+        @Param("departmentId") Long departmentId,
+        @Param("projectIds") List<Long> projectIds,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Rollup counterpart of ReportingRepository.getAllTaskCountsByProjectAndStatus
+     * Returns: projectName, status, count
+     */
+    @Query("""
+        SELECT p.name, r.status, SUM(r.taskCount)
+        FROM ReportTaskDailyRollup r
+        JOIN Project p ON r.projectId = p.id
+        JOIN User u ON r.ownerId = u.id
+        WHERE (:departmentId IS NULL OR u.departmentId = :departmentId)
+        AND r.rollupDate >= :startDate
+        AND r.rollupDate <= :endDate
+        GROUP BY p.name, r.status
+        """)
+    List<Object[]> getAllTaskCountsByProjectAndStatus(
+        @Param("departmentId") Long departmentId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Completed-timer part of TaskTimeTrackingRepository.getHoursByDepartment
+     * Returns: departmentId, hours
+     */
+    @Query("""
+        SELECT u.departmentId, SUM(h.totalHours)
+        FROM ReportHoursDailyRollup h
+        JOIN User u ON h.userId = u.id
+        WHERE h.startedDate >= :startDate
+        AND h.completedDate <= :endDate
+        AND u.departmentId IS NOT NULL
+        AND (:departmentId IS NULL OR u.departmentId = :departmentId)
+        AND (:projectIds IS NULL OR h.projectId IN :projectIds)
+        GROUP BY u.departmentId
+        """)
+    List<Object[]> getCompletedHoursByDepartment(
+        @Param("departmentId") Long departmentId,
+        @Param("projectIds") List<Long> projectIds,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Completed-timer part of TaskTimeTrackingRepository.getHoursByProject
+     * Returns: projectName, hours
+     */
+    @Query("""
+        SELECT p.name, SUM(h.totalHours)
+        FROM ReportHoursDailyRollup h
+        JOIN Project p ON h.projectId = p.id
+        JOIN User u ON h.userId = u.id
+        WHERE (:departmentId IS NULL OR u.departmentId = :departmentId)
+        AND (:projectIds IS NULL OR h.projectId IN :projectIds)
+        AND h.startedDate >= :startDate
+        AND h.completedDate <= :endDate
+        GROUP BY p.name
+        """)
+    List<Object[]> getCompletedHoursByProject(
+        @Param("departmentId") Long departmentId,
+        @Param("projectIds") List<Long> projectIds,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+}
@@ -0,0 +1,20 @@
+package com.spmorangle.crm.reporting.repository;
+
+import com.spmorangle.crm.reporting.model.ReportRollupState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ReportRollupStateRepository extends JpaRepository<ReportRollupState, Long> {
+
+    // Row lock held for the duration of a rollup rebuild so rebuilds of the same days never interleave
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ReportRollupState s WHERE s.id = :id")
+    Optional<ReportRollupState> findForUpdate(@Param("id") Long id);
+}
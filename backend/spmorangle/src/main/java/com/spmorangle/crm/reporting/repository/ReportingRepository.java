@@ -9,6 +9,7 @@ import com.spmorangle.crm.taskmanagement.model.Task;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -180,5 +181,135 @@ public interface ReportingRepository extends JpaRepository<Task, Long> {
         @Param("startDate") LocalDate startDate,
         @Param("endDate") LocalDate endDate
     );
-}
 
+    /**
+     * Set-based variant of getTaskCountsByStatusForUser for a whole batch of users
+     * Owner and assignee relations are unioned first so a user who both owns and is assigned to a task counts it once
+     * Returns: userId, status, count
+     */
+    @Query("""
+        SELECT rel.userId, t.status, COUNT(t.id)
+        FROM (
+            SELECT o.id AS taskId, o.ownerId AS userId FROM Task o WHERE o.ownerId IN :userIds
+            UNION
+            SELECT ta.taskId AS taskId, ta.userId AS userId FROM TaskAssignee ta WHERE ta.userId IN :userIds
+        ) rel
+        JOIN Task t ON t.id = rel.taskId
+        WHERE t.deleteInd = false
+        AND (CAST(t.createdAt AS DATE) >= :startDate)
+        AND (CAST(t.createdAt AS DATE) <= :endDate)
+        AND (:projectIds IS NULL OR t.projectId IN :projectIds)
+        GROUP BY rel.userId, t.status
+        """)
+    List<Object[]> getTaskCountsByStatusForUsers(
+        @Param("userIds") Collection<Long> userIds,
+        @Param("projectIds") List<Long> projectIds,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Set-based variant of getLoggedHoursForUser for a whole batch of users
+     * Users without tracked time are absent from the result
+     * Returns: userId, loggedHours
+     */
+    @Query("""
+        SELECT ttt.userId, COALESCE(SUM(
+        CASE 
+            WHEN ttt.completedAt IS NOT NULL THEN ttt.totalHours
+            WHEN ttt.startedAt IS NOT NULL THEN 
+                (CAST(FUNCTION('timestampdiff', SECOND, ttt.startedAt, CURRENT_TIMESTAMP) AS double) / 3600.0)
+            ELSE 0
+        END
+        ), 0)
+        FROM TaskTimeTracking ttt
+        JOIN Task t ON ttt.taskId = t.id
+        WHERE ttt.userId IN :userIds
+        AND (CAST(ttt.startedAt AS DATE) >= :startDate)
+        AND (CAST(ttt.startedAt AS DATE) <= :endDate)
+        AND (:projectIds IS NULL OR t.projectId IN :projectIds)
+        GROUP BY ttt.userId
+        """)
+    List<Object[]> getLoggedHoursForUsers(
+        @Param("userIds") Collection<Long> userIds,
+        @Param("projectIds") List<Long> projectIds,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Daily buckets behind the task summary of a time-series report
+     * One row per creation day, owner department, project and status; the caller folds the days into periods
+     * Project columns are null for tasks without an existing project
+     * Returns: createdDate, departmentId, projectId, projectName, status, count
+     */
+    @Query("""
+        SELECT CAST(t.createdAt AS DATE), u.departmentId, t.projectId, p.name, t.status, COUNT(t)
+        FROM Task t
+        JOIN User u ON t.ownerId = u.id
+        LEFT JOIN Project p ON t.projectId = p.id
+        WHERE (:departmentId IS NULL OR u.departmentId = :departmentId)
+        AND (CAST(t.createdAt AS DATE) >= :startDate)
+        AND (CAST(t.createdAt AS DATE) <= :endDate)
+        AND t.deleteInd = false
+        GROUP BY CAST(t.createdAt AS DATE), u.departmentId, t.projectId, p.name, t.status
+        """)
+    List<Object[]> getDailyTaskCountsByDepartmentProjectAndStatus(
+        @Param("departmentId") Long departmentId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Daily buckets of getTaskCountsByStatusForUsers for time-series reports
+     * Returns: userId, createdDate, status, count
+     */
+    @Query("""
+        SELECT rel.userId, CAST(t.createdAt AS DATE), t.status, COUNT(t.id)
+        FROM (
+            SELECT o.id AS taskId, o.ownerId AS userId FROM Task o WHERE o.ownerId IN :userIds
+            UNION
+            SELECT ta.taskId AS taskId, ta.userId AS userId FROM TaskAssignee ta WHERE ta.userId IN :userIds
+        ) rel
+        JOIN Task t ON t.id = rel.taskId
+        WHERE t.deleteInd = false
+        AND (CAST(t.createdAt AS DATE) >= :startDate)
+        AND (CAST(t.createdAt AS DATE) <= :endDate)
+        AND (:projectIds IS NULL OR t.projectId IN :projectIds)
+        GROUP BY rel.userId, CAST(t.createdAt AS DATE), t.status
+        """)
+    List<Object[]> getDailyTaskCountsByStatusForUsers(
+        @Param("userIds") Collection<Long> userIds,
+        @Param("projectIds") List<Long> projectIds,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Daily buckets of getLoggedHoursForUsers for time-series reports
+     * Returns: userId, startedDate, loggedHours
+     */
+    @Query("""
+        SELECT ttt.userId, CAST(ttt.startedAt AS DATE), COALESCE(SUM(
+        CASE 
+            WHEN ttt.completedAt IS NOT NULL THEN ttt.totalHours
+            WHEN ttt.startedAt IS NOT NULL THEN 
+                (CAST(FUNCTION('timestampdiff', SECOND, ttt.startedAt, CURRENT_TIMESTAMP) AS double) / 3600.0)
+            ELSE 0
+        END
+        ), 0)
+        FROM TaskTimeTracking ttt
+        JOIN Task t ON ttt.taskId = t.id
+        WHERE ttt.userId IN :userIds
+        AND (CAST(ttt.startedAt AS DATE) >= :startDate)
+        AND (CAST(ttt.startedAt AS DATE) <= :endDate)
+        AND (:projectIds IS NULL OR t.projectId IN :projectIds)
+        GROUP BY ttt.userId, CAST(ttt.startedAt AS DATE)
+        """)
+    List<Object[]> getDailyLoggedHoursForUsers(
+        @Param("userIds") Collection<Long> userIds,
+        @Param("projectIds") List<Long> projectIds,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+}
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +16,8 @@ import java.util.Optional;
 public interface TaskTimeTrackingRepository extends JpaRepository<TaskTimeTracking, Long> {
     
     Optional<TaskTimeTracking> findByTaskIdAndUserId(Long taskId, Long userId);
+
+    List<TaskTimeTracking> findByTaskIdAndUserIdIn(Long taskId, Collection<Long> userIds);
     
     List<TaskTimeTracking> findByTaskId(Long taskId);
     
@@ -123,5 +126,111 @@ public interface TaskTimeTrackingRepository extends JpaRepository<TaskTimeTracki
         @Param("startDate") LocalDate startDate,
         @Param("endDate") LocalDate endDate
     );
-}
 
+    /**
+     * Daily buckets behind getHoursByDepartment for time-series reports
+     * Rows are keyed by start and completion day so the caller can apply the per-period completion bound
+     * Returns: departmentId, startedDate, completedDate (null while running), hours
+     */
+    @Query("""
+        SELECT u.departmentId, CAST(ttt.startedAt AS DATE), CAST(ttt.completedAt AS DATE), SUM(
+            CASE
+                WHEN ttt.completedAt IS NOT NULL THEN ttt.totalHours
+                WHEN ttt.startedAt IS NOT NULL THEN
+                    (CAST(FUNCTION('timestampdiff', SECOND, ttt.startedAt, CURRENT_TIMESTAMP) AS double) / 3600.0)
+                ELSE 0
+            END
+        )
+        FROM TaskTimeTracking ttt
+        JOIN Task t ON ttt.taskId = t.id
+        JOIN User u ON ttt.userId = u.id
+        WHERE (CAST(ttt.startedAt AS DATE) >= :startDate)
+        AND (CAST(ttt.startedAt AS DATE) <= :endDate)
+        AND u.departmentId IS NOT NULL
+        AND (:departmentId IS NULL OR u.departmentId = :departmentId)
+        AND (:projectIds IS NULL OR t.projectId IN :projectIds)
+        GROUP BY u.departmentId, CAST(ttt.startedAt AS DATE), CAST(ttt.completedAt AS DATE)
+        """)
+    List<Object[]> getDailyHoursByDepartment(
+        @Param("departmentId") Long departmentId,
+        @Param("projectIds") List<Long> projectIds,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Daily buckets behind getHoursByProject for time-series reports
+     * Returns: projectName, startedDate, completedDate (null while running), hours
+     */
+    @Query("""
+        SELECT p.name, CAST(ttt.startedAt AS DATE), CAST(ttt.completedAt AS DATE), SUM(
+            CASE
+                WHEN ttt.completedAt IS NOT NULL THEN ttt.totalHours
+                WHEN ttt.startedAt IS NOT NULL THEN
+                    (CAST(FUNCTION('timestampdiff', SECOND, ttt.startedAt, CURRENT_TIMESTAMP) AS double) / 3600.0)
+                ELSE 0
+            END
+        )
+        FROM TaskTimeTracking ttt
+        JOIN Task t ON ttt.taskId = t.id
+        JOIN Project p ON t.projectId = p.id
+        JOIN User u ON ttt.userId = u.id
+        WHERE (:departmentId IS NULL OR u.departmentId = :departmentId)
+        AND (:projectIds IS NULL OR t.projectId IN :projectIds)
+        AND (CAST(ttt.startedAt AS DATE) >= :startDate)
+        AND (CAST(ttt.startedAt AS DATE) <= :endDate)
+        AND t.projectId IS NOT NULL
+        GROUP BY p.name, CAST(ttt.startedAt AS DATE), CAST(ttt.completedAt AS DATE)
+        """)
+    List<Object[]> getDailyHoursByProject(
+        @Param("departmentId") Long departmentId,
+        @Param("projectIds") List<Long> projectIds,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Daily buckets behind getProjectDetails for time-series reports
+     * Task id and status are kept so distinct completed and in-progress tasks can be counted per period
+     * Returns: projectName, departmentId, taskId, status, startedDate, completedDate (null while running), hours
+     */
+    @Query("""
+        SELECT p.name, u.departmentId, t.id, t.status, CAST(ttt.startedAt AS DATE), CAST(ttt.completedAt AS DATE), SUM(
+            CASE
+                WHEN ttt.completedAt IS NOT NULL THEN ttt.totalHours
+                WHEN ttt.startedAt IS NOT NULL THEN
+                    (CAST(FUNCTION('timestampdiff', SECOND, ttt.startedAt, CURRENT_TIMESTAMP) AS double) / 3600.0)
+                ELSE 0
+            END
+        )
+        FROM TaskTimeTracking ttt
+        JOIN Task t ON ttt.taskId = t.id
+        JOIN Project p ON t.projectId = p.id
+        JOIN User u ON t.ownerId = u.id
+        WHERE (:departmentId IS NULL OR u.departmentId = :departmentId)
+        AND (:projectIds IS NULL OR t.projectId IN :projectIds)
+        AND (CAST(ttt.startedAt AS DATE) >= :startDate)
+        AND (CAST(ttt.startedAt AS DATE) <= :endDate)
+        AND t.projectId IS NOT NULL
+        GROUP BY p.name, u.departmentId, t.id, t.status, CAST(ttt.startedAt AS DATE), CAST(ttt.completedAt AS DATE)
+        """)
+    List<Object[]> getDailyProjectDetails(
+        @Param("departmentId") Long departmentId,
+        @Param("projectIds") List<Long> projectIds,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate
+    );
+
+    /**
+     * Every record whose timer is running, for the in-memory open timer index
+     * Returns: trackingId, taskId, userId, projectId, startedAt
+     */
+    @Query("""
+        SELECT ttt.id, ttt.taskId, ttt.userId, t.projectId, ttt.startedAt
+        FROM TaskTimeTracking ttt
+        JOIN Task t ON ttt.taskId = t.id
+        WHERE ttt.completedAt IS NULL
+        AND ttt.startedAt IS NOT NULL
+        """)
+    List<Object[]> findOpenTimers();
+}
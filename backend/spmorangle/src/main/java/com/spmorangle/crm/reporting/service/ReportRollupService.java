@@ -0,0 +1,20 @@
+package com.spmorangle.crm.reporting.service;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+
+public interface ReportRollupService {
+
+    /**
+     * Marks the distinct start days of changed time tracking records for re-aggregation as part of the current
+     * transaction; null start times are ignored
+     */
+    void markTrackingDaysChanged(Collection<OffsetDateTime> startedAts);
+
+    /**
+     * Whether reports over the given days can be served from the daily rollups: they have been backfilled
+     * that far and no instance has marked a day in the window that is still waiting to be re-aggregated
+     */
+    boolean covers(LocalDate startDate, LocalDate endDate);
+}
@@ -7,6 +7,7 @@ import com.spmorangle.crm.reporting.dto.TimeAnalyticsReportDto;
 import com.spmorangle.crm.reporting.dto.TimeSeriesDataPoint;
 
 import java.util.List;
+import java.util.Map;
 
 public interface ReportService {
     
@@ -72,6 +73,15 @@ public interface ReportService {
      * @return List of staff breakdown data
      */
     List<StaffBreakdownDto> generateStaffBreakdown(ReportFilterDto filters, Long userId);
+
+    /**
+     * Generate the complete report used for exports: task summary, time analytics, staff breakdown and,
+     * when there is any, time-series data, plus the filters and generation time
+     * @param filters Report filters with the department already resolved to an ID
+     * @param userId Current user ID for permission checking
+     * @return Report data keyed by section
+     */
+    Map<String, Object> generateReportData(ReportFilterDto filters, Long userId);
     
     /**
      * Sync time tracking when an assignee is added to a task during IN_PROGRESS
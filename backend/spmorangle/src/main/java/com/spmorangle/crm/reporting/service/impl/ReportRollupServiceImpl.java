@@ -0,0 +1,326 @@
+package com.spmorangle.crm.reporting.service.impl;
+
+import com.spmorangle.crm.reporting.model.ReportRollupDirtyDay;
+import com.spmorangle.crm.reporting.model.ReportRollupState;
+import com.spmorangle.crm.reporting.repository.ReportRollupDirtyDayRepository;
+import com.spmorangle.crm.reporting.repository.ReportRollupRepository;
+import com.spmorangle.crm.reporting.repository.ReportRollupStateRepository;
+import com.spmorangle.crm.reporting.service.ReportRollupService;
+import com.spmorangle.crm.taskmanagement.event.TaskReportingChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the daily reporting rollups in step with tasks and time tracking.
+ *
+ * Writes only mark the affected days, in report_rollup_dirty_day and within their own transaction, so the
+ * marks are shared by every instance. Only the periodic flush re-derives the marked days from the source
+ * tables, in one statement per contiguous range; a report whose window holds a marked day reads the source
+ * tables until then, so reads never wait for a rebuild or for the lock it takes. Re-deriving whole days
+ * rather than applying deltas keeps the rollups correct no matter how many changes a day sees or in which
+ * order their transactions commit.
+ *
+ * A nightly job re-derives the trailing days, which also picks up changes made outside the task service,
+ * and backfills history newest first in chunks. Until the backfill reaches a
+ * report's start date the report keeps using the source tables.
+ */
+@Slf4j
+@Service
+public class ReportRollupServiceImpl implements ReportRollupService {
+
+    static final long STATE_ID = 1L;
+
+    private final ReportRollupRepository reportRollupRepository;
+    private final ReportRollupStateRepository reportRollupStateRepository;
+    private final ReportRollupDirtyDayRepository reportRollupDirtyDayRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${reports.rollup.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${reports.rollup.compaction-days:7}")
+    private int compactionDays = 7;
+
+    @Value("${reports.rollup.backfill-chunk-days:90}")
+    private int backfillChunkDays = 90;
+
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    // Cached copy of the persisted backfill progress; null until first read
+    private volatile Coverage coverage;
+
+    record Coverage(LocalDate coveredFrom, boolean fullyBackfilled) {
+    }
+
+    public ReportRollupServiceImpl(ReportRollupRepository reportRollupRepository,
+                                   ReportRollupStateRepository reportRollupStateRepository,
+                                   ReportRollupDirtyDayRepository reportRollupDirtyDayRepository,
+                                   PlatformTransactionManager transactionManager) {
+        this.reportRollupRepository = reportRollupRepository;
+        this.reportRollupStateRepository = reportRollupStateRepository;
+        this.reportRollupDirtyDayRepository = reportRollupDirtyDayRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void markTrackingDaysChanged(Collection<OffsetDateTime> startedAts) {
+        List<OffsetDateTime> starts = startedAts.stream().filter(Objects::nonNull).toList();
+        if (enabled && !starts.isEmpty()) {
+            markDays(ReportRollupDirtyDay.Kind.HOURS, starts);
+        }
+    }
+
+    // Before commit, so the mark is stored atomically with the task write it stands for
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onTaskReportingChanged(TaskReportingChangedEvent event) {
+        if (enabled) {
+            markDays(ReportRollupDirtyDay.Kind.TASKS, Collections.singletonList(event.createdAt()));
+        }
+    }
+
+    @Override
+    public boolean covers(LocalDate startDate, LocalDate endDate) {
+        if (!enabled || startDate == null || endDate == null) {
+            return false;
+        }
+        Coverage current = coverage();
+        if (current == null || current.coveredFrom() == null
+                || (!current.fullyBackfilled() && startDate.isBefore(current.coveredFrom()))) {
+            return false;
+        }
+        // A report must see committed writes, which marked days only show in the source tables until flushed
+        return !reportRollupDirtyDayRepository.existsByRollupDateBetween(startDate, endDate);
+    }
+
+    @Scheduled(fixedDelayString = "${reports.rollup.flush-ms:30000}",
+            initialDelayString = "${reports.rollup.flush-ms:30000}")
+    public void flush() {
+        if (enabled && reportRollupDirtyDayRepository.count() > 0) {
+            flushPendingDays();
+        }
+    }
+
+    /**
+     * Re-derives every marked day and clears the marks, all in one transaction under the state row lock
+     * so instances never rebuild the same days at once. If the rebuild fails every mark stays for the
+     * next attempt; marks added while it ran are left for the next flush.
+     */
+    private void flushPendingDays() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                lockState();
+                List<ReportRollupDirtyDay> marks = reportRollupDirtyDayRepository.findAll();
+                Map<ReportRollupDirtyDay.Kind, TreeSet<LocalDate>> days = new EnumMap<>(ReportRollupDirtyDay.Kind.class);
+                List<Long> markIds = new ArrayList<>(marks.size());
+                for (ReportRollupDirtyDay mark : marks) {
+                    days.computeIfAbsent(mark.getKind(), kind -> new TreeSet<>()).add(mark.getRollupDate());
+                    markIds.add(mark.getId());
+                }
+                days.forEach((kind, kindDays) -> {
+                    boolean tasks = kind == ReportRollupDirtyDay.Kind.TASKS;
+                    for (LocalDate[] range : contiguousRanges(kindDays)) {
+                        rebuild(range[0], range[1], tasks, !tasks);
+                    }
+                });
+                reportRollupDirtyDayRepository.deleteAllByIdInBatch(markIds);
+            });
+        } catch (Exception e) {
+            log.error("Failed to refresh reporting rollups for marked days: {}", e.getMessage(), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        // Continue an unfinished backfill without holding up startup
+        Thread backfill = new Thread(() -> {
+            try {
+                Coverage current = coverage();
+                if (current == null || !current.fullyBackfilled()) {
+                    compactAndBackfill();
+                }
+            } catch (Exception e) {
+                log.error("Failed to resume reporting rollup backfill: {}", e.getMessage(), e);
+            }
+        }, "report-rollup-backfill");
+        backfill.setDaemon(true);
+        backfill.start();
+    }
+
+    /**
+     * Re-derives the trailing days, then extends the backfill towards the earliest source row one
+     * chunk at a time. Progress is saved after every chunk so a restart resumes where it stopped.
+     */
+    @Scheduled(cron = "${reports.rollup.compaction-cron:0 30 2 * * *}")
+    public void compactAndBackfill() {
+        if (!enabled || !compacting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // One day of slack on each side for timestamps the database places on a different day than the JVM
+            LocalDate top = LocalDate.now().plusDays(1);
+            LocalDate earliest = earliestSourceDay(top);
+
+            Coverage current = coverage();
+            LocalDate next = top;
+            if (current != null && current.coveredFrom() != null) {
+                LocalDate compactFrom = top.minusDays(compactionDays + 1L);
+                rebuildChunk(compactFrom.isAfter(current.coveredFrom()) ? compactFrom : current.coveredFrom(), top, earliest);
+                next = current.coveredFrom().minusDays(1);
+                if (current.fullyBackfilled() && !current.coveredFrom().isAfter(earliest)) {
+                    return;
+                }
+            }
+
+            int chunks = 0;
+            while (!next.isBefore(earliest) || chunks == 0) {
+                LocalDate from = next.minusDays(backfillChunkDays - 1L);
+                if (from.isBefore(earliest)) {
+                    from = earliest;
+                }
+                if (from.isAfter(next)) {
+                    from = next;
+                }
+                rebuildChunk(from, next, earliest);
+                next = from.minusDays(1);
+                chunks++;
+            }
+            log.info("Reporting rollups backfilled from {} in {} chunks", earliest, chunks);
+        } catch (Exception e) {
+            log.error("Failed to compact reporting rollups: {}", e.getMessage(), e);
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    private void rebuildChunk(LocalDate fromDay, LocalDate toDay, LocalDate earliest) {
+        Coverage updated = transactionTemplate.execute(status -> {
+            ReportRollupState state = lockState();
+            rebuild(fromDay, toDay, true, true);
+            if (state.getCoveredFrom() == null || fromDay.isBefore(state.getCoveredFrom())) {
+                state.setCoveredFrom(fromDay);
+            }
+            state.setFullyBackfilled(!state.getCoveredFrom().isAfter(earliest));
+            state.setCompactedAt(OffsetDateTime.now());
+            reportRollupStateRepository.save(state);
+            return new Coverage(state.getCoveredFrom(), state.isFullyBackfilled());
+        });
+        coverage = updated;
+    }
+
+    private void rebuild(LocalDate fromDay, LocalDate toDay, boolean tasks, boolean hours) {
+        OffsetDateTime fromTime = fromDay.minusDays(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+        OffsetDateTime toTime = toDay.plusDays(2).atStartOfDay().atOffset(ZoneOffset.UTC);
+        if (tasks) {
+            reportRollupRepository.deleteTaskRollups(fromDay, toDay);
+            reportRollupRepository.insertTaskRollups(fromDay, toDay, fromTime, toTime);
+        }
+        if (hours) {
+            reportRollupRepository.deleteHoursRollups(fromDay, toDay);
+            reportRollupRepository.insertHoursRollups(fromDay, toDay, fromTime, toTime);
+        }
+    }
+
+    private ReportRollupState lockState() {
+        return reportRollupStateRepository.findForUpdate(STATE_ID).orElseGet(() -> {
+            ReportRollupState state = new ReportRollupState();
+            state.setId(STATE_ID);
+            return reportRollupStateRepository.save(state);
+        });
+    }
+
+    private Coverage coverage() {
+        Coverage current = coverage;
+        if (current == null) {
+            current = reportRollupStateRepository.findById(STATE_ID)
+                .map(state -> new Coverage(state.getCoveredFrom(), state.isFullyBackfilled()))
+                .orElse(null);
+            coverage = current;
+        }
+        return current;
+    }
+
+    private LocalDate earliestSourceDay(LocalDate fallback) {
+        LocalDate earliest = fallback;
+        for (OffsetDateTime time : new OffsetDateTime[]{
+                reportRollupRepository.findEarliestTaskCreatedAt(),
+                reportRollupRepository.findEarliestCompletedTrackingStartedAt()}) {
+            if (time != null) {
+                LocalDate day = time.atZoneSameInstant(ZoneOffset.UTC).toLocalDate().minusDays(1);
+                if (day.isBefore(earliest)) {
+                    earliest = day;
+                }
+            }
+        }
+        return earliest;
+    }
+
+    /**
+     * Marks each distinct day once. The database may cast a timestamp to a different day than the JVM zone,
+     * so both candidate days are marked; re-deriving an unchanged day is harmless.
+     */
+    private void markDays(ReportRollupDirtyDay.Kind kind, Collection<OffsetDateTime> times) {
+        OffsetDateTime now = OffsetDateTime.now();
+        Set<LocalDate> days = new TreeSet<>();
+        for (OffsetDateTime time : times) {
+            OffsetDateTime at = time != null ? time : now;
+            days.add(at.atZoneSameInstant(ZoneOffset.UTC).toLocalDate());
+            days.add(at.atZoneSameInstant(ZoneId.systemDefault()).toLocalDate());
+        }
+        List<ReportRollupDirtyDay> marks = new ArrayList<>(days.size());
+        for (LocalDate day : days) {
+            ReportRollupDirtyDay mark = new ReportRollupDirtyDay();
+            mark.setRollupDate(day);
+            mark.setKind(kind);
+            mark.setMarkedAt(now);
+            marks.add(mark);
+        }
+        reportRollupDirtyDayRepository.saveAll(marks);
+    }
+
+    static List<LocalDate[]> contiguousRanges(TreeSet<LocalDate> days) {
+        List<LocalDate[]> ranges = new ArrayList<>();
+        LocalDate from = null;
+        LocalDate to = null;
+        for (LocalDate day : days) {
+            if (to != null && day.equals(to.plusDays(1))) {
+                to = day;
+                continue;
+            }
+            if (from != null) {
+                ranges.add(new LocalDate[]{from, to});
+            }
+            from = day;
+            to = day;
+        }
+        if (from != null) {
+            ranges.add(new LocalDate[]{from, to});
+        }
+        return ranges;
+    }
+}
@@ -5,6 +5,7 @@ import com.spmorangle.common.model.User;
 import com.spmorangle.common.repository.UserRepository;
 import com.spmorangle.crm.departmentmgmt.dto.DepartmentDto;
 import com.spmorangle.crm.departmentmgmt.service.DepartmentQueryService;
+import com.spmorangle.crm.reporting.cache.ReportResultCache;
 import com.spmorangle.crm.reporting.dto.Period;
 import com.spmorangle.crm.reporting.dto.ReportFilterDto;
 import com.spmorangle.crm.reporting.dto.StaffBreakdownDto;
@@ -12,9 +13,12 @@ import com.spmorangle.crm.reporting.dto.TaskSummaryReportDto;
 import com.spmorangle.crm.reporting.dto.TimeAnalyticsReportDto;
 import com.spmorangle.crm.reporting.dto.TimeSeriesDataPoint;
 import com.spmorangle.crm.reporting.model.TaskTimeTracking;
+import com.spmorangle.crm.reporting.repository.ReportRollupRepository;
 import com.spmorangle.crm.reporting.repository.ReportingRepository;
 import com.spmorangle.crm.reporting.repository.TaskTimeTrackingRepository;
+import com.spmorangle.crm.reporting.service.ReportRollupService;
 import com.spmorangle.crm.reporting.service.ReportService;
+import com.spmorangle.crm.reporting.tracking.OpenTimerIndex;
 import com.spmorangle.crm.taskmanagement.enums.Status;
 import com.spmorangle.crm.taskmanagement.repository.TaskAssigneeRepository;
 import com.spmorangle.crm.taskmanagement.repository.TaskRepository;
@@ -30,11 +34,13 @@ import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -47,6 +53,14 @@ public class ReportServiceImpl implements ReportService {
     private final TaskAssigneeRepository taskAssigneeRepository;
     private final TaskRepository taskRepository;
     private final DepartmentQueryService departmentQueryService;
+    private final TimeSeriesReportEngine timeSeriesReportEngine;
+    private final ReportRollupRepository reportRollupRepository;
+    private final ReportRollupService reportRollupService;
+    private final ReportResultCache reportResultCache;
+    private final OpenTimerIndex openTimerIndex;
+
+    // Keeps the IN lists of the grouped staff queries well below driver bind-parameter limits
+    private static final int STAFF_BREAKDOWN_BATCH_SIZE = 1000;
     
     @Override
     public TaskSummaryReportDto generateTaskSummaryReport(ReportFilterDto filters, Long userId) {
@@ -58,10 +72,18 @@ public class ReportServiceImpl implements ReportService {
         // Apply role-based filtering
         Long departmentFilter = applyDepartmentFilter(filters.getDepartmentId(), currentUser);
 
+        return reportResultCache.get(ReportResultCache.Report.TASK_SUMMARY, currentUser.getRoleType(),
+            departmentFilter, filters, () -> queryTaskSummary(filters, departmentFilter, currentUser));
+    }
+
+    private TaskSummaryReportDto queryTaskSummary(ReportFilterDto filters, Long departmentFilter, User currentUser) {
         // Dates are now required (validated at controller level)
         LocalDate startDate = filters.getStartDate();
         LocalDate endDate = filters.getEndDate();
 
+        // Read the daily rollups when they cover the window; they return the same row shapes
+        boolean fromRollups = reportRollupService.covers(startDate, endDate);
+
         // Get task counts by status - choose the right method based on filters
         List<Object[]> statusCounts;
         boolean hasProjectFilter = filters.getProjectIds() != null && !filters.getProjectIds().isEmpty();
@@ -69,14 +91,44 @@ public class ReportServiceImpl implements ReportService {
         if (hasProjectFilter) {
             // Use project-specific query when project filtering is requested
             log.info("Filtering by projects: {}", filters.getProjectIds());
-            statusCounts = reportingRepository.getTaskCountsByProjectAndStatus(
-                departmentFilter, filters.getProjectIds(), startDate, endDate);
+            statusCounts = fromRollups
+                ? reportRollupRepository.getTaskCountsByProjectAndStatus(
+                    departmentFilter, filters.getProjectIds(), startDate, endDate)
+                : reportingRepository.getTaskCountsByProjectAndStatus(
+                    departmentFilter, filters.getProjectIds(), startDate, endDate);
         } else {
             // Use general query when no project filtering
-            statusCounts = reportingRepository.getTaskCountsByStatus(
-                departmentFilter, startDate, endDate);
+            statusCounts = fromRollups
+                ? reportRollupRepository.getTaskCountsByStatus(departmentFilter, startDate, endDate)
+                : reportingRepository.getTaskCountsByStatus(departmentFilter, startDate, endDate);
         }
         
+        // Get department breakdown (filtered by department if specified)
+        List<Object[]> deptCounts = fromRollups
+            ? reportRollupRepository.getTaskCountsByDepartmentAndStatus(departmentFilter, startDate, endDate)
+            : reportingRepository.getTaskCountsByDepartmentAndStatus(departmentFilter, startDate, endDate);
+
+        // Get project breakdown (always show - all projects or filtered projects)
+        List<Object[]> projectCounts;
+        if (!hasProjectFilter) {
+            // No filter - get all projects
+            projectCounts = fromRollups
+                ? reportRollupRepository.getAllTaskCountsByProjectAndStatus(departmentFilter, startDate, endDate)
+                : reportingRepository.getAllTaskCountsByProjectAndStatus(departmentFilter, startDate, endDate);
+        } else {
+            // Use the already fetched data from statusCounts (which has project breakdown)
+            projectCounts = statusCounts;
+        }
+        
+        return buildTaskSummary(statusCounts, hasProjectFilter, deptCounts, projectCounts, currentUser);
+    }
+
+    /**
+     * Builds the task summary from status, department and project count rows
+     * Shared by the single-period report and every period of a time-series report
+     */
+    private TaskSummaryReportDto buildTaskSummary(List<Object[]> statusCounts, boolean hasProjectFilter,
+            List<Object[]> deptCounts, List<Object[]> projectCounts, User currentUser) {
         // Initialize counters
         long totalTasks = 0;
         long completedTasks = 0;
@@ -112,10 +164,7 @@ public class ReportServiceImpl implements ReportService {
             }
         }
         
-        // Get department breakdown (filtered by department if specified)
         Map<String, TaskSummaryReportDto.TaskStatusCounts> departmentBreakdown = new HashMap<>();
-        List<Object[]> deptCounts = reportingRepository.getTaskCountsByDepartmentAndStatus(departmentFilter, startDate, endDate);
-
         for (Object[] row : deptCounts) {
             Long departmentId = (Long) row[0];
             Status status = (Status) row[1];
@@ -142,16 +191,6 @@ public class ReportServiceImpl implements ReportService {
             }
         }
 
-        // Get project breakdown (always show - all projects or filtered projects)
-        List<Object[]> projectCounts;
-        if (!hasProjectFilter) {
-            // No filter - get all projects
-            projectCounts = reportingRepository.getAllTaskCountsByProjectAndStatus(departmentFilter, startDate, endDate);
-        } else {
-            // Use the already fetched data from statusCounts (which has project breakdown)
-            projectCounts = statusCounts;
-        }
-        
         // Populate project breakdown
         for (Object[] row : projectCounts) {
             String projectName = (String) row[0];
@@ -203,6 +242,11 @@ public class ReportServiceImpl implements ReportService {
         // Apply role-based filtering
         Long departmentFilter = applyDepartmentFilter(filters.getDepartmentId(), currentUser);
 
+        return reportResultCache.get(ReportResultCache.Report.TIME_ANALYTICS, currentUser.getRoleType(),
+            departmentFilter, filters, () -> queryTimeAnalytics(filters, departmentFilter, currentUser));
+    }
+
+    private TimeAnalyticsReportDto queryTimeAnalytics(ReportFilterDto filters, Long departmentFilter, User currentUser) {
         // Dates are now required (validated at controller level)
         LocalDate startDate = filters.getStartDate();
         LocalDate endDate = filters.getEndDate();
@@ -213,10 +257,54 @@ public class ReportServiceImpl implements ReportService {
             projectIds = null;
         }
 
-        // Get hours by department (with filters applied)
-        List<Object[]> departmentHours = taskTimeTrackingRepository.getHoursByDepartment(
+        List<Object[]> departmentHours;
+        List<Object[]> projectHours;
+        if (reportRollupService.covers(startDate, endDate)) {
+            // Completed timers come from the daily rollups, running timers are still accruing and come from the index
+            departmentHours = sumHoursByKey(
+                reportRollupRepository.getCompletedHoursByDepartment(departmentFilter, projectIds, startDate, endDate),
+                openTimerIndex.runningHoursByDepartment(departmentFilter, projectIds, startDate, endDate));
+            projectHours = sumHoursByKey(
+                reportRollupRepository.getCompletedHoursByProject(departmentFilter, projectIds, startDate, endDate),
+                openTimerIndex.runningHoursByProject(departmentFilter, projectIds, startDate, endDate));
+        } else {
+            // Get hours by department (with filters applied)
+            departmentHours = taskTimeTrackingRepository.getHoursByDepartment(
+                departmentFilter, projectIds, startDate, endDate);
+
+            // Get hours by project
+            projectHours = taskTimeTrackingRepository.getHoursByProject(
+                departmentFilter, projectIds, startDate, endDate);
+        }
+
+        // Get project details (name, department, hours, completed tasks, in-progress tasks)
+        List<Object[]> projectDetailsData = taskTimeTrackingRepository.getProjectDetails(
             departmentFilter, projectIds, startDate, endDate);
 
+        return buildTimeAnalytics(departmentHours, projectHours, projectDetailsData, currentUser);
+    }
+
+    /**
+     * Adds up [key, hours] rows from several sources into one [key, hours] row per key
+     */
+    private static List<Object[]> sumHoursByKey(List<Object[]> completedRows, List<Object[]> runningRows) {
+        Map<Object, BigDecimal> hoursByKey = new LinkedHashMap<>();
+        for (List<Object[]> rows : List.of(completedRows, runningRows)) {
+            for (Object[] row : rows) {
+                hoursByKey.merge(row[0], toBigDecimal(row[1]), BigDecimal::add);
+            }
+        }
+        List<Object[]> merged = new ArrayList<>(hoursByKey.size());
+        hoursByKey.forEach((key, hours) -> merged.add(new Object[]{key, hours}));
+        return merged;
+    }
+
+    /**
+     * Builds the time analytics from department hours, project hours and project detail rows
+     * Shared by the single-period report and every period of a time-series report
+     */
+    private TimeAnalyticsReportDto buildTimeAnalytics(List<Object[]> departmentHours, List<Object[]> projectHours,
+            List<Object[]> projectDetailsData, User currentUser) {
         Map<String, BigDecimal> hoursByDepartment = new HashMap<>();
         BigDecimal totalHours = BigDecimal.ZERO;
 
@@ -235,10 +323,6 @@ public class ReportServiceImpl implements ReportService {
             }
         }
 
-        // Get hours by project
-        List<Object[]> projectHours = taskTimeTrackingRepository.getHoursByProject(
-            departmentFilter, projectIds, startDate, endDate);
-
         Map<String, BigDecimal> hoursByProject = new HashMap<>();
         for (Object[] row : projectHours) {
             String projectName = (String) row[0];
@@ -246,10 +330,6 @@ public class ReportServiceImpl implements ReportService {
             hoursByProject.put(projectName, hours != null ? hours : BigDecimal.ZERO);
         }
 
-        // Get project details (name, department, hours, completed tasks, in-progress tasks)
-        List<Object[]> projectDetailsData = taskTimeTrackingRepository.getProjectDetails(
-            departmentFilter, projectIds, startDate, endDate);
-
         Map<String, TimeAnalyticsReportDto.ProjectTimeDetails> projectDetails = new HashMap<>();
         for (Object[] row : projectDetailsData) {
             String projectName = (String) row[0];
@@ -344,30 +424,50 @@ public class ReportServiceImpl implements ReportService {
         }
         
         OffsetDateTime startTime = OffsetDateTime.now();
+        List<OffsetDateTime> changedStarts = new ArrayList<>();
+        List<OffsetDateTime> restartedFrom = new ArrayList<>();
+
+        // Load every user's record in one query; restarted records are updated as one batch, while new
+        // ones are still inserted one by one since their ids come from an identity column
+        Map<Long, TaskTimeTracking> existingByUser = new HashMap<>();
+        for (TaskTimeTracking tracking : taskTimeTrackingRepository.findByTaskIdAndUserIdIn(taskId, allUserIds)) {
+            existingByUser.putIfAbsent(tracking.getUserId(), tracking);
+        }
+        List<TaskTimeTracking> changed = new ArrayList<>();
         
         // Create or update tracking records for all users
         for (Long currentUserId : allUserIds) {
-            Optional<TaskTimeTracking> existingTracking = taskTimeTrackingRepository.findByTaskIdAndUserId(taskId, currentUserId);
+            TaskTimeTracking tracking = existingByUser.get(currentUserId);
             
-            if (existingTracking.isPresent()) {
-                TaskTimeTracking tracking = existingTracking.get();
+            if (tracking != null) {
                 if (tracking.getStartedAt() == null || tracking.getCompletedAt() != null) {
+                    // The completed hours leave the rollup of the day the previous run started
+                    restartedFrom.add(tracking.getStartedAt());
+                    changedStarts.add(tracking.getStartedAt());
+                    changedStarts.add(startTime);
                     // Reset tracking for restart scenarios
                     tracking.setStartedAt(startTime);
                     tracking.setCompletedAt(null);
                     tracking.setTotalHours(null);
-                    taskTimeTrackingRepository.save(tracking);
+                    changed.add(tracking);
                     log.info("Updated existing time tracking record for task: {}, user: {}", taskId, currentUserId);
                 }
             } else {
-                TaskTimeTracking tracking = new TaskTimeTracking();
+                tracking = new TaskTimeTracking();
                 tracking.setTaskId(taskId);
                 tracking.setUserId(currentUserId);
                 tracking.setStartedAt(startTime);
-                taskTimeTrackingRepository.save(tracking);
+                changed.add(tracking);
+                changedStarts.add(startTime);
                 log.info("Created new time tracking record for task: {}, user: {}", taskId, currentUserId);
             }
         }
+        if (!changed.isEmpty()) {
+            taskTimeTrackingRepository.saveAll(changed);
+            openTimerIndex.onStarted(changed, task.getProjectId());
+        }
+        reportRollupService.markTrackingDaysChanged(restartedFrom);
+        reportResultCache.invalidateTracking(allUserIds, changedStarts);
         
         log.info("Started time tracking for task: {} with {} users", taskId, allUserIds.size());
     }
@@ -408,14 +508,23 @@ public class ReportServiceImpl implements ReportService {
         
         // Apply the same hours to all tracking records for this task
         int updatedCount = 0;
+        List<TaskTimeTracking> stopped = new ArrayList<>();
+        List<Long> changedUserIds = new ArrayList<>();
+        List<OffsetDateTime> changedStarts = new ArrayList<>();
         for (TaskTimeTracking tracking : allTrackingRecords) {
             if (tracking.getStartedAt() != null && tracking.getCompletedAt() == null) {
                 tracking.setCompletedAt(completedAt);
                 tracking.setTotalHours(totalHours);
-                taskTimeTrackingRepository.save(tracking);
+                stopped.add(tracking);
+                changedUserIds.add(tracking.getUserId());
+                changedStarts.add(tracking.getStartedAt());
                 updatedCount++;
             }
         }
+        taskTimeTrackingRepository.saveAll(stopped);
+        openTimerIndex.onStopped(stopped);
+        reportRollupService.markTrackingDaysChanged(changedStarts);
+        reportResultCache.invalidateTracking(changedUserIds, changedStarts);
         
         log.info("Completed time tracking for task: {} with {} hours distributed to {} users", 
                  taskId, totalHours, updatedCount);
@@ -453,6 +562,8 @@ public class ReportServiceImpl implements ReportService {
         tracking.setUserId(userId);
         tracking.setStartedAt(OffsetDateTime.now());
         taskTimeTrackingRepository.save(tracking);
+        openTimerIndex.onStarted(List.of(tracking), task.getProjectId());
+        reportResultCache.invalidateTracking(Arrays.asList(userId, task.getOwnerId()), List.of(tracking.getStartedAt()));
         
         log.info("Created time tracking record for new assignee - task: {}, user: {}", taskId, userId);
     }
@@ -483,6 +594,10 @@ public class ReportServiceImpl implements ReportService {
             if (tracking.getCompletedAt() == null) {
                 // Only delete if not yet completed
                 taskTimeTrackingRepository.delete(tracking);
+                openTimerIndex.onStopped(List.of(tracking));
+                if (tracking.getStartedAt() != null) {
+                    reportResultCache.invalidateTracking(Arrays.asList(userId, task.getOwnerId()), List.of(tracking.getStartedAt()));
+                }
                 log.info("Deleted time tracking record for removed assignee - task: {}, user: {}", taskId, userId);
             } else {
                 log.info("Tracking record already completed, keeping it - task: {}, user: {}", taskId, userId);
@@ -560,34 +675,54 @@ public class ReportServiceImpl implements ReportService {
         // Generate all periods (including empty ones)
         List<Period> periods = generatePeriods(startDate, endDate, filters.getTimeRange());
 
-        // Generate data for each period
-        return periods.stream()
-            .map(period -> {
-                // Create filter for this specific period
-                ReportFilterDto periodFilter = ReportFilterDto.builder()
-                    .departmentId(filters.getDepartmentId())
-                    .projectIds(filters.getProjectIds())
-                    .startDate(period.getStartDate())
-                    .endDate(period.getEndDate())
-                    .timeRange(null) // Prevent recursion
-                    .build();
-
-                // Generate reports for this period
-                TaskSummaryReportDto periodTaskSummary = generateTaskSummaryReport(periodFilter, userId);
-                TimeAnalyticsReportDto periodTimeAnalytics = generateTimeAnalyticsReport(periodFilter, userId);
-                List<StaffBreakdownDto> periodStaffBreakdown = generateStaffBreakdown(periodFilter, userId);
-
-                return TimeSeriesDataPoint.builder()
-                    .period(period.getPeriod())
-                    .periodLabel(period.getPeriodLabel())
-                    .startDate(period.getStartDate())
-                    .endDate(period.getEndDate())
-                    .taskSummary(periodTaskSummary)
-                    .timeAnalytics(periodTimeAnalytics)
-                    .staffBreakdown(periodStaffBreakdown)
-                    .build();
-            })
-            .collect(Collectors.toList());
+        User currentUser = userRepository.findById(userId)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+
+        // Access control is resolved once for the whole series
+        Long departmentFilter = applyDepartmentFilter(filters.getDepartmentId(), currentUser);
+
+        List<Long> projectIds = filters.getProjectIds();
+        if (projectIds != null && projectIds.isEmpty()) {
+            projectIds = null;
+        }
+        boolean hasProjectFilter = projectIds != null;
+
+        // The staff list does not depend on the period
+        List<Object[]> users = reportingRepository.getUsersForStaffBreakdown(departmentFilter, projectIds);
+        List<Long> staffUserIds = users.stream().map(row -> (Long) row[0]).toList();
+
+        // One grouped query per metric for the whole range, split into periods in memory
+        List<TimeSeriesReportEngine.PeriodRows> periodRows =
+            timeSeriesReportEngine.fetch(periods, departmentFilter, projectIds, staffUserIds);
+
+        List<TimeSeriesDataPoint> dataPoints = new ArrayList<>(periods.size());
+        for (int i = 0; i < periods.size(); i++) {
+            Period period = periods.get(i);
+            TimeSeriesReportEngine.PeriodRows rows = periodRows.get(i);
+
+            Map<Long, EnumMap<Status, Long>> taskCountsByUser = new HashMap<>();
+            for (Object[] countRow : rows.staffTaskCounts()) {
+                taskCountsByUser.computeIfAbsent((Long) countRow[0], k -> new EnumMap<>(Status.class))
+                    .put((Status) countRow[1], (Long) countRow[2]);
+            }
+            Map<Long, BigDecimal> loggedHoursByUser = new HashMap<>();
+            for (Object[] hoursRow : rows.staffHours()) {
+                loggedHoursByUser.put((Long) hoursRow[0], toBigDecimal(hoursRow[1]));
+            }
+
+            dataPoints.add(TimeSeriesDataPoint.builder()
+                .period(period.getPeriod())
+                .periodLabel(period.getPeriodLabel())
+                .startDate(period.getStartDate())
+                .endDate(period.getEndDate())
+                .taskSummary(buildTaskSummary(rows.statusCounts(), hasProjectFilter,
+                    rows.departmentCounts(), rows.projectCounts(), currentUser))
+                .timeAnalytics(buildTimeAnalytics(rows.departmentHours(), rows.projectHours(),
+                    rows.projectDetails(), currentUser))
+                .staffBreakdown(buildStaffBreakdown(users, taskCountsByUser, loggedHoursByUser))
+                .build());
+        }
+        return dataPoints;
     }
     
     /**
@@ -725,6 +860,27 @@ public class ReportServiceImpl implements ReportService {
         return periods;
     }
     
+    @Override
+    public Map<String, Object> generateReportData(ReportFilterDto filters, Long userId) {
+        TaskSummaryReportDto taskSummary = generateTaskSummaryReport(filters, userId);
+        TimeAnalyticsReportDto timeAnalytics = generateTimeAnalyticsReport(filters, userId);
+        List<StaffBreakdownDto> staffBreakdown = generateStaffBreakdown(filters, userId);
+        List<TimeSeriesDataPoint> timeSeriesData = generateTimeSeriesData(filters, userId);
+
+        Map<String, Object> reportData = new HashMap<>();
+        reportData.put("taskSummary", taskSummary);
+        reportData.put("timeAnalytics", timeAnalytics);
+        reportData.put("staffBreakdown", staffBreakdown);
+        reportData.put("filters", filters);
+        reportData.put("generatedAt", OffsetDateTime.now());
+
+        // Include time-series data only if it exists
+        if (timeSeriesData != null && !timeSeriesData.isEmpty()) {
+            reportData.put("timeSeriesData", timeSeriesData);
+        }
+        return reportData;
+    }
+
     @Override
     public List<StaffBreakdownDto> generateStaffBreakdown(ReportFilterDto filters, Long userId) {
         log.info("Generating staff breakdown report for user: {}", userId);
@@ -748,7 +904,32 @@ public class ReportServiceImpl implements ReportService {
         // Get all relevant users - single query handles both department-only and project filters
         List<Object[]> users = reportingRepository.getUsersForStaffBreakdown(departmentFilter, projectIds);
 
-        // For each user, fetch their task counts and logged hours
+        List<Long> staffUserIds = users.stream().map(row -> (Long) row[0]).toList();
+        Map<Long, EnumMap<Status, Long>> taskCountsByUser = new HashMap<>();
+        Map<Long, BigDecimal> loggedHoursByUser = new HashMap<>();
+
+        // Two grouped queries per batch of users instead of two queries per user
+        for (int from = 0; from < staffUserIds.size(); from += STAFF_BREAKDOWN_BATCH_SIZE) {
+            List<Long> batch = staffUserIds.subList(from, Math.min(from + STAFF_BREAKDOWN_BATCH_SIZE, staffUserIds.size()));
+
+            for (Object[] countRow : reportingRepository.getTaskCountsByStatusForUsers(batch, projectIds, startDate, endDate)) {
+                taskCountsByUser.computeIfAbsent((Long) countRow[0], k -> new EnumMap<>(Status.class))
+                    .put((Status) countRow[1], (Long) countRow[2]);
+            }
+            for (Object[] hoursRow : reportingRepository.getLoggedHoursForUsers(batch, projectIds, startDate, endDate)) {
+                loggedHoursByUser.put((Long) hoursRow[0], toBigDecimal(hoursRow[1]));
+            }
+        }
+
+        return buildStaffBreakdown(users, taskCountsByUser, loggedHoursByUser);
+    }
+
+    /**
+     * Builds one staff breakdown row per user, including users without activity
+     * Shared by the single-period report and every period of a time-series report
+     */
+    private List<StaffBreakdownDto> buildStaffBreakdown(List<Object[]> users,
+            Map<Long, EnumMap<Status, Long>> taskCountsByUser, Map<Long, BigDecimal> loggedHoursByUser) {
         List<StaffBreakdownDto> staffBreakdowns = new ArrayList<>();
         for (Object[] userRow : users) {
             Long staffUserId = (Long) userRow[0];
@@ -758,32 +939,7 @@ public class ReportServiceImpl implements ReportService {
             log.debug("Processing user: userId={}, userName={}, departmentId={}",
                 staffUserId, userName, userDepartmentId);
 
-            // Get task counts by status for this user
-            List<Object[]> taskCounts = reportingRepository.getTaskCountsByStatusForUser(
-                staffUserId, projectIds, startDate, endDate);
-
-            // Initialize counters
-            long todoTasks = 0;
-            long inProgressTasks = 0;
-            long completedTasks = 0;
-            long blockedTasks = 0;
-
-            // Process task counts
-            for (Object[] countRow : taskCounts) {
-                Status status = (Status) countRow[0];
-                Long count = (Long) countRow[1];
-
-                switch (status) {
-                    case TODO -> todoTasks = count;
-                    case IN_PROGRESS -> inProgressTasks = count;
-                    case COMPLETED -> completedTasks = count;
-                    case BLOCKED -> blockedTasks = count;
-                }
-            }
-
-            // Get logged hours for this user (with project filter)
-            BigDecimal loggedHours = reportingRepository.getLoggedHoursForUser(
-                staffUserId, projectIds, startDate, endDate);
+            Map<Status, Long> taskCounts = taskCountsByUser.getOrDefault(staffUserId, new EnumMap<>(Status.class));
 
             // Convert department ID to name for response
             // Return "N/A" instead of null for users without departments
@@ -800,17 +956,31 @@ public class ReportServiceImpl implements ReportService {
                 .userId(staffUserId)
                 .userName(userName)
                 .department(userDepartmentName)
-                .todoTasks(todoTasks)
-                .inProgressTasks(inProgressTasks)
-                .completedTasks(completedTasks)
-                .blockedTasks(blockedTasks)
-                .loggedHours(loggedHours != null ? loggedHours : BigDecimal.ZERO)
+                .todoTasks(taskCounts.getOrDefault(Status.TODO, 0L))
+                .inProgressTasks(taskCounts.getOrDefault(Status.IN_PROGRESS, 0L))
+                .completedTasks(taskCounts.getOrDefault(Status.COMPLETED, 0L))
+                .blockedTasks(taskCounts.getOrDefault(Status.BLOCKED, 0L))
+                .loggedHours(loggedHoursByUser.getOrDefault(staffUserId, BigDecimal.ZERO))
                 .build());
         }
 
         return staffBreakdowns;
     }
 
+    /**
+     * The in-progress branch of the logged hours sum is computed as a double, so the grouped row may
+     * carry either numeric type depending on the database
+     */
+    static BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        return BigDecimal.valueOf(((Number) value).doubleValue());
+    }
+
     /**
      * Helper method to get department name from user
      * Since User model now uses departmentId, we need to query for the name
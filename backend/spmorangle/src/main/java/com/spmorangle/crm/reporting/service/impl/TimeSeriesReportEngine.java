@@ -0,0 +1,379 @@
+package com.spmorangle.crm.reporting.service.impl;
+
+import com.spmorangle.crm.reporting.dto.Period;
+import com.spmorangle.crm.reporting.repository.ReportingRepository;
+import com.spmorangle.crm.reporting.repository.TaskTimeTrackingRepository;
+import com.spmorangle.crm.taskmanagement.enums.Status;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Fetches the data behind a time-series report with one grouped query per metric for the whole range,
+ * instead of running the full set of report queries once per period.
+ *
+ * Every metric query buckets its rows by day. The days are folded into the requested periods in memory
+ * and the result for each period has exactly the row shape of the matching single-period query, so the
+ * report builders in {@link ReportServiceImpl} are shared between both paths. Bucketing by day rather
+ * than by date_trunc keeps the weekly periods, which start on the report start date, exact.
+ *
+ * The metric queries are independent and run in parallel on a small bounded pool. When the pool is
+ * saturated the calling thread runs the query itself. Each query runs in a read-only transaction whose
+ * timeout is what is left of the configured timeout, which Spring passes to the statement as the
+ * {@code jakarta.persistence.query.timeout} hint, so the database stops a query the report no longer waits
+ * for. Interrupting the calling thread or exceeding the timeout only stops queries that have not started;
+ * cancelling a future does not abort a JDBC statement that is already running.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TimeSeriesReportEngine {
+
+    // Keeps the IN lists of the grouped staff queries well below driver bind-parameter limits
+    private static final int STAFF_BATCH_SIZE = 1000;
+
+    private final ReportingRepository reportingRepository;
+    private final TaskTimeTrackingRepository taskTimeTrackingRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${reports.time-series.threads:4}")
+    private int threads = 4;
+
+    @Value("${reports.time-series.queue-capacity:32}")
+    private int queueCapacity = 32;
+
+    @Value("${reports.time-series.timeout-ms:60000}")
+    private long timeoutMillis = 60_000L;
+
+    private ExecutorService executor;
+
+    /**
+     * Rows for one period, in the shapes returned by the single-period report queries
+     *
+     * @param statusCounts status, count - or projectName, status, count when a project filter is applied
+     * @param departmentCounts departmentId, status, count
+     * @param projectCounts projectName, status, count
+     * @param departmentHours departmentId, hours
+     * @param projectHours projectName, hours
+     * @param projectDetails projectName, departmentId, hours, completedTasks, inProgressTasks
+     * @param staffTaskCounts userId, status, count
+     * @param staffHours userId, hours
+     */
+    public record PeriodRows(
+        List<Object[]> statusCounts,
+        List<Object[]> departmentCounts,
+        List<Object[]> projectCounts,
+        List<Object[]> departmentHours,
+        List<Object[]> projectHours,
+        List<Object[]> projectDetails,
+        List<Object[]> staffTaskCounts,
+        List<Object[]> staffHours
+    ) {
+    }
+
+    @PostConstruct
+    void start() {
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "report-query-" + sequence.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        executor = pool;
+    }
+
+    @PreDestroy
+    void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the metric queries for the whole range covered by the periods and splits them per period
+     * @param periods Contiguous periods in ascending order
+     * @param departmentId Department filter after role-based filtering, null for all departments
+     * @param projectIds Project filter, null or empty for all projects
+     * @param staffUserIds Users included in the staff breakdown
+     * @return One entry per period, in the same order
+     */
+    public List<PeriodRows> fetch(List<Period> periods, Long departmentId, List<Long> projectIds, List<Long> staffUserIds) {
+        if (periods.isEmpty()) {
+            return List.of();
+        }
+        List<Long> projectFilter = projectIds == null || projectIds.isEmpty() ? null : projectIds;
+        LocalDate startDate = periods.get(0).getStartDate();
+        LocalDate endDate = periods.get(periods.size() - 1).getEndDate();
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        List<Future<List<Object[]>>> submitted = new ArrayList<>();
+        try {
+            Future<List<Object[]>> taskCounts = submit(submitted, deadline, () ->
+                reportingRepository.getDailyTaskCountsByDepartmentProjectAndStatus(departmentId, startDate, endDate));
+            Future<List<Object[]>> departmentHours = submit(submitted, deadline, () ->
+                taskTimeTrackingRepository.getDailyHoursByDepartment(departmentId, projectFilter, startDate, endDate));
+            Future<List<Object[]>> projectHours = submit(submitted, deadline, () ->
+                taskTimeTrackingRepository.getDailyHoursByProject(departmentId, projectFilter, startDate, endDate));
+            Future<List<Object[]>> projectDetails = submit(submitted, deadline, () ->
+                taskTimeTrackingRepository.getDailyProjectDetails(departmentId, projectFilter, startDate, endDate));
+
+            List<Future<List<Object[]>>> staffCounts = new ArrayList<>();
+            List<Future<List<Object[]>>> staffHours = new ArrayList<>();
+            for (int from = 0; from < staffUserIds.size(); from += STAFF_BATCH_SIZE) {
+                List<Long> batch = staffUserIds.subList(from, Math.min(from + STAFF_BATCH_SIZE, staffUserIds.size()));
+                staffCounts.add(submit(submitted, deadline, () ->
+                    reportingRepository.getDailyTaskCountsByStatusForUsers(batch, projectFilter, startDate, endDate)));
+                staffHours.add(submit(submitted, deadline, () ->
+                    reportingRepository.getDailyLoggedHoursForUsers(batch, projectFilter, startDate, endDate)));
+            }
+
+            List<PeriodFold> folds = periods.stream().map(period -> new PeriodFold(period, projectFilter)).toList();
+            TreeMap<LocalDate, PeriodFold> byStart = new TreeMap<>();
+            folds.forEach(fold -> byStart.put(fold.period.getStartDate(), fold));
+
+            for (Object[] row : await(taskCounts, deadline)) {
+                PeriodFold fold = foldFor(byStart, toLocalDate(row[0]));
+                if (fold != null) {
+                    fold.addTaskCount((Long) row[1], (Long) row[2], (String) row[3], (Status) row[4], (Long) row[5]);
+                }
+            }
+            for (Object[] row : await(departmentHours, deadline)) {
+                PeriodFold fold = trackedFoldFor(byStart, row[1], row[2]);
+                if (fold != null) {
+                    fold.departmentHours.merge((Long) row[0], ReportServiceImpl.toBigDecimal(row[3]), BigDecimal::add);
+                }
+            }
+            for (Object[] row : await(projectHours, deadline)) {
+                PeriodFold fold = trackedFoldFor(byStart, row[1], row[2]);
+                if (fold != null) {
+                    fold.projectHours.merge((String) row[0], ReportServiceImpl.toBigDecimal(row[3]), BigDecimal::add);
+                }
+            }
+            for (Object[] row : await(projectDetails, deadline)) {
+                PeriodFold fold = trackedFoldFor(byStart, row[4], row[5]);
+                if (fold != null) {
+                    fold.addProjectDetail((String) row[0], (Long) row[1], (Long) row[2], (Status) row[3],
+                        ReportServiceImpl.toBigDecimal(row[6]));
+                }
+            }
+            for (Future<List<Object[]>> batch : staffCounts) {
+                for (Object[] row : await(batch, deadline)) {
+                    PeriodFold fold = foldFor(byStart, toLocalDate(row[1]));
+                    if (fold != null) {
+                        fold.staffTaskCounts.merge(new StaffStatusKey((Long) row[0], (Status) row[2]), (Long) row[3], Long::sum);
+                    }
+                }
+            }
+            for (Future<List<Object[]>> batch : staffHours) {
+                for (Object[] row : await(batch, deadline)) {
+                    PeriodFold fold = foldFor(byStart, toLocalDate(row[1]));
+                    if (fold != null) {
+                        fold.staffHours.merge((Long) row[0], ReportServiceImpl.toBigDecimal(row[2]), BigDecimal::add);
+                    }
+                }
+            }
+
+            log.debug("Time-series data for {} periods fetched with {} queries", periods.size(), submitted.size());
+            return folds.stream().map(PeriodFold::toRows).toList();
+        } finally {
+            // Completed futures ignore this; anything still queued or running is abandoned
+            submitted.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private Future<List<Object[]>> submit(List<Future<List<Object[]>>> submitted, long deadlineNanos,
+                                          Supplier<List<Object[]>> query) {
+        Future<List<Object[]>> future = executor.submit(() -> withStatementTimeout(deadlineNanos, query));
+        submitted.add(future);
+        return future;
+    }
+
+    /**
+     * Runs the query in a read-only transaction that times out at the report deadline
+     */
+    private List<Object[]> withStatementTimeout(long deadlineNanos, Supplier<List<Object[]>> query) {
+        long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+        if (remainingMillis <= 0) {
+            throw new CancellationException("Time-series report timed out before the query started");
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        // Transaction timeouts are whole seconds; the statement gets the time the transaction has left
+        transaction.setTimeout((int) Math.max(1L, TimeUnit.MILLISECONDS.toSeconds(remainingMillis + 999)));
+        return transaction.execute(status -> query.get());
+    }
+
+    private List<Object[]> await(Future<List<Object[]>> future, long deadlineNanos) {
+        try {
+            return future.get(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Time-series report cancelled");
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Time-series report timed out after " + timeoutMillis + " ms");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Time-series report query failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static PeriodFold foldFor(TreeMap<LocalDate, PeriodFold> byStart, LocalDate day) {
+        Map.Entry<LocalDate, PeriodFold> entry = byStart.floorEntry(day);
+        if (entry == null || day.isAfter(entry.getValue().period.getEndDate())) {
+            return null;
+        }
+        return entry.getValue();
+    }
+
+    /**
+     * Time tracking counts towards the period it started in, provided it is still running or was
+     * completed by the end of that period - the same bounds the single-period queries apply
+     */
+    private static PeriodFold trackedFoldFor(TreeMap<LocalDate, PeriodFold> byStart, Object startedDate, Object completedDate) {
+        PeriodFold fold = foldFor(byStart, toLocalDate(startedDate));
+        if (fold == null) {
+            return null;
+        }
+        LocalDate completed = toLocalDate(completedDate);
+        return completed == null || !completed.isAfter(fold.period.getEndDate()) ? fold : null;
+    }
+
+    /**
+     * A date cast comes back as either LocalDate or java.sql.Date depending on the dialect
+     */
+    private static LocalDate toLocalDate(Object value) {
+        if (value == null || value instanceof LocalDate) {
+            return (LocalDate) value;
+        }
+        if (value instanceof java.sql.Date sqlDate) {
+            return sqlDate.toLocalDate();
+        }
+        return LocalDate.parse(value.toString().substring(0, 10));
+    }
+
+    private record StatusKey(Object group, Status status) {
+    }
+
+    private record StaffStatusKey(Long userId, Status status) {
+    }
+
+    private record ProjectKey(String projectName, Long departmentId) {
+    }
+
+    private static final class ProjectDetail {
+        private BigDecimal hours = BigDecimal.ZERO;
+        private final Set<Long> completedTaskIds = new HashSet<>();
+        private final Set<Long> inProgressTaskIds = new HashSet<>();
+    }
+
+    /**
+     * Accumulates the bucketed rows that fall into one period
+     */
+    private static final class PeriodFold {
+        private final Period period;
+        private final Set<Long> projectFilter;
+
+        private final Map<StatusKey, Long> statusCounts = new LinkedHashMap<>();
+        private final Map<StatusKey, Long> departmentCounts = new LinkedHashMap<>();
+        private final Map<StatusKey, Long> projectCounts = new LinkedHashMap<>();
+        private final Map<Long, BigDecimal> departmentHours = new LinkedHashMap<>();
+        private final Map<String, BigDecimal> projectHours = new LinkedHashMap<>();
+        private final Map<ProjectKey, ProjectDetail> projectDetails = new LinkedHashMap<>();
+        private final Map<StaffStatusKey, Long> staffTaskCounts = new LinkedHashMap<>();
+        private final Map<Long, BigDecimal> staffHours = new LinkedHashMap<>();
+
+        private PeriodFold(Period period, List<Long> projectFilter) {
+            this.period = period;
+            this.projectFilter = projectFilter == null ? null : new HashSet<>(projectFilter);
+        }
+
+        private void addTaskCount(Long departmentId, Long projectId, String projectName, Status status, Long count) {
+            if (departmentId != null) {
+                departmentCounts.merge(new StatusKey(departmentId, status), count, Long::sum);
+            }
+            if (projectFilter == null) {
+                statusCounts.merge(new StatusKey(null, status), count, Long::sum);
+                if (projectName != null) {
+                    projectCounts.merge(new StatusKey(projectName, status), count, Long::sum);
+                }
+            } else if (projectName != null && projectFilter.contains(projectId)) {
+                // With a project filter the status counts are already broken down by project
+                projectCounts.merge(new StatusKey(projectName, status), count, Long::sum);
+            }
+        }
+
+        private void addProjectDetail(String projectName, Long departmentId, Long taskId, Status status, BigDecimal hours) {
+            ProjectDetail detail = projectDetails.computeIfAbsent(new ProjectKey(projectName, departmentId), k -> new ProjectDetail());
+            detail.hours = detail.hours.add(hours);
+            if (status == Status.COMPLETED) {
+                detail.completedTaskIds.add(taskId);
+            } else if (status == Status.IN_PROGRESS) {
+                detail.inProgressTaskIds.add(taskId);
+            }
+        }
+
+        private PeriodRows toRows() {
+            List<Object[]> projectRows = new ArrayList<>();
+            projectCounts.forEach((key, count) -> projectRows.add(new Object[]{key.group(), key.status(), count}));
+
+            List<Object[]> statusRows;
+            if (projectFilter == null) {
+                statusRows = new ArrayList<>();
+                statusCounts.forEach((key, count) -> statusRows.add(new Object[]{key.status(), count}));
+            } else {
+                statusRows = projectRows;
+            }
+
+            List<Object[]> departmentRows = new ArrayList<>();
+            departmentCounts.forEach((key, count) -> departmentRows.add(new Object[]{key.group(), key.status(), count}));
+
+            List<Object[]> departmentHourRows = new ArrayList<>();
+            departmentHours.forEach((departmentId, hours) -> departmentHourRows.add(new Object[]{departmentId, hours}));
+
+            List<Object[]> projectHourRows = new ArrayList<>();
+            projectHours.forEach((projectName, hours) -> projectHourRows.add(new Object[]{projectName, hours}));
+
+            List<Object[]> projectDetailRows = new ArrayList<>();
+            projectDetails.forEach((key, detail) -> projectDetailRows.add(new Object[]{
+                key.projectName(), key.departmentId(), detail.hours,
+                (long) detail.completedTaskIds.size(), (long) detail.inProgressTaskIds.size()}));
+
+            List<Object[]> staffCountRows = new ArrayList<>();
+            staffTaskCounts.forEach((key, count) -> staffCountRows.add(new Object[]{key.userId(), key.status(), count}));
+
+            List<Object[]> staffHourRows = new ArrayList<>();
+            staffHours.forEach((userId, hours) -> staffHourRows.add(new Object[]{userId, hours}));
+
+            return new PeriodRows(statusRows, departmentRows, projectRows, departmentHourRows, projectHourRows,
+                projectDetailRows, staffCountRows, staffHourRows);
+        }
+    }
+}
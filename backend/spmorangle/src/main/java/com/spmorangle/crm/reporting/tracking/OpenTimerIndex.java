@@ -0,0 +1,227 @@
+package com.spmorangle.crm.reporting.tracking;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.spmorangle.crm.departmentmgmt.hierarchy.DepartmentMemberIndex;
+import com.spmorangle.crm.projectmanagement.model.Project;
+import com.spmorangle.crm.projectmanagement.repository.ProjectRepository;
+import com.spmorangle.crm.reporting.model.TaskTimeTracking;
+import com.spmorangle.crm.reporting.repository.TaskTimeTrackingRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory index of the time tracking records whose timer is still running.
+ *
+ * Completed hours are read from the daily rollups, so the running timers are the only hours that still
+ * have to be derived from the clock. Only a handful run at any time, so reports add {@code now - start} for
+ * them from this index instead of scanning task_time_tracking. The time tracking service calls the
+ * {@code on*} hooks, which apply once the transaction commits; a periodic reload picks up timers started or
+ * stopped on other instances and tasks moved between projects.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OpenTimerIndex {
+
+    private final TaskTimeTrackingRepository taskTimeTrackingRepository;
+    private final ProjectRepository projectRepository;
+    private final DepartmentMemberIndex departmentMemberIndex;
+
+    private final Map<Long, OpenTimer> timersById = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    /**
+     * @param projectId project of the tracked task, or null if it has none
+     */
+    public record OpenTimer(Long trackingId, Long taskId, Long userId, Long projectId, OffsetDateTime startedAt) {
+
+        LocalDate startedDate() {
+            // Matches CAST(started_at AS DATE), which the queries over completed hours bucket by
+            return startedAt.atZoneSameInstant(ZoneId.systemDefault()).toLocalDate();
+        }
+
+        double hoursUntil(OffsetDateTime now) {
+            return Duration.between(startedAt, now).toSeconds() / 3600.0;
+        }
+    }
+
+    /**
+     * Running hours per tracker department of timers started within the window
+     * Returns: departmentId, hours
+     */
+    public List<Object[]> runningHoursByDepartment(Long departmentId, List<Long> projectIds,
+                                                   LocalDate startDate, LocalDate endDate) {
+        Map<Long, Double> hours = sumRunningHours(departmentId, projectIds, startDate, endDate,
+                (timer, timerDepartment) -> timerDepartment);
+        List<Object[]> rows = new ArrayList<>(hours.size());
+        hours.forEach((id, sum) -> rows.add(new Object[]{id, sum}));
+        return rows;
+    }
+
+    /**
+     * Running hours per project of timers started within the window, leaving out tasks without a project
+     * Returns: projectName, hours
+     */
+    public List<Object[]> runningHoursByProject(Long departmentId, List<Long> projectIds,
+                                                LocalDate startDate, LocalDate endDate) {
+        Map<Long, Double> hoursByProject = sumRunningHours(departmentId, projectIds, startDate, endDate,
+                (timer, timerDepartment) -> timer.projectId());
+        if (hoursByProject.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Double> hoursByName = new HashMap<>();
+        for (Project project : projectRepository.findAllById(hoursByProject.keySet())) {
+            hoursByName.merge(project.getName(), hoursByProject.get(project.getId()), Double::sum);
+        }
+        List<Object[]> rows = new ArrayList<>(hoursByName.size());
+        hoursByName.forEach((name, sum) -> rows.add(new Object[]{name, sum}));
+        return rows;
+    }
+
+    public int size() {
+        ensureLoaded();
+        return timersById.size();
+    }
+
+    /**
+     * Records started timers once the current transaction commits
+     *
+     * @param projectId project of the tracked task
+     */
+    public void onStarted(Collection<TaskTimeTracking> trackings, Long projectId) {
+        List<OpenTimer> started = new ArrayList<>();
+        for (TaskTimeTracking tracking : trackings) {
+            if (tracking.getId() != null && tracking.getStartedAt() != null && tracking.getCompletedAt() == null) {
+                started.add(new OpenTimer(tracking.getId(), tracking.getTaskId(), tracking.getUserId(), projectId,
+                        tracking.getStartedAt()));
+            }
+        }
+        if (!started.isEmpty()) {
+            afterCommit(() -> apply(started, List.of()));
+        }
+    }
+
+    /**
+     * Forgets stopped or deleted timers once the current transaction commits
+     */
+    public void onStopped(Collection<TaskTimeTracking> trackings) {
+        List<Long> stopped = new ArrayList<>();
+        for (TaskTimeTracking tracking : trackings) {
+            if (tracking.getId() != null) {
+                stopped.add(tracking.getId());
+            }
+        }
+        if (!stopped.isEmpty()) {
+            afterCommit(() -> apply(List.of(), stopped));
+        }
+    }
+
+    public synchronized void reload() {
+        Map<Long, OpenTimer> timers = new HashMap<>();
+        for (Object[] row : taskTimeTrackingRepository.findOpenTimers()) {
+            OpenTimer timer = new OpenTimer((Long) row[0], (Long) row[1], (Long) row[2], (Long) row[3],
+                    (OffsetDateTime) row[4]);
+            timers.put(timer.trackingId(), timer);
+        }
+        // Put new entries before dropping stale ones, so readers never see an empty index mid-reload
+        timersById.putAll(timers);
+        timersById.keySet().retainAll(timers.keySet());
+        loaded = true;
+        log.debug("Loaded {} running timers", timers.size());
+    }
+
+    @Scheduled(fixedDelayString = "${reports.open-timers.refresh-ms:60000}")
+    public void refresh() {
+        if (!loaded) {
+            return;
+        }
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Failed to refresh running timers: {}", e.getMessage(), e);
+        }
+    }
+
+    private synchronized void apply(List<OpenTimer> started, List<Long> stopped) {
+        if (!loaded) {
+            // The first read loads everything from the database
+            return;
+        }
+        for (OpenTimer timer : started) {
+            timersById.put(timer.trackingId(), timer);
+        }
+        stopped.forEach(timersById::remove);
+    }
+
+    private Map<Long, Double> sumRunningHours(Long departmentId, List<Long> projectIds, LocalDate startDate,
+                                              LocalDate endDate, GroupBy groupBy) {
+        ensureLoaded();
+        Set<Long> projects = projectIds == null ? null : new HashSet<>(projectIds);
+        OffsetDateTime now = OffsetDateTime.now();
+        Map<Long, Double> hours = new HashMap<>();
+        for (OpenTimer timer : timersById.values()) {
+            LocalDate startedDate = timer.startedDate();
+            if (startedDate.isBefore(startDate) || startedDate.isAfter(endDate)) {
+                continue;
+            }
+            if (projects != null && !projects.contains(timer.projectId())) {
+                continue;
+            }
+            Long timerDepartment = departmentMemberIndex.departmentOf(timer.userId());
+            if (departmentId != null && !departmentId.equals(timerDepartment)) {
+                continue;
+            }
+            Long key = groupBy.keyOf(timer, timerDepartment);
+            if (key != null) {
+                hours.merge(key, timer.hoursUntil(now), Double::sum);
+            }
+        }
+        return hours;
+    }
+
+    @FunctionalInterface
+    private interface GroupBy {
+        Long keyOf(OpenTimer timer, Long timerDepartment);
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
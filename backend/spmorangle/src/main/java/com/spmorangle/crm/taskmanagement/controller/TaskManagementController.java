@@ -1,5 +1,8 @@
 package com.spmorangle.crm.taskmanagement.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.OffsetDateTime;
 import java.util.HashSet;
 import java.util.List;
@@ -7,12 +10,16 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.spmorangle.common.model.User;
 import com.spmorangle.common.service.UserContextService;
 import com.spmorangle.crm.taskmanagement.dto.*;
 import com.spmorangle.crm.taskmanagement.enums.CalendarView;
+import com.spmorangle.crm.taskmanagement.enums.Status;
+import com.spmorangle.crm.taskmanagement.enums.TaskSortKey;
 import com.spmorangle.crm.taskmanagement.service.CollaboratorService;
 import com.spmorangle.crm.taskmanagement.service.CommentService;
 import com.spmorangle.crm.taskmanagement.service.TaskService;
@@ -23,6 +30,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -34,6 +42,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Slf4j
 @RestController
@@ -46,6 +55,7 @@ public class TaskManagementController {
     private final TaskService taskService;
     private final UserContextService userContextService;
     private final UserManagementService userManagementService;
+    private final ObjectMapper objectMapper;
 
 
     /**
@@ -235,6 +245,89 @@ public class TaskManagementController {
         return ResponseEntity.status(HttpStatus.OK).body(filteredTasks);
     }
 
+    /**
+     * Get one keyset page of the tasks assigned to the current user
+     * @param sort DUE_DATE (default, soonest first, undated last) or CREATED_AT (newest first)
+     * @param status Optional status filter
+     * @param priority Optional priority filter
+     * @param tags Optional tags; a task must carry all of them
+     * @param cursor nextCursor from the previous page, omitted for the first page
+     * @param limit Page size (capped at 200)
+     * @return TaskPageResponseDto
+     */
+    @GetMapping("/user/page")
+    public ResponseEntity<TaskPageResponseDto> getUserTasksPage(
+            @RequestParam(value = "sort", defaultValue = "DUE_DATE") TaskSortKey sort,
+            @RequestParam(value = "status", required = false) Status status,
+            @RequestParam(value = "priority", required = false) Integer priority,
+            @RequestParam(value = "tags", required = false) List<String> tags,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "" + TaskPageRequestDto.DEFAULT_LIMIT) int limit) {
+        User user = userContextService.getRequestingUser();
+        log.info("Getting task page for user: {}", user.getId());
+        TaskPageRequestDto request = buildPageRequest(sort, status, priority, tags, cursor, limit);
+        return ResponseEntity.ok(taskService.getUserTasksPage(user.getId(), request));
+    }
+
+    /**
+     * Get one keyset page of a project's tasks (same parameters as /user/page)
+     * @param projectId
+     * @return TaskPageResponseDto
+     */
+    @GetMapping("/project/{projectId}/page")
+    public ResponseEntity<TaskPageResponseDto> getProjectTasksPage(
+            @PathVariable Long projectId,
+            @RequestParam(value = "sort", defaultValue = "DUE_DATE") TaskSortKey sort,
+            @RequestParam(value = "status", required = false) Status status,
+            @RequestParam(value = "priority", required = false) Integer priority,
+            @RequestParam(value = "tags", required = false) List<String> tags,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "" + TaskPageRequestDto.DEFAULT_LIMIT) int limit) {
+        User user = userContextService.getRequestingUser();
+        log.info("Getting task page for project: {}", projectId);
+        TaskPageRequestDto request = buildPageRequest(sort, status, priority, tags, cursor, limit);
+        return ResponseEntity.ok(taskService.getProjectTasksPage(user.getId(), projectId, request));
+    }
+
+    /**
+     * Stream all tasks assigned to the current user as newline-delimited JSON, one TaskResponseDto per line.
+     * Intended for large exports; rows are read and written incrementally.
+     */
+    @GetMapping(value = "/user/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUserTasks(
+            @RequestParam(value = "sort", defaultValue = "DUE_DATE") TaskSortKey sort,
+            @RequestParam(value = "status", required = false) Status status,
+            @RequestParam(value = "priority", required = false) Integer priority,
+            @RequestParam(value = "tags", required = false) List<String> tags) {
+        User user = userContextService.getRequestingUser();
+        log.info("Streaming tasks for user: {}", user.getId());
+        TaskPageRequestDto request = buildPageRequest(sort, status, priority, tags, null, TaskPageRequestDto.DEFAULT_LIMIT);
+
+        StreamingResponseBody body = outputStream ->
+                taskService.streamUserTasks(user.getId(), request, ndjsonWriter(outputStream));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Stream all of a project's tasks as newline-delimited JSON
+     * @param projectId
+     */
+    @GetMapping(value = "/project/{projectId}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamProjectTasks(
+            @PathVariable Long projectId,
+            @RequestParam(value = "sort", defaultValue = "DUE_DATE") TaskSortKey sort,
+            @RequestParam(value = "status", required = false) Status status,
+            @RequestParam(value = "priority", required = false) Integer priority,
+            @RequestParam(value = "tags", required = false) List<String> tags) {
+        User user = userContextService.getRequestingUser();
+        log.info("Streaming tasks for project: {}", projectId);
+        TaskPageRequestDto request = buildPageRequest(sort, status, priority, tags, null, TaskPageRequestDto.DEFAULT_LIMIT);
+
+        StreamingResponseBody body = outputStream ->
+                taskService.streamProjectTasks(user.getId(), projectId, request, ndjsonWriter(outputStream));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     /**
      * Update a task
      * @param updateTaskDto
@@ -400,6 +493,29 @@ public class TaskManagementController {
         return ResponseEntity.ok(authors);
     }
 
+    private TaskPageRequestDto buildPageRequest(TaskSortKey sort, Status status, Integer priority,
+                                                List<String> tags, String cursor, int limit) {
+        return TaskPageRequestDto.builder()
+                .sort(sort)
+                .status(status)
+                .priority(priority)
+                .tags(tags)
+                .cursor(cursor)
+                .limit(limit)
+                .build();
+    }
+
+    private Consumer<TaskResponseDto> ndjsonWriter(OutputStream outputStream) {
+        return task -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(task));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write task " + task.getId() + " to stream", e);
+            }
+        };
+    }
+
     private List<TaskResponseDto> filterTasksByTags(List<TaskResponseDto> tasks, List<String> tags) {
         if (tags == null || tags.isEmpty()) {
             return tasks;
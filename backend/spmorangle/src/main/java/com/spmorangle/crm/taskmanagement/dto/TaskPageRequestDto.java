@@ -0,0 +1,36 @@
+package com.spmorangle.crm.taskmanagement.dto;
+
+import java.util.List;
+
+import com.spmorangle.crm.taskmanagement.enums.Status;
+import com.spmorangle.crm.taskmanagement.enums.TaskSortKey;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Sort, filters and cursor for a keyset-paginated (or streamed) task list.
+ * Tag matching follows the existing list filter: a task must carry every requested tag (case-insensitive).
+ */
+@Getter
+@Builder
+public class TaskPageRequestDto {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    @Builder.Default
+    private final TaskSortKey sort = TaskSortKey.DUE_DATE;
+    private final Status status;
+    private final Integer priority;
+    private final List<String> tags;
+    private final String cursor;
+    @Builder.Default
+    private final int limit = DEFAULT_LIMIT;
+
+    public int getEffectiveLimit() {
+        if (limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
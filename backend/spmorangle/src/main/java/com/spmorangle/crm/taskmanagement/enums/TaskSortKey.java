@@ -0,0 +1,10 @@
+package com.spmorangle.crm.taskmanagement.enums;
+
+/**
+ * Orderings supported by the keyset-paginated task lists. Each ordering is total because
+ * the task id is always the final tie-breaker.
+ */
+public enum TaskSortKey {
+    DUE_DATE,    // due_datetime ASC NULLS LAST, id ASC
+    CREATED_AT   // created_at DESC, id DESC (newest first)
+}
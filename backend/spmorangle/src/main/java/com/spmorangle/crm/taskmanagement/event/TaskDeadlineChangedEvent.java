@@ -0,0 +1,34 @@
+package com.spmorangle.crm.taskmanagement.event;
+
+import com.spmorangle.crm.taskmanagement.enums.Status;
+import com.spmorangle.crm.taskmanagement.model.Task;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Published by the task service whenever a change can move a task's reminder deadlines: a new
+ * task, a new or cleared due date, a reschedule, completion or deletion.
+ *
+ * Carries the reminder-relevant fields as they will be committed so listeners do not need to
+ * re-read the task.
+ */
+public record TaskDeadlineChangedEvent(
+        Long taskId,
+        OffsetDateTime dueDateTime,
+        boolean rescheduled,
+        boolean preDueSent,
+        boolean overdueSent,
+        boolean active
+) {
+
+    public static TaskDeadlineChangedEvent of(Task task) {
+        return new TaskDeadlineChangedEvent(
+                task.getId(),
+                task.getDueDateTime(),
+                Boolean.TRUE.equals(task.getIsRescheduled()),
+                Boolean.TRUE.equals(task.getHasSentPreDue()),
+                Boolean.TRUE.equals(task.getHasSentOverdue()),
+                !task.isDeleteInd() && task.getStatus() != Status.COMPLETED
+        );
+    }
+}
@@ -0,0 +1,23 @@
+package com.spmorangle.crm.taskmanagement.event;
+
+import com.spmorangle.crm.taskmanagement.model.Task;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Published by the task service whenever a change can move a task between reporting buckets: a new
+ * task, a status change or a deletion.
+ *
+ * Reports bucket tasks by creation day and by the owner's department, so the creation time and the
+ * owner are all a listener needs to know which days and departments to re-aggregate.
+ */
+public record TaskReportingChangedEvent(
+        Long taskId,
+        Long ownerId,
+        OffsetDateTime createdAt
+) {
+
+    public static TaskReportingChangedEvent of(Task task) {
+        return new TaskReportingChangedEvent(task.getId(), task.getOwnerId(), task.getCreatedAt());
+    }
+}
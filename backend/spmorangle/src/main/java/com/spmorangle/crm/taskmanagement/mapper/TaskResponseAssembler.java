@@ -0,0 +1,378 @@
+package com.spmorangle.crm.taskmanagement.mapper;
+
+import com.spmorangle.common.model.User;
+import com.spmorangle.common.repository.UserRepository;
+import com.spmorangle.crm.departmentmgmt.dto.DepartmentDto;
+import com.spmorangle.crm.departmentmgmt.service.DepartmentQueryService;
+import com.spmorangle.crm.departmentmgmt.service.DepartmentalVisibilityService;
+import com.spmorangle.crm.projectmanagement.dto.ProjectResponseDto;
+import com.spmorangle.crm.projectmanagement.service.ProjectService;
+import com.spmorangle.crm.taskmanagement.dto.SubtaskResponseDto;
+import com.spmorangle.crm.taskmanagement.dto.TaskResponseDto;
+import com.spmorangle.crm.taskmanagement.model.Subtask;
+import com.spmorangle.crm.taskmanagement.model.Tag;
+import com.spmorangle.crm.taskmanagement.model.Task;
+import com.spmorangle.crm.taskmanagement.model.TaskAssignee;
+import com.spmorangle.crm.taskmanagement.repository.SubtaskRepository;
+import com.spmorangle.crm.taskmanagement.repository.TaskAssigneeRepository;
+import com.spmorangle.crm.taskmanagement.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Builds {@link TaskResponseDto}s for a whole task list at once.
+ *
+ * Subtasks, assignees, tags, owners, owner departments, project names and the viewer's
+ * project-ownership flags are each loaded with a single {@code IN (...)} query for the
+ * entire batch (and only when first needed), after which every DTO is mapped in memory.
+ * This replaces the per-task service calls the list endpoints used to make.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskResponseAssembler {
+
+    private final TaskRepository taskRepository;
+    private final SubtaskRepository subtaskRepository;
+    private final TaskAssigneeRepository taskAssigneeRepository;
+    private final UserRepository userRepository;
+    private final ProjectService projectService;
+    private final DepartmentQueryService departmentQueryService;
+    private final DepartmentalVisibilityService departmentalVisibilityService;
+
+    /**
+     * Prepare a batch for the given tasks as seen by {@code userId}, resolving project names.
+     */
+    public TaskBatch load(Collection<Task> tasks, Long userId) {
+        return new TaskBatch(tasks, userId, true);
+    }
+
+    /**
+     * Prepare a batch for personal tasks, which are shown without a project name.
+     */
+    public TaskBatch loadWithoutProjectNames(Collection<Task> tasks, Long userId) {
+        return new TaskBatch(tasks, userId, false);
+    }
+
+    /**
+     * Lookup data for one task list. Each lookup runs at most once per batch.
+     */
+    public final class TaskBatch {
+
+        private final List<Task> tasks;
+        private final Set<Long> taskIds;
+        private final Long userId;
+        private final boolean resolveProjectNames;
+
+        private Map<Long, List<Long>> assigneeIdsByTask;
+        private Map<Long, List<Subtask>> subtasksByTask;
+        private Map<Long, Set<Tag>> tagsByTask;
+        private Map<Long, User> owners;
+        private Map<Long, String> departmentNames;
+        private Map<Long, String> projectNames;
+        private Set<Long> ownedProjectIds;
+        private Map<Long, Long> assigneeDepartments;
+        private Set<Long> visibleDepartmentIds;
+        private Optional<User> viewer;
+
+        private TaskBatch(Collection<Task> tasks, Long userId, boolean resolveProjectNames) {
+            this.tasks = tasks == null ? List.of() : List.copyOf(tasks);
+            this.taskIds = this.tasks.stream()
+                    .map(Task::getId)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            this.userId = userId;
+            this.resolveProjectNames = resolveProjectNames;
+        }
+
+        /**
+         * Same rule as {@code TaskServiceImpl.calculateUserWriteAccess}: assignees, or owners of the task's project.
+         */
+        public boolean canEdit(Task task) {
+            if (isAssignee(task.getId(), userId)) {
+                return true;
+            }
+            Long projectId = task.getProjectId();
+            return projectId != null && projectId > 0 && ownedProjectIds().contains(projectId);
+        }
+
+        /**
+         * Same rule as {@code TaskServiceImpl.canUserDeleteTask}, evaluated from the preloaded batch data.
+         */
+        public boolean canDelete(Task task) {
+            if (userId == null || viewer().isEmpty()) {
+                return false;
+            }
+
+            Long projectId = task.getProjectId();
+            if (projectId == null || projectId == 0) {
+                return isAssignee(task.getId(), userId);
+            }
+
+            if (!isVisibleByDepartment(task)) {
+                log.info("User {} cannot delete task {} - task not visible due to department restrictions", userId, task.getId());
+                return false;
+            }
+
+            return ownedProjectIds().contains(projectId);
+        }
+
+        public List<Long> assigneeIds(Long taskId) {
+            return assigneeIdsByTask().getOrDefault(taskId, List.of());
+        }
+
+        public TaskResponseDto toDto(Task task, boolean userHasEditAccess, boolean userHasDeleteAccess) {
+            return baseDto(task, userHasEditAccess, userHasDeleteAccess)
+                    .subtasks(subtasks(task))
+                    .build();
+        }
+
+        /**
+         * Lightweight variant used for digests: no subtasks and no access flags.
+         */
+        public TaskResponseDto toLightweightDto(Task task) {
+            return baseDto(task, false, false)
+                    .subtasks(Collections.emptyList())
+                    .build();
+        }
+
+        /**
+         * Virtual calendar instance of a recurring task template.
+         * - dueDateTime: Only set if template has a due date (null otherwise)
+         * - startDate: Always set to occurrence (determines which calendar day to show task)
+         */
+        public TaskResponseDto toVirtualDto(Task template, OffsetDateTime occurrence,
+                                            boolean userHasEditAccess, boolean userHasDeleteAccess) {
+            OffsetDateTime virtualDueDateTime = template.getDueDateTime() != null ? occurrence : null;
+
+            return baseDto(template, userHasEditAccess, userHasDeleteAccess)
+                    .dueDateTime(virtualDueDateTime)
+                    .subtasks(subtasks(template))
+                    .isRecurring(true)
+                    .startDate(occurrence)
+                    .build();
+        }
+
+        private TaskResponseDto.TaskResponseDtoBuilder baseDto(Task task, boolean userHasEditAccess, boolean userHasDeleteAccess) {
+            User owner = owners().get(task.getOwnerId());
+            String projectName = task.getProjectId() != null ? projectNames().get(task.getProjectId()) : null;
+            String ownerDepartment = owner != null && owner.getDepartmentId() != null
+                    ? departmentNames().get(owner.getDepartmentId())
+                    : null;
+            Set<Tag> tags = tagsByTask().getOrDefault(task.getId(), task.getTags());
+
+            return TaskResponseDto.builder()
+                    .id(task.getId())
+                    .projectId(task.getProjectId())
+                    .projectName(projectName)
+                    .ownerId(task.getOwnerId())
+                    .ownerName(owner != null ? owner.getUserName() : null)
+                    .ownerDepartment(ownerDepartment)
+                    .taskType(task.getTaskType())
+                    .title(task.getTitle())
+                    .description(task.getDescription())
+                    .status(task.getStatus())
+                    .tags(tags != null ? tags.stream().map(Tag::getTagName).toList() : null)
+                    .assignedUserIds(new ArrayList<>(assigneeIds(task.getId())))
+                    .userHasEditAccess(userHasEditAccess)
+                    .userHasDeleteAccess(userHasDeleteAccess)
+                    .createdAt(task.getCreatedAt())
+                    .updatedAt(task.getUpdatedAt())
+                    .createdBy(task.getCreatedBy())
+                    .updatedBy(task.getUpdatedBy())
+                    .dueDateTime(task.getDueDateTime())
+                    .isRecurring(task.getIsRecurring())
+                    .recurrenceRuleStr(task.getRecurrenceRuleStr())
+                    .startDate(task.getStartDate())
+                    .endDate(task.getEndDate())
+                    .priority(task.getPriority());
+        }
+
+        private List<SubtaskResponseDto> subtasks(Task task) {
+            return subtasksByTask().getOrDefault(task.getId(), List.of()).stream()
+                    .map(subtask -> toSubtaskDto(task, subtask))
+                    .toList();
+        }
+
+        // Mirrors SubtaskServiceImpl.canUserUpdateSubtask / canUserDeleteSubtask
+        private SubtaskResponseDto toSubtaskDto(Task parent, Subtask subtask) {
+            boolean userHasEditAccess;
+            boolean userHasDeleteAccess;
+            if (subtask.getProjectId() == null) {
+                userHasEditAccess = Objects.equals(subtask.getCreatedBy(), userId);
+                userHasDeleteAccess = userHasEditAccess;
+            } else {
+                userHasEditAccess = !parent.isDeleteInd() && isAssignee(subtask.getTaskId(), userId);
+                userHasDeleteAccess = ownedProjectIds().contains(subtask.getProjectId());
+            }
+
+            return SubtaskResponseDto.builder()
+                    .id(subtask.getId())
+                    .taskId(subtask.getTaskId())
+                    .projectId(subtask.getProjectId())
+                    .taskType(subtask.getTaskType())
+                    .title(subtask.getTitle())
+                    .details(subtask.getDetails())
+                    .status(subtask.getStatus())
+                    .userHasEditAccess(userHasEditAccess)
+                    .userHasDeleteAccess(userHasDeleteAccess)
+                    .createdAt(subtask.getCreatedAt())
+                    .updatedAt(subtask.getUpdatedAt())
+                    .createdBy(subtask.getCreatedBy())
+                    .updatedBy(subtask.getUpdatedBy())
+                    .build();
+        }
+
+        private boolean isAssignee(Long taskId, Long candidateId) {
+            return candidateId != null && assigneeIds(taskId).contains(candidateId);
+        }
+
+        private boolean isVisibleByDepartment(Task task) {
+            Set<Long> visible = visibleDepartmentIds();
+            if (visible.isEmpty()) {
+                return false;
+            }
+            return assigneeIds(task.getId()).stream()
+                    .map(assigneeDepartments()::get)
+                    .anyMatch(deptId -> deptId != null && visible.contains(deptId));
+        }
+
+        private Map<Long, List<Long>> assigneeIdsByTask() {
+            if (assigneeIdsByTask == null) {
+                assigneeIdsByTask = loadSafely("assignees", () -> taskAssigneeRepository.findByTaskIdIn(taskIds).stream()
+                        .collect(Collectors.groupingBy(TaskAssignee::getTaskId,
+                                Collectors.mapping(TaskAssignee::getUserId, Collectors.toList()))), Map.of());
+            }
+            return assigneeIdsByTask;
+        }
+
+        private Map<Long, List<Subtask>> subtasksByTask() {
+            if (subtasksByTask == null) {
+                subtasksByTask = loadSafely("subtasks", () -> subtaskRepository.findByTaskIdInAndNotDeleted(taskIds).stream()
+                        .collect(Collectors.groupingBy(Subtask::getTaskId)), Map.of());
+            }
+            return subtasksByTask;
+        }
+
+        private Map<Long, Set<Tag>> tagsByTask() {
+            if (tagsByTask == null) {
+                tagsByTask = loadSafely("tags", () -> {
+                    Map<Long, Set<Tag>> result = new HashMap<>();
+                    for (Task fetched : taskRepository.findWithTagsByIdIn(taskIds)) {
+                        if (fetched.getTags() != null) {
+                            result.put(fetched.getId(), fetched.getTags());
+                        }
+                    }
+                    return result;
+                }, Map.of());
+            }
+            return tagsByTask;
+        }
+
+        private Map<Long, User> owners() {
+            if (owners == null) {
+                Set<Long> ownerIds = tasks.stream()
+                        .map(Task::getOwnerId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet());
+                owners = ownerIds.isEmpty() ? Map.of() : loadSafely("owners", () -> userRepository.findAllById(ownerIds).stream()
+                        .collect(Collectors.toMap(User::getId, owner -> owner, (a, b) -> a)), Map.of());
+            }
+            return owners;
+        }
+
+        private Map<Long, String> departmentNames() {
+            if (departmentNames == null) {
+                Set<Long> departmentIds = owners().values().stream()
+                        .map(User::getDepartmentId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet());
+                departmentNames = departmentIds.isEmpty() ? Map.of() : loadSafely("owner departments", () -> departmentQueryService.getByIds(departmentIds).stream()
+                        .filter(dept -> dept.getName() != null)
+                        .collect(Collectors.toMap(DepartmentDto::getId, DepartmentDto::getName, (a, b) -> a)), Map.of());
+            }
+            return departmentNames;
+        }
+
+        private Map<Long, String> projectNames() {
+            if (projectNames == null) {
+                Set<Long> projectIds = resolveProjectNames ? taskProjectIds() : Set.of();
+                projectNames = projectIds.isEmpty() ? Map.of() : loadSafely("project names", () -> projectService.getProjectsByIds(projectIds).stream()
+                        .collect(Collectors.toMap(ProjectResponseDto::getId, ProjectResponseDto::getName, (a, b) -> a)), Map.of());
+            }
+            return projectNames;
+        }
+
+        private Set<Long> ownedProjectIds() {
+            if (ownedProjectIds == null) {
+                Set<Long> projectIds = new HashSet<>(taskProjectIds());
+                subtasksByTask().values().stream()
+                        .flatMap(List::stream)
+                        .map(Subtask::getProjectId)
+                        .filter(Objects::nonNull)
+                        .forEach(projectIds::add);
+                ownedProjectIds = projectIds.isEmpty() || userId == null
+                        ? Set.of()
+                        : loadSafely("project ownership", () -> projectService.getOwnedProjectIds(userId, projectIds), Set.of());
+            }
+            return ownedProjectIds;
+        }
+
+        private Map<Long, Long> assigneeDepartments() {
+            if (assigneeDepartments == null) {
+                Set<Long> assigneeIds = assigneeIdsByTask().values().stream()
+                        .flatMap(List::stream)
+                        .collect(Collectors.toSet());
+                assigneeDepartments = assigneeIds.isEmpty() ? Map.of() : loadSafely("assignee departments", () -> {
+                    Map<Long, Long> result = new HashMap<>();
+                    for (User assignee : userRepository.findAllById(assigneeIds)) {
+                        if (assignee.getDepartmentId() != null) {
+                            result.put(assignee.getId(), assignee.getDepartmentId());
+                        }
+                    }
+                    return result;
+                }, Map.of());
+            }
+            return assigneeDepartments;
+        }
+
+        private Set<Long> visibleDepartmentIds() {
+            if (visibleDepartmentIds == null) {
+                Long departmentId = viewer().map(User::getDepartmentId).orElse(null);
+                visibleDepartmentIds = departmentId == null ? Set.of() : loadSafely("visible departments",
+                        () -> departmentalVisibilityService.visibleDepartmentsForAssignedDept(departmentId), Set.of());
+            }
+            return visibleDepartmentIds;
+        }
+
+        private Optional<User> viewer() {
+            if (viewer == null) {
+                viewer = userId == null ? Optional.empty() : userRepository.findById(userId);
+            }
+            return viewer;
+        }
+
+        private Set<Long> taskProjectIds() {
+            return tasks.stream()
+                    .map(Task::getProjectId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+        }
+
+        // Lookup failures degrade to empty data (as the per-task mapping did) instead of failing the whole list
+        private <T> T loadSafely(String what, Supplier<T> loader, T fallback) {
+            try {
+                T result = loader.get();
+                return result != null ? result : fallback;
+            } catch (Exception e) {
+                log.error("Error loading {} for {} tasks: {}", what, taskIds.size(), e.getMessage(), e);
+                return fallback;
+            }
+        }
+    }
+}
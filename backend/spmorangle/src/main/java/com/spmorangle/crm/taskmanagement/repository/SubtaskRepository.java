@@ -1,5 +1,6 @@
 package com.spmorangle.crm.taskmanagement.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -15,6 +16,9 @@ public interface SubtaskRepository extends JpaRepository<Subtask, Long> {
     @Query("SELECT s FROM Subtask s WHERE s.deleteInd = false AND s.taskId = :taskId")
     List<Subtask> findByTaskIdAndNotDeleted(@Param("taskId") Long taskId);
     
+    @Query("SELECT s FROM Subtask s WHERE s.deleteInd = false AND s.taskId IN :taskIds")
+    List<Subtask> findByTaskIdInAndNotDeleted(@Param("taskIds") Collection<Long> taskIds);
+    
     @Query("SELECT s FROM Subtask s WHERE s.deleteInd = false AND s.projectId = :projectId")
     List<Subtask> findByProjectIdAndNotDeleted(@Param("projectId") Long projectId);
     
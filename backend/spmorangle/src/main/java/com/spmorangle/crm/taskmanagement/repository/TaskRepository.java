@@ -4,15 +4,18 @@ import java.time.OffsetDateTime;
 import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.spmorangle.crm.taskmanagement.model.Task;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
     
     @Query("SELECT t FROM Task t WHERE t.deleteInd = false AND t.projectId = :projectId")
     List<Task> findByProjectIdAndNotDeleted(@Param("projectId") Long projectId);
@@ -37,6 +40,13 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
             "WHERE t.deleteInd = false AND (t.ownerId IN :userIds OR ta.userId IN :userIds)")
     List<Task> findVisibleTasksForUsers(@Param("userIds") Collection<Long> userIds);
     
+    /**
+     * Loads the given tasks with their tags initialised in a single query, so that mapping a
+     * task list does not lazily load the tag collection once per task.
+     */
+    @Query("SELECT DISTINCT t FROM Task t LEFT JOIN FETCH t.tags WHERE t.id IN :taskIds")
+    List<Task> findWithTagsByIdIn(@Param("taskIds") Collection<Long> taskIds);
+
     List<Task> getTasksById(long id);
 
     Task getTaskById(long id);
@@ -63,4 +73,68 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     // Find tasks that were marked as rescheduled and have dueDateTime before a looser window
     @Query("SELECT t FROM Task t WHERE t.deleteInd = false AND t.isRescheduled = true AND t.dueDateTime < :threshold")
     List<Task> findRescheduledTasksDueBefore(@Param("threshold") OffsetDateTime threshold);
+
+    // Overdue scanner: open tasks past the threshold that have not been notified, walked by id after a checkpoint
+    @Query("SELECT t FROM Task t WHERE t.deleteInd = false AND t.hasSentOverdue = false " +
+           "AND t.status <> 'COMPLETED' AND t.dueDateTime < :threshold AND t.id > :afterId " +
+           "ORDER BY t.id")
+    List<Task> findOverdueNotificationCandidates(@Param("threshold") OffsetDateTime threshold,
+                                                 @Param("afterId") Long afterId,
+                                                 Pageable pageable);
+
+    // Pre-due scanner: open tasks due between now and their reminder threshold (12h once rescheduled, 24h otherwise)
+    @Query("SELECT t FROM Task t WHERE t.deleteInd = false AND t.hasSentPreDue = false " +
+           "AND t.status <> 'COMPLETED' AND t.dueDateTime > :now " +
+           "AND ((t.isRescheduled = false AND t.dueDateTime < :standardThreshold) " +
+           "OR (t.isRescheduled = true AND t.dueDateTime < :rescheduledThreshold)) " +
+           "AND t.id > :afterId ORDER BY t.id")
+    List<Task> findPreDueNotificationCandidates(@Param("now") OffsetDateTime now,
+                                                @Param("standardThreshold") OffsetDateTime standardThreshold,
+                                                @Param("rescheduledThreshold") OffsetDateTime rescheduledThreshold,
+                                                @Param("afterId") Long afterId,
+                                                Pageable pageable);
+
+    // Same conditions as the scans above, re-checked for the tasks whose reminder deadline just passed
+    @Query("SELECT t FROM Task t WHERE t.id IN :taskIds AND t.deleteInd = false AND t.hasSentOverdue = false " +
+           "AND t.status <> 'COMPLETED' AND t.dueDateTime < :threshold ORDER BY t.id")
+    List<Task> findOverdueNotificationCandidatesIn(@Param("threshold") OffsetDateTime threshold,
+                                                   @Param("taskIds") Collection<Long> taskIds);
+
+    @Query("SELECT t FROM Task t WHERE t.id IN :taskIds AND t.deleteInd = false AND t.hasSentPreDue = false " +
+           "AND t.status <> 'COMPLETED' AND t.dueDateTime > :now " +
+           "AND ((t.isRescheduled = false AND t.dueDateTime < :standardThreshold) " +
+           "OR (t.isRescheduled = true AND t.dueDateTime < :rescheduledThreshold)) ORDER BY t.id")
+    List<Task> findPreDueNotificationCandidatesIn(@Param("now") OffsetDateTime now,
+                                                  @Param("standardThreshold") OffsetDateTime standardThreshold,
+                                                  @Param("rescheduledThreshold") OffsetDateTime rescheduledThreshold,
+                                                  @Param("taskIds") Collection<Long> taskIds);
+
+    // Reminder scheduler window: open tasks with an outstanding reminder that falls due inside the window.
+    // Each flag has its own due date range, which the partial reminder indexes serve.
+    @Query("SELECT t FROM Task t WHERE t.deleteInd = false AND t.status <> 'COMPLETED' AND (" +
+           "(t.hasSentPreDue = false AND t.dueDateTime > :now AND t.dueDateTime < :preDueUntil) " +
+           "OR (t.hasSentOverdue = false AND t.dueDateTime > :overdueFrom AND t.dueDateTime < :overdueUntil))")
+    List<Task> findTasksWithPendingRemindersInWindow(@Param("now") OffsetDateTime now,
+                                                     @Param("preDueUntil") OffsetDateTime preDueUntil,
+                                                     @Param("overdueFrom") OffsetDateTime overdueFrom,
+                                                     @Param("overdueUntil") OffsetDateTime overdueUntil);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Task t SET t.hasSentOverdue = true, t.updatedBy = :updatedBy " +
+           "WHERE t.id IN :taskIds AND t.hasSentOverdue = false")
+    int markOverdueNotificationSent(@Param("taskIds") Collection<Long> taskIds, @Param("updatedBy") Long updatedBy);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Task t SET t.hasSentPreDue = true, t.updatedBy = :updatedBy " +
+           "WHERE t.id IN :taskIds AND t.hasSentPreDue = false")
+    int markPreDueNotificationSent(@Param("taskIds") Collection<Long> taskIds, @Param("updatedBy") Long updatedBy);
+
+    // A pre-due reminder can no longer go out once the task is due; flagging it keeps the task out of the scans
+    @Modifying
+    @Transactional
+    @Query("UPDATE Task t SET t.hasSentPreDue = true, t.updatedBy = :updatedBy " +
+           "WHERE t.deleteInd = false AND t.hasSentPreDue = false AND t.status <> 'COMPLETED' AND t.dueDateTime <= :now")
+    int markMissedPreDueNotifications(@Param("now") OffsetDateTime now, @Param("updatedBy") Long updatedBy);
 }
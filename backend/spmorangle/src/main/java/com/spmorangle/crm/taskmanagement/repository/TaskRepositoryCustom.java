@@ -0,0 +1,36 @@
+package com.spmorangle.crm.taskmanagement.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.spmorangle.crm.taskmanagement.dto.TaskPageRequestDto;
+import com.spmorangle.crm.taskmanagement.model.Task;
+import com.spmorangle.crm.taskmanagement.util.TaskCursor;
+
+/**
+ * Dynamic task list queries that do not fit a fixed {@code @Query}: keyset pagination with optional
+ * status / priority / tag filters, and a forward-only stream for exports.
+ *
+ * Scope is either the tasks a user is assigned to ({@code assigneeId}) or the tasks of a project
+ * ({@code projectId}); exactly one of the two must be set.
+ */
+public interface TaskRepositoryCustom {
+
+    /**
+     * Fetch up to {@code limit} non-deleted tasks that sort strictly after {@code after}
+     * (or from the start when {@code after} is null).
+     */
+    List<Task> findTaskPage(Long assigneeId, Long projectId, TaskPageRequestDto request, TaskCursor after, int limit);
+
+    /**
+     * Stream every matching task in the request's sort order. Must be consumed (and closed)
+     * inside a transaction; rows are fetched from the database in batches as the stream advances.
+     */
+    Stream<Task> streamTasks(Long assigneeId, Long projectId, TaskPageRequestDto request);
+
+    /**
+     * Drop everything loaded so far from the persistence context, so a long-running stream
+     * does not keep every row it has already emitted in memory.
+     */
+    void clearPersistenceContext();
+}
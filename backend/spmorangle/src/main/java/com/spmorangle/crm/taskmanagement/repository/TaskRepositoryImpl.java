@@ -0,0 +1,138 @@
+package com.spmorangle.crm.taskmanagement.repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.AvailableHints;
+
+import com.spmorangle.crm.taskmanagement.dto.TaskPageRequestDto;
+import com.spmorangle.crm.taskmanagement.enums.TaskSortKey;
+import com.spmorangle.crm.taskmanagement.model.Task;
+import com.spmorangle.crm.taskmanagement.util.TaskCursor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * JPQL-based implementation of {@link TaskRepositoryCustom}. Only the predicates that are actually
+ * requested are rendered, so each variant gets a plan that can walk the keyset indexes
+ * ({@code idx_tasks_*_keyset}) instead of an OR-chain of
+ * optional parameters.
+ */
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    static final int STREAM_FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Task> findTaskPage(Long assigneeId, Long projectId, TaskPageRequestDto request, TaskCursor after, int limit) {
+        TypedQuery<Task> query = buildQuery(assigneeId, projectId, request, after);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    @Override
+    public Stream<Task> streamTasks(Long assigneeId, Long projectId, TaskPageRequestDto request) {
+        TypedQuery<Task> query = buildQuery(assigneeId, projectId, request, null);
+        query.setHint(AvailableHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE);
+        query.setHint(AvailableHints.HINT_READ_ONLY, true);
+        return query.getResultStream();
+    }
+
+    @Override
+    public void clearPersistenceContext() {
+        entityManager.clear();
+    }
+
+    private TypedQuery<Task> buildQuery(Long assigneeId, Long projectId, TaskPageRequestDto request, TaskCursor after) {
+        if ((assigneeId == null) == (projectId == null)) {
+            throw new IllegalArgumentException("Exactly one of assigneeId or projectId must be provided");
+        }
+
+        TaskSortKey sort = request.getSort() != null ? request.getSort() : TaskSortKey.DUE_DATE;
+        StringBuilder jpql = new StringBuilder("SELECT t FROM Task t WHERE t.deleteInd = false");
+        Map<String, Object> params = new HashMap<>();
+
+        if (projectId != null) {
+            jpql.append(" AND t.projectId = :projectId");
+            params.put("projectId", projectId);
+        } else {
+            jpql.append(" AND EXISTS (SELECT 1 FROM TaskAssignee ta WHERE ta.taskId = t.id AND ta.userId = :assigneeId)");
+            params.put("assigneeId", assigneeId);
+        }
+
+        if (request.getStatus() != null) {
+            jpql.append(" AND t.status = :status");
+            params.put("status", request.getStatus());
+        }
+
+        if (request.getPriority() != null) {
+            jpql.append(" AND t.priority = :priority");
+            params.put("priority", request.getPriority());
+        }
+
+        Set<String> tags = normalizeTags(request.getTags());
+        if (!tags.isEmpty()) {
+            // Task must carry every requested tag
+            jpql.append(" AND (SELECT COUNT(DISTINCT LOWER(tg.tagName)) FROM Task tt JOIN tt.tags tg")
+                .append(" WHERE tt.id = t.id AND LOWER(tg.tagName) IN :tags) = :tagCount");
+            params.put("tags", tags);
+            params.put("tagCount", (long) tags.size());
+        }
+
+        if (after != null) {
+            appendCursorPredicate(jpql, params, sort, after);
+        }
+
+        if (sort == TaskSortKey.CREATED_AT) {
+            jpql.append(" ORDER BY t.createdAt DESC, t.id DESC");
+        } else {
+            jpql.append(" ORDER BY t.dueDateTime ASC NULLS LAST, t.id ASC");
+        }
+
+        TypedQuery<Task> query = entityManager.createQuery(jpql.toString(), Task.class);
+        params.forEach(query::setParameter);
+        return query;
+    }
+
+    private void appendCursorPredicate(StringBuilder jpql, Map<String, Object> params, TaskSortKey sort, TaskCursor after) {
+        params.put("afterId", after.taskId());
+
+        if (sort == TaskSortKey.CREATED_AT) {
+            jpql.append(" AND (t.createdAt < :afterValue OR (t.createdAt = :afterValue AND t.id < :afterId))");
+            params.put("afterValue", after.sortValue());
+            return;
+        }
+
+        if (after.sortValue() == null) {
+            // Already past every dated task; only the undated tail remains
+            jpql.append(" AND t.dueDateTime IS NULL AND t.id > :afterId");
+            return;
+        }
+
+        jpql.append(" AND (t.dueDateTime > :afterValue")
+            .append(" OR (t.dueDateTime = :afterValue AND t.id > :afterId)")
+            .append(" OR t.dueDateTime IS NULL)");
+        params.put("afterValue", after.sortValue());
+    }
+
+    private Set<String> normalizeTags(List<String> tags) {
+        if (tags == null) {
+            return Set.of();
+        }
+        return tags.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(tag -> !tag.isEmpty())
+                .map(String::toLowerCase)
+                .collect(Collectors.toSet());
+    }
+}
@@ -5,4 +5,15 @@ import java.util.List;
 
 public interface RecurrenceService {
     List<OffsetDateTime> generateOccurrence(String rruleStr,OffsetDateTime start, OffsetDateTime end);
+
+    /**
+     * Same occurrences as {@link #generateOccurrence} as ascending epoch milliseconds, for callers
+     * that expand many rules at once and only need a few fields per occurrence.
+     */
+    long[] generateOccurrenceEpochMillis(String rruleStr, OffsetDateTime start, OffsetDateTime end);
+
+    /**
+     * Drops the compiled rule and every cached occurrence window for it.
+     */
+    void evictRule(String rruleStr);
 }
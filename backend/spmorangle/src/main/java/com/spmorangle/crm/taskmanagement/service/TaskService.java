@@ -2,9 +2,12 @@ package com.spmorangle.crm.taskmanagement.service;
 
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.spmorangle.crm.taskmanagement.dto.CreateTaskDto;
 import com.spmorangle.crm.taskmanagement.dto.CreateTaskResponseDto;
+import com.spmorangle.crm.taskmanagement.dto.TaskPageRequestDto;
+import com.spmorangle.crm.taskmanagement.dto.TaskPageResponseDto;
 import com.spmorangle.crm.taskmanagement.dto.TaskResponseDto;
 import com.spmorangle.crm.taskmanagement.dto.UpdateTaskDto;
 import com.spmorangle.crm.taskmanagement.dto.UpdateTaskResponseDto;
@@ -48,5 +51,16 @@ public interface TaskService {
     List<TaskResponseDto> getPersonalTasksForCalendar(Long userId, CalendarView calendarView, OffsetDateTime referenceDate);
     List<TaskResponseDto> getAllUserTasksForCalendar(Long userId, CalendarView calendarView, OffsetDateTime referenceDate);
 
+    // keyset-paginated list methods
+    TaskPageResponseDto getUserTasksPage(Long userId, TaskPageRequestDto request);
+    TaskPageResponseDto getProjectTasksPage(Long userId, Long projectId, TaskPageRequestDto request);
+
+    /**
+     * Stream every task matching the request (cursor and limit are ignored) to {@code sink}
+     * without materialising the full result set. Returns the number of tasks emitted.
+     */
+    long streamUserTasks(Long userId, TaskPageRequestDto request, Consumer<TaskResponseDto> sink);
+    long streamProjectTasks(Long userId, Long projectId, TaskPageRequestDto request, Consumer<TaskResponseDto> sink);
+
 
 }
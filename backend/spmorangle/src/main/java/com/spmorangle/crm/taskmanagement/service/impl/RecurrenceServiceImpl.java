@@ -1,40 +1,92 @@
 package com.spmorangle.crm.taskmanagement.service.impl;
 
+import com.spmorangle.common.util.BoundedLruCache;
 import com.spmorangle.crm.taskmanagement.service.RecurrenceService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import net.fortuna.ical4j.model.Date;
 import net.fortuna.ical4j.model.DateList;
 import net.fortuna.ical4j.model.DateTime;
 import net.fortuna.ical4j.model.Recur;
 import net.fortuna.ical4j.model.parameter.Value;
 import org.springframework.stereotype.Service;
 
+import java.text.ParseException;
+import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class RecurrenceServiceImpl implements RecurrenceService {
 
+    static final int MAX_COMPILED_RULES = 1_000;
+    static final int MAX_OCCURRENCE_WINDOWS = 5_000;
+
+    // Parsed rules are only read by getDates, so one instance can be shared between requests
+    private final BoundedLruCache<String, Recur> compiledRules = new BoundedLruCache<>(MAX_COMPILED_RULES);
+    private final BoundedLruCache<OccurrenceWindow, long[]> occurrenceWindows = new BoundedLruCache<>(MAX_OCCURRENCE_WINDOWS);
+
+    private record OccurrenceWindow(String rruleStr, long startMillis, long endMillis) {
+    }
+
     @Override
     public List<OffsetDateTime> generateOccurrence(String rruleStr, OffsetDateTime start, OffsetDateTime end) throws RuntimeException {
+        long[] occurrences = generateOccurrenceEpochMillis(rruleStr, start, end);
+        List<OffsetDateTime> result = new ArrayList<>(occurrences.length);
+        for (long occurrence : occurrences) {
+            result.add(OffsetDateTime.ofInstant(Instant.ofEpochMilli(occurrence), ZoneId.systemDefault()));
+        }
+        return result;
+    }
+
+    @Override
+    public long[] generateOccurrenceEpochMillis(String rruleStr, OffsetDateTime start, OffsetDateTime end) throws RuntimeException {
         try {
-            DateTime startDate = new DateTime(Date.from(start.toInstant()));
-            DateTime endDate = new DateTime(Date.from(end.toInstant()));
-
-            Recur recur = new Recur(rruleStr);
-            DateList dateList = recur.getDates(startDate, endDate, Value.DATE_TIME);
-            return dateList.stream()
-                    .map(date -> OffsetDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()))
-                    .filter(occurrence -> !occurrence.isBefore(start)) // Ensure all occurrences are on or after start date
-                    .collect(Collectors.toList());
+            OccurrenceWindow window = new OccurrenceWindow(rruleStr, start.toInstant().toEpochMilli(), end.toInstant().toEpochMilli());
+            long[] occurrences = occurrenceWindows.computeIfAbsent(window, this::expand);
+            // Hand out a copy so callers cannot corrupt the cached window
+            return occurrences.clone();
         } catch (Exception e) {
             throw new RuntimeException("Error generating Occurrence: " + e.getMessage(), e);
         }
+    }
 
+    @Override
+    public void evictRule(String rruleStr) {
+        if (rruleStr == null) {
+            return;
+        }
+        compiledRules.remove(rruleStr);
+        int evicted = occurrenceWindows.removeIf(window -> window.rruleStr().equals(rruleStr));
+        log.debug("Evicted recurrence rule {} and {} cached occurrence windows", rruleStr, evicted);
+    }
+
+    private long[] expand(OccurrenceWindow window) {
+        Recur recur = compiledRules.computeIfAbsent(window.rruleStr(), RecurrenceServiceImpl::compile);
+        DateList dateList = recur.getDates(new DateTime(window.startMillis()), new DateTime(window.endMillis()), Value.DATE_TIME);
+
+        long[] occurrences = new long[dateList.size()];
+        int count = 0;
+        for (Date date : dateList) {
+            long millis = date.getTime();
+            // Ensure all occurrences are on or after start date
+            if (millis >= window.startMillis()) {
+                occurrences[count++] = millis;
+            }
+        }
+        return count == occurrences.length ? occurrences : Arrays.copyOf(occurrences, count);
+    }
+
+    private static Recur compile(String rruleStr) {
+        try {
+            return new Recur(rruleStr);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
     }
 }
@@ -6,22 +6,26 @@ import com.spmorangle.common.repository.UserRepository;
 import com.spmorangle.crm.departmentmgmt.dto.DepartmentDto;
 import com.spmorangle.crm.departmentmgmt.repository.DepartmentRepository;
 import com.spmorangle.crm.departmentmgmt.service.DepartmentQueryService;
-import com.spmorangle.crm.projectmanagement.dto.ProjectResponseDto;
 import com.spmorangle.crm.projectmanagement.service.ProjectService;
 import com.spmorangle.crm.taskmanagement.dto.*;
 import com.spmorangle.crm.taskmanagement.enums.CalendarView;
 import com.spmorangle.crm.taskmanagement.enums.RecurrenceEditMode;
 import com.spmorangle.crm.taskmanagement.enums.Status;
 import com.spmorangle.crm.taskmanagement.enums.TaskType;
+import com.spmorangle.crm.taskmanagement.event.TaskDeadlineChangedEvent;
+import com.spmorangle.crm.taskmanagement.event.TaskReportingChangedEvent;
+import com.spmorangle.crm.taskmanagement.mapper.TaskResponseAssembler;
 import com.spmorangle.crm.taskmanagement.model.Tag;
 import com.spmorangle.crm.taskmanagement.model.Task;
 import com.spmorangle.crm.taskmanagement.repository.TaskAssigneeRepository;
 import com.spmorangle.crm.taskmanagement.repository.TaskRepository;
 import com.spmorangle.crm.taskmanagement.service.*;
+import com.spmorangle.crm.taskmanagement.util.TaskCursor;
 import com.spmorangle.crm.taskmanagement.model.TaskAssignee;
 import com.spmorangle.crm.notification.messaging.publisher.NotificationMessagePublisher;
 import com.spmorangle.crm.departmentmgmt.dto.DepartmentDto;
 import com.spmorangle.crm.departmentmgmt.service.DepartmentQueryService;
+import com.spmorangle.crm.departmentmgmt.hierarchy.VisibleUsers;
 import com.spmorangle.crm.departmentmgmt.service.DepartmentalVisibilityService;
 import com.spmorangle.crm.notification.messaging.dto.TaskNotificationMessageDto;
 import com.spmorangle.crm.reporting.service.ReportService;
@@ -30,15 +34,21 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -47,7 +57,6 @@ public class TaskServiceImpl implements TaskService {
 
     private final TaskRepository taskRepository;
     private final CollaboratorService collaboratorService;
-    private final SubtaskService subtaskService;
     private final ProjectService projectService;
     private final DepartmentRepository departmentRepository;
     private final DepartmentQueryService departmentQueryService;
@@ -58,6 +67,10 @@ public class TaskServiceImpl implements TaskService {
     private final UserRepository userRepository;
     private final TaskAssigneeRepository taskAssigneeRepository;
     private final ReportService reportService;
+    private final TaskResponseAssembler taskResponseAssembler;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final int STREAM_CHUNK_SIZE = 200;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -119,6 +132,10 @@ public class TaskServiceImpl implements TaskService {
 
         Task savedTask = taskRepository.save(task);
         log.info("✅ Task created with ID: {}", savedTask.getId());
+        if (savedTask.getDueDateTime() != null) {
+            eventPublisher.publishEvent(TaskDeadlineChangedEvent.of(savedTask));
+        }
+        eventPublisher.publishEvent(TaskReportingChangedEvent.of(savedTask));
 
         // REMOVED: Auto-assignment of task owner - task creators have no special permissions
         // Task creators must be explicitly added as assignees to have edit/delete rights
@@ -199,42 +216,31 @@ public class TaskServiceImpl implements TaskService {
         List<Task> tasks = taskRepository.findByProjectIdAndNotDeleted(projectId);
 
         // Check if this is a "related project" (user is not a member)
-        boolean isRelatedProject = !projectService.isUserProjectMember(userId, projectId);
+        boolean hasDirectMembership = projectService.isUserProjectMember(userId, projectId);
+        boolean isRelatedProject = !hasDirectMembership;
 
         // Apply department filtering ONLY for related projects (AC Scenario 2)
         if (isRelatedProject) {
             log.info("User {} viewing related project {} - filtering tasks by department visibility", userId, projectId);
             Set<Long> visibleDepartmentIds = getUserVisibleDepartmentIds(userId);
-            tasks = tasks.stream()
-                    .filter(task -> canUserSeeTaskByDepartment(task, visibleDepartmentIds))
-                    .collect(Collectors.toList());
+            tasks = retainTasksInVisibleDepartments(tasks, visibleDepartmentIds);
             log.info("Filtered to {} tasks with assignees in visible departments", tasks.size());
         } else {
             log.info("User {} is a member of project {} - showing all tasks", userId, projectId);
         }
 
-        Set<Long> tasksUserIsCollaboratorFor = new HashSet<>(collaboratorService.getTasksForWhichUserIsCollaborator(userId));
         Set<Long> projectTaskIds = tasks.stream().map(Task::getId).collect(Collectors.toSet());
-        boolean hasDirectMembership = projectService.isUserProjectMember(userId, projectId);
 
         User currentUser = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         List<Task> visibleTasks = applyDepartmentScopeFilter(currentUser, tasks, projectTaskIds, hasDirectMembership, projectId);
 
-        Map<Long, String> projectNames = resolveProjectNames(Collections.singleton(projectId));
-        Map<Long, User> ownerDetails = resolveOwnerDetails(visibleTasks);
-
-        List<TaskResponseDto> result = new ArrayList<>();
-
-        for (Task task : visibleTasks) {
-            boolean userHasWriteAccess = calculateUserWriteAccess(task, userId, tasksUserIsCollaboratorFor);
-            boolean userHasDeleteAccess = canUserDeleteTask(task.getId(), userId);
-
-            result.add(mapToTaskResponseDto(task, userHasWriteAccess, userHasDeleteAccess, projectNames, ownerDetails, userId));
-        }
+        TaskResponseAssembler.TaskBatch batch = taskResponseAssembler.load(visibleTasks, userId);
 
-        return result;
+        return visibleTasks.stream()
+                .map(task -> batch.toDto(task, batch.canEdit(task), batch.canDelete(task)))
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -249,9 +255,7 @@ public class TaskServiceImpl implements TaskService {
         // Apply department filtering ONLY for related projects
         if (isRelatedProject) {
             Set<Long> visibleDepartmentIds = getUserVisibleDepartmentIds(userId);
-            tasks = tasks.stream()
-                .filter(task -> canUserSeeTaskByDepartment(task, visibleDepartmentIds))
-                .collect(Collectors.toList());
+            tasks = retainTasksInVisibleDepartments(tasks, visibleDepartmentIds);
         }
 
         Set<Long> tasksUserIsCollaboratorFor = new HashSet<>(collaboratorService.getTasksForWhichUserIsCollaborator(userId));
@@ -264,29 +268,26 @@ public class TaskServiceImpl implements TaskService {
 
         List<Task> visibleTasks = applyDepartmentScopeFilter(currentUser, tasks, projectTaskIds, hasDirectMembership, projectId);
 
-        Map<Long, String> projectNames = resolveProjectNames(Collections.singleton(projectId));
-        Map<Long, User> ownerDetails = resolveOwnerDetails(visibleTasks);
+        TaskResponseAssembler.TaskBatch batch = taskResponseAssembler.load(visibleTasks, userId);
 
         List<TaskResponseDto> result = new ArrayList<>();
 
         for (Task task : visibleTasks) {
-            boolean userHasWriteAccess = calculateUserWriteAccess(task, userId, tasksUserIsCollaboratorFor);
-            boolean userHasDeleteAccess = canUserDeleteTask(task.getId(), userId);
+            boolean userHasWriteAccess = batch.canEdit(task);
+            boolean userHasDeleteAccess = batch.canDelete(task);
 
             if (Boolean.TRUE.equals(task.getIsRecurring()) && task.getStatus() != Status.COMPLETED) {
                 List<TaskResponseDto> virtualInstances = expandRecurringTaskForDisplay(
                         task,
                         userHasWriteAccess,
                         userHasDeleteAccess,
-                        projectNames,
-                        ownerDetails,
-                        userId,
+                        batch,
                         calendarView,
                         referenceDate
                 );
                 result.addAll(virtualInstances);
             } else {
-                result.add(mapToTaskResponseDto(task, userHasWriteAccess, userHasDeleteAccess, projectNames, ownerDetails, userId));
+                result.add(batch.toDto(task, userHasWriteAccess, userHasDeleteAccess));
             }
         }
 
@@ -390,12 +391,8 @@ public class TaskServiceImpl implements TaskService {
         boolean userHasEditAccess = canUserUpdateTask(taskId, currentUserId);
         boolean userHasDeleteAccess = canUserDeleteTask(taskId, currentUserId);
 
-        Map<Long, String> projectNames = task.getProjectId() != null
-            ? resolveProjectNames(Collections.singleton(task.getProjectId()))
-            : Collections.emptyMap();
-        Map<Long, User> ownerDetails = resolveOwnerDetails(Collections.singletonList(task));
-
-        return mapToTaskResponseDto(task, userHasEditAccess, userHasDeleteAccess, projectNames, ownerDetails, currentUserId);
+        return taskResponseAssembler.load(Collections.singletonList(task), currentUserId)
+                .toDto(task, userHasEditAccess, userHasDeleteAccess);
     }
 
     @Override
@@ -403,10 +400,10 @@ public class TaskServiceImpl implements TaskService {
     public List<TaskResponseDto> getPersonalTasks(Long userId) {
         log.info("Getting personal tasks for user: {}", userId);
         List<Task> tasks = taskRepository.findPersonalTasksByOwnerIdAndNotDeleted(userId);
-        Map<Long, User> ownerDetails = resolveOwnerDetails(tasks);
+        TaskResponseAssembler.TaskBatch batch = taskResponseAssembler.loadWithoutProjectNames(tasks, userId);
 
         return tasks.stream()
-                .map(task -> mapToTaskResponseDto(task, true, true, Collections.emptyMap(), ownerDetails, userId))
+                .map(task -> batch.toDto(task, true, true))
                 .collect(Collectors.toList());
     }
 
@@ -415,7 +412,7 @@ public class TaskServiceImpl implements TaskService {
     public List<TaskResponseDto> getPersonalTasksForCalendar(Long userId, CalendarView calendarView, OffsetDateTime referenceDate) {
         log.info("Getting personal tasks for user: {}", userId);
         List<Task> tasks = taskRepository.findPersonalTasksByOwnerIdAndNotDeleted(userId);
-        Map<Long, User> ownerDetails = resolveOwnerDetails(tasks);
+        TaskResponseAssembler.TaskBatch batch = taskResponseAssembler.loadWithoutProjectNames(tasks, userId);
 
         List<TaskResponseDto> result = new ArrayList<>();
 
@@ -426,15 +423,13 @@ public class TaskServiceImpl implements TaskService {
                     task,
                     true,
                     true,
-                    Collections.emptyMap(),
-                    ownerDetails,
-                    userId,
+                    batch,
                     calendarView,
                     referenceDate
                 );
                 result.addAll(virtualInstances);
             } else {
-                result.add(mapToTaskResponseDto(task, true, true, Collections.emptyMap(), ownerDetails, userId));
+                result.add(batch.toDto(task, true, true));
             }
         }
 
@@ -449,25 +444,12 @@ public class TaskServiceImpl implements TaskService {
         List<Task> tasks = taskRepository.findUserTasks(userId);
 
         Set<Long> visibleDepartmentIds = getUserVisibleDepartmentIds(userId);
-        tasks = tasks.stream()
-                .filter(task -> canUserSeeTaskByDepartment(task, visibleDepartmentIds))
-                .collect(Collectors.toList());
-
-        Set<Long> projectIds = tasks.stream()
-                .map(Task::getProjectId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+        tasks = retainTasksInVisibleDepartments(tasks, visibleDepartmentIds);
 
-        Map<Long, String> projectNames = resolveProjectNames(projectIds);
-        Map<Long, User> ownerDetails = resolveOwnerDetails(tasks);
-        Set<Long> tasksUserIsCollaboratorFor = new HashSet<>(collaboratorService.getTasksForWhichUserIsCollaborator(userId));
+        TaskResponseAssembler.TaskBatch batch = taskResponseAssembler.load(tasks, userId);
 
         return tasks.stream()
-                .map(task -> {
-                    boolean userHasWriteAccess = calculateUserWriteAccess(task, userId, tasksUserIsCollaboratorFor);
-                    boolean userHasDeleteAccess = canUserDeleteTask(task.getId(), userId);
-                    return mapToTaskResponseDto(task, userHasWriteAccess, userHasDeleteAccess, projectNames, ownerDetails, userId);
-                })
+                .map(task -> batch.toDto(task, batch.canEdit(task), batch.canDelete(task)))
                 .collect(Collectors.toList());
     }
 
@@ -478,27 +460,17 @@ public class TaskServiceImpl implements TaskService {
         List<Task> tasks = taskRepository.findUserTasks(userId);
 
         Set<Long> visibleDepartmentIds = getUserVisibleDepartmentIds(userId);
-        tasks = tasks.stream()
-                .filter(task -> canUserSeeTaskByDepartment(task, visibleDepartmentIds))
-                .collect(Collectors.toList());
+        tasks = retainTasksInVisibleDepartments(tasks, visibleDepartmentIds);
 
-        Set<Long> projectIds = tasks.stream()
-                .map(Task::getProjectId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-
-        Map<Long, String> projectNames = resolveProjectNames(projectIds);
-        Map<Long, User> ownerDetails = resolveOwnerDetails(tasks);
-
-        Set<Long> tasksUserIsCollaboratorFor = new HashSet<>(collaboratorService.getTasksForWhichUserIsCollaborator(userId));
+        TaskResponseAssembler.TaskBatch batch = taskResponseAssembler.load(tasks, userId);
 
         List<TaskResponseDto> result = new ArrayList<>();
 
         for(Task task : tasks) {
 
-            // Calculate permissions using helper methods
-            boolean userHasWriteAccess = calculateUserWriteAccess(task, userId, tasksUserIsCollaboratorFor);
-            boolean userHasDeleteAccess = canUserDeleteTask(task.getId(), userId);
+            // Permissions come from the batch-loaded assignees and project ownership
+            boolean userHasWriteAccess = batch.canEdit(task);
+            boolean userHasDeleteAccess = batch.canDelete(task);
 
             // Return recurring virtual tasks (but not if completed - avoid duplicates)
             if(Boolean.TRUE.equals(task.getIsRecurring()) && task.getStatus() != Status.COMPLETED) {
@@ -506,21 +478,171 @@ public class TaskServiceImpl implements TaskService {
                     task,
                     userHasWriteAccess,
                     userHasDeleteAccess,
-                    projectNames,
-                    ownerDetails,
-                    userId,
+                    batch,
                     calendarView,
                     referenceDate
                 );
                 result.addAll(virtualInstances);
             } else {
-                result.add(mapToTaskResponseDto(task, userHasWriteAccess, userHasDeleteAccess, projectNames, ownerDetails, userId));
+                result.add(batch.toDto(task, userHasWriteAccess, userHasDeleteAccess));
             }
         }
 
         return result;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPageResponseDto getUserTasksPage(Long userId, TaskPageRequestDto request) {
+        log.info("Getting task page for user: {} (sort: {}, cursor: {})", userId, request.getSort(), request.getCursor());
+        TaskCursor after = decodeCursor(request);
+        int limit = request.getEffectiveLimit();
+
+        // Fetch one extra row to know whether another page exists
+        List<Task> rows = taskRepository.findTaskPage(userId, null, request, after, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<Task> page = hasMore ? rows.subList(0, limit) : rows;
+
+        List<Task> visibleTasks = retainUserVisibleTasks(userId, page);
+        TaskResponseAssembler.TaskBatch batch = taskResponseAssembler.load(visibleTasks, userId);
+        List<TaskResponseDto> items = visibleTasks.stream()
+                .map(task -> batch.toDto(task, batch.canEdit(task), batch.canDelete(task)))
+                .collect(Collectors.toList());
+
+        return buildTaskPage(page, items, hasMore, request);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPageResponseDto getProjectTasksPage(Long userId, Long projectId, TaskPageRequestDto request) {
+        log.info("Getting task page for project: {} user: {} (sort: {}, cursor: {})", projectId, userId, request.getSort(), request.getCursor());
+        TaskCursor after = decodeCursor(request);
+        int limit = request.getEffectiveLimit();
+
+        boolean hasDirectMembership = projectService.isUserProjectMember(userId, projectId);
+        User currentUser = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        List<Task> rows = taskRepository.findTaskPage(null, projectId, request, after, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<Task> page = hasMore ? rows.subList(0, limit) : rows;
+
+        List<Task> visibleTasks = retainProjectVisibleTasks(currentUser, hasDirectMembership, page);
+        TaskResponseAssembler.TaskBatch batch = taskResponseAssembler.load(visibleTasks, userId);
+        List<TaskResponseDto> items = visibleTasks.stream()
+                .map(task -> batch.toDto(task, batch.canEdit(task), batch.canDelete(task)))
+                .collect(Collectors.toList());
+
+        return buildTaskPage(page, items, hasMore, request);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long streamUserTasks(Long userId, TaskPageRequestDto request, Consumer<TaskResponseDto> sink) {
+        log.info("Streaming tasks for user: {} (sort: {})", userId, request.getSort());
+        Set<Long> visibleDepartmentIds = getUserVisibleDepartmentIds(userId);
+
+        try (Stream<Task> tasks = taskRepository.streamTasks(userId, null, request)) {
+            return streamInChunks(tasks, userId, sink, chunk -> retainTasksInVisibleDepartments(chunk, visibleDepartmentIds));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long streamProjectTasks(Long userId, Long projectId, TaskPageRequestDto request, Consumer<TaskResponseDto> sink) {
+        log.info("Streaming tasks for project: {} user: {} (sort: {})", projectId, userId, request.getSort());
+        boolean hasDirectMembership = projectService.isUserProjectMember(userId, projectId);
+        User currentUser = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        try (Stream<Task> tasks = taskRepository.streamTasks(null, projectId, request)) {
+            return streamInChunks(tasks, userId, sink,
+                    chunk -> retainProjectVisibleTasks(currentUser, hasDirectMembership, chunk));
+        }
+    }
+
+    private TaskCursor decodeCursor(TaskPageRequestDto request) {
+        String cursor = request.getCursor();
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        return TaskCursor.decode(cursor, request.getSort());
+    }
+
+    /**
+     * The next cursor points at the last row read from the database, not the last row returned,
+     * so rows dropped by visibility filtering are never read twice. Pages can therefore hold fewer
+     * than {@code limit} items while {@code hasMore} is still true.
+     */
+    private TaskPageResponseDto buildTaskPage(List<Task> page, List<TaskResponseDto> items, boolean hasMore, TaskPageRequestDto request) {
+        String nextCursor = hasMore && !page.isEmpty()
+                ? TaskCursor.after(page.get(page.size() - 1), request.getSort()).encode()
+                : null;
+
+        return TaskPageResponseDto.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private List<Task> retainUserVisibleTasks(Long userId, List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return tasks;
+        }
+        Set<Long> visibleDepartmentIds = getUserVisibleDepartmentIds(userId);
+        return retainTasksInVisibleDepartments(tasks, visibleDepartmentIds);
+    }
+
+    /**
+     * Same visibility rules as {@link #getProjectTasks}, applied to one page or chunk. An empty
+     * result is not an access error here, since other pages of the project may still be visible.
+     */
+    private List<Task> retainProjectVisibleTasks(User user, boolean hasDirectMembership, List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return tasks;
+        }
+
+        List<Task> candidates = hasDirectMembership ? tasks : retainUserVisibleTasks(user.getId(), tasks);
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        Set<Long> visibleMemberIds = resolveVisibleMemberIds(user);
+        Set<Long> taskIds = candidates.stream().map(Task::getId).collect(Collectors.toSet());
+        Map<Long, List<Long>> assigneeIdsByTask = getAssigneeIdsByTask(taskIds);
+        return candidates.stream()
+                .filter(task -> isTaskVisibleToDepartment(task, visibleMemberIds, assigneeIdsByTask))
+                .collect(Collectors.toList());
+    }
+
+    private long streamInChunks(Stream<Task> tasks,
+                                Long userId,
+                                Consumer<TaskResponseDto> sink,
+                                UnaryOperator<List<Task>> visibilityFilter) {
+        long emitted = 0;
+        List<Task> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        Iterator<Task> iterator = tasks.iterator();
+
+        while (iterator.hasNext()) {
+            chunk.add(iterator.next());
+            if (chunk.size() == STREAM_CHUNK_SIZE || !iterator.hasNext()) {
+                List<Task> visibleTasks = visibilityFilter.apply(chunk);
+                TaskResponseAssembler.TaskBatch batch = taskResponseAssembler.load(visibleTasks, userId);
+                for (Task task : visibleTasks) {
+                    sink.accept(batch.toDto(task, batch.canEdit(task), batch.canDelete(task)));
+                    emitted++;
+                }
+                chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+                // Emitted rows are no longer needed; keep the persistence context bounded to one chunk
+                taskRepository.clearPersistenceContext();
+            }
+        }
+
+        log.info("Streamed {} tasks for user {}", emitted, userId);
+        return emitted;
+    }
+
     /*
     * This function serves to show tasks that users have members from their department as collaborators in tasks
     * in another project
@@ -620,7 +742,8 @@ public class TaskServiceImpl implements TaskService {
                 .collect(Collectors.toSet());
 
         // Filter out tasks from projects where user is a project owner
-        // Use isUserProjectOwner which checks project_members.is_owner flag
+        // One lookup against project_members.is_owner for all candidate projects
+        Set<Long> ownedProjectIds = projectService.getOwnedProjectIds(userId, projectIds);
         relatedTasks = relatedTasks.stream()
                 .filter(task -> {
                     Long taskProjectId = task.getProjectId();
@@ -628,7 +751,7 @@ public class TaskServiceImpl implements TaskService {
                         return true; // Keep personal tasks (shouldn't happen in related tasks, but safe)
                     }
                     // Exclude if user is a project owner (checks is_owner flag)
-                    return !projectService.isUserProjectOwner(userId, taskProjectId);
+                    return !ownedProjectIds.contains(taskProjectId);
                 })
                 .collect(Collectors.toList());
 
@@ -653,11 +776,10 @@ public class TaskServiceImpl implements TaskService {
             return rightTime.compareTo(leftTime);
         });
 
-        Map<Long, String> projectNames = resolveProjectNames(projectIds);
-        Map<Long, User> ownerDetails = resolveOwnerDetails(relatedTasks);
+        TaskResponseAssembler.TaskBatch batch = taskResponseAssembler.load(relatedTasks, userId);
 
         return relatedTasks.stream()
-                .map(task -> mapToTaskResponseDto(task, false, false, projectNames, ownerDetails, userId))
+                .map(task -> batch.toDto(task, false, false))
                 .collect(Collectors.toList());
     }
 
@@ -677,6 +799,11 @@ public class TaskServiceImpl implements TaskService {
 
         // Capture old status before any updates (needed for logic below)
         Status oldStatus = task.getStatus();
+        String oldRecurrenceRuleStr = task.getRecurrenceRuleStr();
+        OffsetDateTime oldStartDate = task.getStartDate();
+        OffsetDateTime oldEndDate = task.getEndDate();
+        OffsetDateTime oldDueDateTime = task.getDueDateTime();
+        Boolean oldIsRescheduled = task.getIsRescheduled();
 
         // Handle time tracking for status transitions (before any updates)
         if (updateTaskDto.getStatus() != null) {
@@ -733,6 +860,7 @@ public class TaskServiceImpl implements TaskService {
                     if (duplicate != null) {
                         log.info("Found and deleting duplicate next instance: {}", duplicate.getId());
                         taskRepository.delete(duplicate);
+                        eventPublisher.publishEvent(TaskReportingChangedEvent.of(duplicate));
                     }
                 }
             } catch (Exception e) {
@@ -848,6 +976,21 @@ public class TaskServiceImpl implements TaskService {
         Task updatedTask = taskRepository.save(task);
         log.info("Task {} updated successfully, priority {}", updatedTask.getId(), updatedTask.getPriority());
 
+        if (!Objects.equals(oldRecurrenceRuleStr, updatedTask.getRecurrenceRuleStr())
+                || !Objects.equals(oldStartDate, updatedTask.getStartDate())
+                || !Objects.equals(oldEndDate, updatedTask.getEndDate())) {
+            recurrenceService.evictRule(oldRecurrenceRuleStr);
+        }
+
+        if (!Objects.equals(oldDueDateTime, updatedTask.getDueDateTime())
+                || !Objects.equals(oldIsRescheduled, updatedTask.getIsRescheduled())
+                || oldStatus != updatedTask.getStatus()) {
+            eventPublisher.publishEvent(TaskDeadlineChangedEvent.of(updatedTask));
+        }
+        if (oldStatus != updatedTask.getStatus()) {
+            eventPublisher.publishEvent(TaskReportingChangedEvent.of(updatedTask));
+        }
+
         return UpdateTaskResponseDto.builder()
                 .id(updatedTask.getId())
                 .projectId(updatedTask.getProjectId())
@@ -893,6 +1036,8 @@ public class TaskServiceImpl implements TaskService {
         task.setUpdatedAt(OffsetDateTime.now());
 
         taskRepository.save(task);
+        eventPublisher.publishEvent(TaskDeadlineChangedEvent.of(task));
+        eventPublisher.publishEvent(TaskReportingChangedEvent.of(task));
         log.info("Task {} marked as deleted", taskId);
     }
 
@@ -969,60 +1114,26 @@ public class TaskServiceImpl implements TaskService {
         return projectService.isUserProjectOwner(userId, projectId);
     }
 
-    /**
-     * Helper method to calculate write access for a task
-     * Write access is granted if:
-     * 1. User is a task assignee/collaborator, OR
-     * 2. User is a MANAGER AND project owner (for project tasks only)
-     */
-    private boolean calculateUserWriteAccess(Task task, Long userId, Set<Long> tasksUserIsCollaboratorFor) {
-        // 1. Check if user is task assignee
-        if (tasksUserIsCollaboratorFor.contains(task.getId())) {
-            return true;
-        }
-
-        // 2. Check if user is MANAGER AND project owner (for project tasks)
-        // Note: is_owner flag only applies to MANAGER role, so no additional role check needed
-        Long projectId = task.getProjectId();
-        if (projectId != null && projectId > 0) {
-            return projectService.isUserProjectOwner(userId, projectId);
-        }
-
-        return false;
-    }
-
     @Override
     @Transactional(readOnly = true)
     public List<TaskResponseDto> getUserTasksDueTmr(Long userId, OffsetDateTime startOfDay, OffsetDateTime endOfDay) {
         List<Task> tasks = taskRepository.findUserIncompleteTasksDueTmr(userId, startOfDay, endOfDay);
 
         Set<Long> visibleDepartmentIds = getUserVisibleDepartmentIds(userId);
-        tasks = tasks.stream()
-            .filter(task -> canUserSeeTaskByDepartment(task, visibleDepartmentIds))
-            .collect(Collectors.toList());
+        tasks = retainTasksInVisibleDepartments(tasks, visibleDepartmentIds);
 
         if(tasks.isEmpty()) {
             return Collections.emptyList();
         }
 
-        // Fetch project names
-        Set<Long> projectIds = tasks.stream()
-            .map(Task::getProjectId)
-            .filter(Objects::nonNull)
-            .collect(Collectors.toSet());
-         Map<Long, String> projectNames = resolveProjectNames(projectIds);
-
-        Map<Long, User> ownerDetails = resolveOwnerDetails(tasks);
+        TaskResponseAssembler.TaskBatch batch = taskResponseAssembler.load(tasks, userId);
 
         // Convert to DTOs
         return tasks.stream()
-            .map(task -> mapToTaskResponseDto(
+            .map(task -> batch.toDto(
                 task,
                 false, // userHasEditAccess - not needed for digest
-                false, // userHasDeleteAccess - not needed for digest
-                projectNames,
-                ownerDetails,
-                userId
+                false  // userHasDeleteAccess - not needed for digest
             ))
             .collect(Collectors.toList());
     }
@@ -1033,75 +1144,19 @@ public class TaskServiceImpl implements TaskService {
         List<Task> tasks = taskRepository.findUserIncompleteTasksDueTmr(userId, startOfDay, endOfDay);
 
         Set<Long> visibleDepartmentIds = getUserVisibleDepartmentIds(userId);
-        tasks = tasks.stream()
-            .filter(task -> canUserSeeTaskByDepartment(task, visibleDepartmentIds))
-            .collect(Collectors.toList());
+        tasks = retainTasksInVisibleDepartments(tasks, visibleDepartmentIds);
             
         if(tasks.isEmpty()) {
             return Collections.emptyList();
         }
 
-        Set<Long> projectIds = tasks.stream()
-            .map(Task::getProjectId)
-            .filter(Objects::nonNull)
-            .collect(Collectors.toSet());
-        Map<Long, String> projectNames = resolveProjectNames(projectIds);
-
-        Map<Long, User> ownerDetails = resolveOwnerDetails(tasks);
+        TaskResponseAssembler.TaskBatch batch = taskResponseAssembler.load(tasks, userId);
 
         return tasks.stream()
-            .map(task -> mapToTaskResponseDtoLightweight(task, projectNames, ownerDetails))
+            .map(batch::toLightweightDto)
             .collect(Collectors.toList());
     }
 
-    private TaskResponseDto mapToTaskResponseDtoLightweight(
-            Task task,
-            Map<Long, String> projectNames,
-            Map<Long, User> ownerDetails) {
-
-        // Load collaborator IDs for this task - wrap in try-catch to prevent transaction rollback
-        List<Long> assignedUserIds;
-        try {
-            assignedUserIds = collaboratorService.getCollaboratorIdsByTaskId(task.getId());
-        } catch (Exception e) {
-            log.error("Error loading collaborators for task {}: {}", task.getId(), e.getMessage(), e);
-            assignedUserIds = Collections.emptyList();
-        }
-
-        User owner = ownerDetails.get(task.getOwnerId());
-        String projectName = task.getProjectId() != null ? projectNames.get(task.getProjectId()) : null;
-
-        return TaskResponseDto.builder()
-                .id(task.getId())
-                .projectId(task.getProjectId())
-                .projectName(projectName)
-                .ownerId(task.getOwnerId())
-                .ownerName(owner != null ? owner.getUserName() : null)
-                .ownerDepartment(owner != null ? departmentQueryService.getById(owner.getDepartmentId()).map(DepartmentDto::getName).orElse(null) : null)
-                .taskType(task.getTaskType())
-                .title(task.getTitle())
-                .description(task.getDescription())
-                .status(task.getStatus())
-                .tags(task.getTags() != null
-                        ? task.getTags().stream().map(Tag::getTagName).toList()
-                        : null)
-                .assignedUserIds(assignedUserIds)
-                .userHasEditAccess(false)
-                .userHasDeleteAccess(false)
-                .createdAt(task.getCreatedAt())
-                .updatedAt(task.getUpdatedAt())
-                .createdBy(task.getCreatedBy())
-                .updatedBy(task.getUpdatedBy())
-                .dueDateTime(task.getDueDateTime())
-                .subtasks(Collections.emptyList())
-                .isRecurring(task.getIsRecurring())
-                .recurrenceRuleStr(task.getRecurrenceRuleStr())
-                .startDate(task.getStartDate())
-                .endDate(task.getEndDate())
-                .priority(task.getPriority())
-                .build();
-    }
-
     /**
      * Validates recurrence configuration for a task
      * @param isRecurring Whether the task is recurring
@@ -1137,106 +1192,6 @@ public class TaskServiceImpl implements TaskService {
         }
     }
 
-    private Map<Long, String> resolveProjectNames(Set<Long> projectIds) {
-        if (projectIds == null || projectIds.isEmpty()) {
-            return Collections.emptyMap();
-        }
-
-        return projectService.getProjectsByIds(projectIds).stream()
-                .collect(Collectors.toMap(ProjectResponseDto::getId, ProjectResponseDto::getName));
-    }
-
-    private Map<Long, User> resolveOwnerDetails(Collection<Task> tasks) {
-        if (tasks == null || tasks.isEmpty()) {
-            return Collections.emptyMap();
-        }
-
-        Set<Long> ownerIds = tasks.stream()
-                .map(Task::getOwnerId)
-                .collect(Collectors.toSet());
-
-        if (ownerIds.isEmpty()) {
-            return Collections.emptyMap();
-        }
-
-        return userRepository.findAllById(ownerIds).stream()
-                .collect(Collectors.toMap(User::getId, owner -> owner));
-    }
-
-    private TaskResponseDto mapToTaskResponseDto(
-            Task task,
-            boolean userHasEditAccess,
-            boolean userHasDeleteAccess,
-            Map<Long, String> projectNames,
-            Map<Long, User> ownerDetails,
-            Long userId) {
-        // Load subtasks for this task - wrap in try-catch to prevent transaction rollback
-        List<SubtaskResponseDto> subtasks;
-        try {
-            subtasks = subtaskService.getSubtasksByTaskId(task.getId(), userId);
-        } catch (Exception e) {
-            log.error("Error loading subtasks for task {}: {}", task.getId(), e.getMessage(), e);
-            subtasks = Collections.emptyList();
-        }
-
-        // Load collaborator IDs for this task - wrap in try-catch to prevent transaction rollback
-        List<Long> assignedUserIds;
-        try {
-            assignedUserIds = collaboratorService.getCollaboratorIdsByTaskId(task.getId());
-        } catch (Exception e) {
-            log.error("Error loading collaborators for task {}: {}", task.getId(), e.getMessage(), e);
-            assignedUserIds = Collections.emptyList();
-        }
-
-        User owner = ownerDetails != null ? ownerDetails.get(task.getOwnerId()) : null;
-        String projectName = null;
-        if (projectNames != null && task.getProjectId() != null) {
-            projectName = projectNames.get(task.getProjectId());
-        }
-
-        // Safely get owner department name
-        String ownerDepartment = null;
-        if (owner != null && owner.getDepartmentId() != null) {
-            try {
-                ownerDepartment = departmentQueryService.getById(owner.getDepartmentId())
-                        .map(DepartmentDto::getName)
-                        .orElse(null);
-            } catch (Exception e) {
-                log.warn("Error fetching department {} for user {}: {}", owner.getDepartmentId(), owner.getId(), e.getMessage());
-            }
-        }
-
-        return TaskResponseDto.builder()
-                .id(task.getId())
-                .projectId(task.getProjectId())
-                .projectName(projectName)
-                .ownerId(task.getOwnerId())
-                .ownerName(owner != null ? owner.getUserName() : null)
-                .ownerDepartment(ownerDepartment)
-                .taskType(task.getTaskType())
-                .title(task.getTitle())
-                .description(task.getDescription())
-                .status(task.getStatus())
-                .tags(task.getTags() != null
-                        ? task.getTags().stream().map(Tag::getTagName).toList()
-                        : null)
-                .assignedUserIds(assignedUserIds)
-                .userHasEditAccess(userHasEditAccess)
-                .userHasDeleteAccess(userHasDeleteAccess)
-                .createdAt(task.getCreatedAt())
-                .updatedAt(task.getUpdatedAt())
-                .createdBy(task.getCreatedBy())
-                .updatedBy(task.getUpdatedBy())
-                .dueDateTime(task.getDueDateTime())
-                .subtasks(subtasks)
-                .isRecurring(task.getIsRecurring())
-                .recurrenceRuleStr(task.getRecurrenceRuleStr())
-                .startDate(task.getStartDate())
-                .endDate(task.getEndDate())
-                .priority(task.getPriority())
-                .build();
-    }
-    
     /**
      * Handle time tracking when task status changes
      */
@@ -1573,9 +1528,7 @@ public class TaskServiceImpl implements TaskService {
         Task template,
         boolean userHasWriteAccess,
         boolean userHasDeleteAccess,
-        Map<Long, String> projectNames,
-        Map<Long, User> ownerDetails,
-        Long userId,
+        TaskResponseAssembler.TaskBatch batch,
         CalendarView calendarView,
         OffsetDateTime referenceDate
     ) {
@@ -1617,20 +1570,14 @@ public class TaskServiceImpl implements TaskService {
         // Get dates that are appropriate
         try {
             log.info("Generating occurrences for task {} from {} to {}", template.getId(), effectiveStart, effectiveEnd);
-            List<OffsetDateTime> occurrences = recurrenceService.generateOccurrence(template.getRecurrenceRuleStr(), effectiveStart, effectiveEnd);
-            log.info("Generated {} occurrences for task {}", occurrences.size(), template.getId());
-
-            for(OffsetDateTime occurrence : occurrences) {
-                TaskResponseDto virtualDto = createVirtualInstanceDto(
-                template,
-                occurrence,
-                userHasWriteAccess,
-                userHasDeleteAccess,
-                projectNames,
-                ownerDetails,
-                userId
-                );
-                log.info("Created virtual instance: dueDateTime={}, startDate={}", virtualDto.getDueDateTime(), virtualDto.getStartDate());
+            // Epoch millis come from the recurrence cache; only occurrences that become DTOs are materialised
+            long[] occurrences = recurrenceService.generateOccurrenceEpochMillis(template.getRecurrenceRuleStr(), effectiveStart, effectiveEnd);
+            log.info("Generated {} occurrences for task {}", occurrences.length, template.getId());
+
+            for(long occurrenceMillis : occurrences) {
+                OffsetDateTime occurrence = OffsetDateTime.ofInstant(Instant.ofEpochMilli(occurrenceMillis), ZoneId.systemDefault());
+                TaskResponseDto virtualDto = batch.toVirtualDto(template, occurrence, userHasWriteAccess, userHasDeleteAccess);
+                log.debug("Created virtual instance: dueDateTime={}, startDate={}", virtualDto.getDueDateTime(), virtualDto.getStartDate());
                 virtualInstances.add(virtualDto);
             }
 
@@ -1644,75 +1591,6 @@ public class TaskServiceImpl implements TaskService {
 
     }
 
-    private TaskResponseDto createVirtualInstanceDto(
-        Task template,
-        OffsetDateTime occurrence,
-        boolean userHasWriteAccess,
-        boolean userHasDeleteAccess,
-        Map<Long, String> projectNames,
-        Map<Long, User> ownerDetails,
-        Long userId
-    ) {
-        // Load subtasks - wrap in try-catch to prevent transaction rollback
-        List<SubtaskResponseDto> subtasks;
-        try {
-            subtasks = subtaskService.getSubtasksByTaskId(template.getId(), userId);
-        } catch (Exception e) {
-            log.error("Error loading subtasks for task {}: {}", template.getId(), e.getMessage(), e);
-            subtasks = Collections.emptyList();
-        }
-
-        // Load collaborator IDs - wrap in try-catch to prevent transaction rollback
-        List<Long> assignedUserIds;
-        try {
-            assignedUserIds = collaboratorService.getCollaboratorIdsByTaskId(template.getId());
-        } catch (Exception e) {
-            log.error("Error loading collaborators for task {}: {}", template.getId(), e.getMessage(), e);
-            assignedUserIds = Collections.emptyList();
-        }
-
-        User owner = ownerDetails != null ? ownerDetails.get(template.getOwnerId()) : null;
-        String projectName = null;
-        if(projectNames != null && template.getProjectId() != null) {
-            projectName = projectNames.get(template.getProjectId());
-        }
-
-        // Build DTO for virtual instance
-        // - dueDateTime: Only set if template has a due date (null otherwise)
-        // - startDate: Always set to occurrence (determines which calendar day to show task)
-        OffsetDateTime virtualDueDateTime = template.getDueDateTime() != null ? occurrence : null;
-
-        return TaskResponseDto.builder()
-            .id(template.getId())
-            .projectId(template.getProjectId())
-            .projectName(projectName)
-            .ownerId(template.getOwnerId())
-            .ownerName(owner != null ? owner.getUserName() : null)
-            .ownerDepartment(owner != null ? departmentQueryService.getById(owner.getDepartmentId()).map(DepartmentDto::getName).orElse(null) : null)
-            .taskType(template.getTaskType())
-            .title(template.getTitle())
-            .description(template.getDescription())
-            .status(template.getStatus())
-            .tags(template.getTags() != null
-                    ? template.getTags().stream().map(Tag::getTagName).toList()
-                    : null)
-            .assignedUserIds(assignedUserIds)
-            .userHasEditAccess(userHasWriteAccess)
-            .userHasDeleteAccess(userHasDeleteAccess)
-            .createdAt(template.getCreatedAt())
-            .updatedAt(template.getUpdatedAt())
-            .createdBy(template.getCreatedBy())
-            .updatedBy(template.getUpdatedBy())
-            .dueDateTime(virtualDueDateTime)  // Null if template has no due date
-            .subtasks(subtasks)
-            .isRecurring(true)
-            .recurrenceRuleStr(template.getRecurrenceRuleStr())
-            .startDate(occurrence)  // Always set to occurrence for calendar day filtering
-            .endDate(template.getEndDate())
-            .priority(template.getPriority())
-            .build();
-    }
-
     private Set<Long> getUserVisibleDepartmentIds(Long userId) {
         try {
             User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
@@ -1742,47 +1620,44 @@ public class TaskServiceImpl implements TaskService {
     }
 
     private Boolean canUserSeeTaskByDepartment(Task task, Set<Long> userVisibleDepartmentIds) {
+        return !retainTasksInVisibleDepartments(List.of(task), userVisibleDepartmentIds).isEmpty();
+    }
+
+    /**
+     * Keeps the tasks that have at least one assignee in a visible department. Assignees for the
+     * whole list are loaded in one query and probed against the viewer's visible-user bitmap.
+     */
+    private List<Task> retainTasksInVisibleDepartments(List<Task> tasks, Set<Long> userVisibleDepartmentIds) {
+        if (tasks.isEmpty()) {
+            return tasks;
+        }
+        if (userVisibleDepartmentIds.isEmpty()) {
+            log.debug("User has no visible departments - cannot see any of {} tasks", tasks.size());
+            return Collections.emptyList();
+        }
         try {
-            if (userVisibleDepartmentIds.isEmpty()) {
-                log.debug("User has no visible departments - cannot see task {}", task.getId());
-                return false;
+            VisibleUsers visibleUsers = departmentalVisibilityService.visibleUsersForDepartments(userVisibleDepartmentIds);
+            if (visibleUsers.isEmpty()) {
+                return Collections.emptyList();
             }
 
-            // Create mutable list - repository returns immutable list from native query
-            List<Long> assigneeIds = new ArrayList<>(taskAssigneeRepository.findAssigneeIdsByTaskId(task.getId()));
+            Set<Long> taskIds = tasks.stream().map(Task::getId).collect(Collectors.toSet());
             // REMOVED: No longer include owner_id in department visibility checks
+            Set<Long> visibleTaskIds = taskAssigneeRepository.findByTaskIdIn(taskIds).stream()
+                    .filter(assignee -> visibleUsers.contains(assignee.getUserId()))
+                    .map(TaskAssignee::getTaskId)
+                    .collect(Collectors.toSet());
 
-            log.debug("Checking visibility for task {} (title: '{}', owner: {}, assignees: {})",
-                     task.getId(), task.getTitle(), task.getOwnerId(), assigneeIds);
-
-            for(Long assigneeId : assigneeIds) {
-                User assignee = userRepository.findById(assigneeId).orElse(null);
-                if(assignee == null || assignee.getDepartmentId() == null) {
-                    log.debug("Assignee {} not found or has no department", assigneeId);
-                    continue;
-                }
-
-                log.debug("Checking if assignee {} in department {} is visible",
-                         assigneeId, assignee.getDepartmentId());
-
-                if(departmentalVisibilityService.canUserSeeTask(userVisibleDepartmentIds, assigneeId)) {
-                    log.info("User CAN see task {} - assignee {} is in visible department {}",
-                            task.getId(), assigneeId, assignee.getDepartmentId());
-                    return true;
-                }
-            }
-
-            log.info("User CANNOT see task {} - no assignees in visible departments. User visible depts: {}, Task assignee depts: {}",
-                    task.getId(), userVisibleDepartmentIds,
-                    assigneeIds.stream()
-                        .map(id -> userRepository.findById(id).map(User::getDepartmentId).orElse(null))
-                        .filter(deptId -> deptId != null)
-                        .toList());
-            return false;
+            List<Task> visibleTasks = tasks.stream()
+                    .filter(task -> visibleTaskIds.contains(task.getId()))
+                    .collect(Collectors.toList());
+            log.debug("{} of {} tasks have assignees in visible departments {}",
+                    visibleTasks.size(), tasks.size(), userVisibleDepartmentIds);
+            return visibleTasks;
         } catch (Exception e) {
-            log.error("Error checking department visibility for task {}: {}", task.getId(), e.getMessage(), e);
-            // On error, default to not showing the task to be safe
-            return false;
+            log.error("Error checking department visibility for {} tasks: {}", tasks.size(), e.getMessage(), e);
+            // On error, default to not showing the tasks to be safe
+            return Collections.emptyList();
         }
     }
 }
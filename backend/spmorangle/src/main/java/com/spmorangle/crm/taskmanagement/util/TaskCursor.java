@@ -0,0 +1,63 @@
+package com.spmorangle.crm.taskmanagement.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.spmorangle.crm.taskmanagement.enums.TaskSortKey;
+import com.spmorangle.crm.taskmanagement.model.Task;
+
+/**
+ * Position of the last row of a keyset page: the sort column value plus the task id tie-breaker.
+ *
+ * Serialised as URL-safe base64 of {@code SORT|instant|id}. The instant keeps full precision so that
+ * equality on the sort column holds when the next page is requested. For {@link TaskSortKey#DUE_DATE}
+ * an empty instant means the cursor is already inside the trailing "no due date" section.
+ */
+public record TaskCursor(TaskSortKey sortKey, OffsetDateTime sortValue, long taskId) {
+
+    private static final String SEPARATOR = "|";
+
+    public static TaskCursor after(Task task, TaskSortKey sortKey) {
+        OffsetDateTime sortValue = sortKey == TaskSortKey.CREATED_AT ? task.getCreatedAt() : task.getDueDateTime();
+        return new TaskCursor(sortKey, sortValue, task.getId());
+    }
+
+    public String encode() {
+        String instant = sortValue != null ? sortValue.toInstant().toString() : "";
+        String raw = sortKey.name() + SEPARATOR + instant + SEPARATOR + taskId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for a different sort
+     */
+    public static TaskCursor decode(String cursor, TaskSortKey expectedSortKey) {
+        TaskCursor decoded;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            OffsetDateTime sortValue = parts[1].isEmpty()
+                    ? null
+                    : Instant.parse(parts[1]).atOffset(ZoneOffset.UTC);
+            decoded = new TaskCursor(TaskSortKey.valueOf(parts[0]), sortValue, Long.parseLong(parts[2]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            // base64, enum and number parsing failures are all IllegalArgumentExceptions
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+
+        if (decoded.sortKey() != expectedSortKey) {
+            throw new IllegalArgumentException("Cursor was issued for sort " + decoded.sortKey() + ", not " + expectedSortKey);
+        }
+        if (decoded.sortValue() == null && decoded.sortKey() == TaskSortKey.CREATED_AT) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return decoded;
+    }
+}
@@ -0,0 +1,148 @@
+package com.spmorangle.crm.usermanagement.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.spmorangle.common.model.User;
+import com.spmorangle.common.repository.UserRepository;
+import com.spmorangle.common.util.BoundedLruCache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Email, name and active flag of notification recipients, kept in memory so delivering a notification
+ * does not look its recipient up in the users table every time.
+ *
+ * Entries expire after a TTL and the least recently used ones are dropped beyond the size limit. User
+ * management invalidates a user when it changes their role or status or deletes them, both right away
+ * and again after the transaction commits, so a load that read the old row in between is not kept.
+ * Changes made on other instances or outside user management show up once the entry expires.
+ * Unknown users are not cached.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecipientProfileCache {
+
+    private final UserRepository userRepository;
+
+    @Value("${users.recipient-cache.ttl-ms:300000}")
+    private long ttlMillis = 300_000;
+
+    @Value("${users.recipient-cache.max-entries:10000}")
+    private int maxEntries = 10_000;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private volatile BoundedLruCache<Long, Entry> entries;
+
+    public record RecipientProfile(Long id, String email, String username, boolean active) {
+    }
+
+    public record Stats(long hits, long misses, int size) {
+    }
+
+    private record Entry(RecipientProfile profile, long expiresAtMillis) {
+    }
+
+    /**
+     * @return the user's profile, or null if there is no such user
+     */
+    public RecipientProfile get(Long userId) {
+        return userId == null ? null : getAll(List.of(userId)).get(userId);
+    }
+
+    /**
+     * Profiles of the given users, loading every one that is not cached with a single query.
+     * Unknown users are left out of the result.
+     */
+    public Map<Long, RecipientProfile> getAll(Collection<Long> userIds) {
+        Map<Long, RecipientProfile> profiles = new HashMap<>();
+        if (userIds == null || userIds.isEmpty()) {
+            return profiles;
+        }
+
+        BoundedLruCache<Long, Entry> cache = entries();
+        long now = System.currentTimeMillis();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long userId : userIds) {
+            if (userId == null) {
+                continue;
+            }
+            Entry entry = cache.get(userId);
+            if (entry != null && entry.expiresAtMillis() > now) {
+                profiles.put(userId, entry.profile());
+            } else {
+                missing.add(userId);
+            }
+        }
+        hits.add(profiles.size());
+        if (missing.isEmpty()) {
+            return profiles;
+        }
+
+        misses.add(missing.size());
+        long expiresAt = now + ttlMillis;
+        for (User user : userRepository.findByIdIn(new ArrayList<>(missing))) {
+            RecipientProfile profile = new RecipientProfile(user.getId(), user.getEmail(), user.getUserName(),
+                    !Boolean.FALSE.equals(user.getIsActive()));
+            cache.put(user.getId(), new Entry(profile, expiresAt));
+            profiles.put(user.getId(), profile);
+        }
+        return profiles;
+    }
+
+    /**
+     * Drops a user now and again once the current transaction commits
+     */
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        entries().remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries().remove(userId);
+                }
+            });
+        }
+    }
+
+    public void clear() {
+        entries().clear();
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), entries().size());
+    }
+
+    private BoundedLruCache<Long, Entry> entries() {
+        BoundedLruCache<Long, Entry> cache = entries;
+        if (cache == null) {
+            synchronized (this) {
+                cache = entries;
+                if (cache == null) {
+                    // Created on first use so the configured size is in place by then
+                    cache = new BoundedLruCache<>(Math.max(1, maxEntries));
+                    entries = cache;
+                }
+            }
+        }
+        return cache;
+    }
+}
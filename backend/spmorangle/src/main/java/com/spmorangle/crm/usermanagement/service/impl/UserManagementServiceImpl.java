@@ -4,8 +4,10 @@ import com.spmorangle.common.converter.UserConverter;
 import com.spmorangle.common.enums.UserType;
 import com.spmorangle.common.model.User;
 import com.spmorangle.common.repository.UserRepository;
+import com.spmorangle.crm.departmentmgmt.hierarchy.DepartmentMemberIndex;
 import com.spmorangle.crm.departmentmgmt.service.DepartmentQueryService;
 import com.spmorangle.crm.taskmanagement.model.TaskAssignee;
+import com.spmorangle.crm.usermanagement.cache.RecipientProfileCache;
 import com.spmorangle.crm.usermanagement.dto.CreateUserDto;
 import com.spmorangle.crm.usermanagement.dto.UpdateUserRoleDto;
 import com.spmorangle.crm.usermanagement.dto.UserResponseDto;
@@ -26,6 +28,8 @@ public class UserManagementServiceImpl implements UserManagementService {
     private final UserRepository userRepository;
     private final CognitoServiceImpl cognitoService;
     private final DepartmentQueryService departmentQueryService;
+    private final DepartmentMemberIndex departmentMemberIndex;
+    private final RecipientProfileCache recipientProfileCache;
 
     @Override
     public void createUser(CreateUserDto createStaffDto, String roleType, boolean isSetAsTemporaryPassword) {
@@ -113,6 +117,7 @@ public class UserManagementServiceImpl implements UserManagementService {
         log.info("Updated user role type from {} to {}", updateUserDto.roleType(), updateUserDto.roleType());
 
         userRepository.updateUserTypeById(updateUserDto.userId(), updateUserDto.roleType());
+        recipientProfileCache.invalidate(updateUserDto.userId());
     }
 
     @Transactional
@@ -123,6 +128,8 @@ public class UserManagementServiceImpl implements UserManagementService {
         cognitoService.disableUser(user.getEmail());
         cognitoService.deleteUser(user.getEmail());
         userRepository.delete(user);
+        departmentMemberIndex.onUserRemoved(userId);
+        recipientProfileCache.invalidate(userId);
     }
 
     @Transactional
@@ -151,6 +158,7 @@ public class UserManagementServiceImpl implements UserManagementService {
         } else {
             userRepository.updateUserIsActiveById(userId, true);
         }
+        recipientProfileCache.invalidate(userId);
         log.info("Successfully toggled staff status for ID: {}", userId);
     }
 
@@ -197,14 +205,14 @@ public class UserManagementServiceImpl implements UserManagementService {
     @Override
     public String getAssigneeEmail(TaskAssignee assignee) {
         long assigneeId = assignee.getUserId();
-        var assigneeProfile = getUserById(assigneeId);
+        var assigneeProfile = recipientProfileCache.get(assigneeId);
         return assigneeProfile.email();
     }
 
     @Override
     public String getAssigneeName(TaskAssignee assignee) {
         long assigneeId = assignee.getUserId();
-        var assigneeProfile = getUserById(assigneeId);
+        var assigneeProfile = recipientProfileCache.get(assigneeId);
         return assigneeProfile.username();
     }
 
@@ -0,0 +1,100 @@
+package com.spmorangle.crm.departmentmgmt.hierarchy;
+
+import com.spmorangle.crm.departmentmgmt.dto.DepartmentDto;
+import com.spmorangle.crm.departmentmgmt.model.Department;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DepartmentHierarchy Tests")
+class DepartmentHierarchyTest {
+
+    //        1 Company            6 Standalone
+    //       /         \
+    //   2 Eng        3 Sales
+    //   /    \
+    // 4 BE   5 FE
+    private DepartmentHierarchy hierarchy;
+
+    @BeforeEach
+    void setUp() {
+        hierarchy = DepartmentHierarchy.of(List.of(
+            department(5L, "FE", 2L),
+            department(3L, "Sales", 1L),
+            department(1L, "Company", null),
+            department(4L, "BE", 2L),
+            department(2L, "Eng", 1L),
+            department(6L, "Standalone", null)
+        ), 7L);
+    }
+
+    @Nested
+    @DisplayName("Tree queries")
+    class TreeQueries {
+
+        @Test
+        @DisplayName("Descendants are the pre-order slice of the subtree")
+        void getDescendants_ReturnsWholeSubtree() {
+            assertThat(hierarchy.getDescendants(1L, true)).extracting(DepartmentDto::getId)
+                .containsExactly(1L, 2L, 4L, 5L, 3L);
+            assertThat(hierarchy.getDescendantIds(2L, false)).containsExactly(4L, 5L);
+            assertThat(hierarchy.getDescendants(5L, false)).isEmpty();
+            assertThat(hierarchy.getDescendants(99L, true)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Children, parent and ancestors follow the parent links")
+        void getChildrenAndAncestors_FollowParentLinks() {
+            assertThat(hierarchy.getChildren(1L)).extracting(DepartmentDto::getId).containsExactly(2L, 3L);
+            assertThat(hierarchy.getParent(4L)).map(DepartmentDto::getName).contains("Eng");
+            assertThat(hierarchy.getParent(1L)).isEmpty();
+            assertThat(hierarchy.getAncestors(4L, true)).extracting(DepartmentDto::getId).containsExactly(4L, 2L, 1L);
+            assertThat(hierarchy.getRoots()).extracting(DepartmentDto::getId).containsExactly(1L, 6L);
+        }
+
+        @Test
+        @DisplayName("isSameOrDescendant compares Euler intervals")
+        void isSameOrDescendant_ComparesIntervals() {
+            assertThat(hierarchy.isSameOrDescendant(5L, 1L)).isTrue();
+            assertThat(hierarchy.isSameOrDescendant(2L, 2L)).isTrue();
+            assertThat(hierarchy.isSameOrDescendant(3L, 2L)).isFalse();
+            assertThat(hierarchy.isSameOrDescendant(1L, 4L)).isFalse();
+            assertThat(hierarchy.isSameOrDescendant(6L, 1L)).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("Lookups by id and name come from the snapshot")
+    void getAndGetByName_UseSnapshot() {
+        assertThat(hierarchy.version()).isEqualTo(7L);
+        assertThat(hierarchy.size()).isEqualTo(6);
+        assertThat(hierarchy.get(3L)).map(DepartmentDto::getName).contains("Sales");
+        assertThat(hierarchy.getByNameIgnoreCase("eNg")).map(DepartmentDto::getId).contains(2L);
+    }
+
+    @Test
+    @DisplayName("A parent cycle in the data does not loop or drop departments")
+    void of_ParentCycle_KeepsEveryDepartment() {
+        DepartmentHierarchy cyclic = DepartmentHierarchy.of(List.of(
+            department(1L, "A", 2L),
+            department(2L, "B", 1L),
+            department(3L, "C", 2L)
+        ), 1L);
+
+        assertThat(cyclic.size()).isEqualTo(3);
+        assertThat(cyclic.getDescendantIds(1L, true)).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    private Department department(Long id, String name, Long parentId) {
+        Department department = new Department();
+        department.setId(id);
+        department.setName(name);
+        department.setParentId(parentId);
+        return department;
+    }
+}
@@ -0,0 +1,95 @@
+package com.spmorangle.crm.departmentmgmt.hierarchy;
+
+import com.spmorangle.common.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DepartmentMemberIndex Tests")
+class DepartmentMemberIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private DepartmentMemberIndex departmentMemberIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findAllUserDepartmentIds()).thenReturn(List.of(
+            new Object[]{1L, 100L},
+            new Object[]{2L, 100L},
+            new Object[]{3L, 200L},
+            new Object[]{4L, 300L}
+        ));
+    }
+
+    @Test
+    @DisplayName("Visible users are the union of the members of the given departments")
+    void visibleUsers_UnionsDepartmentMembers() {
+        VisibleUsers visible = departmentMemberIndex.visibleUsers(Set.of(100L, 200L));
+
+        assertThat(visible.size()).isEqualTo(3);
+        assertThat(visible.containsAny(List.of(9L, 3L))).isTrue();
+        assertThat(visible.contains(4L)).isFalse();
+        assertThat(departmentMemberIndex.visibleUsers(Set.of()).isEmpty()).isTrue();
+        // The membership is loaded once and then served from memory
+        assertThat(departmentMemberIndex.departmentOf(4L)).isEqualTo(300L);
+        verify(userRepository, times(1)).findAllUserDepartmentIds();
+    }
+
+    @Test
+    @DisplayName("Department changes and removals update the bitmaps incrementally")
+    void onUserDepartmentChanged_MovesUserBetweenBitmaps() {
+        VisibleUsers before = departmentMemberIndex.visibleUsers(Set.of(100L));
+
+        departmentMemberIndex.onUserDepartmentChanged(1L, 200L);
+        departmentMemberIndex.onUserRemoved(3L);
+
+        assertThat(before.contains(1L)).isTrue();
+        assertThat(departmentMemberIndex.visibleUsers(Set.of(100L)).contains(1L)).isFalse();
+        assertThat(departmentMemberIndex.visibleUsers(Set.of(200L)).contains(1L)).isTrue();
+        assertThat(departmentMemberIndex.visibleUsers(Set.of(200L)).contains(3L)).isFalse();
+        assertThat(departmentMemberIndex.departmentOf(3L)).isNull();
+    }
+
+    @Test
+    @DisplayName("Changes made in a transaction apply on commit and are dropped on rollback")
+    void onUserRemoved_InTransaction_AppliesOnlyOnCommit() {
+        departmentMemberIndex.visibleUsers(Set.of(100L));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            departmentMemberIndex.onUserRemoved(1L);
+            assertThat(departmentMemberIndex.departmentOf(1L)).isEqualTo(100L);
+        } finally {
+            // Rolled back: the registered synchronizations never see afterCommit
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(departmentMemberIndex.visibleUsers(Set.of(100L)).contains(1L)).isTrue();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            departmentMemberIndex.onUserRemoved(2L);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(departmentMemberIndex.visibleUsers(Set.of(100L)).contains(2L)).isFalse();
+    }
+}
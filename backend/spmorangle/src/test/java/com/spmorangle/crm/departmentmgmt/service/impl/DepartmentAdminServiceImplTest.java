@@ -0,0 +1,76 @@
+package com.spmorangle.crm.departmentmgmt.service.impl;
+
+import com.spmorangle.crm.departmentmgmt.dto.MoveDepartmentReqDto;
+import com.spmorangle.crm.departmentmgmt.dto.UpdateDepartmentReqDto;
+import com.spmorangle.crm.departmentmgmt.hierarchy.DepartmentHierarchy;
+import com.spmorangle.crm.departmentmgmt.hierarchy.DepartmentHierarchyIndex;
+import com.spmorangle.crm.departmentmgmt.model.Department;
+import com.spmorangle.crm.departmentmgmt.repository.DepartmentRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DepartmentAdminServiceImpl Tests")
+class DepartmentAdminServiceImplTest {
+
+    @Mock
+    private DepartmentRepository departmentRepository;
+
+    @Mock
+    private DepartmentHierarchyIndex departmentHierarchyIndex;
+
+    @InjectMocks
+    private DepartmentAdminServiceImpl departmentAdminService;
+
+    @Test
+    @DisplayName("Renaming a department saves it and rebuilds the hierarchy")
+    void updateDepartment_SavesAndRebuilds() {
+        Department department = department(2L, "Eng", 1L);
+        when(departmentRepository.findById(2L)).thenReturn(Optional.of(department));
+
+        departmentAdminService.updateDepartment(UpdateDepartmentReqDto.builder().id(2L).newName("Engineering").build());
+
+        assertThat(department.getName()).isEqualTo("Engineering");
+        verify(departmentRepository).save(department);
+        verify(departmentHierarchyIndex).rebuildAfterCommit();
+    }
+
+    @Test
+    @DisplayName("Moving a department under its own sub-department is rejected")
+    void moveDepartment_UnderOwnDescendant_Throws() {
+        Department parent = department(1L, "Company", null);
+        Department child = department(2L, "Eng", 1L);
+        when(departmentRepository.findById(1L)).thenReturn(Optional.of(parent));
+        when(departmentHierarchyIndex.current()).thenReturn(DepartmentHierarchy.of(List.of(parent, child), 1L));
+
+        assertThatThrownBy(() -> departmentAdminService.moveDepartment(
+                MoveDepartmentReqDto.builder().departmentId(1L).newParentId(2L).build()))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(parent.getParentId()).isNull();
+        verify(departmentRepository, never()).save(any());
+        verify(departmentHierarchyIndex, never()).rebuildAfterCommit();
+    }
+
+    private Department department(Long id, String name, Long parentId) {
+        Department department = new Department();
+        department.setId(id);
+        department.setName(name);
+        department.setParentId(parentId);
+        return department;
+    }
+}
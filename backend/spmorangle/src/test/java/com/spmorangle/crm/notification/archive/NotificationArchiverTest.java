@@ -0,0 +1,113 @@
+package com.spmorangle.crm.notification.archive;
+
+import com.spmorangle.common.enums.NotificationType;
+import com.spmorangle.crm.notification.cache.UnreadCountCache;
+import com.spmorangle.crm.notification.enums.Channel;
+import com.spmorangle.crm.notification.enums.Priority;
+import com.spmorangle.crm.notification.model.ArchivedNotification;
+import com.spmorangle.crm.notification.model.Notification;
+import com.spmorangle.crm.notification.repository.ArchivedNotificationRepository;
+import com.spmorangle.crm.notification.repository.NotificationRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationArchiver Tests")
+class NotificationArchiverTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private ArchivedNotificationRepository archivedNotificationRepository;
+
+    @Mock
+    private UnreadCountCache unreadCountCache;
+
+    @InjectMocks
+    private NotificationArchiver notificationArchiver;
+
+    private final Instant cutoff = Instant.now().minus(30, ChronoUnit.DAYS);
+
+    @Test
+    @DisplayName("Should copy a batch into the archive, delete it and adjust unread counts for dismissed unread rows")
+    @SuppressWarnings("unchecked")
+    void archiveBatch_MovesRowsAndAdjustsUnreadCounts() {
+        Notification read = notification(1L, 10L, true, false);
+        read.setChannels(List.of(Channel.IN_APP, Channel.EMAIL));
+        Notification dismissedUnread = notification(2L, 20L, false, true);
+        when(notificationRepository.findArchivableIdsCreatedBefore(eq(cutoff), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(notificationRepository.findAllWithChannelsByIds(List.of(1L, 2L))).thenReturn(List.of(read, dismissedUnread));
+
+        int archived = notificationArchiver.archiveBatch(cutoff, 500);
+
+        assertThat(archived).isEqualTo(2);
+        ArgumentCaptor<List<ArchivedNotification>> rows = ArgumentCaptor.forClass(List.class);
+        verify(archivedNotificationRepository).saveAll(rows.capture());
+        assertThat(rows.getValue()).extracting(ArchivedNotification::getNotificationId).containsExactly(1L, 2L);
+        assertThat(rows.getValue().get(0).getChannels()).isEqualTo("IN_APP,EMAIL");
+        assertThat(rows.getValue().get(1).getChannels()).isNull();
+        verify(notificationRepository).deleteChannelsByNotificationIds(List.of(1L, 2L));
+        verify(notificationRepository).deleteByIds(List.of(1L, 2L));
+        verify(unreadCountCache).addAfterCommit(Map.of(20L, -1L));
+    }
+
+    @Test
+    @DisplayName("Should do nothing when no notifications are old enough")
+    void archiveBatch_NothingEligible_ReturnsZero() {
+        when(notificationRepository.findArchivableIdsCreatedBefore(eq(cutoff), any(Pageable.class))).thenReturn(List.of());
+
+        assertThat(notificationArchiver.archiveBatch(cutoff, 500)).isZero();
+
+        verify(notificationRepository, never()).deleteByIds(anyList());
+        verifyNoInteractions(archivedNotificationRepository, unreadCountCache);
+    }
+
+    @Test
+    @DisplayName("Should limit each cleanup batch and delete channel rows first")
+    void deleteReadBatch_DeletesOneBoundedBatch() {
+        ArgumentCaptor<Pageable> page = ArgumentCaptor.forClass(Pageable.class);
+        when(notificationRepository.findReadIdsCreatedBefore(eq(cutoff), page.capture())).thenReturn(List.of(3L, 4L));
+
+        assertThat(notificationArchiver.deleteReadBatch(cutoff, 2)).isEqualTo(2);
+
+        assertThat(page.getValue().getPageSize()).isEqualTo(2);
+        verify(notificationRepository).deleteChannelsByNotificationIds(List.of(3L, 4L));
+        verify(notificationRepository).deleteByIds(List.of(3L, 4L));
+    }
+
+    private Notification notification(Long id, Long targetId, boolean read, boolean dismissed) {
+        return Notification.builder()
+                .notificationId(id)
+                .authorId(99L)
+                .targetId(targetId)
+                .notificationType(NotificationType.TASK_ASSIGNED)
+                .subject("Subject " + id)
+                .message("Message " + id)
+                .priority(Priority.MEDIUM)
+                .readStatus(read)
+                .dismissedStatus(dismissed)
+                .createdAt(cutoff.minus(1, ChronoUnit.DAYS))
+                .build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.spmorangle.crm.notification.cache;
+
+import com.spmorangle.crm.notification.repository.NotificationRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UnreadCountCache Tests")
+class UnreadCountCacheTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @InjectMocks
+    private UnreadCountCache cache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    @DisplayName("Should load once and then apply changes in memory")
+    void get_AfterLoad_AppliesChangesWithoutQuerying() {
+        assertThat(cache.get(1L, () -> load(5))).isEqualTo(5);
+
+        cache.addAfterCommit(Map.of(1L, 2L));
+        cache.addAfterCommit(Map.of(1L, -1L, 2L, 4L));
+
+        assertThat(cache.get(1L, () -> load(0))).isEqualTo(6);
+        assertThat(loads).hasValue(1);
+        assertThat(cache.stats().hits()).isEqualTo(1);
+        assertThat(cache.stats().misses()).isEqualTo(1);
+
+        cache.resetAfterCommit(1L);
+        assertThat(cache.get(1L, () -> load(0))).isZero();
+        // Users that were never read are not cached by changes alone
+        assertThat(cache.stats().size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not cache a load that overlapped a change")
+    void get_ChangeDuringLoad_DoesNotCacheLoad() {
+        long loaded = cache.get(1L, () -> {
+            cache.addAfterCommit(Map.of(1L, 1L));
+            return load(3);
+        });
+
+        assertThat(loaded).isEqualTo(3);
+        assertThat(cache.get(1L, () -> load(4))).isEqualTo(4);
+        assertThat(cache.get(1L, () -> load(0))).isEqualTo(4);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should correct drifted counts from one grouped query")
+    void reconcile_Drift_CorrectsCachedCounts() {
+        cache.get(1L, () -> load(5));
+        cache.get(2L, () -> load(2));
+        when(notificationRepository.countUnreadByTargetIds(anyCollection()))
+            .thenReturn(List.<Object[]>of(new Object[]{1L, 3L}));
+
+        cache.reconcile();
+
+        assertThat(cache.get(1L, () -> load(0))).isEqualTo(3);
+        assertThat(cache.get(2L, () -> load(0))).isZero();
+        assertThat(cache.stats().corrections()).isEqualTo(2);
+        verify(notificationRepository).countUnreadByTargetIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should skip the query when nothing is cached")
+    void reconcile_EmptyCache_DoesNotQuery() {
+        cache.reconcile();
+
+        verify(notificationRepository, never()).countUnreadByTargetIds(anyCollection());
+    }
+
+    private long load(long count) {
+        loads.incrementAndGet();
+        return count;
+    }
+}
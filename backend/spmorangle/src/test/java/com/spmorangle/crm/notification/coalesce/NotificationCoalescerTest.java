@@ -0,0 +1,228 @@
+package com.spmorangle.crm.notification.coalesce;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spmorangle.common.config.FrontendConfig;
+import com.spmorangle.common.enums.NotificationType;
+import com.spmorangle.crm.notification.dto.CreateNotificationDto;
+import com.spmorangle.crm.notification.dto.NotificationDigestDto;
+import com.spmorangle.crm.notification.dto.NotificationDto;
+import com.spmorangle.crm.notification.enums.Channel;
+import com.spmorangle.crm.notification.enums.Priority;
+import com.spmorangle.crm.notification.model.NotificationDigestItem;
+import com.spmorangle.crm.notification.model.PendingCoalescedNotification;
+import com.spmorangle.crm.notification.push.NotificationPushService;
+import com.spmorangle.crm.notification.repository.NotificationDigestItemRepository;
+import com.spmorangle.crm.notification.repository.PendingCoalescedNotificationRepository;
+import com.spmorangle.crm.notification.service.EmailService;
+import com.spmorangle.crm.notification.service.EmailTemplateService;
+import com.spmorangle.crm.notification.service.NotificationService;
+import com.spmorangle.crm.usermanagement.cache.RecipientProfileCache;
+import com.spmorangle.crm.usermanagement.cache.RecipientProfileCache.RecipientProfile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationCoalescer Tests")
+class NotificationCoalescerTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private NotificationPushService notificationPushService;
+
+    @Mock
+    private RecipientProfileCache recipientProfileCache;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private EmailTemplateService emailTemplateService;
+
+    @Mock
+    private FrontendConfig frontendConfig;
+
+    @Mock
+    private PendingCoalescedNotificationRepository pendingRepository;
+
+    @Mock
+    private NotificationDigestItemRepository digestItemRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private NotificationCoalescer coalescer;
+
+    @Test
+    @DisplayName("Should only coalesce the configured event types")
+    void coalesces_ConfiguredEventTypesOnly() {
+        assertThat(coalescer.coalesces(1L, "STATUS_UPDATED")).isTrue();
+        assertThat(coalescer.coalesces(1L, "TASK_ASSIGNED")).isFalse();
+        assertThat(coalescer.coalesces(null, "STATUS_UPDATED")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should buffer one burst per recipient, counting every update")
+    void offer_NewBursts_BufferedPerRecipient() throws Exception {
+        when(pendingRepository.findForUpdate(eq(1L), eq("STATUS_UPDATED"), anyCollection())).thenReturn(List.of());
+
+        coalescer.offer(1L, "STATUS_UPDATED",
+                List.of(update(200L, "Status changed 1"), update(300L, "Status changed 1"), update(200L, "Status changed 2")));
+
+        ArgumentCaptor<List<PendingCoalescedNotification>> captor = ArgumentCaptor.forClass(List.class);
+        verify(pendingRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).hasSize(2);
+        PendingCoalescedNotification first = captor.getValue().get(0);
+        assertThat(first.getTargetId()).isEqualTo(200L);
+        assertThat(first.getUpdateCount()).isEqualTo(2);
+        assertThat(first.getFirstAt()).isNotNull();
+        assertThat(JSON.readValue(first.getLatest(), CreateNotificationDto.class).getMessage()).isEqualTo("Status changed 2");
+        assertThat(captor.getValue().get(1).getUpdateCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should merge into the burst already waiting without restarting its window")
+    void offer_WaitingBurst_MergedIntoIt() throws Exception {
+        Instant firstAt = Instant.now().minusSeconds(30);
+        PendingCoalescedNotification waiting = pending(7L, 200L, 3, "Status changed 3");
+        waiting.setFirstAt(firstAt);
+        when(pendingRepository.findForUpdate(eq(1L), eq("STATUS_UPDATED"), anyCollection())).thenReturn(List.of(waiting));
+
+        coalescer.offer(1L, "STATUS_UPDATED", List.of(update(200L, "Status changed 4")));
+
+        ArgumentCaptor<List<PendingCoalescedNotification>> captor = ArgumentCaptor.forClass(List.class);
+        verify(pendingRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).containsExactly(waiting);
+        assertThat(waiting.getUpdateCount()).isEqualTo(4);
+        assertThat(waiting.getFirstAt()).isEqualTo(firstAt);
+        assertThat(JSON.readValue(waiting.getLatest(), CreateNotificationDto.class).getMessage()).isEqualTo("Status changed 4");
+    }
+
+    @Test
+    @DisplayName("Should store due bursts as merged notifications, queue their digest entries and drop them")
+    void flush_DueBursts_StoredAndQueuedForDigest() throws Exception {
+        when(pendingRepository.findDueForUpdate(any(), any())).thenReturn(List.of(
+                pending(7L, 200L, 5, "Status changed 5"), pending(8L, 300L, 1, "Other task")));
+        List<NotificationDto> stored = List.of(stored(1L, 200L), stored(2L, 300L));
+        when(notificationService.createBulkNotifications(anyList())).thenReturn(stored);
+
+        coalescer.flush();
+
+        ArgumentCaptor<List<CreateNotificationDto>> created = ArgumentCaptor.forClass(List.class);
+        verify(notificationService).createBulkNotifications(created.capture());
+        assertThat(created.getValue())
+            .extracting(CreateNotificationDto::getMessage)
+            .containsExactly("Status changed 5 (5 updates)", "Other task");
+        ArgumentCaptor<List<NotificationDigestItem>> digestItems = ArgumentCaptor.forClass(List.class);
+        verify(digestItemRepository).saveAll(digestItems.capture());
+        assertThat(digestItems.getValue())
+            .extracting(NotificationDigestItem::getUserId, NotificationDigestItem::getNotificationId)
+            .containsExactly(tuple(200L, 1L), tuple(300L, 2L));
+        verify(pendingRepository).deleteByIds(List.of(7L, 8L));
+        verify(notificationPushService).push(stored);
+    }
+
+    @Test
+    @DisplayName("Should keep bursts buffered when storing them fails")
+    void flush_StoreFails_KeepsPending() throws Exception {
+        when(pendingRepository.findDueForUpdate(any(), any())).thenReturn(List.of(pending(7L, 200L, 2, "Updated")));
+        when(notificationService.createBulkNotifications(anyList())).thenThrow(new RuntimeException("connection refused"));
+
+        assertThatThrownBy(() -> coalescer.flush()).hasMessage("connection refused");
+
+        verify(transactionManager).rollback(any());
+        verify(pendingRepository, never()).deleteByIds(anyCollection());
+        verify(notificationPushService, never()).push(anyList());
+    }
+
+    @Test
+    @DisplayName("Should email each active recipient one digest of their newest notifications")
+    void sendDigests_HeldBackNotifications_SendsOneEmailPerUser() {
+        ReflectionTestUtils.setField(coalescer, "maxDigestItems", 2);
+        when(digestItemRepository.findForUpdate(any())).thenReturn(List.of(
+                digestItem(1L, 200L, "First"), digestItem(2L, 200L, "Second"), digestItem(3L, 200L, "Third"),
+                digestItem(4L, 300L, "Inactive")));
+        when(recipientProfileCache.getAll(anyCollection())).thenReturn(Map.of(
+                200L, new RecipientProfile(200L, "user1@test.com", "User1", true),
+                300L, new RecipientProfile(300L, "user2@test.com", "User2", false)));
+        when(emailTemplateService.generateNotificationDigestEmail(any(NotificationDigestDto.class))).thenReturn("<html/>");
+
+        coalescer.sendDigests();
+
+        ArgumentCaptor<NotificationDigestDto> captor = ArgumentCaptor.forClass(NotificationDigestDto.class);
+        verify(emailTemplateService).generateNotificationDigestEmail(captor.capture());
+        assertThat(captor.getValue().getNotifications()).extracting(NotificationDto::getMessage).containsExactly("Second", "Third");
+        assertThat(captor.getValue().getOmittedCount()).isEqualTo(1);
+        verify(emailService).sendHtmlEmail(eq("user1@test.com"), eq("Updates on your tasks"), eq("<html/>"));
+        verify(digestItemRepository).deleteByIds(List.of(1L, 2L, 3L, 4L));
+    }
+
+    private CreateNotificationDto update(Long targetId, String message) {
+        return CreateNotificationDto.builder()
+                .authorId(100L)
+                .targetId(targetId)
+                .notificationType(NotificationType.TASK_ASSIGNED)
+                .subject("Task status updated")
+                .message(message)
+                .priority(Priority.MEDIUM)
+                .channels(List.of(Channel.IN_APP, Channel.EMAIL))
+                .build();
+    }
+
+    private PendingCoalescedNotification pending(Long id, Long targetId, int count, String message) throws Exception {
+        return PendingCoalescedNotification.builder()
+                .id(id)
+                .targetId(targetId)
+                .taskId(1L)
+                .eventType("STATUS_UPDATED")
+                .latest(JSON.writeValueAsString(update(targetId, message)))
+                .updateCount(count)
+                .firstAt(Instant.now().minusSeconds(120))
+                .build();
+    }
+
+    private NotificationDto stored(Long id, Long targetId) {
+        return NotificationDto.builder()
+                .notificationId(id)
+                .targetId(targetId)
+                .subject("Task status updated")
+                .message("Status changed")
+                .channels(List.of(Channel.IN_APP, Channel.EMAIL))
+                .build();
+    }
+
+    private NotificationDigestItem digestItem(Long id, Long userId, String message) {
+        return NotificationDigestItem.builder()
+                .id(id)
+                .userId(userId)
+                .subject("Task status updated")
+                .message(message)
+                .build();
+    }
+}
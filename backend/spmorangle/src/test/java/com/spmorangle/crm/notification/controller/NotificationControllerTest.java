@@ -6,6 +6,8 @@ import com.spmorangle.common.model.User;
 import com.spmorangle.common.service.UserContextService;
 import com.spmorangle.crm.notification.dto.NotificationDto;
 import com.spmorangle.crm.notification.dto.NotificationFilterDto;
+import com.spmorangle.crm.notification.dto.NotificationInboxPageDto;
+import com.spmorangle.crm.notification.dto.NotificationInboxRequestDto;
 import com.spmorangle.crm.notification.dto.UnreadCountDto;
 import com.spmorangle.crm.notification.enums.Channel;
 import com.spmorangle.crm.notification.enums.Priority;
@@ -13,6 +15,7 @@ import com.spmorangle.crm.notification.service.NotificationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -27,6 +30,7 @@ import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -268,4 +272,33 @@ class NotificationControllerTest {
                 .with(csrf()))
             .andExpect(status().isNoContent());
     }
+
+    @Test
+    @DisplayName("Should pass inbox filters and cursor through and return the page")
+    void testGetInbox() throws Exception {
+        NotificationInboxPageDto page = NotificationInboxPageDto.builder()
+                .items(mockNotifications)
+                .nextCursor("next")
+                .hasMore(true)
+                .build();
+        ArgumentCaptor<NotificationInboxRequestDto> request = ArgumentCaptor.forClass(NotificationInboxRequestDto.class);
+        when(notificationService.getInbox(eq(1L), request.capture())).thenReturn(page);
+
+        mockMvc.perform(get("/api/notifications/inbox")
+                .param("unreadOnly", "true")
+                .param("type", "MENTION")
+                .param("cursor", "abc")
+                .param("limit", "5"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items", hasSize(mockNotifications.size())))
+            .andExpect(jsonPath("$.nextCursor").value("next"))
+            .andExpect(jsonPath("$.hasMore").value(true));
+
+        assertThat(request.getValue().isUnreadOnly()).isTrue();
+        assertThat(request.getValue().isActiveOnly()).isTrue();
+        assertThat(request.getValue().isIncludeMessage()).isFalse();
+        assertThat(request.getValue().getNotificationType()).isEqualTo(NotificationType.MENTION);
+        assertThat(request.getValue().getCursor()).isEqualTo("abc");
+        assertThat(request.getValue().getEffectiveLimit()).isEqualTo(5);
+    }
 }
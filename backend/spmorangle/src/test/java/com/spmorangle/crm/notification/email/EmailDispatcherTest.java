@@ -0,0 +1,119 @@
+package com.spmorangle.crm.notification.email;
+
+import com.spmorangle.crm.notification.model.EmailOutboxMessage;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EmailDispatcher Tests")
+class EmailDispatcherTest {
+
+    @Mock
+    private EmailOutbox emailOutbox;
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    @InjectMocks
+    private EmailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        // Only explicit dispatch() calls in these tests
+        ReflectionTestUtils.setField(dispatcher, "pollMillis", 3_600_000L);
+        ReflectionTestUtils.setField(dispatcher, "domainBurst", 2);
+        ReflectionTestUtils.setField(dispatcher, "connections", 1);
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        dispatcher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.stop();
+    }
+
+    @Test
+    @DisplayName("Should send a claimed batch in one call and mark it sent")
+    void dispatch_ClaimedMessages_SendsAndMarksSent() {
+        when(emailOutbox.claim(anyInt(), any())).thenReturn(List.of(message(1L, "a@example.com"), message(2L, "b@test.com")));
+
+        assertThat(dispatcher.dispatch()).isEqualTo(2);
+
+        verify(mailSender, times(1)).send(any(MimeMessage[].class));
+        verify(emailOutbox).markSent(List.of(1L, 2L));
+        verify(emailOutbox, never()).markFailed(any(), any());
+        assertThat(dispatcher.stats().sent()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should retry only the messages the server rejected")
+    void dispatch_OneRejected_MarksOnlyThatOneFailed() {
+        EmailOutboxMessage rejected = message(2L, "b@example.com");
+        when(emailOutbox.claim(anyInt(), any())).thenReturn(List.of(message(1L, "a@example.com"), rejected));
+        when(emailOutbox.markFailed(any(), any())).thenReturn(true);
+        doAnswer(invocation -> {
+            MimeMessage[] sent = (MimeMessage[]) invocation.getRawArguments()[0];
+            throw new MailSendException(Map.of(sent[1], new RuntimeException("550 mailbox unavailable")));
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        dispatcher.dispatch();
+
+        verify(emailOutbox).markSent(List.of(1L));
+        verify(emailOutbox).markFailed(rejected, "550 mailbox unavailable");
+        assertThat(dispatcher.stats().retried()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should defer messages over their domain's rate limit without sending them")
+    void dispatch_OverDomainLimit_DefersExcess() {
+        when(emailOutbox.claim(anyInt(), any())).thenReturn(List.of(
+                message(1L, "a@example.com"), message(2L, "b@example.com"), message(3L, "c@example.com"),
+                message(4L, "d@example.com"), message(5L, "e@test.com")));
+
+        dispatcher.dispatch();
+
+        ArgumentCaptor<Collection<Long>> sent = ArgumentCaptor.forClass(Collection.class);
+        verify(emailOutbox).markSent(sent.capture());
+        assertThat(sent.getValue()).containsExactlyInAnyOrder(1L, 2L, 5L);
+        verify(emailOutbox).defer(eq(List.of(3L, 4L)), any(Instant.class));
+        assertThat(dispatcher.stats().deferred()).isEqualTo(2);
+    }
+
+    private EmailOutboxMessage message(Long id, String recipient) {
+        return EmailOutboxMessage.builder()
+                .id(id)
+                .recipient(recipient)
+                .recipientDomain(recipient.substring(recipient.indexOf('@') + 1))
+                .subject("Subject " + id)
+                .body("<p>Body</p>")
+                .html(true)
+                .build();
+    }
+}
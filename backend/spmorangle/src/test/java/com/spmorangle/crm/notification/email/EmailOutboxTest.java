@@ -0,0 +1,74 @@
+package com.spmorangle.crm.notification.email;
+
+import com.spmorangle.crm.notification.enums.EmailOutboxStatus;
+import com.spmorangle.crm.notification.model.EmailOutboxMessage;
+import com.spmorangle.crm.notification.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EmailOutbox Tests")
+class EmailOutboxTest {
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @InjectMocks
+    private EmailOutbox emailOutbox;
+
+    @Test
+    @DisplayName("Should store a pending message keyed by recipient domain")
+    void enqueue_ValidRecipient_StoresPendingMessage() {
+        when(emailOutboxRepository.save(any(EmailOutboxMessage.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        EmailOutboxMessage message = emailOutbox.enqueue(" user@Example.COM ", "Subject", "<p>Body</p>", true);
+
+        assertThat(message.getRecipient()).isEqualTo("user@Example.COM");
+        assertThat(message.getRecipientDomain()).isEqualTo("example.com");
+        assertThat(message.getStatus()).isEqualTo(EmailOutboxStatus.PENDING);
+        assertThat(message.getNextAttemptAt()).isBeforeOrEqualTo(Instant.now());
+    }
+
+    @Test
+    @DisplayName("Should reject a recipient without a domain")
+    void enqueue_InvalidRecipient_Throws() {
+        assertThatThrownBy(() -> emailOutbox.enqueue("user", "Subject", "Body", false))
+            .isInstanceOf(IllegalArgumentException.class);
+        verify(emailOutboxRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should back off exponentially and give up after the last attempt")
+    void markFailed_RetriesThenGivesUp() {
+        EmailOutboxMessage message = EmailOutboxMessage.builder().id(1L).recipient("user@example.com").attempts(0).build();
+
+        assertThat(emailOutbox.markFailed(message, "connection refused")).isTrue();
+        assertThat(message.getStatus()).isEqualTo(EmailOutboxStatus.PENDING);
+        assertThat(message.getNextAttemptAt()).isAfter(Instant.now().plusSeconds(29));
+        assertThat(emailOutbox.backoffMillis(3)).isBetween(120_000L, 144_000L);
+        assertThat(emailOutbox.backoffMillis(20)).isBetween(3_600_000L, 4_320_000L);
+
+        message.setAttempts(5);
+        assertThat(emailOutbox.markFailed(message, "connection refused")).isFalse();
+
+        ArgumentCaptor<EmailOutboxMessage> captor = ArgumentCaptor.forClass(EmailOutboxMessage.class);
+        verify(emailOutboxRepository, times(2)).save(captor.capture());
+        assertThat(captor.getValue().getStatus()).isEqualTo(EmailOutboxStatus.FAILED);
+        assertThat(captor.getValue().getAttempts()).isEqualTo(6);
+    }
+}
@@ -3,11 +3,14 @@ package com.spmorangle.crm.notification.messaging.consumer;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +19,9 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 
 import com.spmorangle.common.config.FrontendConfig;
 import com.spmorangle.common.enums.NotificationType;
@@ -24,11 +30,12 @@ import com.spmorangle.crm.notification.dto.NotificationDto;
 import com.spmorangle.crm.notification.enums.Channel;
 import com.spmorangle.crm.notification.enums.Priority;
 import com.spmorangle.crm.notification.messaging.dto.CommentNotificationMessageDto;
+import com.spmorangle.crm.notification.push.NotificationPushService;
 import com.spmorangle.crm.notification.service.EmailService;
 import com.spmorangle.crm.notification.service.NotificationService;
 import com.spmorangle.crm.taskmanagement.repository.TaskAssigneeRepository;
-import com.spmorangle.crm.usermanagement.dto.UserResponseDto;
-import com.spmorangle.crm.usermanagement.service.UserManagementService;
+import com.spmorangle.crm.usermanagement.cache.RecipientProfileCache;
+import com.spmorangle.crm.usermanagement.cache.RecipientProfileCache.RecipientProfile;
 
 @ExtendWith(MockitoExtension.class)
 class CommentNotificationConsumerTest {
@@ -37,7 +44,7 @@ class CommentNotificationConsumerTest {
     private NotificationService notificationService;
 
     @Mock
-    private UserManagementService userManagementService;
+    private RecipientProfileCache recipientProfileCache;
 
     @Mock
     private EmailService emailService;
@@ -48,6 +55,12 @@ class CommentNotificationConsumerTest {
     @Mock(lenient = true)
     private FrontendConfig frontendConfig;
 
+    @Mock
+    private NotificationPushService notificationPushService;
+
+    @Mock
+    private com.rabbitmq.client.Channel amqpChannel;
+
     @InjectMocks
     private CommentNotificationConsumer commentNotificationConsumer;
 
@@ -111,13 +124,12 @@ class CommentNotificationConsumerTest {
         when(notificationService.createBulkNotifications(anyList()))
                 .thenReturn(List.of(notification1, notification2));
 
-        when(userManagementService.getUserById(200L))
-                .thenReturn(new UserResponseDto(200L, "User1", "user1@test.com", "ENGINEER", true, "Engineering", UUID.randomUUID()));
-        when(userManagementService.getUserById(300L))
-                .thenReturn(new UserResponseDto(300L, "User2", "user2@test.com", "ENGINEER", true, "Engineering", UUID.randomUUID()));
+        when(recipientProfileCache.getAll(anyCollection())).thenReturn(profiles(
+                new RecipientProfile(200L, "user1@test.com", "User1", true),
+                new RecipientProfile(300L, "user2@test.com", "User2", true)));
 
         // Act
-        commentNotificationConsumer.handleCommentNotification(commentCreatedMessage);
+        deliver(commentCreatedMessage);
 
         // Assert
         ArgumentCaptor<List<CreateNotificationDto>> captor = ArgumentCaptor.forClass(List.class);
@@ -129,6 +141,7 @@ class CommentNotificationConsumerTest {
         assert capturedNotifications.get(1).getTargetId().equals(300L);
         assert capturedNotifications.get(0).getNotificationType() == NotificationType.COMMENT_REPLY;
 
+        verify(notificationPushService).push(List.of(notification1, notification2));
         verify(emailService, times(2)).sendEmail(anyString(), anyString(), anyString());
     }
 
@@ -145,15 +158,13 @@ class CommentNotificationConsumerTest {
         when(notificationService.createBulkNotifications(anyList()))
                 .thenReturn(List.of(mention1, mention2, assignee));
 
-        when(userManagementService.getUserById(200L))
-                .thenReturn(new UserResponseDto(200L, "User1", "user1@test.com", "ENGINEER", true, "Engineering", UUID.randomUUID()));
-        when(userManagementService.getUserById(300L))
-                .thenReturn(new UserResponseDto(300L, "User2", "user2@test.com", "ENGINEER", true, "Engineering", UUID.randomUUID()));
-        when(userManagementService.getUserById(400L))
-                .thenReturn(new UserResponseDto(400L, "User3", "user3@test.com", "ENGINEER", true, "Engineering", UUID.randomUUID()));
+        when(recipientProfileCache.getAll(anyCollection())).thenReturn(profiles(
+                new RecipientProfile(200L, "user1@test.com", "User1", true),
+                new RecipientProfile(300L, "user2@test.com", "User2", true),
+                new RecipientProfile(400L, "user3@test.com", "User3", true)));
 
         // Act
-        commentNotificationConsumer.handleCommentNotification(commentWithMentionsMessage);
+        deliver(commentWithMentionsMessage);
 
         // Assert
         ArgumentCaptor<List<CreateNotificationDto>> captor = ArgumentCaptor.forClass(List.class);
@@ -179,11 +190,11 @@ class CommentNotificationConsumerTest {
         when(notificationService.createBulkNotifications(anyList()))
                 .thenReturn(List.of(notification));
 
-        when(userManagementService.getUserById(200L))
-                .thenReturn(new UserResponseDto(200L, "User1", "user1@test.com", "ENGINEER", true, "Engineering", UUID.randomUUID()));
+        when(recipientProfileCache.getAll(anyCollection()))
+                .thenReturn(profiles(new RecipientProfile(200L, "user1@test.com", "User1", true)));
 
         // Act
-        commentNotificationConsumer.handleCommentNotification(mentionEventMessage);
+        deliver(mentionEventMessage);
 
         // Assert
         ArgumentCaptor<List<CreateNotificationDto>> captor = ArgumentCaptor.forClass(List.class);
@@ -204,7 +215,7 @@ class CommentNotificationConsumerTest {
                 .thenReturn(new ArrayList<>());
 
         // Act
-        commentNotificationConsumer.handleCommentNotification(commentCreatedMessage);
+        deliver(commentCreatedMessage);
 
         // Assert
         verify(notificationService, never()).createBulkNotifications(anyList());
@@ -224,7 +235,7 @@ class CommentNotificationConsumerTest {
                 .build();
 
         // Act
-        commentNotificationConsumer.handleCommentNotification(unknownMessage);
+        deliver(unknownMessage);
 
         // Assert
         verify(notificationService, never()).createBulkNotifications(anyList());
@@ -241,11 +252,11 @@ class CommentNotificationConsumerTest {
         when(notificationService.createBulkNotifications(anyList()))
                 .thenReturn(List.of(notification));
 
-        when(userManagementService.getUserById(200L))
-                .thenReturn(new UserResponseDto(200L, "User", "user@test.com", "ENGINEER", true, "Engineering", UUID.randomUUID()));
+        when(recipientProfileCache.getAll(anyCollection()))
+                .thenReturn(profiles(new RecipientProfile(200L, "user@test.com", "User", true)));
 
         // Act
-        commentNotificationConsumer.handleCommentNotification(commentCreatedMessage);
+        deliver(commentCreatedMessage);
 
         // Assert
         ArgumentCaptor<String> emailBodyCaptor = ArgumentCaptor.forClass(String.class);
@@ -266,11 +277,11 @@ class CommentNotificationConsumerTest {
         when(notificationService.createBulkNotifications(anyList()))
                 .thenReturn(List.of(notification));
 
-        when(userManagementService.getUserById(200L))
-                .thenReturn(new UserResponseDto(200L, "User", "", "ENGINEER", true, "Engineering", UUID.randomUUID()));
+        when(recipientProfileCache.getAll(anyCollection()))
+                .thenReturn(profiles(new RecipientProfile(200L, "", "User", true)));
 
         // Act
-        commentNotificationConsumer.handleCommentNotification(commentCreatedMessage);
+        deliver(commentCreatedMessage);
 
         // Assert - Email should not be sent for empty email address
         verify(emailService, never()).sendEmail(anyString(), anyString(), anyString());
@@ -287,18 +298,18 @@ class CommentNotificationConsumerTest {
         when(notificationService.createBulkNotifications(anyList()))
                 .thenReturn(List.of(notification));
 
-        when(userManagementService.getUserById(200L))
+        when(recipientProfileCache.getAll(anyCollection()))
                 .thenThrow(new RuntimeException("User not found"));
 
         // Act
-        commentNotificationConsumer.handleCommentNotification(commentCreatedMessage);
+        deliver(commentCreatedMessage);
 
         // Assert - Should not throw exception, email service should not be called
         verify(emailService, never()).sendEmail(anyString(), anyString(), anyString());
     }
 
     @Test
-    void testNotificationProcessing_WithException() {
+    void testNotificationProcessing_WithException() throws Exception {
         // Arrange
         when(taskAssigneeRepository.findAssigneeIdsByTaskId(10L))
                 .thenReturn(List.of(200L));
@@ -306,13 +317,13 @@ class CommentNotificationConsumerTest {
         when(notificationService.createBulkNotifications(anyList()))
                 .thenThrow(new RuntimeException("Database error"));
 
-        // Act & Assert
-        try {
-            commentNotificationConsumer.handleCommentNotification(commentCreatedMessage);
-            assert false : "Expected exception to be thrown";
-        } catch (RuntimeException e) {
-            assert e.getMessage().equals("Database error");
-        }
+        // Act
+        deliver(commentCreatedMessage);
+
+        // Assert - the message fails alone as well and goes to the dead letter queue
+        verify(notificationService, times(2)).createBulkNotifications(anyList());
+        verify(amqpChannel).basicNack(1L, false, false);
+        verify(amqpChannel, never()).basicAck(anyLong(), anyBoolean());
     }
 
     @Test
@@ -335,11 +346,11 @@ class CommentNotificationConsumerTest {
         when(notificationService.createBulkNotifications(anyList()))
                 .thenReturn(List.of(notification));
 
-        when(userManagementService.getUserById(500L))
-                .thenReturn(new UserResponseDto(500L, "ParentUser", "parent@test.com", "ENGINEER", true, "Engineering", UUID.randomUUID()));
+        when(recipientProfileCache.getAll(anyCollection()))
+                .thenReturn(profiles(new RecipientProfile(500L, "parent@test.com", "ParentUser", true)));
 
         // Act
-        commentNotificationConsumer.handleCommentNotification(replyMessage);
+        deliver(replyMessage);
 
         // Assert
         ArgumentCaptor<List<CreateNotificationDto>> captor = ArgumentCaptor.forClass(List.class);
@@ -352,6 +363,23 @@ class CommentNotificationConsumerTest {
         verify(emailService).sendEmail(eq("parent@test.com"), anyString(), anyString());
     }
 
+    /**
+     * Delivers the message through the batch listener as a batch of one
+     */
+    private void deliver(CommentNotificationMessageDto message) {
+        try {
+            commentNotificationConsumer.handleCommentNotifications(List.of(toAmqpMessage(message, 1L)), amqpChannel);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Message toAmqpMessage(CommentNotificationMessageDto dto, long deliveryTag) {
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        return new Jackson2JsonMessageConverter().toMessage(dto, properties);
+    }
+
     private NotificationDto createMockNotificationDto(Long id, Long targetId, String subject) {
         return NotificationDto.builder()
                 .notificationId(id)
@@ -369,4 +397,12 @@ class CommentNotificationConsumerTest {
                 .readAt(null)
                 .build();
     }
+
+    private static Map<Long, RecipientProfile> profiles(RecipientProfile... profiles) {
+        Map<Long, RecipientProfile> byId = new HashMap<>();
+        for (RecipientProfile profile : profiles) {
+            byId.put(profile.id(), profile);
+        }
+        return byId;
+    }
 }
@@ -3,10 +3,13 @@ package com.spmorangle.crm.notification.messaging.consumer;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,18 +18,24 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import com.spmorangle.common.config.FrontendConfig;
 import com.spmorangle.common.enums.NotificationType;
+import com.spmorangle.crm.notification.coalesce.NotificationCoalescer;
 import com.spmorangle.crm.notification.dto.CreateNotificationDto;
 import com.spmorangle.crm.notification.dto.NotificationDto;
 import com.spmorangle.crm.notification.enums.Channel;
 import com.spmorangle.crm.notification.enums.Priority;
 import com.spmorangle.crm.notification.messaging.dto.TaskNotificationMessageDto;
+import com.spmorangle.crm.notification.push.NotificationPushService;
 import com.spmorangle.crm.notification.service.EmailService;
 import com.spmorangle.crm.notification.service.NotificationService;
-import com.spmorangle.crm.usermanagement.dto.UserResponseDto;
-import com.spmorangle.crm.usermanagement.service.UserManagementService;
+import com.spmorangle.crm.usermanagement.cache.RecipientProfileCache;
+import com.spmorangle.crm.usermanagement.cache.RecipientProfileCache.RecipientProfile;
 
 @ExtendWith(MockitoExtension.class)
 class TaskNotificationConsumerTest {
@@ -35,7 +44,7 @@ class TaskNotificationConsumerTest {
     private NotificationService notificationService;
 
     @Mock
-    private UserManagementService userManagementService;
+    private RecipientProfileCache recipientProfileCache;
 
     @Mock
     private EmailService emailService;
@@ -43,6 +52,18 @@ class TaskNotificationConsumerTest {
     @Mock(lenient = true)
     private FrontendConfig frontendConfig;
 
+    @Mock
+    private NotificationPushService notificationPushService;
+
+    @Mock
+    private NotificationCoalescer notificationCoalescer;
+
+    @Mock
+    private com.rabbitmq.client.Channel amqpChannel;
+
+    @Mock(lenient = true)
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private TaskNotificationConsumer taskNotificationConsumer;
 
@@ -146,13 +167,12 @@ class TaskNotificationConsumerTest {
         when(notificationService.createBulkNotifications(anyList()))
                 .thenReturn(List.of(notification1, notification2));
 
-        when(userManagementService.getUserById(200L))
-                .thenReturn(new UserResponseDto(200L, "User1", "user1@test.com", "STAFF", true, "Engineering", UUID.randomUUID()));
-        when(userManagementService.getUserById(300L))
-                .thenReturn(new UserResponseDto(300L, "User2", "user2@test.com", "STAFF", true, "Engineering", UUID.randomUUID()));
+        when(recipientProfileCache.getAll(anyCollection())).thenReturn(profiles(
+                new RecipientProfile(200L, "user1@test.com", "User1", true),
+                new RecipientProfile(300L, "user2@test.com", "User2", true)));
 
         // Act
-        taskNotificationConsumer.handleTaskNotification(taskCreatedMessage);
+        deliver(taskCreatedMessage);
 
         // Assert
         ArgumentCaptor<List<CreateNotificationDto>> captor = ArgumentCaptor.forClass(List.class);
@@ -163,6 +183,7 @@ class TaskNotificationConsumerTest {
         assert capturedNotifications.get(0).getTargetId().equals(200L);
         assert capturedNotifications.get(1).getTargetId().equals(300L);
 
+        verify(notificationPushService).push(List.of(notification1, notification2));
         verify(emailService, times(2)).sendHtmlEmail(anyString(), anyString(), anyString());
     }
 
@@ -182,7 +203,7 @@ class TaskNotificationConsumerTest {
                 .build();
 
         // Act
-        taskNotificationConsumer.handleTaskNotification(messageWithNoAssignees);
+        deliver(messageWithNoAssignees);
 
         // Assert
         verify(notificationService, never()).createBulkNotifications(anyList());
@@ -194,11 +215,11 @@ class TaskNotificationConsumerTest {
         // Arrange
         NotificationDto notification = createMockNotificationDto(1L, 200L, "Task assigned");
         when(notificationService.createBulkNotifications(anyList())).thenReturn(List.of(notification));
-        when(userManagementService.getUserById(200L))
-                .thenReturn(new UserResponseDto(200L, "User1", "user1@test.com", "STAFF", true, "Engineering", UUID.randomUUID()));
+        when(recipientProfileCache.getAll(anyCollection()))
+                .thenReturn(profiles(new RecipientProfile(200L, "user1@test.com", "User1", true)));
 
         // Act
-        taskNotificationConsumer.handleTaskNotification(taskAssignedMessage);
+        deliver(taskAssignedMessage);
 
         // Assert
         ArgumentCaptor<List<CreateNotificationDto>> captor = ArgumentCaptor.forClass(List.class);
@@ -222,7 +243,7 @@ class TaskNotificationConsumerTest {
                 .thenReturn(List.of(notification1, notification2));
 
         // Act
-        taskNotificationConsumer.handleTaskNotification(taskCompletedMessage);
+        deliver(taskCompletedMessage);
 
         // Assert
         ArgumentCaptor<List<CreateNotificationDto>> captor = ArgumentCaptor.forClass(List.class);
@@ -243,7 +264,7 @@ class TaskNotificationConsumerTest {
         when(notificationService.createBulkNotifications(anyList())).thenReturn(List.of(notification));
 
         // Act
-        taskNotificationConsumer.handleTaskNotification(taskUpdatedMessage);
+        deliver(taskUpdatedMessage);
 
         // Assert
         ArgumentCaptor<List<CreateNotificationDto>> captor = ArgumentCaptor.forClass(List.class);
@@ -267,7 +288,7 @@ class TaskNotificationConsumerTest {
                 .build();
 
         // Act
-        taskNotificationConsumer.handleTaskNotification(unknownMessage);
+        deliver(unknownMessage);
 
         // Assert
         verify(notificationService, never()).createBulkNotifications(anyList());
@@ -279,11 +300,11 @@ class TaskNotificationConsumerTest {
         NotificationDto notification = createMockNotificationDto(1L, 200L, "Test notification");
 
         when(notificationService.createBulkNotifications(anyList())).thenReturn(List.of(notification));
-        when(userManagementService.getUserById(200L))
-                .thenReturn(new UserResponseDto(200L, "User", "user@test.com", "STAFF", true, "Engineering", UUID.randomUUID()));
+        when(recipientProfileCache.getAll(anyCollection()))
+                .thenReturn(profiles(new RecipientProfile(200L, "user@test.com", "User", true)));
 
         // Act
-        taskNotificationConsumer.handleTaskNotification(taskCreatedMessage);
+        deliver(taskCreatedMessage);
 
         // Assert
         ArgumentCaptor<String> emailBodyCaptor = ArgumentCaptor.forClass(String.class);
@@ -301,11 +322,11 @@ class TaskNotificationConsumerTest {
         NotificationDto notification = createMockNotificationDto(1L, 200L, "Test notification");
 
         when(notificationService.createBulkNotifications(anyList())).thenReturn(List.of(notification));
-        when(userManagementService.getUserById(200L))
-                .thenReturn(new UserResponseDto(200L, "User", "", "STAFF", true, "Engineering", UUID.randomUUID()));
+        when(recipientProfileCache.getAll(anyCollection()))
+                .thenReturn(profiles(new RecipientProfile(200L, "", "User", true)));
 
         // Act
-        taskNotificationConsumer.handleTaskNotification(taskCreatedMessage);
+        deliver(taskCreatedMessage);
 
         // Assert - Email should not be sent for empty email address
         verify(emailService, never()).sendHtmlEmail(anyString(), anyString(), anyString());
@@ -317,28 +338,28 @@ class TaskNotificationConsumerTest {
         NotificationDto notification = createMockNotificationDto(1L, 200L, "Test notification");
 
         when(notificationService.createBulkNotifications(anyList())).thenReturn(List.of(notification));
-        when(userManagementService.getUserById(200L)).thenThrow(new RuntimeException("User not found"));
+        when(recipientProfileCache.getAll(anyCollection())).thenThrow(new RuntimeException("User not found"));
 
         // Act
-        taskNotificationConsumer.handleTaskNotification(taskCreatedMessage);
+        deliver(taskCreatedMessage);
 
         // Assert - Should not throw exception, email service should not be called
         verify(emailService, never()).sendHtmlEmail(anyString(), anyString(), anyString());
     }
 
     @Test
-    void testNotificationProcessing_WithException() {
+    void testNotificationProcessing_WithException() throws Exception {
         // Arrange
         when(notificationService.createBulkNotifications(anyList()))
                 .thenThrow(new RuntimeException("Database error"));
 
-        // Act & Assert
-        try {
-            taskNotificationConsumer.handleTaskNotification(taskCreatedMessage);
-            assert false : "Expected exception to be thrown";
-        } catch (RuntimeException e) {
-            assert e.getMessage().equals("Database error");
-        }
+        // Act
+        deliver(taskCreatedMessage);
+
+        // Assert - the message fails alone as well and goes to the dead letter queue
+        verify(notificationService, times(2)).createBulkNotifications(anyList());
+        verify(amqpChannel).basicNack(1L, false, false);
+        verify(amqpChannel, never()).basicAck(anyLong(), anyBoolean());
     }
 
     @Test
@@ -346,11 +367,11 @@ class TaskNotificationConsumerTest {
         // Arrange
         NotificationDto notification = createMockNotificationDto(1L, 200L, "Removed from task");
         when(notificationService.createBulkNotifications(anyList())).thenReturn(List.of(notification));
-        when(userManagementService.getUserById(200L))
-                .thenReturn(new UserResponseDto(200L, "User1", "user1@test.com", "STAFF", true, "Engineering", UUID.randomUUID()));
+        when(recipientProfileCache.getAll(anyCollection()))
+                .thenReturn(profiles(new RecipientProfile(200L, "user1@test.com", "User1", true)));
 
         // Act
-        taskNotificationConsumer.handleTaskNotification(taskUnassignedMessage);
+        deliver(taskUnassignedMessage);
 
         // Assert
         ArgumentCaptor<List<CreateNotificationDto>> captor = ArgumentCaptor.forClass(List.class);
@@ -383,7 +404,7 @@ class TaskNotificationConsumerTest {
                 .build();
 
         // Act
-        taskNotificationConsumer.handleTaskNotification(selfRemovalMessage);
+        deliver(selfRemovalMessage);
 
         // Assert - Should not create notification for self-removal
         verify(notificationService, never()).createBulkNotifications(anyList());
@@ -398,15 +419,13 @@ class TaskNotificationConsumerTest {
 
         when(notificationService.createBulkNotifications(anyList()))
                 .thenReturn(List.of(notification1, notification2));
-        when(userManagementService.getUserById(100L))
-                .thenReturn(new UserResponseDto(100L, "Editor", "editor@test.com", "STAFF", true, "Engineering", UUID.randomUUID()));
-        when(userManagementService.getUserById(200L))
-                .thenReturn(new UserResponseDto(200L, "User1", "user1@test.com", "STAFF", true, "Engineering", UUID.randomUUID()));
-        when(userManagementService.getUserById(300L))
-                .thenReturn(new UserResponseDto(300L, "User2", "user2@test.com", "STAFF", true, "Engineering", UUID.randomUUID()));
+        when(recipientProfileCache.getAll(anyCollection())).thenReturn(profiles(
+                new RecipientProfile(100L, "editor@test.com", "Editor", true),
+                new RecipientProfile(200L, "user1@test.com", "User1", true),
+                new RecipientProfile(300L, "user2@test.com", "User2", true)));
 
         // Act
-        taskNotificationConsumer.handleTaskNotification(statusUpdatedMessage);
+        deliver(statusUpdatedMessage);
 
         // Assert
         ArgumentCaptor<List<CreateNotificationDto>> captor = ArgumentCaptor.forClass(List.class);
@@ -442,13 +461,12 @@ class TaskNotificationConsumerTest {
 
         NotificationDto notification = createMockNotificationDto(1L, 200L, "Task status updated");
         when(notificationService.createBulkNotifications(anyList())).thenReturn(List.of(notification));
-        when(userManagementService.getUserById(100L))
-                .thenReturn(new UserResponseDto(100L, "Editor", "editor@test.com", "STAFF", true, "Engineering", UUID.randomUUID()));
-        when(userManagementService.getUserById(200L))
-                .thenReturn(new UserResponseDto(200L, "User1", "user1@test.com", "STAFF", true, "Engineering", UUID.randomUUID()));
+        when(recipientProfileCache.getAll(anyCollection())).thenReturn(profiles(
+                new RecipientProfile(100L, "editor@test.com", "Editor", true),
+                new RecipientProfile(200L, "user1@test.com", "User1", true)));
 
         // Act
-        taskNotificationConsumer.handleTaskNotification(editorIsAssigneeMessage);
+        deliver(editorIsAssigneeMessage);
 
         // Assert - Should only notify user 200, not the editor (100)
         ArgumentCaptor<List<CreateNotificationDto>> captor = ArgumentCaptor.forClass(List.class);
@@ -466,13 +484,12 @@ class TaskNotificationConsumerTest {
         // Arrange
         NotificationDto notification = createMockNotificationDto(1L, 200L, "Task status updated");
         when(notificationService.createBulkNotifications(anyList())).thenReturn(List.of(notification));
-        when(userManagementService.getUserById(100L))
-                .thenReturn(new UserResponseDto(100L, "Editor", "editor@test.com", "STAFF", true, "Engineering", UUID.randomUUID()));
-        when(userManagementService.getUserById(200L))
-                .thenReturn(new UserResponseDto(200L, "User1", "user1@test.com", "STAFF", true, "Engineering", UUID.randomUUID()));
+        when(recipientProfileCache.getAll(anyCollection())).thenReturn(profiles(
+                new RecipientProfile(100L, "editor@test.com", "Editor", true),
+                new RecipientProfile(200L, "user1@test.com", "User1", true)));
 
         // Act
-        taskNotificationConsumer.handleTaskNotification(statusUpdatedMessage);
+        deliver(statusUpdatedMessage);
 
         // Assert - Check that link contains highlight parameter
         ArgumentCaptor<List<CreateNotificationDto>> captor = ArgumentCaptor.forClass(List.class);
@@ -487,11 +504,11 @@ class TaskNotificationConsumerTest {
         // Arrange
         NotificationDto notification = createMockNotificationDto(1L, 200L, "Task assigned");
         when(notificationService.createBulkNotifications(anyList())).thenReturn(List.of(notification));
-        when(userManagementService.getUserById(200L))
-                .thenReturn(new UserResponseDto(200L, "User1", "user1@test.com", "STAFF", true, "Engineering", UUID.randomUUID()));
+        when(recipientProfileCache.getAll(anyCollection()))
+                .thenReturn(profiles(new RecipientProfile(200L, "user1@test.com", "User1", true)));
 
         // Act
-        taskNotificationConsumer.handleTaskNotification(taskAssignedMessage);
+        deliver(taskAssignedMessage);
 
         // Assert - Check that link contains assignees highlight parameter
         ArgumentCaptor<List<CreateNotificationDto>> captor = ArgumentCaptor.forClass(List.class);
@@ -506,11 +523,11 @@ class TaskNotificationConsumerTest {
         // Arrange
         NotificationDto notification = createMockNotificationDto(1L, 200L, "Removed from task");
         when(notificationService.createBulkNotifications(anyList())).thenReturn(List.of(notification));
-        when(userManagementService.getUserById(200L))
-                .thenReturn(new UserResponseDto(200L, "User1", "user1@test.com", "STAFF", true, "Engineering", UUID.randomUUID()));
+        when(recipientProfileCache.getAll(anyCollection()))
+                .thenReturn(profiles(new RecipientProfile(200L, "user1@test.com", "User1", true)));
 
         // Act
-        taskNotificationConsumer.handleTaskNotification(taskUnassignedMessage);
+        deliver(taskUnassignedMessage);
 
         // Assert - Check that link contains assignees highlight parameter
         ArgumentCaptor<List<CreateNotificationDto>> captor = ArgumentCaptor.forClass(List.class);
@@ -520,6 +537,135 @@ class TaskNotificationConsumerTest {
         assert capturedNotifications.get(0).getLink().contains("?highlight=assignees");
     }
 
+    @Test
+    void testHandleStatusUpdated_Coalesced_NotStoredDirectly() {
+        // Arrange
+        when(notificationCoalescer.coalesces(6L, "STATUS_UPDATED")).thenReturn(true);
+
+        // Act
+        deliver(statusUpdatedMessage);
+
+        // Assert
+        ArgumentCaptor<List<CreateNotificationDto>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationCoalescer).offer(eq(6L), eq("STATUS_UPDATED"), captor.capture());
+        assert captor.getValue().size() == 2;
+        verify(notificationService, never()).createBulkNotifications(anyList());
+        verify(emailService, never()).sendHtmlEmail(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void testHandleTaskNotifications_Batch_OneInsertAndOneUserLookup() throws Exception {
+        // Arrange
+        com.rabbitmq.client.Channel channel = mock(com.rabbitmq.client.Channel.class);
+        NotificationDto notification1 = createMockNotificationDto(1L, 200L, "Task assigned");
+        NotificationDto notification2 = createMockNotificationDto(2L, 300L, "Task created");
+        when(notificationService.createBulkNotifications(anyList())).thenReturn(List.of(notification1, notification2));
+        when(recipientProfileCache.getAll(anyCollection())).thenReturn(profiles(
+                new RecipientProfile(200L, "user1@test.com", "User1", true),
+                new RecipientProfile(300L, "user2@test.com", "User2", true)));
+
+        // Act
+        taskNotificationConsumer.handleTaskNotifications(
+                List.of(toAmqpMessage(taskAssignedMessage, 1L), toAmqpMessage(taskCreatedMessage, 2L)), channel);
+
+        // Assert - three notifications from two messages stored in one call
+        ArgumentCaptor<List<CreateNotificationDto>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationService).createBulkNotifications(captor.capture());
+        assert captor.getValue().size() == 3;
+        verify(recipientProfileCache).getAll(anyCollection());
+        verify(emailService, times(2)).sendHtmlEmail(anyString(), anyString(), anyString());
+        verify(channel).basicAck(1L, false);
+        verify(channel).basicAck(2L, false);
+        verify(channel, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    void testHandleTaskNotifications_FailedMessage_RejectedToDeadLetterQueue() throws Exception {
+        // Arrange - the batch insert fails, then only the message for user 300 keeps failing on its own
+        com.rabbitmq.client.Channel channel = mock(com.rabbitmq.client.Channel.class);
+        Message unreadable = new Message("not json".getBytes(), deliveryProperties(3L));
+        when(notificationService.createBulkNotifications(anyList())).thenAnswer(invocation -> {
+            List<CreateNotificationDto> dtos = invocation.getArgument(0);
+            if (dtos.stream().anyMatch(dto -> dto.getTargetId().equals(300L))) {
+                throw new RuntimeException("constraint violation");
+            }
+            return List.of(createMockNotificationDto(1L, 200L, "Task assigned"));
+        });
+
+        // Act
+        taskNotificationConsumer.handleTaskNotifications(
+                List.of(toAmqpMessage(taskAssignedMessage, 1L), toAmqpMessage(taskCreatedMessage, 2L), unreadable), channel);
+
+        // Assert
+        verify(notificationService, times(3)).createBulkNotifications(anyList());
+        verify(channel).basicAck(1L, false);
+        verify(channel).basicNack(2L, false, false);
+        verify(channel).basicNack(3L, false, false);
+        verify(notificationPushService, times(1)).push(anyList());
+    }
+
+    @Test
+    void testHandleTaskNotifications_FailedBatchReplayed_OffersCoalescedOnce() throws Exception {
+        // Arrange - the batch insert fails, so both messages are replayed on their own
+        com.rabbitmq.client.Channel channel = mock(com.rabbitmq.client.Channel.class);
+        lenient().when(notificationCoalescer.coalesces(6L, "STATUS_UPDATED")).thenReturn(true);
+        when(notificationService.createBulkNotifications(anyList()))
+                .thenThrow(new RuntimeException("connection reset"))
+                .thenReturn(List.of(createMockNotificationDto(1L, 200L, "Task assigned")));
+
+        // Act
+        taskNotificationConsumer.handleTaskNotifications(
+                List.of(toAmqpMessage(taskAssignedMessage, 1L), toAmqpMessage(statusUpdatedMessage, 2L)), channel);
+
+        // Assert - the status update reached the coalescer only from its replay
+        verify(notificationService, times(2)).createBulkNotifications(anyList());
+        verify(notificationCoalescer, times(1)).offer(eq(6L), eq("STATUS_UPDATED"), anyList());
+        verify(channel).basicAck(1L, false);
+        verify(channel).basicAck(2L, false);
+        verify(channel, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+    }
+
+    @Test
+    void testHandleTaskNotifications_BufferingFails_RolledBackAndRejected() throws Exception {
+        // Arrange - the task assignment is stored, then buffering the status update fails
+        lenient().when(notificationCoalescer.coalesces(6L, "STATUS_UPDATED")).thenReturn(true);
+        when(notificationService.createBulkNotifications(anyList()))
+                .thenReturn(List.of(createMockNotificationDto(1L, 200L, "Task assigned")));
+        doThrow(new RuntimeException("connection reset"))
+                .when(notificationCoalescer).offer(eq(6L), eq("STATUS_UPDATED"), anyList());
+
+        // Act
+        taskNotificationConsumer.handleTaskNotifications(
+                List.of(toAmqpMessage(taskAssignedMessage, 1L), toAmqpMessage(statusUpdatedMessage, 2L)), amqpChannel);
+
+        // Assert - the batch insert is rolled back with it, and only the status update ends up rejected
+        verify(transactionManager, times(2)).rollback(any());
+        verify(amqpChannel).basicAck(1L, false);
+        verify(amqpChannel).basicNack(2L, false, false);
+        verify(notificationPushService, times(1)).push(anyList());
+    }
+
+    /**
+     * Delivers the message through the batch listener as a batch of one
+     */
+    private void deliver(TaskNotificationMessageDto message) {
+        try {
+            taskNotificationConsumer.handleTaskNotifications(List.of(toAmqpMessage(message, 1L)), amqpChannel);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Message toAmqpMessage(TaskNotificationMessageDto dto, long deliveryTag) {
+        return new Jackson2JsonMessageConverter().toMessage(dto, deliveryProperties(deliveryTag));
+    }
+
+    private MessageProperties deliveryProperties(long deliveryTag) {
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        return properties;
+    }
+
     private NotificationDto createMockNotificationDto(Long id, Long targetId, String subject) {
         return NotificationDto.builder()
                 .notificationId(id)
@@ -537,4 +683,12 @@ class TaskNotificationConsumerTest {
                 .readAt(null)
                 .build();
     }
+
+    private static Map<Long, RecipientProfile> profiles(RecipientProfile... profiles) {
+        Map<Long, RecipientProfile> byId = new HashMap<>();
+        for (RecipientProfile profile : profiles) {
+            byId.put(profile.id(), profile);
+        }
+        return byId;
+    }
 }
@@ -0,0 +1,128 @@
+package com.spmorangle.crm.notification.messaging.outbox;
+
+import com.spmorangle.crm.notification.model.NotificationOutboxMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.ConnectException;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationOutboxRelay Tests")
+class NotificationOutboxRelayTest {
+
+    @Mock
+    private NotificationOutbox notificationOutbox;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private ConnectionFactory connectionFactory;
+
+    @InjectMocks
+    private NotificationOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        when(rabbitTemplate.getConnectionFactory()).thenReturn(connectionFactory);
+        when(connectionFactory.isPublisherConfirms()).thenReturn(true);
+        // Only explicit relay() calls in these tests
+        ReflectionTestUtils.setField(relay, "enabled", false);
+        ReflectionTestUtils.setField(relay, "confirmTimeoutMillis", 200L);
+        relay.start();
+    }
+
+    @Test
+    @DisplayName("Should delete confirmed messages and retry nacked ones")
+    void relay_MixedConfirms_DeletesAckedAndRetriesNacked() {
+        NotificationOutboxMessage acked = message(1L);
+        NotificationOutboxMessage nacked = message(2L);
+        when(notificationOutbox.claim(anyInt(), any())).thenReturn(List.of(acked, nacked));
+        doAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(3);
+            correlation.getFuture().complete(new CorrelationData.Confirm("1".equals(correlation.getId()), "queue full"));
+            return null;
+        }).when(rabbitTemplate).send(eq("notification.exchange"), eq("notification.task.created"), any(Message.class), any(CorrelationData.class));
+
+        assertThat(relay.relay()).isEqualTo(2);
+
+        verify(notificationOutbox).delete(List.of(1L));
+        verify(notificationOutbox).retry(List.of(nacked), "Nacked by broker: queue full");
+        assertThat(relay.stats().published()).isEqualTo(1);
+        assertThat(relay.stats().failed()).isEqualTo(1);
+        assertThat(relay.stats().inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should publish the stored payload and type header unchanged")
+    void relay_PublishesStoredPayload() {
+        when(notificationOutbox.claim(anyInt(), any())).thenReturn(List.of(message(1L)));
+        doAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(3);
+            correlation.getFuture().complete(new CorrelationData.Confirm(true, null));
+            return null;
+        }).when(rabbitTemplate).send(any(), any(), any(Message.class), any(CorrelationData.class));
+
+        relay.relay();
+
+        ArgumentCaptor<Message> captor = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate).send(any(), any(), captor.capture(), any(CorrelationData.class));
+        assertThat(new String(captor.getValue().getBody())).isEqualTo("{\"taskId\":1}");
+        assertThat(captor.getValue().getMessageProperties().getContentType()).isEqualTo("application/json");
+        assertThat(captor.getValue().getMessageProperties().getMessageId()).isEqualTo("msg-1");
+        assertThat((String) captor.getValue().getMessageProperties().getHeader("__TypeId__"))
+            .isEqualTo("com.spmorangle.crm.notification.messaging.dto.TaskNotificationMessageDto");
+    }
+
+    @Test
+    @DisplayName("Should retry the rest of the batch when the broker is unreachable")
+    void relay_BrokerDown_RetriesWholeBatch() {
+        List<NotificationOutboxMessage> batch = List.of(message(1L), message(2L), message(3L));
+        when(notificationOutbox.claim(anyInt(), any())).thenReturn(batch);
+        doThrow(new AmqpConnectException(new ConnectException("Connection refused")))
+            .when(rabbitTemplate).send(any(), any(), any(Message.class), any(CorrelationData.class));
+
+        relay.relay();
+
+        verify(rabbitTemplate, times(1)).send(any(), any(), any(Message.class), any(CorrelationData.class));
+        verify(notificationOutbox).delete(List.of());
+        verify(notificationOutbox).retry(eq(batch), any());
+        assertThat(relay.stats().failed()).isEqualTo(3);
+    }
+
+    private NotificationOutboxMessage message(Long id) {
+        return NotificationOutboxMessage.builder()
+                .id(id)
+                .exchange("notification.exchange")
+                .routingKey("notification.task.created")
+                .messageId("msg-" + id)
+                .typeId("com.spmorangle.crm.notification.messaging.dto.TaskNotificationMessageDto")
+                .payload("{\"taskId\":" + id + "}")
+                .createdAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.spmorangle.crm.notification.messaging.outbox;
+
+import com.spmorangle.crm.notification.messaging.dto.TaskNotificationMessageDto;
+import com.spmorangle.crm.notification.model.NotificationOutboxMessage;
+import com.spmorangle.crm.notification.repository.NotificationOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationOutbox Tests")
+class NotificationOutboxTest {
+
+    @Mock
+    private NotificationOutboxRepository notificationOutboxRepository;
+
+    private NotificationOutbox notificationOutbox;
+
+    @BeforeEach
+    void setUp() {
+        notificationOutbox = new NotificationOutbox(notificationOutboxRepository, new Jackson2JsonMessageConverter());
+    }
+
+    @Test
+    @DisplayName("Should store the message as the template would have sent it")
+    void enqueue_StoresSerializedMessage() {
+        when(notificationOutboxRepository.save(any(NotificationOutboxMessage.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        TaskNotificationMessageDto message = TaskNotificationMessageDto.forTaskCreated(1L, 100L, 10L, "Task", "Description", List.of(200L));
+
+        NotificationOutboxMessage stored = notificationOutbox.enqueue("notification.exchange", message.getRoutingKey(),
+                message, message.getMessageId());
+
+        assertThat(stored.getRoutingKey()).isEqualTo(message.getRoutingKey());
+        assertThat(stored.getMessageId()).isEqualTo(message.getMessageId());
+        assertThat(stored.getTypeId()).isEqualTo(TaskNotificationMessageDto.class.getName());
+        assertThat(stored.getPayload()).contains("\"taskId\":1").contains("\"assignedUserIds\":[200]");
+        assertThat(stored.getNextAttemptAt()).isBeforeOrEqualTo(Instant.now());
+    }
+
+    @Test
+    @DisplayName("Should back off exponentially up to the cap")
+    void retry_BacksOffPerAttempt() {
+        NotificationOutboxMessage message = NotificationOutboxMessage.builder().id(1L).attempts(2).build();
+
+        notificationOutbox.retry(List.of(message), "Publisher confirm timed out");
+
+        assertThat(message.getAttempts()).isEqualTo(3);
+        assertThat(message.getLastError()).isEqualTo("Publisher confirm timed out");
+        assertThat(message.getNextAttemptAt()).isAfter(Instant.now().plusMillis(3_000));
+        assertThat(notificationOutbox.backoffMillis(30)).isEqualTo(300_000);
+        verify(notificationOutboxRepository).saveAll(List.of(message));
+    }
+}
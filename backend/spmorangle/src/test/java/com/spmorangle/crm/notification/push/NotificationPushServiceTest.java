@@ -0,0 +1,118 @@
+package com.spmorangle.crm.notification.push;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import com.spmorangle.crm.notification.dto.NotificationDto;
+import com.spmorangle.crm.notification.dto.NotificationPushDto;
+import com.spmorangle.crm.notification.repository.NotificationRepository;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationPushService Tests")
+class NotificationPushServiceTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @InjectMocks
+    private NotificationPushService pushService;
+
+    @Test
+    @DisplayName("Should coalesce a burst for one user into a single push with the unread count")
+    void flush_BurstForOneUser_SendsOneMessage() {
+        when(notificationRepository.countUnreadByTargetIds(anyCollection()))
+            .thenReturn(List.<Object[]>of(new Object[]{200L, 7L}, new Object[]{300L, 1L}));
+
+        pushService.push(List.of(notification(1L, 200L), notification(2L, 200L)));
+        pushService.push(List.of(notification(3L, 200L), notification(4L, 300L)));
+        pushService.flush();
+
+        ArgumentCaptor<NotificationPushDto> captor = ArgumentCaptor.forClass(NotificationPushDto.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/notifications/200"), captor.capture());
+        assertThat(captor.getValue().getNotifications()).extracting(NotificationDto::getNotificationId)
+            .containsExactly(1L, 2L, 3L);
+        assertThat(captor.getValue().getUnreadCount()).isEqualTo(7);
+        assertThat(captor.getValue().isTruncated()).isFalse();
+        verify(messagingTemplate).convertAndSend(eq("/topic/notifications/300"), any(NotificationPushDto.class));
+        // Both users' counts come from one grouped query
+        verify(notificationRepository, times(1)).countUnreadByTargetIds(anyCollection());
+        assertThat(pushService.pendingUsers()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep only the newest notifications per user and flag the push as truncated")
+    void push_OverPerUserLimit_DropsOldest() {
+        when(notificationRepository.countUnreadByTargetIds(anyCollection())).thenReturn(Collections.emptyList());
+        List<NotificationDto> burst = new ArrayList<>();
+        for (long id = 1; id <= 25; id++) {
+            burst.add(notification(id, 200L));
+        }
+
+        pushService.push(burst);
+        pushService.flush();
+
+        ArgumentCaptor<NotificationPushDto> captor = ArgumentCaptor.forClass(NotificationPushDto.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/notifications/200"), captor.capture());
+        assertThat(captor.getValue().getNotifications()).hasSize(20);
+        assertThat(captor.getValue().getNotifications().get(0).getNotificationId()).isEqualTo(6L);
+        assertThat(captor.getValue().isTruncated()).isTrue();
+        assertThat(captor.getValue().getUnreadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not query or send when nothing is pending")
+    void flush_NothingPending_DoesNothing() {
+        pushService.push(List.of(notification(1L, null)));
+        pushService.flush();
+
+        verify(notificationRepository, never()).countUnreadByTargetIds(anyCollection());
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    @DisplayName("Should keep pushing to other users when one send is rejected")
+    void flush_SendRejected_ContinuesWithOtherUsers() {
+        when(notificationRepository.countUnreadByTargetIds(anyCollection())).thenReturn(Collections.emptyList());
+        doThrow(new MessageDeliveryException("queue full"))
+            .when(messagingTemplate).convertAndSend(eq("/topic/notifications/200"), any(Object.class));
+
+        pushService.push(List.of(notification(1L, 200L), notification(2L, 300L)));
+        pushService.flush();
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/notifications/300"), any(Object.class));
+    }
+
+    private static NotificationDto notification(Long id, Long targetId) {
+        return NotificationDto.builder()
+            .notificationId(id)
+            .authorId(100L)
+            .targetId(targetId)
+            .subject("Subject " + id)
+            .build();
+    }
+}
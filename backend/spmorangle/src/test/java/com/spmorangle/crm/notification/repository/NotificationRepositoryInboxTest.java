@@ -0,0 +1,120 @@
+package com.spmorangle.crm.notification.repository;
+
+import com.spmorangle.common.enums.NotificationType;
+import com.spmorangle.crm.notification.dto.NotificationInboxRequestDto;
+import com.spmorangle.crm.notification.enums.Channel;
+import com.spmorangle.crm.notification.enums.Priority;
+import com.spmorangle.crm.notification.model.Notification;
+import com.spmorangle.crm.notification.util.NotificationCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@DisplayName("NotificationRepository inbox Tests")
+class NotificationRepositoryInboxTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private static final Long USER_ID = 10L;
+    private static final Instant BASE = Instant.parse("2025-01-01T09:00:00Z");
+
+    private List<Long> newestFirst;
+
+    @BeforeEach
+    void setUp() {
+        // n2 and n3 share a timestamp so the id tie-breaker is exercised
+        Notification n1 = persist(USER_ID, BASE, false, false, NotificationType.MENTION);
+        Notification n2 = persist(USER_ID, BASE.plusSeconds(60), true, false, NotificationType.TASK_ASSIGNED);
+        Notification n3 = persist(USER_ID, BASE.plusSeconds(60), false, false, NotificationType.MENTION);
+        Notification n4 = persist(USER_ID, BASE.plusSeconds(120), false, true, NotificationType.MENTION);
+        Notification n5 = persist(USER_ID, BASE.plusSeconds(180), false, false, NotificationType.TASK_ASSIGNED);
+        persist(11L, BASE.plusSeconds(240), false, false, NotificationType.MENTION);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        newestFirst = List.of(n5.getNotificationId(), n3.getNotificationId(), n2.getNotificationId(), n1.getNotificationId());
+    }
+
+    @Test
+    @DisplayName("Should walk the active inbox newest first across pages without gaps or repeats")
+    void findInboxPage_WalksAllPages() {
+        NotificationInboxRequestDto request = NotificationInboxRequestDto.builder().build();
+        List<Long> seen = new ArrayList<>();
+        NotificationCursor after = null;
+
+        for (int i = 0; i < 10; i++) {
+            List<NotificationInboxRow> page = notificationRepository.findInboxPage(USER_ID, request, after, 2);
+            page.forEach(row -> seen.add(row.notificationId()));
+            if (page.size() < 2) {
+                break;
+            }
+            NotificationInboxRow last = page.get(page.size() - 1);
+            after = new NotificationCursor(last.createdAt(), last.notificationId());
+        }
+
+        assertThat(seen).containsExactlyElementsOf(newestFirst);
+    }
+
+    @Test
+    @DisplayName("Should apply filters and leave the message out unless asked for")
+    void findInboxPage_FiltersAndProjection() {
+        NotificationInboxRequestDto unreadMentions = NotificationInboxRequestDto.builder()
+                .unreadOnly(true)
+                .notificationType(NotificationType.MENTION)
+                .build();
+        List<NotificationInboxRow> rows = notificationRepository.findInboxPage(USER_ID, unreadMentions, null, 10);
+
+        assertThat(rows).extracting(NotificationInboxRow::notificationId)
+                .containsExactly(newestFirst.get(1), newestFirst.get(3));
+        assertThat(rows).allSatisfy(row -> {
+            assertThat(row.message()).isNull();
+            assertThat(row.subject()).isNotNull();
+        });
+
+        NotificationInboxRequestDto withMessage = NotificationInboxRequestDto.builder().includeMessage(true).build();
+        assertThat(notificationRepository.findInboxPage(USER_ID, withMessage, null, 1).get(0).message())
+                .isEqualTo("Message");
+    }
+
+    @Test
+    @DisplayName("Should load the channels of a page in one lookup")
+    void findChannelsByNotificationIds_GroupsByNotification() {
+        Map<Long, List<Channel>> channels = notificationRepository.findChannelsByNotificationIds(newestFirst);
+
+        assertThat(channels).hasSize(newestFirst.size());
+        assertThat(channels.get(newestFirst.get(0))).containsExactlyInAnyOrder(Channel.IN_APP, Channel.EMAIL);
+        assertThat(notificationRepository.findChannelsByNotificationIds(List.of())).isEmpty();
+    }
+
+    private Notification persist(Long targetId, Instant createdAt, boolean read, boolean dismissed, NotificationType type) {
+        Notification notification = Notification.builder()
+                .authorId(99L)
+                .targetId(targetId)
+                .notificationType(type)
+                .subject("Subject")
+                .message("Message")
+                .channels(new ArrayList<>(List.of(Channel.IN_APP, Channel.EMAIL)))
+                .priority(Priority.MEDIUM)
+                .readStatus(read)
+                .dismissedStatus(dismissed)
+                .createdAt(createdAt)
+                .build();
+        return entityManager.persist(notification);
+    }
+}
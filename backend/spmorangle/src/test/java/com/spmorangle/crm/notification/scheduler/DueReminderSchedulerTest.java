@@ -0,0 +1,136 @@
+package com.spmorangle.crm.notification.scheduler;
+
+import com.spmorangle.crm.notification.scheduler.DueReminderScheduler.Deadline;
+import com.spmorangle.crm.notification.scheduler.DueReminderScheduler.ReminderKind;
+import com.spmorangle.crm.notification.service.OverdueTaskCheckerService;
+import com.spmorangle.crm.notification.service.PreDueTaskCheckerService;
+import com.spmorangle.crm.taskmanagement.event.TaskDeadlineChangedEvent;
+import com.spmorangle.crm.taskmanagement.repository.TaskRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DueReminderScheduler Tests")
+class DueReminderSchedulerTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private PreDueTaskCheckerService preDueTaskCheckerService;
+
+    @Mock
+    private OverdueTaskCheckerService overdueTaskCheckerService;
+
+    @InjectMocks
+    private DueReminderScheduler scheduler;
+
+    private static final long NOW = Instant.parse("2025-06-01T12:00:00Z").toEpochMilli();
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    @Test
+    @DisplayName("Should queue the pre due deadline 24h ahead and the overdue deadline 24h after due")
+    void schedule_StandardTask_QueuesBothDeadlines() {
+        scheduler.schedule(event(1L, NOW + 30 * HOUR, false), NOW);
+
+        assertThat(scheduler.pendingFireTime(ReminderKind.PRE_DUE, 1L)).isEqualTo(NOW + 6 * HOUR + 1_000L);
+        // The overdue deadline is 54h away, beyond the 48h horizon; reconciliation picks it up later
+        assertThat(scheduler.pendingFireTime(ReminderKind.OVERDUE, 1L)).isNull();
+        assertThat(scheduler.queuedDeadlines()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should use the 12h lead once a task is rescheduled and skip pre due for past due dates")
+    void schedule_RescheduledAndPastDue_UsesMatchingLeads() {
+        scheduler.schedule(event(1L, NOW + 20 * HOUR, true), NOW);
+        scheduler.schedule(event(2L, NOW - 2 * HOUR, false), NOW);
+
+        assertThat(scheduler.pendingFireTime(ReminderKind.PRE_DUE, 1L)).isEqualTo(NOW + 8 * HOUR + 1_000L);
+        assertThat(scheduler.pendingFireTime(ReminderKind.PRE_DUE, 2L)).isNull();
+        assertThat(scheduler.pendingFireTime(ReminderKind.OVERDUE, 2L)).isEqualTo(NOW + 22 * HOUR + 1_000L);
+    }
+
+    @Test
+    @DisplayName("Should not queue the same deadline twice when reconciliation reloads it")
+    void schedule_SameDeadline_QueuedOnce() {
+        scheduler.schedule(event(1L, NOW + 10 * HOUR, false), NOW);
+        scheduler.schedule(event(1L, NOW + 10 * HOUR, false), NOW);
+
+        assertThat(scheduler.queuedDeadlines()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should drop superseded and cancelled deadlines when they expire")
+    void dispatch_StaleEntries_AreIgnored() {
+        long originalDue = NOW + 10 * HOUR;
+        scheduler.schedule(event(1L, originalDue, false), NOW);
+        long originalFireAt = scheduler.pendingFireTime(ReminderKind.PRE_DUE, 1L);
+        scheduler.schedule(event(1L, NOW + 20 * HOUR, true), NOW);
+        scheduler.schedule(event(2L, NOW + 10 * HOUR, false), NOW);
+        long cancelledFireAt = scheduler.pendingFireTime(ReminderKind.PRE_DUE, 2L);
+        scheduler.schedule(new TaskDeadlineChangedEvent(2L, null, false, false, false, false), NOW);
+
+        scheduler.dispatch(List.of(
+                new Deadline(1L, ReminderKind.PRE_DUE, originalFireAt),
+                new Deadline(2L, ReminderKind.PRE_DUE, cancelledFireAt)));
+
+        verify(preDueTaskCheckerService, never()).notifyPreDueTasks(anyCollection());
+        verify(overdueTaskCheckerService, never()).notifyOverdueTasks(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should hand current deadlines to the matching reminder service")
+    void dispatch_CurrentEntries_NotifiesServices() {
+        scheduler.schedule(event(1L, NOW + 10 * HOUR, false), NOW);
+        scheduler.schedule(event(2L, NOW - 2 * HOUR, false), NOW);
+
+        scheduler.dispatch(List.of(
+                new Deadline(1L, ReminderKind.PRE_DUE, scheduler.pendingFireTime(ReminderKind.PRE_DUE, 1L)),
+                new Deadline(2L, ReminderKind.OVERDUE, scheduler.pendingFireTime(ReminderKind.OVERDUE, 2L))));
+
+        verify(preDueTaskCheckerService).notifyPreDueTasks(List.of(1L));
+        verify(overdueTaskCheckerService).notifyOverdueTasks(List.of(2L));
+        assertThat(scheduler.pendingFireTime(ReminderKind.PRE_DUE, 1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reload only the due dates whose reminders fall inside the horizon")
+    void reload_QueriesEachReminderWithinTheHorizon() {
+        ArgumentCaptor<OffsetDateTime> now = ArgumentCaptor.forClass(OffsetDateTime.class);
+        ArgumentCaptor<OffsetDateTime> preDueUntil = ArgumentCaptor.forClass(OffsetDateTime.class);
+        ArgumentCaptor<OffsetDateTime> overdueFrom = ArgumentCaptor.forClass(OffsetDateTime.class);
+        ArgumentCaptor<OffsetDateTime> overdueUntil = ArgumentCaptor.forClass(OffsetDateTime.class);
+        when(taskRepository.findTasksWithPendingRemindersInWindow(now.capture(), preDueUntil.capture(),
+                overdueFrom.capture(), overdueUntil.capture())).thenReturn(List.of());
+
+        scheduler.reload();
+
+        // Pre due: due before the horizon plus the lead; overdue: fires between now and the horizon
+        assertThat(Duration.between(now.getValue(), preDueUntil.getValue())).isEqualTo(Duration.ofHours(72));
+        assertThat(Duration.between(overdueFrom.getValue(), now.getValue())).isEqualTo(Duration.ofHours(24));
+        assertThat(Duration.between(now.getValue(), overdueUntil.getValue())).isEqualTo(Duration.ofHours(24));
+    }
+
+    private static TaskDeadlineChangedEvent event(Long taskId, long dueMillis, boolean rescheduled) {
+        OffsetDateTime due = Instant.ofEpochMilli(dueMillis).atOffset(ZoneOffset.UTC);
+        return new TaskDeadlineChangedEvent(taskId, due, rescheduled, false, false, true);
+    }
+}
@@ -0,0 +1,71 @@
+package com.spmorangle.crm.notification.scheduler;
+
+import com.spmorangle.crm.notification.archive.NotificationArchiver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationRetentionScheduler Tests")
+class NotificationRetentionSchedulerTest {
+
+    @Mock
+    private NotificationArchiver notificationArchiver;
+
+    @InjectMocks
+    private NotificationRetentionScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(scheduler, "batchSize", 2);
+        ReflectionTestUtils.setField(scheduler, "pauseMillis", 0L);
+    }
+
+    @Test
+    @DisplayName("Should archive and purge in batches until a batch comes back short")
+    void runRetention_DrainsBothStagesInBatches() {
+        when(notificationArchiver.archiveBatch(any(Instant.class), eq(2))).thenReturn(2, 2, 1);
+        when(notificationArchiver.purgeArchiveBatch(any(Instant.class), eq(2))).thenReturn(0);
+
+        scheduler.runRetention();
+
+        ArgumentCaptor<Instant> archiveCutoff = ArgumentCaptor.forClass(Instant.class);
+        verify(notificationArchiver, times(3)).archiveBatch(archiveCutoff.capture(), eq(2));
+        ArgumentCaptor<Instant> purgeCutoff = ArgumentCaptor.forClass(Instant.class);
+        verify(notificationArchiver).purgeArchiveBatch(purgeCutoff.capture(), eq(2));
+        assertThat(archiveCutoff.getValue()).isCloseTo(Instant.now().minus(30, ChronoUnit.DAYS), within(5, ChronoUnit.SECONDS));
+        assertThat(purgeCutoff.getValue()).isCloseTo(Instant.now().minus(365, ChronoUnit.DAYS), within(5, ChronoUnit.SECONDS));
+        assertThat(scheduler.stats().archived()).isEqualTo(5);
+        assertThat(scheduler.stats().purged()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should stop at the batch limit and leave the rest for the next run")
+    void runRetention_StopsAtBatchLimit() {
+        ReflectionTestUtils.setField(scheduler, "maxBatches", 3);
+        when(notificationArchiver.archiveBatch(any(Instant.class), eq(2))).thenReturn(2);
+        when(notificationArchiver.purgeArchiveBatch(any(Instant.class), eq(2))).thenReturn(0);
+
+        scheduler.runRetention();
+
+        verify(notificationArchiver, times(3)).archiveBatch(any(Instant.class), eq(2));
+        assertThat(scheduler.stats().archived()).isEqualTo(6);
+    }
+}
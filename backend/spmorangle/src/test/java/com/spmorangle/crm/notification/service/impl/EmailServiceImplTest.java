@@ -6,15 +6,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import com.spmorangle.crm.notification.email.EmailOutbox;
 import com.spmorangle.crm.notification.service.EmailService;
 
-import jakarta.mail.internet.MimeMessage;
-
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,10 +21,7 @@ import static org.mockito.Mockito.*;
 class EmailServiceImplTest {
 
     @Mock
-    private JavaMailSender mailSender;
-
-    @Mock
-    private MimeMessage mimeMessage;
+    private EmailOutbox emailOutbox;
 
     @Mock
     private com.spmorangle.crm.taskmanagement.service.TaskService taskService;
@@ -40,45 +36,53 @@ class EmailServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        emailService = new EmailServiceImpl(mailSender, taskService, userManagementService, emailTemplateService);
-        ReflectionTestUtils.setField(emailService, "fromEmail", "test@spmorangle.com");
+        emailService = new EmailServiceImpl(emailOutbox, taskService, userManagementService, emailTemplateService);
         ReflectionTestUtils.setField(emailService, "frontendBaseUrl", "http://localhost:3000");
     }
 
     @Test
-    @DisplayName("Should send plain text email successfully")
+    @DisplayName("Should queue plain text email")
     void shouldSendPlainTextEmail() {
         // Arrange
         String toEmail = "user@example.com";
         String subject = "Test Subject";
         String body = "Test Body Content";
 
-        when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-
         // Act
-        assertDoesNotThrow(() -> emailService.sendEmail(toEmail, subject, body));
+        assertDoesNotThrow(() -> emailService.sendEmail(toEmail, subject, body).join());
 
         // Assert
-        verify(mailSender, times(1)).createMimeMessage();
-        verify(mailSender, times(1)).send(any(MimeMessage.class));
+        verify(emailOutbox, times(1)).enqueue(toEmail, subject, body, false);
     }
 
     @Test
-    @DisplayName("Should send HTML email successfully")
+    @DisplayName("Should queue HTML email")
     void shouldSendHtmlEmail() {
         // Arrange
         String toEmail = "user@example.com";
         String subject = "Test HTML Subject";
         String htmlBody = "<h1>Test HTML Content</h1>";
 
-        when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-
         // Act
         var future = emailService.sendHtmlEmail(toEmail, subject, htmlBody);
 
         // Assert
         assertNotNull(future);
-        verify(mailSender, times(1)).createMimeMessage();
-        verify(mailSender, times(1)).send(any(MimeMessage.class));
+        assertTrue(future.isDone());
+        verify(emailOutbox, times(1)).enqueue(toEmail, subject, htmlBody, true);
+    }
+
+    @Test
+    @DisplayName("Should return a failed future when the email cannot be queued")
+    void shouldFailWhenEmailCannotBeQueued() {
+        // Arrange
+        when(emailOutbox.enqueue(any(), any(), any(), anyBoolean()))
+            .thenThrow(new IllegalArgumentException("Email recipient is required"));
+
+        // Act
+        var future = emailService.sendHtmlEmail(null, "Subject", "<p>Body</p>");
+
+        // Assert
+        assertTrue(future.isCompletedExceptionally());
     }
 }
\ No newline at end of file
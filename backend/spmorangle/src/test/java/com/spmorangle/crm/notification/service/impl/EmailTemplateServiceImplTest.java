@@ -1,10 +1,13 @@
 package com.spmorangle.crm.notification.service.impl;
 
 import com.spmorangle.crm.notification.dto.DailyDigestDto;
+import com.spmorangle.crm.notification.dto.NotificationDigestDto;
+import com.spmorangle.crm.notification.dto.NotificationDto;
 import com.spmorangle.crm.notification.service.EmailTemplateService;
 import com.spmorangle.crm.taskmanagement.dto.TaskResponseDto;
 import com.spmorangle.crm.taskmanagement.enums.Status;
 import com.spmorangle.crm.taskmanagement.enums.TaskType;
+import com.spmorangle.crm.usermanagement.cache.RecipientProfileCache.RecipientProfile;
 import com.spmorangle.crm.usermanagement.dto.UserResponseDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -330,4 +333,32 @@ class EmailTemplateServiceImplTest {
         assertTrue(result.contains("09:00"));
         assertTrue(result.contains("Please do not reply to this email"));
     }
+
+    @Test
+    @DisplayName("Should list held-back notifications in the notification digest")
+    void shouldGenerateNotificationDigestEmail() {
+        RecipientProfile user = new RecipientProfile(1L, "test@example.com", "Test User", true);
+
+        NotificationDto notification = NotificationDto.builder()
+                .notificationId(1L)
+                .targetId(1L)
+                .subject("Task status updated")
+                .message("Task \"Fix <login>\" status changed from TODO to COMPLETED (3 updates)")
+                .link("/tasks/5")
+                .build();
+
+        NotificationDigestDto digestDto = NotificationDigestDto.builder()
+                .user(user)
+                .notifications(List.of(notification))
+                .frontendBaseUrl("http://localhost:3000")
+                .omittedCount(2)
+                .build();
+
+        String result = emailTemplateService.generateNotificationDigestEmail(digestDto);
+
+        assertTrue(result.contains("Hello Test User, you have 3 updates on your tasks"));
+        assertTrue(result.contains("Fix &lt;login&gt;"));
+        assertTrue(result.contains("http://localhost:3000/tasks/5"));
+        assertTrue(result.contains("...and 2 earlier updates"));
+    }
 }
@@ -1,14 +1,20 @@
 package com.spmorangle.crm.notification.service.impl;
 
 import com.spmorangle.common.enums.NotificationType;
+import com.spmorangle.crm.notification.archive.NotificationArchiver;
+import com.spmorangle.crm.notification.cache.UnreadCountCache;
 import com.spmorangle.crm.notification.dto.CreateNotificationDto;
 import com.spmorangle.crm.notification.dto.NotificationDto;
 import com.spmorangle.crm.notification.dto.NotificationFilterDto;
+import com.spmorangle.crm.notification.dto.NotificationInboxPageDto;
+import com.spmorangle.crm.notification.dto.NotificationInboxRequestDto;
 import com.spmorangle.crm.notification.dto.UnreadCountDto;
 import com.spmorangle.crm.notification.enums.Channel;
 import com.spmorangle.crm.notification.enums.Priority;
 import com.spmorangle.crm.notification.model.Notification;
+import com.spmorangle.crm.notification.repository.NotificationInboxRow;
 import com.spmorangle.crm.notification.repository.NotificationRepository;
+import com.spmorangle.crm.notification.util.NotificationCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -28,7 +34,9 @@ import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.LongSupplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -43,6 +51,12 @@ class NotificationServiceImplTest {
     @Mock
     private NotificationRepository notificationRepository;
 
+    @Mock
+    private UnreadCountCache unreadCountCache;
+
+    @Mock
+    private NotificationArchiver notificationArchiver;
+
     @InjectMocks
     private NotificationServiceImpl notificationService;
 
@@ -335,6 +349,7 @@ class NotificationServiceImplTest {
             // Then
             verify(notificationRepository).findById(1L);
             verify(notificationRepository).save(any(Notification.class));
+            verify(unreadCountCache).addAfterCommit(Map.of(userId, -1L));
         }
 
         @Test
@@ -350,6 +365,7 @@ class NotificationServiceImplTest {
             // Then
             verify(notificationRepository).findById(1L);
             verify(notificationRepository, never()).save(any(Notification.class));
+            verifyNoInteractions(unreadCountCache);
         }
 
         @Test
@@ -378,6 +394,7 @@ class NotificationServiceImplTest {
 
             // Then
             verify(notificationRepository).markAsReadByIds(eq(notificationIds), eq(userId), any(Instant.class), any(Instant.class));
+            verify(unreadCountCache).addAfterCommit(Map.of(userId, -3L));
         }
 
         @Test
@@ -392,6 +409,7 @@ class NotificationServiceImplTest {
 
             // Then
             verify(notificationRepository).markAllAsReadByTargetId(eq(userId), any(Instant.class), any(Instant.class));
+            verify(unreadCountCache).resetAfterCommit(userId);
         }
     }
 
@@ -447,6 +465,12 @@ class NotificationServiceImplTest {
     @DisplayName("Unread Count Tests")
     class UnreadCountTests {
 
+        @BeforeEach
+        void passThroughCache() {
+            when(unreadCountCache.get(eq(userId), any(LongSupplier.class)))
+                    .thenAnswer(invocation -> invocation.<LongSupplier>getArgument(1).getAsLong());
+        }
+
         @Test
         @DisplayName("Should get unread count")
         void shouldGetUnreadCount() {
@@ -498,24 +522,87 @@ class NotificationServiceImplTest {
     class CleanupOldNotificationsTests {
 
         @Test
-        @DisplayName("Should cleanup old notifications")
+        @DisplayName("Should cleanup old notifications in batches until one comes back short")
         void shouldCleanupOldNotifications() {
             // Given
             int daysToKeep = 30;
-            when(notificationRepository.deleteOldReadNotifications(any(Instant.class))).thenReturn(10);
+            when(notificationArchiver.deleteReadBatch(any(Instant.class), eq(500))).thenReturn(500, 500, 10);
 
             // When
             int result = notificationService.cleanupOldNotifications(daysToKeep);
 
             // Then
-            assertThat(result).isEqualTo(10);
+            assertThat(result).isEqualTo(1010);
 
             ArgumentCaptor<Instant> captor = ArgumentCaptor.forClass(Instant.class);
-            verify(notificationRepository).deleteOldReadNotifications(captor.capture());
+            verify(notificationArchiver, times(3)).deleteReadBatch(captor.capture(), eq(500));
 
             Instant cutoffDate = captor.getValue();
             Instant expectedCutoff = Instant.now().minus(daysToKeep, ChronoUnit.DAYS);
             assertThat(cutoffDate).isCloseTo(expectedCutoff, within(1, ChronoUnit.SECONDS));
+            assertThat(captor.getAllValues()).containsOnly(cutoffDate);
+        }
+    }
+
+    @Nested
+    @DisplayName("Inbox Tests")
+    class InboxTests {
+
+        @Test
+        @DisplayName("Should return one page with channels and a cursor at its last row")
+        void shouldReturnInboxPageWithCursor() {
+            // Given
+            Instant now = Instant.now();
+            NotificationInboxRequestDto request = NotificationInboxRequestDto.builder().limit(2).build();
+            List<NotificationInboxRow> rows = List.of(row(3L, now), row(2L, now.minusSeconds(1)), row(1L, now.minusSeconds(2)));
+            when(notificationRepository.findInboxPage(userId, request, null, 3)).thenReturn(rows);
+            when(notificationRepository.findChannelsByNotificationIds(List.of(3L, 2L)))
+                    .thenReturn(Map.of(3L, List.of(Channel.IN_APP)));
+
+            // When
+            NotificationInboxPageDto page = notificationService.getInbox(userId, request);
+
+            // Then
+            assertThat(page.getItems()).extracting(NotificationDto::getNotificationId).containsExactly(3L, 2L);
+            assertThat(page.getItems().get(0).getChannels()).containsExactly(Channel.IN_APP);
+            assertThat(page.getItems().get(1).getChannels()).isEmpty();
+            assertThat(page.isHasMore()).isTrue();
+            assertThat(NotificationCursor.decode(page.getNextCursor()))
+                    .isEqualTo(new NotificationCursor(now.minusSeconds(1), 2L));
+        }
+
+        @Test
+        @DisplayName("Should resume after the cursor and report the last page")
+        void shouldResumeFromCursor() {
+            // Given
+            NotificationCursor cursor = new NotificationCursor(Instant.now(), 5L);
+            NotificationInboxRequestDto request = NotificationInboxRequestDto.builder().cursor(cursor.encode()).build();
+            when(notificationRepository.findInboxPage(userId, request, cursor, NotificationInboxRequestDto.DEFAULT_LIMIT + 1))
+                    .thenReturn(List.of(row(4L, Instant.now().minusSeconds(10))));
+            when(notificationRepository.findChannelsByNotificationIds(List.of(4L))).thenReturn(Map.of());
+
+            // When
+            NotificationInboxPageDto page = notificationService.getInbox(userId, request);
+
+            // Then
+            assertThat(page.getItems()).hasSize(1);
+            assertThat(page.isHasMore()).isFalse();
+            assertThat(page.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should reject a malformed cursor")
+        void shouldRejectMalformedCursor() {
+            NotificationInboxRequestDto request = NotificationInboxRequestDto.builder().cursor("???").build();
+
+            assertThatThrownBy(() -> notificationService.getInbox(userId, request))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verify(notificationRepository, never()).findInboxPage(any(), any(), any(), anyInt());
+        }
+
+        private NotificationInboxRow row(Long id, Instant createdAt) {
+            return new NotificationInboxRow(id, authorId, userId, NotificationType.MENTION, "Subject " + id,
+                    false, false, Priority.MEDIUM, null, createdAt, null);
         }
     }
 
@@ -603,6 +690,7 @@ class NotificationServiceImplTest {
             assertThat(result.get(0).getNotificationId()).isEqualTo(1L);
             assertThat(result.get(1).getNotificationId()).isEqualTo(2L);
             verify(notificationRepository).saveAll(anyList());
+            verify(unreadCountCache).addAfterCommit(Map.of(userId, 1L, 3L, 1L));
         }
 
         @Test
@@ -11,14 +11,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Semaphore;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +44,9 @@ class OverdueTaskCheckerServiceImplTest {
     @InjectMocks
     private OverdueTaskCheckerServiceImpl checkerService;
 
+    @Captor
+    private ArgumentCaptor<Collection<Long>> idsCaptor;
+
     private Task overdueTask;
     private TaskAssignee assignee1;
     private TaskAssignee assignee2;
@@ -62,134 +72,62 @@ class OverdueTaskCheckerServiceImplTest {
         assignee2.setUserId(2L);
     }
 
+    private void givenCandidates(List<Task> tasks) {
+        when(taskRepository.findOverdueNotificationCandidates(any(OffsetDateTime.class), eq(0L), any(Pageable.class)))
+                .thenReturn(tasks);
+    }
+
     @Test
     @DisplayName("Should not call email service when no overdue tasks found")
     void shouldNotCallEmailWhenNoOverdueTasks() {
         // Arrange
-        when(taskRepository.findByDueDateTimeBefore(any(OffsetDateTime.class))).thenReturn(new ArrayList<>());
+        givenCandidates(new ArrayList<>());
 
         // Act
         checkerService.checkAndNotifyOverdueTasks();
 
         // Assert
-        verify(taskRepository, times(1)).findByDueDateTimeBefore(any(OffsetDateTime.class));
+        verify(taskRepository, times(1)).findOverdueNotificationCandidates(any(OffsetDateTime.class), eq(0L), any(Pageable.class));
         verifyNoInteractions(taskAssigneeRepository);
         verifyNoInteractions(overdueTaskEmailService);
+        verify(taskRepository, never()).markOverdueNotificationSent(anyCollection(), anyLong());
     }
 
     @Test
     @DisplayName("Should send email to all assignees for overdue task")
     void shouldSendEmailToAllAssignees() {
         // Arrange
-        when(taskRepository.findByDueDateTimeBefore(any(OffsetDateTime.class)))
-                .thenReturn(List.of(overdueTask));
-        when(taskAssigneeRepository.findByTaskId(100L))
+        givenCandidates(List.of(overdueTask));
+        when(taskAssigneeRepository.findByTaskIdIn(List.of(100L)))
                 .thenReturn(List.of(assignee1, assignee2));
 
         // Act
         checkerService.checkAndNotifyOverdueTasks();
 
         // Assert
-        verify(taskRepository, times(1)).findByDueDateTimeBefore(any(OffsetDateTime.class));
-        verify(taskAssigneeRepository, times(1)).findByTaskId(100L);
+        verify(taskAssigneeRepository, times(1)).findByTaskIdIn(List.of(100L));
         verify(overdueTaskEmailService, times(1)).sendOverdueTaskEmail(overdueTask, assignee1);
         verify(overdueTaskEmailService, times(1)).sendOverdueTaskEmail(overdueTask, assignee2);
     }
 
     @Test
-    @DisplayName("Should skip task when it has no assignees")
+    @DisplayName("Should flag task without assignees so it is not picked up again")
     void shouldSkipTaskWithNoAssignees() {
         // Arrange
-        when(taskRepository.findByDueDateTimeBefore(any(OffsetDateTime.class)))
-                .thenReturn(List.of(overdueTask));
-        when(taskAssigneeRepository.findByTaskId(100L))
+        givenCandidates(List.of(overdueTask));
+        when(taskAssigneeRepository.findByTaskIdIn(List.of(100L)))
                 .thenReturn(new ArrayList<>());
 
         // Act
         checkerService.checkAndNotifyOverdueTasks();
 
         // Assert
-        verify(taskRepository, times(1)).findByDueDateTimeBefore(any(OffsetDateTime.class));
-        verify(taskAssigneeRepository, times(1)).findByTaskId(100L);
-        verifyNoInteractions(overdueTaskEmailService);
-    }
-
-    @Test
-    @DisplayName("Should skip task with COMPLETED status")
-    void shouldSkipCompletedTask() {
-        // Arrange
-        overdueTask.setStatus(Status.COMPLETED);
-        when(taskRepository.findByDueDateTimeBefore(any(OffsetDateTime.class)))
-                .thenReturn(List.of(overdueTask));
-
-        // Act
-        checkerService.checkAndNotifyOverdueTasks();
-
-        // Assert
-        verify(taskRepository, times(1)).findByDueDateTimeBefore(any(OffsetDateTime.class));
-        verifyNoInteractions(taskAssigneeRepository);
         verifyNoInteractions(overdueTaskEmailService);
+        verify(taskRepository).markOverdueNotificationSent(List.of(100L), -1L);
     }
 
     @Test
-    @DisplayName("Should process task with TODO status")
-    void shouldProcessTodoTask() {
-        // Arrange
-        overdueTask.setStatus(Status.TODO);
-        when(taskRepository.findByDueDateTimeBefore(any(OffsetDateTime.class)))
-                .thenReturn(List.of(overdueTask));
-        when(taskAssigneeRepository.findByTaskId(100L))
-                .thenReturn(List.of(assignee1));
-
-        // Act
-        checkerService.checkAndNotifyOverdueTasks();
-
-        // Assert
-        verify(taskRepository, times(1)).findByDueDateTimeBefore(any(OffsetDateTime.class));
-        verify(taskAssigneeRepository, times(1)).findByTaskId(100L);
-        verify(overdueTaskEmailService, times(1)).sendOverdueTaskEmail(overdueTask, assignee1);
-    }
-
-    @Test
-    @DisplayName("Should process task with IN_PROGRESS status")
-    void shouldProcessInProgressTask() {
-        // Arrange
-        overdueTask.setStatus(Status.IN_PROGRESS);
-        when(taskRepository.findByDueDateTimeBefore(any(OffsetDateTime.class)))
-                .thenReturn(List.of(overdueTask));
-        when(taskAssigneeRepository.findByTaskId(100L))
-                .thenReturn(List.of(assignee1));
-
-        // Act
-        checkerService.checkAndNotifyOverdueTasks();
-
-        // Assert
-        verify(taskRepository, times(1)).findByDueDateTimeBefore(any(OffsetDateTime.class));
-        verify(taskAssigneeRepository, times(1)).findByTaskId(100L);
-        verify(overdueTaskEmailService, times(1)).sendOverdueTaskEmail(overdueTask, assignee1);
-    }
-
-    @Test
-    @DisplayName("Should process task with null status")
-    void shouldProcessTaskWithNullStatus() {
-        // Arrange
-        overdueTask.setStatus(null);
-        when(taskRepository.findByDueDateTimeBefore(any(OffsetDateTime.class)))
-                .thenReturn(List.of(overdueTask));
-        when(taskAssigneeRepository.findByTaskId(100L))
-                .thenReturn(List.of(assignee1));
-
-        // Act
-        checkerService.checkAndNotifyOverdueTasks();
-
-        // Assert
-        verify(taskRepository, times(1)).findByDueDateTimeBefore(any(OffsetDateTime.class));
-        verify(taskAssigneeRepository, times(1)).findByTaskId(100L);
-        verify(overdueTaskEmailService, times(1)).sendOverdueTaskEmail(overdueTask, assignee1);
-    }
-
-    @Test
-    @DisplayName("Should handle multiple overdue tasks correctly")
+    @DisplayName("Should load assignees for a whole chunk with one query")
     void shouldHandleMultipleOverdueTasks() {
         // Arrange
         Task task1 = new Task();
@@ -200,10 +138,6 @@ class OverdueTaskCheckerServiceImplTest {
         task2.setId(200L);
         task2.setStatus(Status.IN_PROGRESS);
 
-        Task task3 = new Task();
-        task3.setId(300L);
-        task3.setStatus(Status.COMPLETED); // Should be skipped
-
         TaskAssignee assignee100 = new TaskAssignee();
         assignee100.setTaskId(100L);
         assignee100.setUserId(1L);
@@ -212,31 +146,28 @@ class OverdueTaskCheckerServiceImplTest {
         assignee200.setTaskId(200L);
         assignee200.setUserId(2L);
 
-        when(taskRepository.findByDueDateTimeBefore(any(OffsetDateTime.class)))
-                .thenReturn(List.of(task1, task2, task3));
-        when(taskAssigneeRepository.findByTaskId(100L)).thenReturn(List.of(assignee100));
-        when(taskAssigneeRepository.findByTaskId(200L)).thenReturn(List.of(assignee200));
+        givenCandidates(List.of(task1, task2));
+        when(taskAssigneeRepository.findByTaskIdIn(List.of(100L, 200L))).thenReturn(List.of(assignee100, assignee200));
 
         // Act
         checkerService.checkAndNotifyOverdueTasks();
 
         // Assert
-        verify(taskRepository, times(1)).findByDueDateTimeBefore(any(OffsetDateTime.class));
-        verify(taskAssigneeRepository, times(1)).findByTaskId(100L);
-        verify(taskAssigneeRepository, times(1)).findByTaskId(200L);
-        verify(taskAssigneeRepository, never()).findByTaskId(300L); // COMPLETED task should be skipped
+        verify(taskAssigneeRepository, times(1)).findByTaskIdIn(anyCollection());
+        verify(taskAssigneeRepository, never()).findByTaskId(anyLong());
         verify(overdueTaskEmailService, times(1)).sendOverdueTaskEmail(task1, assignee100);
         verify(overdueTaskEmailService, times(1)).sendOverdueTaskEmail(task2, assignee200);
         verify(overdueTaskEmailService, times(2)).sendOverdueTaskEmail(any(Task.class), any(TaskAssignee.class));
+        verify(taskRepository).markOverdueNotificationSent(idsCaptor.capture(), eq(-1L));
+        assertEquals(List.of(100L, 200L), List.copyOf(idsCaptor.getValue()));
     }
 
     @Test
     @DisplayName("Should continue processing other tasks when email sending fails for one assignee")
     void shouldContinueWhenEmailFails() {
         // Arrange
-        when(taskRepository.findByDueDateTimeBefore(any(OffsetDateTime.class)))
-                .thenReturn(List.of(overdueTask));
-        when(taskAssigneeRepository.findByTaskId(100L))
+        givenCandidates(List.of(overdueTask));
+        when(taskAssigneeRepository.findByTaskIdIn(List.of(100L)))
                 .thenReturn(List.of(assignee1, assignee2));
 
         // First email fails, second should still be attempted
@@ -247,8 +178,6 @@ class OverdueTaskCheckerServiceImplTest {
         checkerService.checkAndNotifyOverdueTasks();
 
         // Assert
-        verify(taskRepository, times(1)).findByDueDateTimeBefore(any(OffsetDateTime.class));
-        verify(taskAssigneeRepository, times(1)).findByTaskId(100L);
         verify(overdueTaskEmailService, times(1)).sendOverdueTaskEmail(overdueTask, assignee1);
         verify(overdueTaskEmailService, times(1)).sendOverdueTaskEmail(overdueTask, assignee2);
     }
@@ -258,8 +187,7 @@ class OverdueTaskCheckerServiceImplTest {
     void shouldUseCorrectThreshold() {
         // Arrange
         ArgumentCaptor<OffsetDateTime> thresholdCaptor = ArgumentCaptor.forClass(OffsetDateTime.class);
-        when(taskRepository.findByDueDateTimeBefore(any(OffsetDateTime.class)))
-                .thenReturn(new ArrayList<>());
+        givenCandidates(new ArrayList<>());
 
         // Act
         OffsetDateTime beforeCall = OffsetDateTime.now(ZoneOffset.UTC).minusHours(24);
@@ -267,7 +195,7 @@ class OverdueTaskCheckerServiceImplTest {
         OffsetDateTime afterCall = OffsetDateTime.now(ZoneOffset.UTC).minusHours(24);
 
         // Assert
-        verify(taskRepository).findByDueDateTimeBefore(thresholdCaptor.capture());
+        verify(taskRepository).findOverdueNotificationCandidates(thresholdCaptor.capture(), eq(0L), any(Pageable.class));
         OffsetDateTime capturedThreshold = thresholdCaptor.getValue();
 
         // The threshold should be approximately 24 hours ago (within a few seconds tolerance)
@@ -278,124 +206,104 @@ class OverdueTaskCheckerServiceImplTest {
     }
 
     @Test
-    @DisplayName("Should handle null assignees list")
-    void shouldHandleNullAssigneesList() {
+    @DisplayName("Should mark task as sent with a bulk update after successfully sending all emails")
+    void shouldMarkTaskAsSentAfterSuccess() {
         // Arrange
-        when(taskRepository.findByDueDateTimeBefore(any(OffsetDateTime.class)))
-                .thenReturn(List.of(overdueTask));
-        when(taskAssigneeRepository.findByTaskId(100L))
-                .thenReturn(null);
+        givenCandidates(List.of(overdueTask));
+        when(taskAssigneeRepository.findByTaskIdIn(List.of(100L)))
+                .thenReturn(List.of(assignee1));
 
         // Act
         checkerService.checkAndNotifyOverdueTasks();
 
         // Assert
-        verify(taskRepository, times(1)).findByDueDateTimeBefore(any(OffsetDateTime.class));
-        verify(taskAssigneeRepository, times(1)).findByTaskId(100L);
-        verifyNoInteractions(overdueTaskEmailService);
+        verify(overdueTaskEmailService, times(1)).sendOverdueTaskEmail(overdueTask, assignee1);
+        verify(taskRepository, times(1)).markOverdueNotificationSent(idsCaptor.capture(), eq(-1L));
+        assertEquals(List.of(100L), List.copyOf(idsCaptor.getValue()));
+        verify(taskRepository, never()).save(any(Task.class));
     }
 
     @Test
-    @DisplayName("Should process only non-deleted tasks from repository")
-    void shouldProcessOnlyNonDeletedTasks() {
-        // Note: The repository query already filters deleteInd = false
-        // This test verifies the integration point
-
+    @DisplayName("Should not mark task as sent when email sending fails")
+    void shouldNotMarkTaskAsSentWhenEmailFails() {
         // Arrange
-        overdueTask.setDeleteInd(false);
-        when(taskRepository.findByDueDateTimeBefore(any(OffsetDateTime.class)))
-                .thenReturn(List.of(overdueTask));
-        when(taskAssigneeRepository.findByTaskId(100L))
+        givenCandidates(List.of(overdueTask));
+        when(taskAssigneeRepository.findByTaskIdIn(List.of(100L)))
                 .thenReturn(List.of(assignee1));
 
+        // Email fails
+        doThrow(new RuntimeException("Email service error"))
+                .when(overdueTaskEmailService).sendOverdueTaskEmail(overdueTask, assignee1);
+
         // Act
         checkerService.checkAndNotifyOverdueTasks();
 
         // Assert
         verify(overdueTaskEmailService, times(1)).sendOverdueTaskEmail(overdueTask, assignee1);
+        verify(taskRepository, never()).markOverdueNotificationSent(anyCollection(), anyLong());
     }
 
     @Test
-    @DisplayName("Should skip task when overdue notification has already been sent")
-    void shouldSkipTaskWhenNotificationAlreadySent() {
+    @DisplayName("Should not mark task as sent when one of multiple emails fails")
+    void shouldNotMarkTaskAsSentWhenOneEmailFails() {
         // Arrange
-        overdueTask.setHasSentOverdue(true); // Notification already sent
-        when(taskRepository.findByDueDateTimeBefore(any(OffsetDateTime.class)))
-                .thenReturn(List.of(overdueTask));
-
-        // Act
-        checkerService.checkAndNotifyOverdueTasks();
-
-        // Assert
-        verify(taskRepository, times(1)).findByDueDateTimeBefore(any(OffsetDateTime.class));
-        verifyNoInteractions(taskAssigneeRepository);
-        verifyNoInteractions(overdueTaskEmailService);
-        verify(taskRepository, never()).save(any(Task.class));
-    }
+        givenCandidates(List.of(overdueTask));
+        when(taskAssigneeRepository.findByTaskIdIn(List.of(100L)))
+                .thenReturn(List.of(assignee1, assignee2));
 
-    @Test
-    @DisplayName("Should mark task as sent after successfully sending all emails")
-    void shouldMarkTaskAsSentAfterSuccess() {
-        // Arrange
-        when(taskRepository.findByDueDateTimeBefore(any(OffsetDateTime.class)))
-                .thenReturn(List.of(overdueTask));
-        when(taskAssigneeRepository.findByTaskId(100L))
-                .thenReturn(List.of(assignee1));
+        // First email succeeds, second fails
+        doNothing().when(overdueTaskEmailService).sendOverdueTaskEmail(overdueTask, assignee1);
+        doThrow(new RuntimeException("Email service error"))
+                .when(overdueTaskEmailService).sendOverdueTaskEmail(overdueTask, assignee2);
 
         // Act
         checkerService.checkAndNotifyOverdueTasks();
 
         // Assert
         verify(overdueTaskEmailService, times(1)).sendOverdueTaskEmail(overdueTask, assignee1);
-
-        ArgumentCaptor<Task> taskCaptor = ArgumentCaptor.forClass(Task.class);
-        verify(taskRepository, times(1)).save(taskCaptor.capture());
-
-        Task savedTask = taskCaptor.getValue();
-        assertTrue(savedTask.getHasSentOverdue(), "Task should be marked as overdue notification sent");
+        verify(overdueTaskEmailService, times(1)).sendOverdueTaskEmail(overdueTask, assignee2);
+        verify(taskRepository, never()).markOverdueNotificationSent(anyCollection(), anyLong());
     }
 
     @Test
-    @DisplayName("Should not mark task as sent when email sending fails")
-    void shouldNotMarkTaskAsSentWhenEmailFails() {
+    @DisplayName("Should walk full chunks from the last id of the previous chunk")
+    void shouldResumeFromCheckpointForNextChunk() {
         // Arrange
-        when(taskRepository.findByDueDateTimeBefore(any(OffsetDateTime.class)))
-                .thenReturn(List.of(overdueTask));
-        when(taskAssigneeRepository.findByTaskId(100L))
-                .thenReturn(List.of(assignee1));
-
-        // Email fails
-        doThrow(new RuntimeException("Email service error"))
-                .when(overdueTaskEmailService).sendOverdueTaskEmail(overdueTask, assignee1);
+        ReflectionTestUtils.setField(checkerService, "batchSize", 1);
+        Task next = new Task();
+        next.setId(150L);
+        next.setStatus(Status.TODO);
+        TaskAssignee nextAssignee = new TaskAssignee();
+        nextAssignee.setTaskId(150L);
+        nextAssignee.setUserId(3L);
+
+        givenCandidates(List.of(overdueTask));
+        when(taskRepository.findOverdueNotificationCandidates(any(OffsetDateTime.class), eq(100L), any(Pageable.class)))
+                .thenReturn(List.of(next));
+        when(taskRepository.findOverdueNotificationCandidates(any(OffsetDateTime.class), eq(150L), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(taskAssigneeRepository.findByTaskIdIn(List.of(100L))).thenReturn(List.of(assignee1));
+        when(taskAssigneeRepository.findByTaskIdIn(List.of(150L))).thenReturn(List.of(nextAssignee));
 
         // Act
         checkerService.checkAndNotifyOverdueTasks();
 
         // Assert
-        verify(overdueTaskEmailService, times(1)).sendOverdueTaskEmail(overdueTask, assignee1);
-        verify(taskRepository, never()).save(any(Task.class));
+        verify(overdueTaskEmailService).sendOverdueTaskEmail(overdueTask, assignee1);
+        verify(overdueTaskEmailService).sendOverdueTaskEmail(next, nextAssignee);
+        verify(taskRepository, times(2)).markOverdueNotificationSent(anyCollection(), eq(-1L));
     }
 
     @Test
-    @DisplayName("Should not mark task as sent when one of multiple emails fails")
-    void shouldNotMarkTaskAsSentWhenOneEmailFails() {
+    @DisplayName("Should skip the run while a previous run is still in progress")
+    void shouldSkipOverlappingRun() {
         // Arrange
-        when(taskRepository.findByDueDateTimeBefore(any(OffsetDateTime.class)))
-                .thenReturn(List.of(overdueTask));
-        when(taskAssigneeRepository.findByTaskId(100L))
-                .thenReturn(List.of(assignee1, assignee2));
-
-        // First email succeeds, second fails
-        doNothing().when(overdueTaskEmailService).sendOverdueTaskEmail(overdueTask, assignee1);
-        doThrow(new RuntimeException("Email service error"))
-                .when(overdueTaskEmailService).sendOverdueTaskEmail(overdueTask, assignee2);
+        ((Semaphore) ReflectionTestUtils.getField(checkerService, "scanPermit")).acquireUninterruptibly();
 
         // Act
         checkerService.checkAndNotifyOverdueTasks();
 
         // Assert
-        verify(overdueTaskEmailService, times(1)).sendOverdueTaskEmail(overdueTask, assignee1);
-        verify(overdueTaskEmailService, times(1)).sendOverdueTaskEmail(overdueTask, assignee2);
-        verify(taskRepository, never()).save(any(Task.class));
+        verifyNoInteractions(taskRepository, taskAssigneeRepository, overdueTaskEmailService);
     }
 }
@@ -319,8 +319,8 @@ class OverdueTaskEmailServiceImplTest {
         verify(emailService).sendHtmlEmail(anyString(), anyString(), bodyCaptor.capture());
 
         String body = bodyCaptor.getValue();
-        // Note: The current implementation doesn't escape HTML, but the test documents the behavior
-        assertTrue(body.contains("<script>alert('xss')</script>"),
-                "Email body contains the description as-is");
+        assertTrue(body.contains("&lt;script&gt;alert(&#39;xss&#39;)&lt;/script&gt; and &amp; special chars"),
+                "Email body contains the description escaped");
+        assertFalse(body.contains("<script>"), "Email body does not contain the raw script tag");
     }
 }
@@ -0,0 +1,183 @@
+package com.spmorangle.crm.notification.template;
+
+import com.spmorangle.crm.notification.dto.NotificationDigestDto;
+import com.spmorangle.crm.notification.dto.NotificationDto;
+import com.spmorangle.crm.notification.service.impl.EmailTemplateServiceImpl;
+import com.spmorangle.crm.usermanagement.cache.RecipientProfileCache.RecipientProfile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares rendering notification digest emails from the precompiled HtmlTemplate constants with the
+ * StringBuilder rendering they replaced, which is kept below as it was.
+ *
+ * Opt-in because it only measures: run with
+ * {@code mvn test -Dtest=HtmlTemplateBenchmarkTest -Dbenchmark=true}. The number of emails per round and
+ * of updates per digest can be changed with {@code -Dbenchmark.emails=...} and {@code -Dbenchmark.updates=...},
+ * and the number of timed rounds with {@code -Dbenchmark.rounds=...}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("HtmlTemplate rendering benchmark")
+class HtmlTemplateBenchmarkTest {
+
+    private static final int EMAILS = Integer.getInteger("benchmark.emails", 20_000);
+    private static final int UPDATES = Integer.getInteger("benchmark.updates", 10);
+    private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 5);
+
+    private final EmailTemplateServiceImpl emailTemplateService = new EmailTemplateServiceImpl();
+
+    @Test
+    @DisplayName("Templates render the same digest as the StringBuilder code")
+    void compareDigestRendering() {
+        List<NotificationDigestDto> digests = digests(100);
+        for (NotificationDigestDto digest : digests) {
+            // The templates break lines between tags where the appends did not
+            assertThat(emailTemplateService.generateNotificationDigestEmail(digest).replace("\n", ""))
+                    .isEqualTo(legacyNotificationDigestEmail(digest));
+        }
+
+        // Warm up both paths so the comparison is not dominated by first-use costs
+        time(digests, true);
+        time(digests, false);
+
+        long legacyNanos = Long.MAX_VALUE;
+        long templateNanos = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            legacyNanos = Math.min(legacyNanos, time(digests, true));
+            templateNanos = Math.min(templateNanos, time(digests, false));
+        }
+
+        System.out.printf("Notification digest with %d updates, best of %d rounds of %d emails:%n"
+                        + "  StringBuilder: %d ms, %.1f us per email%n"
+                        + "  HtmlTemplate:  %d ms, %.1f us per email%n",
+                UPDATES, ROUNDS, EMAILS,
+                legacyNanos / 1_000_000, legacyNanos / 1_000.0 / EMAILS,
+                templateNanos / 1_000_000, templateNanos / 1_000.0 / EMAILS);
+    }
+
+    private long time(List<NotificationDigestDto> digests, boolean legacy) {
+        long length = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < EMAILS; i++) {
+            NotificationDigestDto digest = digests.get(i % digests.size());
+            String html = legacy ? legacyNotificationDigestEmail(digest)
+                    : emailTemplateService.generateNotificationDigestEmail(digest);
+            length += html.length();
+        }
+        long elapsed = System.nanoTime() - start;
+        // Keeps the rendered output observable so the loop is not optimized away
+        assertThat(length).isPositive();
+        return elapsed;
+    }
+
+    private static List<NotificationDigestDto> digests(int count) {
+        List<NotificationDigestDto> digests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            RecipientProfile user = new RecipientProfile((long) i, "user" + i + "@example.com", "user" + i, true);
+            List<NotificationDto> notifications = new ArrayList<>(UPDATES);
+            for (int j = 0; j < UPDATES; j++) {
+                notifications.add(NotificationDto.builder()
+                        .notificationId((long) j)
+                        .targetId((long) i)
+                        .subject("Task status updated")
+                        .message("Task \"Fix <login> & signup #" + j + "\" status changed from TODO to IN_PROGRESS")
+                        .link(j % 3 == 0 ? null : "/tasks/" + j)
+                        .build());
+            }
+            digests.add(NotificationDigestDto.builder()
+                    .user(user)
+                    .notifications(notifications)
+                    .frontendBaseUrl("http://localhost:3000")
+                    .omittedCount(i % 4)
+                    .build());
+        }
+        return digests;
+    }
+
+    /**
+     * EmailTemplateServiceImpl#generateNotificationDigestEmail before it moved to HtmlTemplate
+     */
+    private static String legacyNotificationDigestEmail(NotificationDigestDto digestDto) {
+        StringBuilder html = new StringBuilder();
+        int total = digestDto.getNotifications().size() + digestDto.getOmittedCount();
+
+        html.append("<!DOCTYPE html>");
+        html.append("<html>");
+        html.append("<head>");
+        html.append("<meta charset='UTF-8'>");
+        html.append("<style>");
+        html.append("body { font-family: Arial, sans-serif; margin: 0; padding: 20px; background-color: #f4f4f4; line-height: 1.6; color: #333; }");
+        html.append(".container { max-width: 600px; margin: 0 auto; background-color: white; border-radius: 8px; box-shadow: 0 2px 4px rgba(0,0,0,0.1); overflow: hidden; }");
+        html.append(".header { background-color: #007bff; color: white; padding: 30px 20px; text-align: center; }");
+        html.append(".header h1 { margin: 0; font-size: 24px; }");
+        html.append(".header p { margin: 10px 0 0 0; opacity: 0.9; }");
+        html.append(".updates { padding: 20px; }");
+        html.append(".update { border-left: 4px solid #007bff; padding: 15px; margin-bottom: 15px; background: #f9f9f9; border-radius: 4px; }");
+        html.append(".update h3 { margin: 0 0 8px 0; color: #333; font-size: 16px; }");
+        html.append(".update p { margin: 0; font-size: 14px; color: #555; }");
+        html.append(".update-link { display: inline-block; margin-top: 10px; color: #007bff; text-decoration: none; font-weight: bold; }");
+        html.append(".more { font-size: 14px; color: #666; }");
+        html.append(".footer { background-color: #f4f4f4; padding: 20px; text-align: center; color: #666; font-size: 12px; }");
+        html.append(".footer p { margin: 5px 0; }");
+        html.append("</style>");
+        html.append("</head>");
+        html.append("<body>");
+
+        html.append("<div class='container'>");
+
+        html.append("<div class='header'>");
+        html.append("<h1>Task Updates</h1>");
+        html.append("<p>Hello ").append(escapeHtml(digestDto.getUser().username()))
+            .append(", you have ").append(total)
+            .append(" update").append(total != 1 ? "s" : "")
+            .append(" on your tasks</p>");
+        html.append("</div>");
+
+        html.append("<div class='updates'>");
+        for (NotificationDto notification : digestDto.getNotifications()) {
+            html.append("<div class='update'>");
+            html.append("<h3>").append(escapeHtml(notification.getSubject())).append("</h3>");
+            html.append("<p>").append(escapeHtml(notification.getMessage())).append("</p>");
+            if (notification.getLink() != null && !notification.getLink().trim().isEmpty()) {
+                html.append("<a href='").append(digestDto.getFrontendBaseUrl()).append(notification.getLink())
+                    .append("' class='update-link'>View Task →</a>");
+            }
+            html.append("</div>");
+        }
+        if (digestDto.getOmittedCount() > 0) {
+            html.append("<p class='more'>...and ").append(digestDto.getOmittedCount())
+                .append(" earlier update").append(digestDto.getOmittedCount() != 1 ? "s" : "")
+                .append(". Open your notifications to see them all.</p>");
+        }
+        html.append("</div>");
+
+        html.append("<div class='footer'>");
+        html.append("<p><strong>SPM Orangle Team</strong></p>");
+        html.append("<p>Frequent task updates are collected into this digest instead of separate emails.</p>");
+        html.append("<p><small>Please do not reply to this email.</small></p>");
+        html.append("</div>");
+
+        html.append("</div>");
+        html.append("</body>");
+        html.append("</html>");
+
+        return html.toString();
+    }
+
+    private static String escapeHtml(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;")
+                .replace("\"", "&quot;")
+                .replace("'", "&#39;");
+    }
+}
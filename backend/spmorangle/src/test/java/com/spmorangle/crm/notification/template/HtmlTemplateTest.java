@@ -0,0 +1,61 @@
+package com.spmorangle.crm.notification.template;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("HtmlTemplate Tests")
+class HtmlTemplateTest {
+
+    @Test
+    @DisplayName("Should escape double-brace values and insert triple-brace values as is")
+    void render_EscapesOnlyDoubleBraceValues() {
+        HtmlTemplate template = HtmlTemplate.compile("<h1>{{title}}</h1><div>{{{body}}}</div>");
+
+        String html = template.render(HtmlTemplate.values()
+                .with("title", "Fix <login> & \"signup\"")
+                .with("body", "<p>ok</p>"));
+
+        assertThat(html).isEqualTo("<h1>Fix &lt;login&gt; &amp; &quot;signup&quot;</h1><div><p>ok</p></div>");
+    }
+
+    @Test
+    @DisplayName("Should render missing and null values as nothing")
+    void render_MissingValues_RenderEmpty() {
+        HtmlTemplate template = HtmlTemplate.compile("a{{ first }}b{{{second}}}c{{third}}");
+
+        String html = template.render(HtmlTemplate.values().with("first", null).with("third", 3));
+
+        assertThat(html).isEqualTo("abc3");
+    }
+
+    @Test
+    @DisplayName("Should reject unclosed and empty placeholders")
+    void compile_MalformedPlaceholder_Throws() {
+        assertThatThrownBy(() -> HtmlTemplate.compile("Hello {{name"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HtmlTemplate.compile("Hello {{ }}"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should render independently on repeated and nested calls")
+    void render_RepeatedAndNestedCalls_DoNotShareOutput() {
+        HtmlTemplate outer = HtmlTemplate.compile("<ul>{{{items}}}</ul>");
+        HtmlTemplate item = HtmlTemplate.compile("<li>{{name}}</li>");
+        Object lazyItem = new Object() {
+            @Override
+            public String toString() {
+                return item.render(HtmlTemplate.values().with("name", "inner"));
+            }
+        };
+
+        String first = outer.render(HtmlTemplate.values().with("items", lazyItem));
+        String second = outer.render(HtmlTemplate.values().with("items", "<li>plain</li>"));
+
+        assertThat(first).isEqualTo("<ul><li>inner</li></ul>");
+        assertThat(second).isEqualTo("<ul><li>plain</li></ul>");
+    }
+}
@@ -0,0 +1,33 @@
+package com.spmorangle.crm.notification.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("NotificationCursor Tests")
+class NotificationCursorTest {
+
+    @Test
+    @DisplayName("Should round-trip the creation time with full precision")
+    void encodeDecode_RoundTrips() {
+        NotificationCursor cursor = new NotificationCursor(Instant.parse("2025-03-04T10:15:30.123456Z"), 42L);
+
+        NotificationCursor decoded = NotificationCursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(cursor);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursors")
+    void decode_Malformed_Throws() {
+        assertThatThrownBy(() -> NotificationCursor.decode("not base64!"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> NotificationCursor.decode(Base64.getUrlEncoder().encodeToString("2025|x".getBytes())))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
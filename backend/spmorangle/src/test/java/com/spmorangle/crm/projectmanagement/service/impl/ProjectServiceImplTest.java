@@ -4,6 +4,7 @@ import com.spmorangle.common.converter.UserConverter;
 import com.spmorangle.common.model.User;
 import com.spmorangle.common.repository.UserRepository;
 import com.spmorangle.crm.departmentmgmt.dto.DepartmentDto;
+import com.spmorangle.crm.departmentmgmt.hierarchy.VisibleUsers;
 import com.spmorangle.crm.departmentmgmt.model.Department;
 import com.spmorangle.crm.departmentmgmt.repository.DepartmentRepository;
 import com.spmorangle.crm.departmentmgmt.service.DepartmentQueryService;
@@ -162,8 +163,9 @@ class ProjectServiceImplTest {
             return java.util.Set.of(deptId);
         });
 
-        // Mock canUserSeeTask to return true by default (lenient for tests that don't use it)
-        lenient().when(departmentalVisibilityService.canUserSeeTask(any(), any())).thenReturn(true);
+        // Every project owner used in these tests is a visible member by default (lenient for tests that don't use it)
+        lenient().when(departmentalVisibilityService.visibleUsersForDepartments(any()))
+                .thenReturn(VisibleUsers.of(List.of(123L, 200L, 777L, 888L, 999L)));
 
         // Mock ProjectMemberRepository to return empty list by default (lenient for tests that don't use it)
         lenient().when(projectMemberRepository.findByProjectId(any())).thenReturn(Collections.emptyList());
@@ -819,7 +821,8 @@ class ProjectServiceImplTest {
             when(departmentQueryService.getById(deptId)).thenReturn(Optional.of(managerDept));
             when(departmentalVisibilityService.visibleDepartmentsForAssignedDept(deptId))
                     .thenReturn(Collections.singleton(deptId));
-            when(departmentalVisibilityService.canUserSeeTask(any(), any())).thenReturn(true);
+            // The manager (200L) and the cross-department project owner (888L) work in visible departments
+            when(departmentalVisibilityService.visibleUsersForDepartments(any())).thenReturn(VisibleUsers.of(List.of(200L, 888L)));
 
             when(userRepository.findById(managerId)).thenReturn(Optional.of(managerUser));
             when(projectRepository.findUserProjects(managerId)).thenReturn(memberProjects);
@@ -950,7 +953,8 @@ class ProjectServiceImplTest {
             when(departmentQueryService.getById(deptId)).thenReturn(Optional.of(managerDept));
             when(departmentalVisibilityService.visibleDepartmentsForAssignedDept(deptId))
                     .thenReturn(Collections.singleton(deptId));
-            when(departmentalVisibilityService.canUserSeeTask(any(), any())).thenReturn(true);
+            // The manager (200L) and the cross-department project owner (888L) work in visible departments
+            when(departmentalVisibilityService.visibleUsersForDepartments(any())).thenReturn(VisibleUsers.of(List.of(200L, 888L)));
 
             when(userRepository.findById(managerId)).thenReturn(Optional.of(managerUser));
             when(projectRepository.findUserProjects(managerId)).thenReturn(memberProjects);
@@ -0,0 +1,71 @@
+package com.spmorangle.crm.reporting.cache;
+
+import com.spmorangle.common.config.RabbitMQConfig;
+import com.spmorangle.crm.reporting.cache.ReportResultCache.Invalidation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.net.ConnectException;
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReportCacheInvalidationPublisher Tests")
+class ReportCacheInvalidationPublisherTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @InjectMocks
+    private ReportCacheInvalidationPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        publisher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.stop();
+    }
+
+    @Test
+    @DisplayName("Should send invalidations to the report cache exchange")
+    void publish_SendsToExchange() {
+        Invalidation invalidation = invalidation();
+
+        publisher.publish(invalidation);
+
+        verify(rabbitTemplate, timeout(1000)).convertAndSend(RabbitMQConfig.REPORT_CACHE_EXCHANGE, "", invalidation);
+    }
+
+    @Test
+    @DisplayName("Should keep sending after the broker could not be reached")
+    void publish_SendFails_KeepsSending() {
+        doThrow(new AmqpConnectException(new ConnectException("refused")))
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class));
+
+        publisher.publish(invalidation());
+        publisher.publish(invalidation());
+
+        verify(rabbitTemplate, timeout(1000).times(2)).convertAndSend(anyString(), anyString(), any(Object.class));
+    }
+
+    private static Invalidation invalidation() {
+        return new Invalidation("instance", Set.of(), Set.of(), Set.of(2L), Set.of(LocalDate.of(2025, 1, 20)));
+    }
+}
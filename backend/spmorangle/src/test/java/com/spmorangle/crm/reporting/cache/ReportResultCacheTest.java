@@ -0,0 +1,207 @@
+package com.spmorangle.crm.reporting.cache;
+
+import com.spmorangle.crm.departmentmgmt.hierarchy.DepartmentMemberIndex;
+import com.spmorangle.crm.reporting.cache.ReportResultCache.Invalidation;
+import com.spmorangle.crm.reporting.cache.ReportResultCache.Report;
+import com.spmorangle.crm.reporting.dto.ReportFilterDto;
+import com.spmorangle.crm.taskmanagement.event.TaskReportingChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith({MockitoExtension.class, OutputCaptureExtension.class})
+@DisplayName("ReportResultCache Tests")
+class ReportResultCacheTest {
+
+    private static final String MANAGER = "MANAGER";
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+    private static final LocalDate END = LocalDate.of(2025, 1, 31);
+
+    @Mock
+    private DepartmentMemberIndex departmentMemberIndex;
+
+    @Mock
+    private ReportCacheInvalidationPublisher invalidationPublisher;
+
+    @InjectMocks
+    private ReportResultCache reportResultCache;
+
+    @Test
+    @DisplayName("Should serve the same filters with projects in another order from the cache")
+    void get_SameNormalizedFilters_GeneratesOnce() {
+        AtomicInteger generated = new AtomicInteger();
+
+        String first = reportResultCache.get(Report.TASK_SUMMARY, MANAGER, 2L, filters(List.of(3L, 1L)),
+                () -> "report-" + generated.incrementAndGet());
+        String second = reportResultCache.get(Report.TASK_SUMMARY, MANAGER, 2L, filters(List.of(1L, 3L, 1L)),
+                () -> "report-" + generated.incrementAndGet());
+        String otherScope = reportResultCache.get(Report.TASK_SUMMARY, MANAGER, 4L, filters(List.of(1L, 3L)),
+                () -> "report-" + generated.incrementAndGet());
+
+        assertThat(first).isEqualTo("report-1");
+        assertThat(second).isEqualTo("report-1");
+        assertThat(otherScope).isEqualTo("report-2");
+        ReportResultCache.Stats stats = reportResultCache.stats();
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(2);
+        assertThat(stats.hitRatio()).isEqualTo(1.0 / 3);
+    }
+
+    @Test
+    @DisplayName("Should drop the department's and all-department summaries whose window holds the task's day")
+    void onTaskReportingChanged_DropsMatchingScopesAndWindows() {
+        when(departmentMemberIndex.departmentOf(10L)).thenReturn(2L);
+        reportResultCache.get(Report.TASK_SUMMARY, MANAGER, 2L, filters(null), () -> "dept-2");
+        reportResultCache.get(Report.TASK_SUMMARY, "HR", null, filters(null), () -> "all");
+        reportResultCache.get(Report.TASK_SUMMARY, MANAGER, 3L, filters(null), () -> "dept-3");
+        reportResultCache.get(Report.TASK_SUMMARY, MANAGER, 2L,
+                ReportFilterDto.builder().startDate(LocalDate.of(2024, 6, 1)).endDate(LocalDate.of(2024, 6, 30)).build(),
+                () -> "dept-2-june");
+
+        reportResultCache.onTaskReportingChanged(
+                new TaskReportingChangedEvent(1L, 10L, OffsetDateTime.of(2025, 1, 15, 12, 0, 0, 0, ZoneOffset.UTC)));
+
+        assertThat(reportResultCache.stats().invalidated()).isEqualTo(2);
+        assertThat(reportResultCache.stats().size()).isEqualTo(2);
+        assertThat(reportResultCache.get(Report.TASK_SUMMARY, MANAGER, 3L, filters(null), () -> "regenerated"))
+                .isEqualTo("dept-3");
+    }
+
+    @Test
+    @DisplayName("Should only drop time analytics when time tracking changes")
+    void invalidateTracking_DropsTimeAnalyticsOnly() {
+        when(departmentMemberIndex.departmentOf(7L)).thenReturn(2L);
+        reportResultCache.get(Report.TASK_SUMMARY, MANAGER, 2L, filters(null), () -> "summary");
+        reportResultCache.get(Report.TIME_ANALYTICS, MANAGER, 2L, filters(null), () -> "analytics");
+
+        reportResultCache.invalidateTracking(List.of(7L), List.of(OffsetDateTime.of(2025, 1, 20, 9, 0, 0, 0, ZoneOffset.UTC)));
+
+        assertThat(reportResultCache.get(Report.TASK_SUMMARY, MANAGER, 2L, filters(null), () -> "regenerated"))
+                .isEqualTo("summary");
+        assertThat(reportResultCache.get(Report.TIME_ANALYTICS, MANAGER, 2L, filters(null), () -> "regenerated"))
+                .isEqualTo("regenerated");
+    }
+
+    @Test
+    @DisplayName("Should broadcast invalidations to the other instances")
+    void invalidateTracking_Broadcasts() {
+        when(departmentMemberIndex.departmentOf(7L)).thenReturn(2L);
+
+        reportResultCache.invalidateTracking(List.of(7L), List.of(OffsetDateTime.of(2025, 1, 20, 9, 0, 0, 0, ZoneOffset.UTC)));
+
+        ArgumentCaptor<Invalidation> sent = ArgumentCaptor.forClass(Invalidation.class);
+        verify(invalidationPublisher).publish(sent.capture());
+        assertThat(sent.getValue().taskDays()).isEmpty();
+        assertThat(sent.getValue().trackingDepartmentIds()).containsExactly(2L);
+        assertThat(sent.getValue().trackingDays()).contains(LocalDate.of(2025, 1, 20));
+    }
+
+    @Test
+    @DisplayName("Should merge a transaction's changes into one invalidation, applied and broadcast on commit")
+    void invalidate_InTransaction_BroadcastsOnceOnCommit() {
+        when(departmentMemberIndex.departmentOf(7L)).thenReturn(2L);
+        when(departmentMemberIndex.departmentOf(8L)).thenReturn(3L);
+        when(departmentMemberIndex.departmentOf(10L)).thenReturn(4L);
+        reportResultCache.get(Report.TIME_ANALYTICS, MANAGER, 2L, filters(null), () -> "analytics");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            reportResultCache.invalidateTracking(List.of(7L), List.of(OffsetDateTime.of(2025, 1, 20, 9, 0, 0, 0, ZoneOffset.UTC)));
+            reportResultCache.invalidateTracking(List.of(8L), List.of(OffsetDateTime.of(2025, 1, 21, 9, 0, 0, 0, ZoneOffset.UTC)));
+            reportResultCache.onTaskReportingChanged(
+                    new TaskReportingChangedEvent(1L, 10L, OffsetDateTime.of(2025, 1, 15, 12, 0, 0, 0, ZoneOffset.UTC)));
+
+            verify(invalidationPublisher, never()).publish(any());
+            assertThat(reportResultCache.stats().size()).isEqualTo(1);
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            assertThat(synchronizations).hasSize(1);
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        ArgumentCaptor<Invalidation> sent = ArgumentCaptor.forClass(Invalidation.class);
+        verify(invalidationPublisher).publish(sent.capture());
+        assertThat(sent.getValue().trackingDepartmentIds()).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(sent.getValue().trackingDays()).contains(LocalDate.of(2025, 1, 20), LocalDate.of(2025, 1, 21));
+        assertThat(sent.getValue().taskDepartmentIds()).containsExactly(4L);
+        assertThat(sent.getValue().taskDays()).contains(LocalDate.of(2025, 1, 15));
+        assertThat(reportResultCache.stats().size()).isZero();
+        assertThat(TransactionSynchronizationManager.getResource(reportResultCache)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should drop the reports another instance's write made stale, and skip its own broadcasts")
+    void onInvalidation_OtherInstance_DropsMatchingReports() {
+        when(departmentMemberIndex.departmentOf(7L)).thenReturn(2L);
+        reportResultCache.invalidateTracking(List.of(7L), List.of(OffsetDateTime.of(2025, 1, 20, 9, 0, 0, 0, ZoneOffset.UTC)));
+        ArgumentCaptor<Invalidation> own = ArgumentCaptor.forClass(Invalidation.class);
+        verify(invalidationPublisher).publish(own.capture());
+
+        reportResultCache.get(Report.TASK_SUMMARY, MANAGER, 2L, filters(null), () -> "summary");
+        reportResultCache.get(Report.TIME_ANALYTICS, MANAGER, 2L, filters(null), () -> "analytics");
+        Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter();
+
+        reportResultCache.onInvalidation(converter.toMessage(own.getValue(), new MessageProperties()));
+        assertThat(reportResultCache.stats().size()).isEqualTo(2);
+
+        reportResultCache.onInvalidation(converter.toMessage(
+                new Invalidation("other-instance", Set.of(2L), Set.of(LocalDate.of(2025, 1, 10)), Set.of(), Set.of()),
+                new MessageProperties()));
+        assertThat(reportResultCache.stats().size()).isZero();
+        assertThat(reportResultCache.stats().invalidated()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should report the hit ratio and the query time hits saved")
+    void logStats_ReportsHitRatioAndSavedTime(CapturedOutput output) {
+        reportResultCache.get(Report.TASK_SUMMARY, MANAGER, 2L, filters(null), () -> {
+            try {
+                Thread.sleep(25);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "slow";
+        });
+        reportResultCache.get(Report.TASK_SUMMARY, MANAGER, 2L, filters(null), () -> "regenerated");
+        reportResultCache.get(Report.TASK_SUMMARY, MANAGER, 2L, filters(null), () -> "regenerated");
+
+        ReportResultCache.Stats stats = reportResultCache.stats();
+        assertThat(stats.hitRatio()).isEqualTo(2.0 / 3);
+        assertThat(stats.savedMillis()).isGreaterThanOrEqualTo(50);
+
+        reportResultCache.logStats();
+
+        assertThat(output).contains("Report cache: 1 entries, 2 hits, 1 misses, hit ratio 0.67, "
+                + stats.savedMillis() + " ms of report queries saved");
+    }
+
+    private static ReportFilterDto filters(List<Long> projectIds) {
+        return ReportFilterDto.builder().startDate(START).endDate(END).projectIds(projectIds).build();
+    }
+}
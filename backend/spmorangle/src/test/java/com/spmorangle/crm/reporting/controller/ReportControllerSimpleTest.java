@@ -4,9 +4,12 @@ import com.spmorangle.common.enums.UserType;
 import com.spmorangle.common.model.User;
 import com.spmorangle.common.service.UserContextService;
 import com.spmorangle.crm.reporting.dto.ReportFilterDto;
+import com.spmorangle.crm.reporting.dto.ReportJobDto;
 import com.spmorangle.crm.reporting.dto.TaskSummaryReportDto;
 import com.spmorangle.crm.reporting.dto.TimeAnalyticsReportDto;
+import com.spmorangle.crm.reporting.enums.ReportJobStatus;
 import com.spmorangle.crm.reporting.export.ReportExportService;
+import com.spmorangle.crm.reporting.job.ReportJobService;
 import com.spmorangle.crm.reporting.service.ReportService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,9 +25,11 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +44,9 @@ class ReportControllerSimpleTest {
     @Mock
     private ReportExportService reportExportService;
 
+    @Mock
+    private ReportJobService reportJobService;
+
     @InjectMocks
     private ReportController reportController;
 
@@ -97,21 +105,87 @@ class ReportControllerSimpleTest {
     void testGenerateReport_Success() {
         // Arrange
         when(userContextService.getRequestingUser()).thenReturn(hrUser);
-        when(reportService.generateTaskSummaryReport(any(), any())).thenReturn(mockTaskSummary);
-        when(reportService.generateTimeAnalyticsReport(any(), any())).thenReturn(mockTimeAnalytics);
-        when(reportService.generateTimeSeriesData(any(), any())).thenReturn(null);
+        Map<String, Object> reportData = new HashMap<>();
+        reportData.put("taskSummary", mockTaskSummary);
+        reportData.put("timeAnalytics", mockTimeAnalytics);
+        when(reportService.generateReportData(any(), any())).thenReturn(reportData);
         
-        when(reportExportService.exportReport(any(), any())).thenReturn(ResponseEntity.ok().build());
+        when(reportExportService.exportReport(any(), any(), anyBoolean())).thenReturn(ResponseEntity.ok().build());
 
         ReportFilterDto filters = new ReportFilterDto();
 
         // Act
-        ResponseEntity<?> response = reportController.generateReport(filters);
+        ResponseEntity<?> response = reportController.generateReport(filters, "gzip, deflate, br");
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(reportService, times(1)).generateTaskSummaryReport(any(), any());
-        verify(reportService, times(1)).generateTimeAnalyticsReport(any(), any());
+        verify(reportService, times(1)).generateReportData(any(), any());
+        verify(reportExportService).exportReport(eq(reportData), any(), eq(true));
+    }
+
+    @Test
+    void testAcceptsGzip_HonoursQualityValues() {
+        assertTrue(ReportController.acceptsGzip("gzip, deflate, br"));
+        assertTrue(ReportController.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(ReportController.acceptsGzip("*"));
+        assertFalse(ReportController.acceptsGzip(null));
+        assertFalse(ReportController.acceptsGzip("identity"));
+        assertFalse(ReportController.acceptsGzip("gzip;q=0"));
+        assertFalse(ReportController.acceptsGzip("gzip; q=0.000, deflate"));
+        assertFalse(ReportController.acceptsGzip("*;q=1, gzip;q=0"));
+        assertFalse(ReportController.acceptsGzip("*;q=0"));
+    }
+
+    @Test
+    void testSubmitReportJob_ReturnsAccepted() {
+        // Arrange
+        hrUser.setId(1L);
+        when(userContextService.getRequestingUser()).thenReturn(hrUser);
+        ReportJobDto job = ReportJobDto.builder().jobId("job-1").status(ReportJobStatus.QUEUED).build();
+        when(reportJobService.submit(any(), eq(1L))).thenReturn(job);
+
+        ReportFilterDto filters = ReportFilterDto.builder()
+                .startDate(LocalDate.of(2025, 1, 1))
+                .endDate(LocalDate.of(2025, 12, 31))
+                .exportFormat(ReportFilterDto.ExportFormat.CSV)
+                .build();
+
+        // Act
+        ResponseEntity<?> response = reportController.submitReportJob(filters);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(job, response.getBody());
+    }
+
+    @Test
+    void testDownloadReportJob_NotCompleted_ReturnsConflict() {
+        // Arrange
+        hrUser.setId(1L);
+        when(userContextService.getRequestingUser()).thenReturn(hrUser);
+        when(reportJobService.getJob("job-1", 1L)).thenReturn(Optional.of(
+                ReportJobDto.builder().jobId("job-1").status(ReportJobStatus.RUNNING).build()));
+
+        // Act
+        ResponseEntity<?> response = reportController.downloadReportJob("job-1");
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        verify(reportJobService, never()).getResult(any(), any());
+    }
+
+    @Test
+    void testDownloadReportJob_Unknown_ReturnsNotFound() {
+        // Arrange
+        hrUser.setId(1L);
+        when(userContextService.getRequestingUser()).thenReturn(hrUser);
+        when(reportJobService.getJob("missing", 1L)).thenReturn(Optional.empty());
+
+        // Act
+        ResponseEntity<?> response = reportController.downloadReportJob("missing");
+
+        // Assert
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
     @Test
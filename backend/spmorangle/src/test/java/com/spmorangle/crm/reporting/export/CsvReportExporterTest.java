@@ -7,6 +7,7 @@ import com.spmorangle.crm.reporting.dto.TimeAnalyticsReportDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
@@ -15,6 +16,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -172,6 +174,28 @@ class CsvReportExporterTest {
         assertTrue(csvContent.matches("(?s).*\\d+\\.\\d.*"));
     }
 
+    @Test
+    void testStreamingExportMatchesByteExportAndLeavesStreamOpen() throws Exception {
+        // Arrange
+        Map<String, Object> reportData = createSampleReportData();
+        ReportFilterDto filters = createSampleFilters();
+        AtomicBoolean closed = new AtomicBoolean();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+
+        // Act
+        csvExporter.export(reportData, filters, out);
+
+        // Assert
+        assertTrue(csvExporter.isStreaming());
+        assertArrayEquals(csvExporter.export(reportData, filters), out.toByteArray());
+        assertFalse(closed.get());
+    }
+
     // Helper methods
 
     private Map<String, Object> createSampleReportData() {
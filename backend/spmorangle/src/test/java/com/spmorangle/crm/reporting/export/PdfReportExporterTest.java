@@ -7,10 +7,12 @@ import com.spmorangle.crm.reporting.dto.ReportFilterDto;
 import com.spmorangle.crm.reporting.dto.StaffBreakdownDto;
 import com.spmorangle.crm.reporting.dto.TaskSummaryReportDto;
 import com.spmorangle.crm.reporting.dto.TimeAnalyticsReportDto;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
@@ -23,11 +25,19 @@ import static org.junit.jupiter.api.Assertions.*;
 
 class PdfReportExporterTest {
 
+    private PdfChartRenderer chartRenderer;
     private PdfReportExporter pdfExporter;
 
     @BeforeEach
     void setUp() {
-        pdfExporter = new PdfReportExporter();
+        chartRenderer = new PdfChartRenderer();
+        chartRenderer.start();
+        pdfExporter = new PdfReportExporter(chartRenderer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        chartRenderer.stop();
     }
 
     @Test
@@ -248,6 +258,58 @@ class PdfReportExporterTest {
         assertTrue(header.startsWith("%PDF"), "Should start with PDF header");
     }
 
+    @Test
+    void testStreamingExportWritesLongStaffTableAndLeavesStreamOpen() throws Exception {
+        // Arrange
+        Map<String, Object> reportData = createSampleReportData();
+        List<StaffBreakdownDto> staffBreakdown = new ArrayList<>();
+        for (long i = 1; i <= 400; i++) {
+            staffBreakdown.add(StaffBreakdownDto.builder()
+                    .userId(i)
+                    .userName("Staff " + i)
+                    .department("Engineering")
+                    .todoTasks(1L)
+                    .inProgressTasks(1L)
+                    .completedTasks(1L)
+                    .blockedTasks(0L)
+                    .loggedHours(new BigDecimal("8.0"))
+                    .build());
+        }
+        reportData.put("staffBreakdown", staffBreakdown);
+        boolean[] closed = new boolean[1];
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+
+        // Act
+        pdfExporter.export(reportData, createSampleFilters(), out);
+
+        // Assert
+        assertTrue(pdfExporter.isStreaming());
+        assertFalse(closed[0]);
+        String pdfContent = extractTextFromPdf(out.toByteArray());
+        assertTrue(pdfContent.contains("Staff 1"));
+        assertTrue(pdfContent.contains("Staff 400"));
+    }
+
+    @Test
+    void testRepeatedExportReusesRenderedCharts() throws Exception {
+        // Arrange
+        Map<String, Object> reportData = createSampleReportData();
+        ReportFilterDto filters = createSampleFilters();
+
+        // Act
+        pdfExporter.export(reportData, filters);
+        pdfExporter.export(reportData, filters);
+
+        // Assert - pie and bar chart drawn once, then served from the cache
+        assertEquals(2, chartRenderer.stats().renders());
+        assertEquals(2, chartRenderer.stats().hits());
+    }
+
     // Helper methods
 
     private String extractTextFromPdf(byte[] pdfBytes) throws Exception {
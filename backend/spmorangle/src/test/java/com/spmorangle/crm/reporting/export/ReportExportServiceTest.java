@@ -12,14 +12,21 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -107,6 +114,36 @@ class ReportExportServiceTest {
         verify(csvExporter).export(reportData, filters);
     }
 
+    @Test
+    void testExportReport_StreamingExporter_WritesGzippedBody() throws Exception {
+        // Arrange
+        filters.setExportFormat(ReportFilterDto.ExportFormat.CSV);
+        byte[] csvData = "CSV,Data,Here\n1,2,3".getBytes(StandardCharsets.UTF_8);
+
+        when(csvExporter.isStreaming()).thenReturn(true);
+        when(csvExporter.isCompressible()).thenReturn(true);
+        when(csvExporter.getContentType()).thenReturn("text/csv");
+        when(csvExporter.getFileExtension()).thenReturn("csv");
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write(csvData);
+            return null;
+        }).when(csvExporter).export(eq(reportData), eq(filters), any(OutputStream.class));
+
+        // Act
+        ResponseEntity<?> response = reportExportService.exportReport(reportData, filters, true);
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        ((StreamingResponseBody) response.getBody()).writeTo(written);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(response.getHeaders().containsKey(HttpHeaders.CONTENT_DISPOSITION));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(written.toByteArray()))) {
+            assertArrayEquals(csvData, in.readAllBytes());
+        }
+        verify(csvExporter, never()).export(any(), any());
+    }
+
     @Test
     void testExportReport_PdfFormat_ReturnsFileDownload() {
         // Arrange
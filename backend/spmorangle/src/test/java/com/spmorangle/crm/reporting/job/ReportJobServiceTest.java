@@ -0,0 +1,161 @@
+package com.spmorangle.crm.reporting.job;
+
+import com.spmorangle.crm.reporting.dto.ReportFilterDto;
+import com.spmorangle.crm.reporting.dto.ReportJobDto;
+import com.spmorangle.crm.reporting.enums.ReportJobStatus;
+import com.spmorangle.crm.reporting.export.ReportExportService;
+import com.spmorangle.crm.reporting.export.ReportExporter;
+import com.spmorangle.crm.reporting.service.ReportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("ReportJobService Tests")
+class ReportJobServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private ReportService reportService;
+
+    @Mock
+    private ReportExportService reportExportService;
+
+    @Mock
+    private ReportExporter exporter;
+
+    private ReportJobService reportJobService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ReportResultStore store = new ReportResultStore();
+        ReflectionTestUtils.setField(store, "storeDir", directory.toString());
+        store.start();
+        reportJobService = new ReportJobService(reportService, reportExportService, store);
+        reportJobService.start();
+
+        when(reportExportService.exporterFor(any())).thenReturn(exporter);
+        when(reportExportService.filenameFor(any(), eq(exporter))).thenReturn("report.csv");
+        when(exporter.getContentType()).thenReturn("text/csv");
+    }
+
+    @AfterEach
+    void tearDown() {
+        reportJobService.stop();
+    }
+
+    @Test
+    @DisplayName("Should generate the report in the background and serve it to its owner only")
+    void submit_Completes_ResultAvailableToOwner() throws Exception {
+        Map<String, Object> reportData = Map.of("generatedAt", "now");
+        when(reportService.generateReportData(any(), eq(1L))).thenReturn(reportData);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write("a,b\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exporter).export(eq(reportData), any(), any(OutputStream.class));
+
+        ReportJobDto submitted = reportJobService.submit(filters(List.of(2L, 1L)), 1L);
+        ReportJobDto done = awaitFinished(submitted.getJobId(), 1L);
+
+        assertThat(done.getStatus()).isEqualTo(ReportJobStatus.COMPLETED);
+        assertThat(done.getDownloadUrl()).isEqualTo("/api/reports/jobs/" + submitted.getJobId() + "/download");
+        ReportJobService.ReportJobResult result = reportJobService.getResult(submitted.getJobId(), 1L).orElseThrow();
+        assertThat(Files.readString(result.file())).isEqualTo("a,b\n");
+        assertThat(result.filename()).isEqualTo("report.csv");
+        assertThat(reportJobService.getJob(submitted.getJobId(), 2L)).isEmpty();
+        assertThat(reportJobService.getResult(submitted.getJobId(), 2L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should hand back the running job for an identical request from the same user")
+    void submit_IdenticalInFlight_Deduplicated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(reportService.generateReportData(any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Map.of();
+        });
+
+        ReportJobDto first = reportJobService.submit(filters(List.of(1L, 2L)), 1L);
+        ReportJobDto same = reportJobService.submit(filters(List.of(2L, 1L)), 1L);
+        ReportJobDto otherUser = reportJobService.submit(filters(List.of(1L, 2L)), 2L);
+        release.countDown();
+
+        assertThat(same.getJobId()).isEqualTo(first.getJobId());
+        assertThat(otherUser.getJobId()).isNotEqualTo(first.getJobId());
+        awaitFinished(first.getJobId(), 1L);
+        awaitFinished(otherUser.getJobId(), 2L);
+        verify(reportService, times(2)).generateReportData(any(), any());
+        assertThat(reportJobService.stats().deduplicated()).isEqualTo(1);
+
+        // Finished jobs no longer absorb new requests
+        ReportJobDto later = reportJobService.submit(filters(List.of(1L, 2L)), 1L);
+        assertThat(later.getJobId()).isNotEqualTo(first.getJobId());
+        awaitFinished(later.getJobId(), 1L);
+    }
+
+    @Test
+    @DisplayName("Should mark the job failed when generation throws")
+    void submit_GenerationFails_MarksFailed() throws Exception {
+        when(reportService.generateReportData(any(), any())).thenThrow(new RuntimeException("User not found"));
+
+        ReportJobDto submitted = reportJobService.submit(filters(null), 1L);
+        ReportJobDto done = awaitFinished(submitted.getJobId(), 1L);
+
+        assertThat(done.getStatus()).isEqualTo(ReportJobStatus.FAILED);
+        assertThat(done.getError()).contains("User not found");
+        assertThat(done.getDownloadUrl()).isNull();
+        assertThat(reportJobService.getResult(submitted.getJobId(), 1L)).isEmpty();
+    }
+
+    private ReportJobDto awaitFinished(String jobId, Long userId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            ReportJobDto job = reportJobService.getJob(jobId, userId).orElseThrow();
+            if (job.getStatus().isFinished()) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Report job " + jobId + " did not finish");
+    }
+
+    private static ReportFilterDto filters(List<Long> projectIds) {
+        return ReportFilterDto.builder()
+                .departmentId(10L)
+                .projectIds(projectIds)
+                .startDate(LocalDate.of(2025, 1, 1))
+                .endDate(LocalDate.of(2025, 3, 31))
+                .exportFormat(ReportFilterDto.ExportFormat.CSV)
+                .build();
+    }
+}
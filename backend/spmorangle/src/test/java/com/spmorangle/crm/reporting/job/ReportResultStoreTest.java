@@ -0,0 +1,73 @@
+package com.spmorangle.crm.reporting.job;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ReportResultStore Tests")
+class ReportResultStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private ReportResultStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new ReportResultStore();
+        ReflectionTestUtils.setField(store, "storeDir", directory.toString());
+        store.start();
+    }
+
+    @Test
+    @DisplayName("Should store a result and find it until it expires")
+    void write_ThenFind_ReturnsFileUntilPurged() throws IOException {
+        String jobId = UUID.randomUUID().toString();
+
+        long size = store.write(jobId, out -> out.write("a,b\n1,2\n".getBytes(StandardCharsets.UTF_8)));
+
+        Optional<Path> file = store.find(jobId);
+        assertThat(size).isEqualTo(8);
+        assertThat(file).isPresent();
+        assertThat(Files.readString(file.get())).isEqualTo("a,b\n1,2\n");
+
+        Files.setLastModifiedTime(file.get(), FileTime.from(Instant.now().minus(store.getTtl()).minusSeconds(1)));
+        assertThat(store.find(jobId)).isEmpty();
+        assertThat(store.purgeOlderThan(Instant.now().minus(store.getTtl()))).isEqualTo(1);
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    @Test
+    @DisplayName("Should leave nothing behind when writing fails")
+    void write_WriterFails_RemovesPartialFile() {
+        String jobId = UUID.randomUUID().toString();
+
+        assertThatThrownBy(() -> store.write(jobId, out -> {
+            out.write(1);
+            throw new IOException("disk full");
+        })).isInstanceOf(IOException.class);
+
+        assertThat(store.find(jobId)).isEmpty();
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    @Test
+    @DisplayName("Should reject ids that are not job ids")
+    void find_InvalidJobId_Throws() {
+        assertThatThrownBy(() -> store.find("../../etc/passwd")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
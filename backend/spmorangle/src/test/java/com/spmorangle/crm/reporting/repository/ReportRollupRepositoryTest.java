@@ -0,0 +1,199 @@
+package com.spmorangle.crm.reporting.repository;
+
+import com.spmorangle.common.enums.UserType;
+import com.spmorangle.common.model.User;
+import com.spmorangle.crm.projectmanagement.model.Project;
+import com.spmorangle.crm.reporting.model.TaskTimeTracking;
+import com.spmorangle.crm.taskmanagement.enums.Status;
+import com.spmorangle.crm.taskmanagement.enums.TaskType;
+import com.spmorangle.crm.taskmanagement.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@DisplayName("ReportRollupRepository Tests")
+class ReportRollupRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ReportRollupRepository reportRollupRepository;
+
+    @Autowired
+    private ReportingRepository reportingRepository;
+
+    @Autowired
+    private TaskTimeTrackingRepository taskTimeTrackingRepository;
+
+    private final OffsetDateTime noon = OffsetDateTime.now(ZoneOffset.UTC).withHour(12).withMinute(0).withSecond(0).withNano(0);
+    private final LocalDate from = noon.toLocalDate().minusDays(10);
+    private final LocalDate to = noon.toLocalDate().plusDays(1);
+
+    private User engineer;
+    private User marketer;
+    private Project alpha;
+    private Project beta;
+
+    @BeforeEach
+    void setUp() {
+        engineer = persistUser("engineer", 100L);
+        marketer = persistUser("marketer", 200L);
+        alpha = persistProject("Alpha", engineer.getId());
+        beta = persistProject("Beta", marketer.getId());
+
+        Task done = persistTask(engineer, alpha, Status.COMPLETED, noon.minusDays(3), false);
+        persistTask(engineer, alpha, Status.TODO, noon.minusDays(3), false);
+        persistTask(engineer, null, Status.TODO, noon.minusDays(2), false);
+        Task marketing = persistTask(marketer, beta, Status.IN_PROGRESS, noon.minusDays(1), false);
+        persistTask(marketer, beta, Status.BLOCKED, noon, true);
+
+        persistTracking(done, engineer, noon.minusDays(3), noon.minusDays(2), "6.00");
+        persistTracking(done, marketer, noon.minusDays(3), noon.minusDays(2), "6.00");
+        persistTracking(marketing, marketer, noon.minusDays(1), noon.minusHours(20), "4.00");
+        persistTracking(marketing, engineer, noon.minusHours(2), null, null);
+        entityManager.flush();
+    }
+
+    @Nested
+    @DisplayName("Rebuild Tests")
+    class RebuildTests {
+
+        @Test
+        @DisplayName("Should match the task counts of the source queries after a rebuild")
+        void rebuild_TaskCounts_MatchSourceQueries() {
+            rebuild(from, to);
+
+            assertThat(asMap(reportRollupRepository.getTaskCountsByStatus(null, from, to)))
+                .isEqualTo(asMap(reportingRepository.getTaskCountsByStatus(null, from, to)));
+            assertThat(asMap(reportRollupRepository.getTaskCountsByDepartmentAndStatus(100L, from, to)))
+                .isEqualTo(asMap(reportingRepository.getTaskCountsByDepartmentAndStatus(100L, from, to)));
+            assertThat(asMap(reportRollupRepository.getAllTaskCountsByProjectAndStatus(null, from, to)))
+                .isEqualTo(asMap(reportingRepository.getAllTaskCountsByProjectAndStatus(null, from, to)));
+            assertThat(asMap(reportRollupRepository.getTaskCountsByProjectAndStatus(null, List.of(beta.getId()), from, to)))
+                .isEqualTo(asMap(reportingRepository.getTaskCountsByProjectAndStatus(null, List.of(beta.getId()), from, to)))
+                .containsOnlyKeys("Beta|IN_PROGRESS");
+        }
+
+        @Test
+        @DisplayName("Should keep completed hours by tracker department and project")
+        void rebuild_CompletedHours_GroupedByTrackerAndProject() {
+            rebuild(from, to);
+
+            Map<String, Long> byDepartment = asMap(reportRollupRepository.getCompletedHoursByDepartment(null, null, from, to));
+            assertThat(byDepartment).containsEntry("100", 600L).containsEntry("200", 1000L);
+            Map<String, Long> byProject = asMap(reportRollupRepository.getCompletedHoursByProject(null, List.of(alpha.getId()), from, to));
+            assertThat(byProject).containsOnlyKeys("Alpha").containsEntry("Alpha", 1200L);
+
+            // Running timers stay out of the rollup and are added from the open timer index
+            assertThat(taskTimeTrackingRepository.findOpenTimers())
+                .singleElement().satisfies(row -> assertThat(row[2]).isEqualTo(engineer.getId()));
+        }
+
+        @Test
+        @DisplayName("Should only replace the rebuilt days")
+        void rebuild_DayRange_LeavesOtherDaysUntouched() {
+            rebuild(from, to);
+            LocalDate lastDay = noon.toLocalDate().minusDays(1);
+            persistTask(marketer, beta, Status.TODO, noon.minusDays(1), false);
+            persistTask(engineer, alpha, Status.TODO, noon.minusDays(3), false);
+            entityManager.flush();
+
+            rebuild(lastDay, lastDay);
+
+            Map<String, Long> counts = asMap(reportRollupRepository.getTaskCountsByStatus(null, from, to));
+            // The new day-1 task is picked up; the new day-3 task waits for its own day to be rebuilt
+            assertThat(counts).containsEntry("TODO", 3L);
+            assertThat(reportRollupRepository.count()).isEqualTo(5);
+        }
+    }
+
+    private void rebuild(LocalDate fromDay, LocalDate toDay) {
+        OffsetDateTime fromTime = fromDay.minusDays(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+        OffsetDateTime toTime = toDay.plusDays(2).atStartOfDay().atOffset(ZoneOffset.UTC);
+        reportRollupRepository.deleteTaskRollups(fromDay, toDay);
+        reportRollupRepository.insertTaskRollups(fromDay, toDay, fromTime, toTime);
+        reportRollupRepository.deleteHoursRollups(fromDay, toDay);
+        reportRollupRepository.insertHoursRollups(fromDay, toDay, fromTime, toTime);
+        entityManager.clear();
+    }
+
+    // Keys are the leading columns joined with '|'; counts stay as is and hours become hundredths
+    private static Map<String, Long> asMap(List<Object[]> rows) {
+        Map<String, Long> map = new HashMap<>();
+        for (Object[] row : rows) {
+            StringBuilder key = new StringBuilder();
+            for (int i = 0; i < row.length - 1; i++) {
+                key.append(i > 0 ? "|" : "").append(row[i]);
+            }
+            Object value = row[row.length - 1];
+            long number = value instanceof BigDecimal decimal
+                ? decimal.movePointRight(2).longValue()
+                : ((Number) value).longValue();
+            map.put(key.toString(), number);
+        }
+        return map;
+    }
+
+    private User persistUser(String name, Long departmentId) {
+        User user = new User();
+        user.setUserName(name);
+        user.setEmail(name + "@example.com");
+        user.setDepartmentId(departmentId);
+        user.setRoleType(UserType.STAFF.getCode());
+        user.setCognitoSub(UUID.randomUUID());
+        user.setIsActive(true);
+        return entityManager.persistAndFlush(user);
+    }
+
+    private Project persistProject(String name, Long ownerId) {
+        Project project = new Project();
+        project.setName(name);
+        project.setOwnerId(ownerId);
+        project.setDeleteInd(false);
+        project.setCreatedAt(OffsetDateTime.now());
+        project.setUpdatedAt(OffsetDateTime.now());
+        project.setCreatedBy(ownerId);
+        project.setUpdatedBy(ownerId);
+        return entityManager.persistAndFlush(project);
+    }
+
+    private Task persistTask(User owner, Project project, Status status, OffsetDateTime createdAt, boolean deleted) {
+        Task task = new Task();
+        task.setTitle("Task");
+        task.setOwnerId(owner.getId());
+        task.setProjectId(project != null ? project.getId() : null);
+        task.setStatus(status);
+        task.setDeleteInd(deleted);
+        task.setTaskType(TaskType.FEATURE);
+        task.setCreatedAt(createdAt);
+        task.setCreatedBy(owner.getId());
+        return entityManager.persist(task);
+    }
+
+    private void persistTracking(Task task, User user, OffsetDateTime startedAt, OffsetDateTime completedAt, String hours) {
+        TaskTimeTracking tracking = new TaskTimeTracking();
+        tracking.setTaskId(task.getId());
+        tracking.setUserId(user.getId());
+        tracking.setStartedAt(startedAt);
+        tracking.setCompletedAt(completedAt);
+        tracking.setTotalHours(hours != null ? new BigDecimal(hours) : null);
+        entityManager.persist(tracking);
+    }
+}
@@ -9,6 +9,7 @@ import com.spmorangle.crm.reporting.model.TaskTimeTracking;
 import com.spmorangle.crm.taskmanagement.enums.Status;
 import com.spmorangle.crm.taskmanagement.enums.TaskType;
 import com.spmorangle.crm.taskmanagement.model.Task;
+import com.spmorangle.crm.taskmanagement.model.TaskAssignee;
 import com.spmorangle.crm.taskmanagement.repository.TaskRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -614,5 +615,157 @@ class ReportingRepositoryTest {
             assertThat(onlyProject1).isEqualByComparingTo(new BigDecimal("2.00"));
         }
     }
-}
 
+    @Nested
+    @DisplayName("Grouped staff breakdown queries")
+    class GroupedStaffQueriesTests {
+
+        @Test
+        @DisplayName("Should count owned and assigned tasks per user once, matching the per-user query")
+        void testGetTaskCountsByStatusForUsers_MatchesPerUserQuery() {
+            // testUser owns testTask and is also assigned to it; testUser2 is assigned to it too
+            assign(testTask, testUser);
+            assign(testTask, testUser2);
+
+            Task ownedByUser2 = new Task();
+            ownedByUser2.setTitle("User 2 Task");
+            ownedByUser2.setOwnerId(testUser2.getId());
+            ownedByUser2.setProjectId(testProject.getId());
+            ownedByUser2.setStatus(Status.TODO);
+            ownedByUser2.setTaskType(TaskType.FEATURE);
+            ownedByUser2.setCreatedAt(OffsetDateTime.now());
+            ownedByUser2.setCreatedBy(testUser2.getId());
+            entityManager.persistAndFlush(ownedByUser2);
+
+            LocalDate from = LocalDate.now().minusDays(1);
+            LocalDate to = LocalDate.now().plusDays(1);
+
+            List<Object[]> grouped = reportingRepository.getTaskCountsByStatusForUsers(
+                List.of(testUser.getId(), testUser2.getId()), null, from, to);
+
+            for (User user : List.of(testUser, testUser2)) {
+                List<Object[]> perUser = reportingRepository.getTaskCountsByStatusForUser(user.getId(), null, from, to);
+                List<String> expected = perUser.stream().map(row -> row[0] + "=" + row[1]).toList();
+                List<String> actual = grouped.stream()
+                    .filter(row -> user.getId().equals(row[0]))
+                    .map(row -> row[1] + "=" + row[2])
+                    .toList();
+                assertThat(actual).containsExactlyInAnyOrderElementsOf(expected);
+            }
+            assertThat(grouped).filteredOn(row -> testUser.getId().equals(row[0]))
+                .singleElement()
+                .satisfies(row -> assertThat(row[2]).isEqualTo(1L));
+        }
+
+        @Test
+        @DisplayName("Should sum logged hours per user and omit users without tracked time")
+        void testGetLoggedHoursForUsers_GroupsByUser() {
+            TaskTimeTracking tracking = new TaskTimeTracking();
+            tracking.setTaskId(testTask.getId());
+            tracking.setUserId(testUser.getId());
+            tracking.setStartedAt(OffsetDateTime.now().minusHours(3));
+            tracking.setCompletedAt(OffsetDateTime.now());
+            tracking.setTotalHours(new BigDecimal("3.00"));
+            entityManager.persistAndFlush(tracking);
+
+            List<Object[]> grouped = reportingRepository.getLoggedHoursForUsers(
+                List.of(testUser.getId(), testUser2.getId()), null,
+                LocalDate.now().minusDays(1), LocalDate.now().plusDays(1));
+
+            assertThat(grouped).hasSize(1);
+            assertThat(grouped.get(0)[0]).isEqualTo(testUser.getId());
+            assertThat(new BigDecimal(grouped.get(0)[1].toString())).isEqualByComparingTo(new BigDecimal("3.00"));
+        }
+
+        private void assign(Task task, User user) {
+            TaskAssignee assignee = new TaskAssignee();
+            assignee.setTaskId(task.getId());
+            assignee.setUserId(user.getId());
+            assignee.setAssignedId(user.getId());
+            entityManager.persistAndFlush(assignee);
+        }
+    }
+
+    @Nested
+    @DisplayName("Daily bucket queries for time-series reports")
+    class DailyBucketQueriesTests {
+
+        @Test
+        @DisplayName("Should bucket task counts by creation day and keep department and project columns")
+        void testGetDailyTaskCountsByDepartmentProjectAndStatus_BucketsByDay() {
+            Task olderTask = new Task();
+            olderTask.setTitle("Older Task");
+            olderTask.setOwnerId(testUser2.getId());
+            olderTask.setStatus(Status.TODO);
+            olderTask.setTaskType(TaskType.FEATURE);
+            olderTask.setCreatedAt(OffsetDateTime.now().minusDays(3));
+            olderTask.setCreatedBy(testUser2.getId());
+            entityManager.persistAndFlush(olderTask);
+
+            LocalDate from = LocalDate.now().minusDays(7);
+            LocalDate to = LocalDate.now().plusDays(1);
+
+            List<Object[]> rows = reportingRepository.getDailyTaskCountsByDepartmentProjectAndStatus(null, from, to);
+
+            assertThat(rows).hasSize(2);
+            assertThat(rows).anySatisfy(row -> {
+                assertThat(row[0].toString()).isEqualTo(LocalDate.now().toString());
+                assertThat(row[1]).isEqualTo(100L);
+                assertThat(row[2]).isEqualTo(testProject.getId());
+                assertThat(row[3]).isEqualTo("Test Project");
+                assertThat(row[4]).isEqualTo(Status.IN_PROGRESS);
+                assertThat(row[5]).isEqualTo(1L);
+            });
+            // Tasks without a project are still counted, with empty project columns
+            assertThat(rows).anySatisfy(row -> {
+                assertThat(row[0].toString()).isEqualTo(LocalDate.now().minusDays(3).toString());
+                assertThat(row[1]).isEqualTo(200L);
+                assertThat(row[2]).isNull();
+                assertThat(row[3]).isNull();
+                assertThat(row[4]).isEqualTo(Status.TODO);
+            });
+        }
+
+        @Test
+        @DisplayName("Should bucket staff task counts and logged hours by day per user")
+        void testDailyStaffQueries_BucketByDay() {
+            TaskAssignee assignee = new TaskAssignee();
+            assignee.setTaskId(testTask.getId());
+            assignee.setUserId(testUser2.getId());
+            assignee.setAssignedId(testUser.getId());
+            entityManager.persistAndFlush(assignee);
+
+            TaskTimeTracking earlier = new TaskTimeTracking();
+            earlier.setTaskId(testTask.getId());
+            earlier.setUserId(testUser.getId());
+            earlier.setStartedAt(OffsetDateTime.now().minusDays(2));
+            earlier.setCompletedAt(OffsetDateTime.now().minusDays(2).plusHours(2));
+            earlier.setTotalHours(new BigDecimal("2.00"));
+            entityManager.persistAndFlush(earlier);
+
+            TaskTimeTracking today = new TaskTimeTracking();
+            today.setTaskId(testTask.getId());
+            today.setUserId(testUser2.getId());
+            today.setStartedAt(OffsetDateTime.now().minusHours(1));
+            today.setCompletedAt(OffsetDateTime.now());
+            today.setTotalHours(new BigDecimal("1.00"));
+            entityManager.persistAndFlush(today);
+
+            List<Long> userIds = List.of(testUser.getId(), testUser2.getId());
+            LocalDate from = LocalDate.now().minusDays(7);
+            LocalDate to = LocalDate.now().plusDays(1);
+
+            List<Object[]> counts = reportingRepository.getDailyTaskCountsByStatusForUsers(userIds, null, from, to);
+            List<Object[]> hours = reportingRepository.getDailyLoggedHoursForUsers(userIds, null, from, to);
+
+            assertThat(counts).extracting(row -> row[0]).containsExactlyInAnyOrder(testUser.getId(), testUser2.getId());
+            assertThat(counts).allSatisfy(row -> assertThat(row[3]).isEqualTo(1L));
+            assertThat(hours).hasSize(2);
+            assertThat(hours).anySatisfy(row -> {
+                assertThat(row[0]).isEqualTo(testUser.getId());
+                assertThat(row[1].toString()).isEqualTo(LocalDate.now().minusDays(2).toString());
+                assertThat(new BigDecimal(row[2].toString())).isEqualByComparingTo(new BigDecimal("2.00"));
+            });
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.spmorangle.crm.reporting.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the per-user staff breakdown queries with the grouped ones on a seeded H2 dataset.
+ *
+ * Opt-in because seeding takes a while: run with
+ * {@code mvn test -Dtest=StaffBreakdownQueryBenchmarkTest -Dbenchmark=true}. The dataset size can be
+ * changed with {@code -Dbenchmark.users=...} and {@code -Dbenchmark.tasks=...}.
+ *
+ * The per-user path costs seconds per user at this size, so it is timed on a sample of
+ * {@code benchmark.sample-users} users and extrapolated; the grouped path runs over every user.
+ */
+@DataJpaTest
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Staff breakdown query benchmark")
+class StaffBreakdownQueryBenchmarkTest {
+
+    private static final int USERS = Integer.getInteger("benchmark.users", 2_000);
+    private static final int TASKS = Integer.getInteger("benchmark.tasks", 50_000);
+    private static final int SAMPLE_USERS = Integer.getInteger("benchmark.sample-users", 20);
+    private static final int BATCH_SIZE = 1000;
+    private static final String[] STATUSES = {"TODO", "IN_PROGRESS", "COMPLETED", "BLOCKED"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReportingRepository reportingRepository;
+
+    private List<Long> userIds;
+    private final LocalDate from = LocalDate.now().minusDays(60);
+    private final LocalDate to = LocalDate.now().plusDays(1);
+
+    @BeforeEach
+    void seed() {
+        // Same access paths as production (see the database migrations)
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_tasks_owner_id ON syncup.tasks (owner_id)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_task_assignees_user_id ON syncup.task_assignees (user_id)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_task_time_tracking_user_id ON syncup.task_time_tracking (user_id)");
+
+        Random random = new Random(42);
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(new Object[]{"user" + i, "user" + i + "@example.com", "STAFF", true, (long) (i % 20), UUID.randomUUID()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO syncup.users (username, email, role_type, is_active, department_id, cognito_sub) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", users);
+        userIds = jdbcTemplate.queryForList("SELECT id FROM syncup.users ORDER BY id", Long.class);
+
+        OffsetDateTime now = OffsetDateTime.now();
+        List<Object[]> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            long ownerId = userIds.get(random.nextInt(USERS));
+            Timestamp createdAt = Timestamp.from(now.minusDays(random.nextInt(90)).toInstant());
+            tasks.add(new Object[]{(long) (1 + random.nextInt(50)), ownerId, "FEATURE", "Task " + i,
+                    STATUSES[random.nextInt(STATUSES.length)], false, createdAt, ownerId, false, false, false});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO syncup.tasks (project_id, owner_id, task_type, title, status, delete_ind, "
+                + "created_at, created_by, has_sent_overdue, has_sent_predue, is_rescheduled) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", tasks);
+        List<Long> taskIds = jdbcTemplate.queryForList("SELECT id FROM syncup.tasks ORDER BY id", Long.class);
+
+        List<Object[]> assignees = new ArrayList<>(taskIds.size());
+        List<Object[]> tracking = new ArrayList<>();
+        for (Long taskId : taskIds) {
+            long assigneeId = userIds.get(random.nextInt(USERS));
+            assignees.add(new Object[]{taskId, assigneeId, assigneeId});
+            if (random.nextInt(4) == 0) {
+                Timestamp startedAt = Timestamp.from(now.minusDays(random.nextInt(30)).toInstant());
+                tracking.add(new Object[]{taskId, assigneeId, startedAt, startedAt, new BigDecimal("1.50")});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO syncup.task_assignees (task_id, user_id, assigned_by) VALUES (?, ?, ?)", assignees);
+        jdbcTemplate.batchUpdate("INSERT INTO syncup.task_time_tracking (task_id, user_id, started_at, completed_at, total_hours) "
+                + "VALUES (?, ?, ?, ?, ?)", tracking);
+    }
+
+    @Test
+    @DisplayName("Grouped queries return the per-user results with far fewer round trips")
+    void compareStaffBreakdownPaths() {
+        // Warm up both paths on a small slice so the comparison is not dominated by first-use costs
+        perUser(userIds.subList(0, 5));
+        grouped(userIds.subList(0, 5));
+
+        List<Long> sample = userIds.subList(0, Math.min(SAMPLE_USERS, userIds.size()));
+        long perUserStart = System.nanoTime();
+        Map<Long, Map<String, Long>> perUserResult = perUser(sample);
+        long perUserMillis = (System.nanoTime() - perUserStart) / 1_000_000;
+        long perUserProjectedMillis = perUserMillis * USERS / sample.size();
+
+        long groupedStart = System.nanoTime();
+        Map<Long, Map<String, Long>> groupedResult = grouped(userIds);
+        long groupedMillis = (System.nanoTime() - groupedStart) / 1_000_000;
+
+        System.out.printf("Staff breakdown over %d users / %d tasks:%n"
+                        + "  per-user: %d queries, %d ms for %d sampled users, ~%d ms projected%n"
+                        + "  grouped:  %d queries, %d ms%n",
+                USERS, TASKS, USERS * 2, perUserMillis, sample.size(), perUserProjectedMillis,
+                2 * ((USERS + BATCH_SIZE - 1) / BATCH_SIZE), groupedMillis);
+
+        sample.forEach(userId -> assertThat(groupedResult.get(userId)).isEqualTo(perUserResult.get(userId)));
+        assertThat(groupedResult).hasSize(USERS);
+    }
+
+    private Map<Long, Map<String, Long>> perUser(List<Long> ids) {
+        Map<Long, Map<String, Long>> result = new HashMap<>();
+        for (Long userId : ids) {
+            Map<String, Long> counts = new HashMap<>();
+            for (Object[] row : reportingRepository.getTaskCountsByStatusForUser(userId, null, from, to)) {
+                counts.put(row[0].toString(), (Long) row[1]);
+            }
+            BigDecimal hours = reportingRepository.getLoggedHoursForUser(userId, null, from, to);
+            // Hours are compared in hundredths to avoid numeric type differences between the paths
+            counts.put("hours", hours == null ? 0L : hours.movePointRight(2).longValue());
+            result.put(userId, counts);
+        }
+        return result;
+    }
+
+    private Map<Long, Map<String, Long>> grouped(List<Long> ids) {
+        Map<Long, Map<String, Long>> result = new HashMap<>();
+        for (int start = 0; start < ids.size(); start += BATCH_SIZE) {
+            List<Long> batch = ids.subList(start, Math.min(start + BATCH_SIZE, ids.size()));
+            batch.forEach(userId -> result.put(userId, new HashMap<>(Map.of("hours", 0L))));
+            for (Object[] row : reportingRepository.getTaskCountsByStatusForUsers(batch, null, from, to)) {
+                result.get((Long) row[0]).put(row[1].toString(), (Long) row[2]);
+            }
+            for (Object[] row : reportingRepository.getLoggedHoursForUsers(batch, null, from, to)) {
+                result.get((Long) row[0]).put("hours", new BigDecimal(row[1].toString()).movePointRight(2).longValue());
+            }
+        }
+        return result;
+    }
+}
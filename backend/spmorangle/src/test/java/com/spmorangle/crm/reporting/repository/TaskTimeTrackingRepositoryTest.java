@@ -577,5 +577,70 @@ class TaskTimeTrackingRepositoryTest {
             assertThat(results).isEmpty();
         }
     }
-}
 
+    @Nested
+    @DisplayName("Daily bucket queries for time-series reports")
+    class DailyBucketQueriesTests {
+
+        @Test
+        @DisplayName("Should key hours by start and completion day, leaving the completion day empty while running")
+        void testGetDailyHoursByDepartment_KeysByStartAndCompletionDay() {
+            TaskTimeTracking completed = new TaskTimeTracking();
+            completed.setTaskId(testTask.getId());
+            completed.setUserId(engineeringUser.getId());
+            completed.setStartedAt(OffsetDateTime.now().minusDays(3));
+            completed.setCompletedAt(OffsetDateTime.now().minusDays(1));
+            completed.setTotalHours(new BigDecimal("5.00"));
+            entityManager.persistAndFlush(completed);
+
+            TaskTimeTracking running = new TaskTimeTracking();
+            running.setTaskId(testTask.getId());
+            running.setUserId(marketingUser.getId());
+            running.setStartedAt(OffsetDateTime.now().minusHours(1));
+            entityManager.persistAndFlush(running);
+
+            List<Object[]> results = taskTimeTrackingRepository.getDailyHoursByDepartment(
+                null, null, LocalDate.now().minusDays(7), LocalDate.now().plusDays(1));
+
+            assertThat(results).hasSize(2);
+            assertThat(results).anySatisfy(row -> {
+                assertThat(row[0]).isEqualTo(100L);
+                assertThat(row[1].toString()).isEqualTo(LocalDate.now().minusDays(3).toString());
+                assertThat(row[2].toString()).isEqualTo(LocalDate.now().minusDays(1).toString());
+                assertThat(new BigDecimal(row[3].toString())).isEqualByComparingTo(new BigDecimal("5.00"));
+            });
+            assertThat(results).anySatisfy(row -> {
+                assertThat(row[0]).isEqualTo(200L);
+                assertThat(row[2]).isNull();
+                assertThat(new BigDecimal(row[3].toString())).isGreaterThan(new BigDecimal("0.9"));
+            });
+        }
+
+        @Test
+        @DisplayName("Should keep task id and status on project detail buckets")
+        void testGetDailyProjectDetails_KeepsTaskAndStatus() {
+            TaskTimeTracking tracking = new TaskTimeTracking();
+            tracking.setTaskId(testTask.getId());
+            tracking.setUserId(engineeringUser.getId());
+            tracking.setStartedAt(OffsetDateTime.now().minusHours(2));
+            tracking.setCompletedAt(OffsetDateTime.now());
+            tracking.setTotalHours(new BigDecimal("2.00"));
+            entityManager.persistAndFlush(tracking);
+
+            List<Object[]> results = taskTimeTrackingRepository.getDailyProjectDetails(
+                null, List.of(testProject.getId()), LocalDate.now().minusDays(1), LocalDate.now().plusDays(1));
+            List<Object[]> hoursByProject = taskTimeTrackingRepository.getDailyHoursByProject(
+                null, Collections.singletonList(testProject.getId()), LocalDate.now().minusDays(1), LocalDate.now().plusDays(1));
+
+            assertThat(results).singleElement().satisfies(row -> {
+                assertThat(row[0]).isEqualTo("Test Project");
+                assertThat(row[1]).isEqualTo(100L);
+                assertThat(row[2]).isEqualTo(testTask.getId());
+                assertThat(row[3]).isEqualTo(Status.IN_PROGRESS);
+                assertThat(new BigDecimal(row[6].toString())).isEqualByComparingTo(new BigDecimal("2.00"));
+            });
+            assertThat(hoursByProject).singleElement()
+                .satisfies(row -> assertThat(row[0]).isEqualTo("Test Project"));
+        }
+    }
+}
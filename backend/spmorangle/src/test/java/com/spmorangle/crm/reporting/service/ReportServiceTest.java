@@ -3,17 +3,23 @@ package com.spmorangle.crm.reporting.service;
 import com.spmorangle.common.enums.UserType;
 import com.spmorangle.common.model.User;
 import com.spmorangle.common.repository.UserRepository;
+import com.spmorangle.crm.reporting.cache.ReportResultCache;
 import com.spmorangle.crm.reporting.dto.ReportFilterDto;
 import com.spmorangle.crm.reporting.dto.StaffBreakdownDto;
 import com.spmorangle.crm.reporting.dto.TaskSummaryReportDto;
+import com.spmorangle.crm.reporting.repository.ReportRollupRepository;
 import com.spmorangle.crm.reporting.repository.ReportingRepository;
 import com.spmorangle.crm.reporting.repository.TaskTimeTrackingRepository;
+import com.spmorangle.crm.reporting.dto.TimeSeriesDataPoint;
 import com.spmorangle.crm.reporting.service.impl.ReportServiceImpl;
+import com.spmorangle.crm.reporting.service.impl.TimeSeriesReportEngine;
+import com.spmorangle.crm.reporting.tracking.OpenTimerIndex;
 import com.spmorangle.crm.taskmanagement.enums.Status;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -21,11 +27,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import com.spmorangle.crm.reporting.model.TaskTimeTracking;
 
@@ -59,6 +67,21 @@ class ReportServiceTest {
     @Mock
     private com.spmorangle.crm.departmentmgmt.service.DepartmentQueryService departmentQueryService;
 
+    @Mock
+    private TimeSeriesReportEngine timeSeriesReportEngine;
+
+    @Mock
+    private ReportRollupRepository reportRollupRepository;
+
+    @Mock
+    private ReportRollupService reportRollupService;
+
+    @Mock
+    private ReportResultCache reportResultCache;
+
+    @Mock
+    private OpenTimerIndex openTimerIndex;
+
     @InjectMocks
     private ReportServiceImpl reportService;
 
@@ -83,6 +106,10 @@ class ReportServiceTest {
         staffUser.setRoleType(UserType.STAFF.getCode());
         staffUser.setDepartmentId(2L); // Engineering department ID
 
+        // The cache always misses, so every report runs its queries
+        lenient().when(reportResultCache.get(any(), any(), any(), any(), any()))
+            .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(4).get());
+
         // Setup common department query service mocks (lenient to avoid unnecessary stubbing errors)
         lenient().when(departmentQueryService.getById(1L))
             .thenReturn(Optional.of(com.spmorangle.crm.departmentmgmt.dto.DepartmentDto.builder()
@@ -245,12 +272,12 @@ class ReportServiceTest {
                 .thenReturn(allStaff);
             
             // Mock task counts (return empty for all)
-            when(reportingRepository.getTaskCountsByStatusForUser(any(), any(), any(), any()))
+            when(reportingRepository.getTaskCountsByStatusForUsers(any(), any(), any(), any()))
                 .thenReturn(Collections.emptyList());
             
             // Mock logged hours
-            when(reportingRepository.getLoggedHoursForUser(any(), any(), any(), any()))
-                .thenReturn(BigDecimal.ZERO);
+            when(reportingRepository.getLoggedHoursForUsers(any(), any(), any(), any()))
+                .thenReturn(Collections.emptyList());
             
             ReportFilterDto filters = ReportFilterDto.builder()
                 .departmentId(null) // No department filter
@@ -284,11 +311,11 @@ class ReportServiceTest {
             when(reportingRepository.getUsersForStaffBreakdown(2L, null)) // Engineering department ID
                 .thenReturn(engineeringStaff);
             
-            when(reportingRepository.getTaskCountsByStatusForUser(any(), any(), any(), any()))
+            when(reportingRepository.getTaskCountsByStatusForUsers(any(), any(), any(), any()))
                 .thenReturn(Collections.emptyList());
             
-            when(reportingRepository.getLoggedHoursForUser(any(), any(), any(), any()))
-                .thenReturn(BigDecimal.ZERO);
+            when(reportingRepository.getLoggedHoursForUsers(any(), any(), any(), any()))
+                .thenReturn(Collections.emptyList());
             
             ReportFilterDto filters = ReportFilterDto.builder()
                 .departmentId(2L) // Engineering department ID
@@ -320,11 +347,11 @@ class ReportServiceTest {
             when(reportingRepository.getUsersForStaffBreakdown(null, Arrays.asList(100L, 101L)))
                 .thenReturn(projectMembers);
             
-            when(reportingRepository.getTaskCountsByStatusForUser(any(), any(), any(), any()))
+            when(reportingRepository.getTaskCountsByStatusForUsers(any(), any(), any(), any()))
                 .thenReturn(Collections.emptyList());
             
-            when(reportingRepository.getLoggedHoursForUser(any(), any(), any(), any()))
-                .thenReturn(BigDecimal.ZERO);
+            when(reportingRepository.getLoggedHoursForUsers(any(), any(), any(), any()))
+                .thenReturn(Collections.emptyList());
             
             ReportFilterDto filters = ReportFilterDto.builder()
                 .departmentId(null)
@@ -357,11 +384,11 @@ class ReportServiceTest {
             when(reportingRepository.getUsersForStaffBreakdown(2L, Arrays.asList(100L, 101L))) // Engineering department ID
                 .thenReturn(filteredStaff);
             
-            when(reportingRepository.getTaskCountsByStatusForUser(any(), any(), any(), any()))
+            when(reportingRepository.getTaskCountsByStatusForUsers(any(), any(), any(), any()))
                 .thenReturn(Collections.emptyList());
             
-            when(reportingRepository.getLoggedHoursForUser(any(), any(), any(), any()))
-                .thenReturn(BigDecimal.ZERO);
+            when(reportingRepository.getLoggedHoursForUsers(any(), any(), any(), any()))
+                .thenReturn(Collections.emptyList());
             
             ReportFilterDto filters = ReportFilterDto.builder()
                 .departmentId(2L) // Engineering department ID
@@ -393,11 +420,11 @@ class ReportServiceTest {
             when(reportingRepository.getUsersForStaffBreakdown(2L, null)) // Engineering department ID
                 .thenReturn(engineeringStaff);
             
-            when(reportingRepository.getTaskCountsByStatusForUser(any(), any(), any(), any()))
+            when(reportingRepository.getTaskCountsByStatusForUsers(any(), any(), any(), any()))
                 .thenReturn(Collections.emptyList());
             
-            when(reportingRepository.getLoggedHoursForUser(any(), any(), any(), any()))
-                .thenReturn(BigDecimal.ZERO);
+            when(reportingRepository.getLoggedHoursForUsers(any(), any(), any(), any()))
+                .thenReturn(Collections.emptyList());
             
             ReportFilterDto filters = ReportFilterDto.builder()
                 .departmentId(null) // No department filter
@@ -427,11 +454,11 @@ class ReportServiceTest {
             when(reportingRepository.getUsersForStaffBreakdown(2L, Arrays.asList(100L, 101L))) // Engineering department ID
                 .thenReturn(filteredStaff);
             
-            when(reportingRepository.getTaskCountsByStatusForUser(any(), any(), any(), any()))
+            when(reportingRepository.getTaskCountsByStatusForUsers(any(), any(), any(), any()))
                 .thenReturn(Collections.emptyList());
             
-            when(reportingRepository.getLoggedHoursForUser(any(), any(), any(), any()))
-                .thenReturn(BigDecimal.ZERO);
+            when(reportingRepository.getLoggedHoursForUsers(any(), any(), any(), any()))
+                .thenReturn(Collections.emptyList());
             
             ReportFilterDto filters = ReportFilterDto.builder()
                 .departmentId(2L) // Engineering department ID
@@ -463,11 +490,11 @@ class ReportServiceTest {
             when(reportingRepository.getUsersForStaffBreakdown(null, null))
                 .thenReturn(allStaff);
             
-            when(reportingRepository.getTaskCountsByStatusForUser(any(), any(), any(), any()))
+            when(reportingRepository.getTaskCountsByStatusForUsers(any(), any(), any(), any()))
                 .thenReturn(Collections.emptyList());
             
-            when(reportingRepository.getLoggedHoursForUser(any(), any(), any(), any()))
-                .thenReturn(null); // Simulate null from DB
+            when(reportingRepository.getLoggedHoursForUsers(any(), any(), any(), any()))
+                .thenReturn(Collections.singletonList(new Object[]{9L, null})); // Simulate null from DB
             
             ReportFilterDto filters = ReportFilterDto.builder()
                 .departmentId(null) // No department filter
@@ -504,17 +531,17 @@ class ReportServiceTest {
                 .thenReturn(staff);
             
             List<Object[]> taskCounts = Arrays.asList(
-                new Object[]{Status.COMPLETED, 4L},
-                new Object[]{Status.IN_PROGRESS, 5L},
-                new Object[]{Status.TODO, 3L},
-                new Object[]{Status.BLOCKED, 2L}
+                new Object[]{11L, Status.COMPLETED, 4L},
+                new Object[]{11L, Status.IN_PROGRESS, 5L},
+                new Object[]{11L, Status.TODO, 3L},
+                new Object[]{11L, Status.BLOCKED, 2L}
             );
             
-            when(reportingRepository.getTaskCountsByStatusForUser(eq(11L), isNull(), any(), any()))
+            when(reportingRepository.getTaskCountsByStatusForUsers(eq(List.of(11L)), isNull(), any(), any()))
                 .thenReturn(taskCounts);
             
-            when(reportingRepository.getLoggedHoursForUser(eq(11L), any(), any(), any()))
-                .thenReturn(new BigDecimal("41.02"));
+            when(reportingRepository.getLoggedHoursForUsers(eq(List.of(11L)), any(), any(), any()))
+                .thenReturn(Collections.singletonList(new Object[]{11L, new BigDecimal("41.02")}));
             
             ReportFilterDto filters = ReportFilterDto.builder()
                 .departmentId(null) // No department filter
@@ -551,20 +578,20 @@ class ReportServiceTest {
 
             when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
             when(taskAssigneeRepository.findAssigneeIdsByTaskId(taskId)).thenReturn(Collections.emptyList());
-            when(taskTimeTrackingRepository.findByTaskIdAndUserId(taskId, ownerId))
-                .thenReturn(Optional.empty());
+            when(taskTimeTrackingRepository.findByTaskIdAndUserIdIn(taskId, List.of(ownerId)))
+                .thenReturn(Collections.emptyList());
 
             // Act
             reportService.startTimeTracking(taskId, ownerId);
 
             // Assert
-            verify(taskTimeTrackingRepository).save(argThat(tracking ->
+            assertThat(savedBatch()).hasSize(1).allMatch(tracking ->
                 tracking.getTaskId().equals(taskId) &&
                 tracking.getUserId().equals(ownerId) &&
                 tracking.getStartedAt() != null &&
                 tracking.getCompletedAt() == null &&
                 tracking.getTotalHours() == null
-            ));
+            );
         }
 
         @Test
@@ -586,20 +613,20 @@ class ReportServiceTest {
 
             when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
             when(taskAssigneeRepository.findAssigneeIdsByTaskId(taskId)).thenReturn(Collections.emptyList());
-            when(taskTimeTrackingRepository.findByTaskIdAndUserId(taskId, ownerId))
-                .thenReturn(Optional.of(completedTracking));
+            when(taskTimeTrackingRepository.findByTaskIdAndUserIdIn(taskId, List.of(ownerId)))
+                .thenReturn(List.of(completedTracking));
 
             // Act
             reportService.startTimeTracking(taskId, ownerId);
 
             // Assert - Should reset the existing completed record
-            verify(taskTimeTrackingRepository).save(argThat(tracking ->
+            assertThat(savedBatch()).hasSize(1).allMatch(tracking ->
                 tracking.getTaskId().equals(taskId) &&
                 tracking.getUserId().equals(ownerId) &&
                 tracking.getStartedAt() != null &&
                 tracking.getCompletedAt() == null &&
                 tracking.getTotalHours() == null
-            ));
+            );
         }
 
         @Test
@@ -620,14 +647,14 @@ class ReportServiceTest {
 
             when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
             when(taskAssigneeRepository.findAssigneeIdsByTaskId(taskId)).thenReturn(Collections.emptyList());
-            when(taskTimeTrackingRepository.findByTaskIdAndUserId(taskId, ownerId))
-                .thenReturn(Optional.of(activeTracking));
+            when(taskTimeTrackingRepository.findByTaskIdAndUserIdIn(taskId, List.of(ownerId)))
+                .thenReturn(List.of(activeTracking));
 
             // Act
             reportService.startTimeTracking(taskId, ownerId);
 
             // Assert - Should not save when record is already active
-            verify(taskTimeTrackingRepository, never()).save(any());
+            verify(taskTimeTrackingRepository, never()).saveAll(any());
         }
 
         @Test
@@ -652,7 +679,7 @@ class ReportServiceTest {
             reportService.endTimeTracking(taskId, userId);
 
             // Assert
-            verify(taskTimeTrackingRepository).save(argThat(tracking -> {
+            assertThat(savedBatch()).hasSize(1).allMatch(tracking -> {
                 assertNotNull(tracking.getCompletedAt());
                 assertNotNull(tracking.getTotalHours());
 
@@ -661,7 +688,7 @@ class ReportServiceTest {
                 assertTrue(tracking.getTotalHours().compareTo(new BigDecimal("2.6")) < 0);
 
                 return true;
-            }));
+            });
         }
 
         @Test
@@ -694,7 +721,7 @@ class ReportServiceTest {
             reportService.endTimeTracking(taskId, userId);
 
             // Assert - Should use earliest start time for all collaborators
-            verify(taskTimeTrackingRepository, times(2)).save(argThat(tracking -> {
+            assertThat(savedBatch()).hasSize(2).allMatch(tracking -> {
                 assertNotNull(tracking.getCompletedAt());
                 assertNotNull(tracking.getTotalHours());
 
@@ -702,7 +729,7 @@ class ReportServiceTest {
                 assertTrue(tracking.getTotalHours().compareTo(new BigDecimal("2.9")) > 0);
 
                 return true;
-            }));
+            });
         }
 
         @Test
@@ -718,7 +745,7 @@ class ReportServiceTest {
             reportService.endTimeTracking(taskId, userId);
 
             // Assert - Should not attempt to save
-            verify(taskTimeTrackingRepository, never()).save(any());
+            verify(taskTimeTrackingRepository, never()).saveAll(any());
         }
 
         @Test
@@ -742,7 +769,7 @@ class ReportServiceTest {
             reportService.endTimeTracking(taskId, userId);
 
             // Assert - Should not save anything
-            verify(taskTimeTrackingRepository, never()).save(any());
+            verify(taskTimeTrackingRepository, never()).saveAll(any());
         }
 
         @Test
@@ -773,11 +800,11 @@ class ReportServiceTest {
             reportService.endTimeTracking(taskId, userId);
 
             // Assert - Should only save the active record
-            verify(taskTimeTrackingRepository, times(1)).save(argThat(tracking ->
+            assertThat(savedBatch()).hasSize(1).allMatch(tracking ->
                 tracking.getId().equals(1L) &&
                 tracking.getCompletedAt() != null &&
                 tracking.getTotalHours() != null
-            ));
+            );
         }
 
         @Test
@@ -803,7 +830,7 @@ class ReportServiceTest {
             reportService.endTimeTracking(taskId, userId);
 
             // Assert
-            verify(taskTimeTrackingRepository).save(argThat(tracking -> {
+            assertThat(savedBatch()).hasSize(1).allMatch(tracking -> {
                 BigDecimal totalHours = tracking.getTotalHours();
                 assertNotNull(totalHours);
 
@@ -815,8 +842,201 @@ class ReportServiceTest {
                 assertTrue(totalHours.compareTo(new BigDecimal("1.6")) < 0);
 
                 return true;
-            }));
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<TaskTimeTracking> savedBatch() {
+            ArgumentCaptor<Iterable<TaskTimeTracking>> captor = ArgumentCaptor.forClass(Iterable.class);
+            verify(taskTimeTrackingRepository).saveAll(captor.capture());
+            List<TaskTimeTracking> saved = new java.util.ArrayList<>();
+            captor.getValue().forEach(saved::add);
+            return saved;
         }
     }
-}
 
+    @Nested
+    class TimeSeriesTests {
+
+        @Test
+        void testGenerateTimeSeriesData_Weekly_BuildsEachPeriodFromEngineRows() {
+            // Arrange
+            when(userRepository.findById(1L)).thenReturn(Optional.of(hrUser));
+            List<Object[]> staff = Collections.singletonList(new Object[]{9L, "Ian Thompson", 4L});
+            when(reportingRepository.getUsersForStaffBreakdown(null, null)).thenReturn(staff);
+
+            TimeSeriesReportEngine.PeriodRows firstWeek = new TimeSeriesReportEngine.PeriodRows(
+                List.<Object[]>of(new Object[]{Status.COMPLETED, 3L}, new Object[]{Status.TODO, 1L}),
+                List.<Object[]>of(new Object[]{4L, Status.COMPLETED, 3L}),
+                List.<Object[]>of(new Object[]{"Alpha", Status.COMPLETED, 3L}),
+                List.<Object[]>of(new Object[]{4L, new BigDecimal("6.00")}),
+                List.<Object[]>of(new Object[]{"Alpha", new BigDecimal("6.00")}),
+                List.<Object[]>of(new Object[]{"Alpha", 4L, new BigDecimal("6.00"), 3L, 0L}),
+                List.<Object[]>of(new Object[]{9L, Status.COMPLETED, 2L}),
+                List.<Object[]>of(new Object[]{9L, new BigDecimal("6.00")}));
+            TimeSeriesReportEngine.PeriodRows emptyWeek = new TimeSeriesReportEngine.PeriodRows(
+                List.of(), List.of(), List.of(), List.of(), List.of(), List.of(), List.of(), List.of());
+            when(timeSeriesReportEngine.fetch(any(), isNull(), isNull(), eq(List.of(9L))))
+                .thenReturn(List.of(firstWeek, emptyWeek));
+
+            ReportFilterDto filters = ReportFilterDto.builder()
+                .startDate(LocalDate.of(2025, 1, 1))
+                .endDate(LocalDate.of(2025, 1, 14))
+                .timeRange(ReportFilterDto.TimeRange.WEEKLY)
+                .build();
+
+            // Act
+            List<TimeSeriesDataPoint> result = reportService.generateTimeSeriesData(filters, 1L);
+
+            // Assert
+            assertEquals(2, result.size());
+            TimeSeriesDataPoint first = result.get(0);
+            assertEquals("2025-W01", first.getPeriod());
+            assertEquals(4L, first.getTaskSummary().getTotalTasks());
+            assertEquals(3L, first.getTaskSummary().getDepartmentBreakdown().get("Software").getCompleted());
+            assertEquals(0, new BigDecimal("6.00").compareTo(first.getTimeAnalytics().getTotalHours()));
+            assertEquals(3L, first.getTimeAnalytics().getProjectDetails().get("Alpha").getCompletedTasks());
+            assertEquals(2L, first.getStaffBreakdown().get(0).getCompletedTasks());
+
+            TimeSeriesDataPoint second = result.get(1);
+            assertEquals(LocalDate.of(2025, 1, 8), second.getStartDate());
+            assertEquals(0L, second.getTaskSummary().getTotalTasks());
+            assertEquals(1, second.getStaffBreakdown().size());
+            assertEquals(0, BigDecimal.ZERO.compareTo(second.getStaffBreakdown().get(0).getLoggedHours()));
+
+            // Access control and the staff list are resolved once for the whole series
+            verify(userRepository, times(1)).findById(1L);
+            verify(reportingRepository, times(1)).getUsersForStaffBreakdown(null, null);
+            verify(reportingRepository, never()).getTaskCountsByStatus(any(), any(), any());
+        }
+
+        @Test
+        void testGenerateTimeSeriesData_CustomRange_ReturnsNull() {
+            ReportFilterDto filters = ReportFilterDto.builder()
+                .startDate(LocalDate.of(2025, 1, 1))
+                .endDate(LocalDate.of(2025, 1, 14))
+                .timeRange(ReportFilterDto.TimeRange.CUSTOM)
+                .build();
+
+            assertNull(reportService.generateTimeSeriesData(filters, 1L));
+            verifyNoInteractions(timeSeriesReportEngine);
+        }
+
+        @Test
+        void testGenerateTimeSeriesData_StaffUser_AccessDenied() {
+            when(userRepository.findById(3L)).thenReturn(Optional.of(staffUser));
+
+            ReportFilterDto filters = ReportFilterDto.builder()
+                .startDate(LocalDate.of(2025, 1, 1))
+                .endDate(LocalDate.of(2025, 3, 31))
+                .timeRange(ReportFilterDto.TimeRange.MONTHLY)
+                .build();
+
+            RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> reportService.generateTimeSeriesData(filters, 3L));
+            assertTrue(exception.getMessage().contains("Staff users cannot access reports"));
+            verifyNoInteractions(timeSeriesReportEngine);
+        }
+    }
+
+    @Nested
+    class RollupTests {
+
+        private final LocalDate startDate = LocalDate.of(2025, 1, 1);
+        private final LocalDate endDate = LocalDate.of(2025, 1, 31);
+
+        @Test
+        void testGenerateTaskSummaryReport_RollupsCoverWindow_ReadsRollups() {
+            // Arrange
+            when(userRepository.findById(1L)).thenReturn(Optional.of(hrUser));
+            when(reportRollupService.covers(startDate, endDate)).thenReturn(true);
+            when(reportRollupRepository.getTaskCountsByStatus(null, startDate, endDate)).thenReturn(Arrays.asList(
+                new Object[]{Status.COMPLETED, 4L},
+                new Object[]{Status.TODO, 6L}));
+            when(reportRollupRepository.getTaskCountsByDepartmentAndStatus(null, startDate, endDate)).thenReturn(
+                Collections.singletonList(new Object[]{2L, Status.COMPLETED, 4L}));
+            when(reportRollupRepository.getAllTaskCountsByProjectAndStatus(null, startDate, endDate)).thenReturn(
+                Collections.singletonList(new Object[]{"Alpha", Status.TODO, 6L}));
+
+            ReportFilterDto filters = ReportFilterDto.builder().startDate(startDate).endDate(endDate).build();
+
+            // Act
+            TaskSummaryReportDto result = reportService.generateTaskSummaryReport(filters, 1L);
+
+            // Assert
+            assertEquals(10L, result.getTotalTasks());
+            assertEquals(4L, result.getDepartmentBreakdown().get("Engineering").getCompleted());
+            assertEquals(6L, result.getProjectBreakdown().get("Alpha").getTodo());
+            verifyNoInteractions(reportingRepository);
+        }
+
+        @Test
+        void testGenerateTimeAnalyticsReport_RollupsCoverWindow_AddsRunningHours() {
+            // Arrange
+            when(userRepository.findById(1L)).thenReturn(Optional.of(hrUser));
+            when(reportRollupService.covers(startDate, endDate)).thenReturn(true);
+            when(reportRollupRepository.getCompletedHoursByDepartment(null, null, startDate, endDate)).thenReturn(
+                Collections.singletonList(new Object[]{2L, new BigDecimal("6.00")}));
+            when(openTimerIndex.runningHoursByDepartment(null, null, startDate, endDate))
+                .thenReturn(Arrays.asList(new Object[]{2L, 1.5d}, new Object[]{3L, 0.5d}));
+            when(reportRollupRepository.getCompletedHoursByProject(null, null, startDate, endDate)).thenReturn(
+                Collections.singletonList(new Object[]{"Alpha", new BigDecimal("6.00")}));
+            when(openTimerIndex.runningHoursByProject(null, null, startDate, endDate))
+                .thenReturn(Collections.emptyList());
+            when(taskTimeTrackingRepository.getProjectDetails(null, null, startDate, endDate)).thenReturn(Collections.emptyList());
+
+            ReportFilterDto filters = ReportFilterDto.builder().startDate(startDate).endDate(endDate).build();
+
+            // Act
+            var result = reportService.generateTimeAnalyticsReport(filters, 1L);
+
+            // Assert
+            assertEquals(0, new BigDecimal("7.50").compareTo(result.getHoursByDepartment().get("Engineering")));
+            assertEquals(0, new BigDecimal("0.5").compareTo(result.getHoursByDepartment().get("Marketing")));
+            assertEquals(0, new BigDecimal("8.00").compareTo(result.getTotalHours()));
+            assertEquals(0, new BigDecimal("6.00").compareTo(result.getHoursByProject().get("Alpha")));
+            verify(taskTimeTrackingRepository, never()).getHoursByDepartment(any(), any(), any(), any());
+        }
+
+        @Test
+        void testEndTimeTracking_MarksStartDayForRollup() {
+            // Arrange
+            OffsetDateTime startedAt = OffsetDateTime.now().minusHours(3);
+            TaskTimeTracking tracking = new TaskTimeTracking();
+            tracking.setTaskId(5L);
+            tracking.setUserId(1L);
+            tracking.setStartedAt(startedAt);
+            TaskTimeTracking otherTracking = new TaskTimeTracking();
+            otherTracking.setTaskId(5L);
+            otherTracking.setUserId(2L);
+            otherTracking.setStartedAt(startedAt);
+            when(taskTimeTrackingRepository.findByTaskId(5L)).thenReturn(List.of(tracking, otherTracking));
+
+            // Act
+            reportService.endTimeTracking(5L, 1L);
+
+            // Assert - the records are marked together, once for the whole call
+            verify(reportRollupService, times(1)).markTrackingDaysChanged(List.of(startedAt, startedAt));
+            verify(reportResultCache).invalidateTracking(List.of(1L, 2L), List.of(startedAt, startedAt));
+            verify(openTimerIndex).onStopped(List.of(tracking, otherTracking));
+        }
+
+        @Test
+        void testGenerateTaskSummaryReport_CachedByManagerDepartmentScope() {
+            // Arrange
+            when(userRepository.findById(2L)).thenReturn(Optional.of(managerUser));
+            TaskSummaryReportDto cached = TaskSummaryReportDto.builder().totalTasks(3L).build();
+            doReturn(cached).when(reportResultCache).get(eq(ReportResultCache.Report.TASK_SUMMARY),
+                eq(UserType.MANAGER.getCode()), eq(2L), any(), any());
+
+            ReportFilterDto filters = ReportFilterDto.builder().startDate(startDate).endDate(endDate).build();
+
+            // Act
+            TaskSummaryReportDto result = reportService.generateTaskSummaryReport(filters, 2L);
+
+            // Assert
+            assertSame(cached, result);
+            verifyNoInteractions(reportingRepository, reportRollupRepository);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.spmorangle.crm.reporting.service.impl;
+
+import com.spmorangle.crm.reporting.model.ReportRollupDirtyDay;
+import com.spmorangle.crm.reporting.model.ReportRollupState;
+import com.spmorangle.crm.reporting.repository.ReportRollupDirtyDayRepository;
+import com.spmorangle.crm.reporting.repository.ReportRollupRepository;
+import com.spmorangle.crm.reporting.repository.ReportRollupStateRepository;
+import com.spmorangle.crm.taskmanagement.event.TaskReportingChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReportRollupServiceImpl Tests")
+class ReportRollupServiceImplTest {
+
+    @Mock
+    private ReportRollupRepository reportRollupRepository;
+
+    @Mock
+    private ReportRollupStateRepository reportRollupStateRepository;
+
+    @Mock
+    private ReportRollupDirtyDayRepository reportRollupDirtyDayRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ReportRollupServiceImpl service;
+
+    private final LocalDate today = LocalDate.now();
+    private ReportRollupState state;
+    private final List<ReportRollupDirtyDay> marks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        state = new ReportRollupState();
+        state.setId(ReportRollupServiceImpl.STATE_ID);
+        lenient().when(reportRollupStateRepository.findForUpdate(ReportRollupServiceImpl.STATE_ID)).thenReturn(Optional.of(state));
+        lenient().when(reportRollupStateRepository.save(any(ReportRollupState.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        // The dirty day table, shared by every instance
+        lenient().when(reportRollupDirtyDayRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<ReportRollupDirtyDay> saved = invocation.getArgument(0);
+            for (ReportRollupDirtyDay mark : saved) {
+                mark.setId((long) marks.size() + 1);
+                marks.add(mark);
+            }
+            return saved;
+        });
+        lenient().when(reportRollupDirtyDayRepository.count()).thenAnswer(invocation -> (long) marks.size());
+        lenient().when(reportRollupDirtyDayRepository.findAll()).thenAnswer(invocation -> new ArrayList<>(marks));
+        lenient().when(reportRollupDirtyDayRepository.existsByRollupDateBetween(any(), any())).thenAnswer(invocation ->
+            marks.stream().anyMatch(mark -> !mark.getRollupDate().isBefore(invocation.getArgument(0))
+                && !mark.getRollupDate().isAfter(invocation.getArgument(1))));
+        lenient().doAnswer(invocation -> marks.removeIf(mark -> invocation.<List<Long>>getArgument(0).contains(mark.getId())))
+            .when(reportRollupDirtyDayRepository).deleteAllByIdInBatch(anyList());
+    }
+
+    @Test
+    @DisplayName("Should fall back to the source tables until a backfill has run")
+    void covers_NoBackfillYet_ReturnsFalse() {
+        when(reportRollupStateRepository.findById(ReportRollupServiceImpl.STATE_ID)).thenReturn(Optional.of(state));
+
+        assertThat(service.covers(today.minusDays(7), today)).isFalse();
+        verify(reportRollupRepository, never()).insertTaskRollups(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should backfill newest first in chunks down to the earliest source day")
+    void compactAndBackfill_FirstRun_BackfillsInChunks() {
+        when(reportRollupStateRepository.findById(ReportRollupServiceImpl.STATE_ID)).thenReturn(Optional.of(state));
+        when(reportRollupRepository.findEarliestTaskCreatedAt())
+            .thenReturn(today.minusDays(199).atStartOfDay().atOffset(ZoneOffset.UTC).plusHours(12));
+
+        service.compactAndBackfill();
+
+        LocalDate earliest = today.minusDays(200);
+        verify(reportRollupRepository).insertTaskRollups(eq(today.minusDays(88)), eq(today.plusDays(1)), any(), any());
+        verify(reportRollupRepository).insertTaskRollups(eq(today.minusDays(178)), eq(today.minusDays(89)), any(), any());
+        verify(reportRollupRepository).insertTaskRollups(eq(earliest), eq(today.minusDays(179)), any(), any());
+        verify(reportRollupRepository, times(3)).insertHoursRollups(any(), any(), any(), any());
+        assertThat(state.getCoveredFrom()).isEqualTo(earliest);
+        assertThat(state.isFullyBackfilled()).isTrue();
+        assertThat(service.covers(today.minusYears(5), today)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should only re-derive the trailing days once the backfill is complete")
+    void compactAndBackfill_FullyBackfilled_CompactsTrailingDays() {
+        state.setCoveredFrom(today.minusDays(400));
+        state.setFullyBackfilled(true);
+        when(reportRollupStateRepository.findById(ReportRollupServiceImpl.STATE_ID)).thenReturn(Optional.of(state));
+        when(reportRollupRepository.findEarliestTaskCreatedAt())
+            .thenReturn(today.minusDays(300).atStartOfDay().atOffset(ZoneOffset.UTC));
+
+        service.compactAndBackfill();
+
+        verify(reportRollupRepository).insertTaskRollups(eq(today.minusDays(7)), eq(today.plusDays(1)), any(), any());
+        verify(reportRollupRepository, times(1)).deleteHoursRollups(any(), any());
+        assertThat(state.getCompactedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should read the source tables for windows with marked days without rebuilding them")
+    void covers_PendingDays_FallsBackWithoutRebuilding() {
+        state.setCoveredFrom(today.minusDays(30));
+        when(reportRollupStateRepository.findById(ReportRollupServiceImpl.STATE_ID)).thenReturn(Optional.of(state));
+        ReportRollupDirtyDay mark = new ReportRollupDirtyDay();
+        mark.setId(42L);
+        mark.setRollupDate(today.minusDays(3));
+        mark.setKind(ReportRollupDirtyDay.Kind.HOURS);
+        marks.add(mark);
+
+        assertThat(service.covers(today.minusDays(7), today)).isFalse();
+        assertThat(service.covers(today.minusDays(20), today.minusDays(10))).isTrue();
+
+        verify(reportRollupStateRepository, never()).findForUpdate(any());
+        verify(reportRollupRepository, never()).insertHoursRollups(any(), any(), any(), any());
+        assertThat(marks).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should re-derive marked days as contiguous ranges on the periodic flush and clear the marks")
+    void flush_PendingDays_RebuiltAsRanges() {
+        state.setCoveredFrom(today.minusDays(30));
+        when(reportRollupStateRepository.findById(ReportRollupServiceImpl.STATE_ID)).thenReturn(Optional.of(state));
+        OffsetDateTime noon = today.minusDays(10).atStartOfDay().atOffset(ZoneOffset.UTC).plusHours(12);
+
+        service.onTaskReportingChanged(new TaskReportingChangedEvent(1L, 10L, noon));
+        service.onTaskReportingChanged(new TaskReportingChangedEvent(2L, 10L, noon.plusDays(1)));
+        service.markTrackingDaysChanged(List.of(noon.plusDays(5)));
+        assertThat(service.covers(today.minusDays(14), today)).isFalse();
+
+        service.flush();
+
+        verify(reportRollupRepository).insertTaskRollups(eq(noon.toLocalDate()), eq(noon.toLocalDate().plusDays(1)), any(), any());
+        verify(reportRollupRepository).insertHoursRollups(eq(noon.toLocalDate().plusDays(5)), eq(noon.toLocalDate().plusDays(5)), any(), any());
+        verify(reportRollupRepository, never()).deleteTaskRollups(eq(noon.toLocalDate().plusDays(5)), any());
+        assertThat(marks).isEmpty();
+        assertThat(service.covers(today.minusDays(14), today)).isTrue();
+
+        // Windows reaching before the backfilled range keep using the source tables
+        assertThat(service.covers(today.minusDays(31), today)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep the marks of a failed rebuild for the next flush")
+    void flush_RebuildFails_KeepsDaysPending() {
+        when(reportRollupRepository.insertTaskRollups(any(), any(), any(), any()))
+            .thenThrow(new IllegalStateException("deadlock detected"))
+            .thenReturn(1);
+
+        service.onTaskReportingChanged(
+            new TaskReportingChangedEvent(1L, 10L, today.atStartOfDay().atOffset(ZoneOffset.UTC).plusHours(12)));
+
+        service.flush();
+        assertThat(marks).isNotEmpty();
+        verify(reportRollupDirtyDayRepository, never()).deleteAllByIdInBatch(anyList());
+
+        service.flush();
+        assertThat(marks).isEmpty();
+        verify(reportRollupRepository, times(2)).insertTaskRollups(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should re-derive days marked by another instance")
+    void flush_DaysMarkedElsewhere_Rebuilt() {
+        ReportRollupDirtyDay mark = new ReportRollupDirtyDay();
+        mark.setId(42L);
+        mark.setRollupDate(today.minusDays(3));
+        mark.setKind(ReportRollupDirtyDay.Kind.HOURS);
+        marks.add(mark);
+
+        service.flush();
+
+        verify(reportRollupRepository).insertHoursRollups(eq(today.minusDays(3)), eq(today.minusDays(3)), any(), any());
+        verify(reportRollupRepository, never()).insertTaskRollups(any(), any(), any(), any());
+        ArgumentCaptor<List<Long>> deleted = ArgumentCaptor.forClass(List.class);
+        verify(reportRollupDirtyDayRepository).deleteAllByIdInBatch(deleted.capture());
+        assertThat(deleted.getValue()).containsExactly(42L);
+    }
+
+    @Test
+    @DisplayName("Should not lock or rebuild anything when no day is marked")
+    void flush_NoMarks_DoesNothing() {
+        service.flush();
+
+        verify(reportRollupStateRepository, never()).findForUpdate(any());
+        verify(reportRollupDirtyDayRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Should mark each distinct tracking day once per call")
+    void markTrackingDaysChanged_SameDay_MarkedOnce() {
+        OffsetDateTime noon = today.minusDays(2).atStartOfDay().atOffset(ZoneOffset.UTC).plusHours(12);
+
+        service.markTrackingDaysChanged(Arrays.asList(noon, noon.plusMinutes(5), null, noon.plusMinutes(10)));
+
+        verify(reportRollupDirtyDayRepository, times(1)).saveAll(anyList());
+        assertThat(marks).extracting(ReportRollupDirtyDay::getRollupDate).doesNotHaveDuplicates().contains(noon.toLocalDate());
+        assertThat(marks).allSatisfy(mark -> assertThat(mark.getKind()).isEqualTo(ReportRollupDirtyDay.Kind.HOURS));
+    }
+
+    @Test
+    @DisplayName("Should split days into contiguous ranges")
+    void contiguousRanges_SplitsOnGaps() {
+        LocalDate day = LocalDate.of(2025, 1, 1);
+        TreeSet<LocalDate> days = new TreeSet<>(List.of(day, day.plusDays(1), day.plusDays(2), day.plusDays(5)));
+
+        List<LocalDate[]> ranges = ReportRollupServiceImpl.contiguousRanges(days);
+
+        assertThat(ranges).hasSize(2);
+        assertThat(ranges.get(0)).containsExactly(day, day.plusDays(2));
+        assertThat(ranges.get(1)).containsExactly(day.plusDays(5), day.plusDays(5));
+    }
+}
@@ -0,0 +1,239 @@
+package com.spmorangle.crm.reporting.service.impl;
+
+import com.spmorangle.crm.reporting.dto.Period;
+import com.spmorangle.crm.reporting.repository.ReportingRepository;
+import com.spmorangle.crm.reporting.repository.TaskTimeTrackingRepository;
+import com.spmorangle.crm.taskmanagement.enums.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TimeSeriesReportEngine Tests")
+class TimeSeriesReportEngineTest {
+
+    @Mock
+    private ReportingRepository reportingRepository;
+
+    @Mock
+    private TaskTimeTrackingRepository taskTimeTrackingRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private TimeSeriesReportEngine engine;
+
+    private static final LocalDate JAN_1 = LocalDate.of(2025, 1, 1);
+    private static final LocalDate JAN_3 = LocalDate.of(2025, 1, 3);
+    private static final LocalDate JAN_9 = LocalDate.of(2025, 1, 9);
+    private static final LocalDate JAN_14 = LocalDate.of(2025, 1, 14);
+
+    private final List<Period> weeks = List.of(
+        Period.builder().period("2025-W01").startDate(JAN_1).endDate(LocalDate.of(2025, 1, 7)).build(),
+        Period.builder().period("2025-W02").startDate(LocalDate.of(2025, 1, 8)).endDate(JAN_14).build());
+
+    @BeforeEach
+    void setUp() {
+        engine.start();
+        lenient().when(reportingRepository.getDailyTaskCountsByDepartmentProjectAndStatus(any(), any(), any()))
+            .thenReturn(Collections.emptyList());
+        lenient().when(taskTimeTrackingRepository.getDailyHoursByDepartment(any(), any(), any(), any()))
+            .thenReturn(Collections.emptyList());
+        lenient().when(taskTimeTrackingRepository.getDailyHoursByProject(any(), any(), any(), any()))
+            .thenReturn(Collections.emptyList());
+        lenient().when(taskTimeTrackingRepository.getDailyProjectDetails(any(), any(), any(), any()))
+            .thenReturn(Collections.emptyList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.stop();
+    }
+
+    @Test
+    @DisplayName("Should query the whole range once and fold daily task counts into their periods")
+    void fetch_FoldsDailyTaskCountsIntoPeriods() {
+        when(reportingRepository.getDailyTaskCountsByDepartmentProjectAndStatus(null, JAN_1, JAN_14)).thenReturn(List.of(
+            new Object[]{JAN_1, 10L, 1L, "Alpha", Status.TODO, 2L},
+            new Object[]{JAN_3, 10L, null, null, Status.TODO, 1L},
+            new Object[]{java.sql.Date.valueOf(JAN_9), null, 1L, "Alpha", Status.COMPLETED, 4L}));
+
+        List<TimeSeriesReportEngine.PeriodRows> rows = engine.fetch(weeks, null, null, List.of());
+
+        assertThat(rows).hasSize(2);
+        TimeSeriesReportEngine.PeriodRows first = rows.get(0);
+        assertThat(first.statusCounts()).singleElement()
+            .satisfies(row -> assertThat(row).containsExactly(Status.TODO, 3L));
+        assertThat(first.departmentCounts()).singleElement()
+            .satisfies(row -> assertThat(row).containsExactly(10L, Status.TODO, 3L));
+        assertThat(first.projectCounts()).singleElement()
+            .satisfies(row -> assertThat(row).containsExactly("Alpha", Status.TODO, 2L));
+
+        TimeSeriesReportEngine.PeriodRows second = rows.get(1);
+        assertThat(second.statusCounts()).singleElement()
+            .satisfies(row -> assertThat(row).containsExactly(Status.COMPLETED, 4L));
+        assertThat(second.departmentCounts()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should break status counts down by the filtered projects only")
+    void fetch_ProjectFilter_UsesProjectShapedStatusCounts() {
+        when(reportingRepository.getDailyTaskCountsByDepartmentProjectAndStatus(null, JAN_1, JAN_14)).thenReturn(List.of(
+            new Object[]{JAN_1, 10L, 1L, "Alpha", Status.TODO, 2L},
+            new Object[]{JAN_1, 20L, 2L, "Beta", Status.TODO, 5L}));
+
+        List<TimeSeriesReportEngine.PeriodRows> rows = engine.fetch(weeks, null, List.of(1L), List.of());
+
+        TimeSeriesReportEngine.PeriodRows first = rows.get(0);
+        assertThat(first.statusCounts()).singleElement()
+            .satisfies(row -> assertThat(row).containsExactly("Alpha", Status.TODO, 2L));
+        assertThat(first.projectCounts()).isSameAs(first.statusCounts());
+        // The department breakdown is not narrowed by the project filter, as in the single-period report
+        assertThat(first.departmentCounts()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Should count tracked time in its start period only when completed by the period end")
+    void fetch_TrackedTime_AppliesCompletionBound() {
+        when(taskTimeTrackingRepository.getDailyHoursByDepartment(null, null, JAN_1, JAN_14)).thenReturn(List.of(
+            new Object[]{10L, JAN_1, JAN_3, new BigDecimal("2.00")},
+            new Object[]{10L, JAN_3, JAN_9, new BigDecimal("4.00")},
+            new Object[]{10L, JAN_3, null, 1.5d},
+            new Object[]{10L, JAN_9, JAN_9, new BigDecimal("3.00")}));
+        when(taskTimeTrackingRepository.getDailyProjectDetails(null, null, JAN_1, JAN_14)).thenReturn(List.of(
+            new Object[]{"Alpha", 10L, 7L, Status.COMPLETED, JAN_1, JAN_1, new BigDecimal("1.00")},
+            new Object[]{"Alpha", 10L, 7L, Status.COMPLETED, JAN_3, JAN_3, new BigDecimal("2.00")},
+            new Object[]{"Alpha", 10L, 8L, Status.IN_PROGRESS, JAN_3, null, new BigDecimal("0.50")}));
+
+        List<TimeSeriesReportEngine.PeriodRows> rows = engine.fetch(weeks, null, null, List.of());
+
+        assertThat(rows.get(0).departmentHours()).singleElement().satisfies(row -> {
+            assertThat(row[0]).isEqualTo(10L);
+            assertThat((BigDecimal) row[1]).isEqualByComparingTo("3.50");
+        });
+        assertThat(rows.get(1).departmentHours()).singleElement()
+            .satisfies(row -> assertThat((BigDecimal) row[1]).isEqualByComparingTo("3.00"));
+        // Task 7 tracked on two days is still one completed task
+        assertThat(rows.get(0).projectDetails()).singleElement().satisfies(row -> {
+            assertThat((BigDecimal) row[2]).isEqualByComparingTo("3.50");
+            assertThat(row[3]).isEqualTo(1L);
+            assertThat(row[4]).isEqualTo(1L);
+        });
+    }
+
+    @Test
+    @DisplayName("Should fold staff counts and hours per user")
+    void fetch_StaffRows_FoldedPerUser() {
+        when(reportingRepository.getDailyTaskCountsByStatusForUsers(eq(List.of(5L, 6L)), isNull(), eq(JAN_1), eq(JAN_14)))
+            .thenReturn(List.of(
+                new Object[]{5L, JAN_1, Status.TODO, 1L},
+                new Object[]{5L, JAN_3, Status.TODO, 2L},
+                new Object[]{6L, JAN_9, Status.BLOCKED, 1L}));
+        when(reportingRepository.getDailyLoggedHoursForUsers(eq(List.of(5L, 6L)), isNull(), eq(JAN_1), eq(JAN_14)))
+            .thenReturn(Collections.singletonList(new Object[]{5L, JAN_3, new BigDecimal("2.25")}));
+
+        List<TimeSeriesReportEngine.PeriodRows> rows = engine.fetch(weeks, null, Collections.emptyList(), List.of(5L, 6L));
+
+        assertThat(rows.get(0).staffTaskCounts()).singleElement()
+            .satisfies(row -> assertThat(row).containsExactly(5L, Status.TODO, 3L));
+        assertThat(rows.get(0).staffHours()).singleElement()
+            .satisfies(row -> assertThat(row).containsExactly(5L, new BigDecimal("2.25")));
+        assertThat(rows.get(1).staffTaskCounts()).singleElement()
+            .satisfies(row -> assertThat(row).containsExactly(6L, Status.BLOCKED, 1L));
+        assertThat(rows.get(1).staffHours()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should run every metric query in a read-only transaction timing out at the report deadline")
+    void fetch_QueriesRunWithStatementTimeout() {
+        engine.fetch(weeks, null, null, List.of(5L));
+
+        ArgumentCaptor<TransactionDefinition> definitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, times(6)).getTransaction(definitions.capture());
+        assertThat(definitions.getAllValues()).allSatisfy(definition -> {
+            assertThat(definition.isReadOnly()).isTrue();
+            assertThat(definition.getTimeout()).isBetween(1, 60);
+        });
+    }
+
+    @Test
+    @DisplayName("Should surface a failed metric query")
+    void fetch_QueryFails_Throws() {
+        when(taskTimeTrackingRepository.getDailyHoursByProject(any(), any(), any(), any()))
+            .thenThrow(new IllegalStateException("connection reset"));
+
+        assertThatThrownBy(() -> engine.fetch(weeks, null, null, List.of()))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("connection reset");
+    }
+
+    @Test
+    @DisplayName("Should cancel outstanding queries when the caller is interrupted")
+    void fetch_CallerInterrupted_CancelsQueries() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        when(reportingRepository.getDailyTaskCountsByDepartmentProjectAndStatus(any(), any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                cancelled.countDown();
+            }
+            return Collections.emptyList();
+        });
+
+        Thread caller = Thread.currentThread();
+        Thread interrupter = new Thread(() -> {
+            try {
+                started.await();
+            } catch (InterruptedException ignored) {
+                return;
+            }
+            caller.interrupt();
+        });
+        interrupter.start();
+
+        try {
+            assertThatThrownBy(() -> engine.fetch(weeks, null, null, List.of()))
+                .isInstanceOf(CancellationException.class);
+        } finally {
+            Thread.interrupted();
+            interrupter.join();
+        }
+        assertThat(cancelled.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should return nothing for an empty period list without querying")
+    void fetch_NoPeriods_ReturnsEmpty() {
+        assertThat(engine.fetch(List.of(), null, null, Arrays.asList(1L, 2L))).isEmpty();
+    }
+}
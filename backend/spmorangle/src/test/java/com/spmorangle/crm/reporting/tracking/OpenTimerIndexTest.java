@@ -0,0 +1,112 @@
+package com.spmorangle.crm.reporting.tracking;
+
+import com.spmorangle.crm.departmentmgmt.hierarchy.DepartmentMemberIndex;
+import com.spmorangle.crm.projectmanagement.model.Project;
+import com.spmorangle.crm.projectmanagement.repository.ProjectRepository;
+import com.spmorangle.crm.reporting.model.TaskTimeTracking;
+import com.spmorangle.crm.reporting.repository.TaskTimeTrackingRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OpenTimerIndex Tests")
+class OpenTimerIndexTest {
+
+    private final OffsetDateTime now = OffsetDateTime.now();
+    private final LocalDate today = LocalDate.now();
+
+    @Mock
+    private TaskTimeTrackingRepository taskTimeTrackingRepository;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private DepartmentMemberIndex departmentMemberIndex;
+
+    @InjectMocks
+    private OpenTimerIndex openTimerIndex;
+
+    @Test
+    @DisplayName("Should sum running hours by tracker department within the window and filters")
+    void runningHoursByDepartment_FiltersAndSums() {
+        List<Object[]> timers = new ArrayList<>();
+        timers.add(new Object[]{1L, 10L, 100L, 5L, now.minusHours(2)});
+        timers.add(new Object[]{2L, 11L, 101L, 5L, now.minusHours(1)});
+        timers.add(new Object[]{3L, 12L, 102L, 6L, now.minusHours(3)});
+        timers.add(new Object[]{4L, 13L, 100L, 5L, now.minusDays(10)});
+        when(taskTimeTrackingRepository.findOpenTimers()).thenReturn(timers);
+        lenient().when(departmentMemberIndex.departmentOf(100L)).thenReturn(1L);
+        lenient().when(departmentMemberIndex.departmentOf(101L)).thenReturn(1L);
+        lenient().when(departmentMemberIndex.departmentOf(102L)).thenReturn(2L);
+
+        Map<Object, Double> all = asMap(openTimerIndex.runningHoursByDepartment(null, null, today.minusDays(1), today));
+        Map<Object, Double> projectFive = asMap(openTimerIndex.runningHoursByDepartment(2L, List.of(5L), today.minusDays(1), today));
+
+        assertThat(all).containsOnlyKeys(1L, 2L);
+        assertThat(all.get(1L)).isCloseTo(3.0, within(0.01));
+        assertThat(all.get(2L)).isCloseTo(3.0, within(0.01));
+        assertThat(projectFive).isEmpty();
+        verify(taskTimeTrackingRepository, times(1)).findOpenTimers();
+    }
+
+    @Test
+    @DisplayName("Should name the projects of running timers")
+    void runningHoursByProject_ResolvesProjectNames() {
+        List<Object[]> timers = new ArrayList<>();
+        timers.add(new Object[]{1L, 10L, 100L, 5L, now.minusHours(2)});
+        timers.add(new Object[]{2L, 11L, 100L, null, now.minusHours(1)});
+        when(taskTimeTrackingRepository.findOpenTimers()).thenReturn(timers);
+        Project project = new Project();
+        project.setId(5L);
+        project.setName("Alpha");
+        when(projectRepository.findAllById(anyCollection())).thenReturn(List.of(project));
+
+        Map<Object, Double> byProject = asMap(openTimerIndex.runningHoursByProject(null, null, today.minusDays(1), today));
+
+        assertThat(byProject).containsOnlyKeys("Alpha");
+        assertThat(byProject.get("Alpha")).isCloseTo(2.0, within(0.01));
+    }
+
+    @Test
+    @DisplayName("Should follow started and stopped timers without reloading")
+    void onStartedAndStopped_UpdateLoadedIndex() {
+        when(taskTimeTrackingRepository.findOpenTimers()).thenReturn(List.of());
+        assertThat(openTimerIndex.size()).isZero();
+
+        TaskTimeTracking tracking = new TaskTimeTracking();
+        tracking.setId(7L);
+        tracking.setTaskId(10L);
+        tracking.setUserId(100L);
+        tracking.setStartedAt(now.minusMinutes(30));
+        openTimerIndex.onStarted(List.of(tracking), 5L);
+        assertThat(openTimerIndex.size()).isEqualTo(1);
+
+        openTimerIndex.onStopped(List.of(tracking));
+        assertThat(openTimerIndex.size()).isZero();
+        verify(taskTimeTrackingRepository, times(1)).findOpenTimers();
+    }
+
+    private static Map<Object, Double> asMap(List<Object[]> rows) {
+        return rows.stream().collect(Collectors.toMap(row -> row[0], row -> (Double) row[1]));
+    }
+}
@@ -7,12 +7,15 @@ import com.spmorangle.crm.taskmanagement.dto.AddCollaboratorRequestDto;
 import com.spmorangle.crm.taskmanagement.dto.AddCollaboratorResponseDto;
 import com.spmorangle.crm.taskmanagement.dto.CreateTaskDto;
 import com.spmorangle.crm.taskmanagement.dto.CreateTaskResponseDto;
+import com.spmorangle.crm.taskmanagement.dto.TaskPageRequestDto;
+import com.spmorangle.crm.taskmanagement.dto.TaskPageResponseDto;
 import com.spmorangle.crm.taskmanagement.dto.TaskResponseDto;
 import com.spmorangle.crm.taskmanagement.dto.RemoveCollaboratorRequestDto;
 import com.spmorangle.crm.taskmanagement.dto.UpdateTaskDto;
 import com.spmorangle.crm.taskmanagement.dto.UpdateTaskResponseDto;
 import com.spmorangle.crm.usermanagement.dto.UserResponseDto;
 import com.spmorangle.crm.taskmanagement.enums.Status;
+import com.spmorangle.crm.taskmanagement.enums.TaskSortKey;
 import com.spmorangle.crm.taskmanagement.enums.TaskType;
 import com.spmorangle.crm.taskmanagement.service.CollaboratorService;
 import com.spmorangle.crm.taskmanagement.service.CommentService;
@@ -30,13 +33,17 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.mockito.ArgumentCaptor;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
@@ -46,12 +53,14 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest({TaskManagementController.class, GlobalExceptionHandler.class})
@@ -108,6 +117,82 @@ public class TaskManagementControllerTest {
         testUser.setCognitoSub(UUID.randomUUID());
     }
 
+    @Nested
+    @DisplayName("Task Page Tests")
+    class TaskPageTests {
+
+        @Test
+        @DisplayName("Should pass sort, filters and cursor to the service")
+        void getUserTasksPage_WithFilters_ReturnsPage() throws Exception {
+            TaskPageResponseDto page = TaskPageResponseDto.builder()
+                    .items(List.of(TaskResponseDto.builder().id(1L).title("Task 1").build()))
+                    .nextCursor("abc")
+                    .hasMore(true)
+                    .build();
+            when(userContextService.getRequestingUser()).thenReturn(testUser);
+            when(taskService.getUserTasksPage(eq(123L), any(TaskPageRequestDto.class))).thenReturn(page);
+
+            mockMvc.perform(get("/api/tasks/user/page")
+                            .param("sort", "CREATED_AT")
+                            .param("status", "TODO")
+                            .param("priority", "3")
+                            .param("tags", "backend")
+                            .param("cursor", "xyz")
+                            .param("limit", "25"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items.length()").value(1))
+                    .andExpect(jsonPath("$.nextCursor").value("abc"))
+                    .andExpect(jsonPath("$.hasMore").value(true));
+
+            ArgumentCaptor<TaskPageRequestDto> captor = ArgumentCaptor.forClass(TaskPageRequestDto.class);
+            verify(taskService).getUserTasksPage(eq(123L), captor.capture());
+            TaskPageRequestDto request = captor.getValue();
+            assertThat(request.getSort()).isEqualTo(TaskSortKey.CREATED_AT);
+            assertThat(request.getStatus()).isEqualTo(Status.TODO);
+            assertThat(request.getPriority()).isEqualTo(3);
+            assertThat(request.getTags()).containsExactly("backend");
+            assertThat(request.getCursor()).isEqualTo("xyz");
+            assertThat(request.getEffectiveLimit()).isEqualTo(25);
+        }
+
+        @Test
+        @DisplayName("Should return 400 for an invalid cursor")
+        void getProjectTasksPage_InvalidCursor_ReturnsBadRequest() throws Exception {
+            when(userContextService.getRequestingUser()).thenReturn(testUser);
+            when(taskService.getProjectTasksPage(eq(123L), eq(101L), any(TaskPageRequestDto.class)))
+                    .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+            mockMvc.perform(get("/api/tasks/project/101/page").param("cursor", "bad"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Should stream tasks as newline-delimited JSON")
+        void streamUserTasks_WritesOneLinePerTask() throws Exception {
+            when(userContextService.getRequestingUser()).thenReturn(testUser);
+            when(taskService.streamUserTasks(eq(123L), any(TaskPageRequestDto.class), any())).thenAnswer(invocation -> {
+                Consumer<TaskResponseDto> sink = invocation.getArgument(2);
+                sink.accept(TaskResponseDto.builder().id(1L).title("Task 1").build());
+                sink.accept(TaskResponseDto.builder().id(2L).title("Task 2").build());
+                return 2L;
+            });
+
+            MvcResult result = mockMvc.perform(get("/api/tasks/user/stream"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            String body = mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andReturn().getResponse().getContentAsString();
+
+            String[] lines = body.split("\n");
+            assertThat(lines).hasSize(2);
+            assertThat(objectMapper.readTree(lines[0]).get("id").asLong()).isEqualTo(1L);
+            assertThat(objectMapper.readTree(lines[1]).get("title").asText()).isEqualTo("Task 2");
+        }
+    }
+
     @Nested
     @DisplayName("Get Tasks Tests")
     class GetTasksTests {
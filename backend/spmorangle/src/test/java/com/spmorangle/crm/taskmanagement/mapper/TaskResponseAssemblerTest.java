@@ -0,0 +1,242 @@
+package com.spmorangle.crm.taskmanagement.mapper;
+
+import com.spmorangle.common.model.User;
+import com.spmorangle.common.repository.UserRepository;
+import com.spmorangle.crm.departmentmgmt.dto.DepartmentDto;
+import com.spmorangle.crm.departmentmgmt.service.DepartmentQueryService;
+import com.spmorangle.crm.departmentmgmt.service.DepartmentalVisibilityService;
+import com.spmorangle.crm.projectmanagement.dto.ProjectResponseDto;
+import com.spmorangle.crm.projectmanagement.service.ProjectService;
+import com.spmorangle.crm.taskmanagement.dto.TaskResponseDto;
+import com.spmorangle.crm.taskmanagement.enums.Status;
+import com.spmorangle.crm.taskmanagement.enums.TaskType;
+import com.spmorangle.crm.taskmanagement.model.Subtask;
+import com.spmorangle.crm.taskmanagement.model.Tag;
+import com.spmorangle.crm.taskmanagement.model.Task;
+import com.spmorangle.crm.taskmanagement.model.TaskAssignee;
+import com.spmorangle.crm.taskmanagement.repository.SubtaskRepository;
+import com.spmorangle.crm.taskmanagement.repository.TaskAssigneeRepository;
+import com.spmorangle.crm.taskmanagement.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TaskResponseAssembler Tests")
+class TaskResponseAssemblerTest {
+
+    @Mock private TaskRepository taskRepository;
+    @Mock private SubtaskRepository subtaskRepository;
+    @Mock private TaskAssigneeRepository taskAssigneeRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private ProjectService projectService;
+    @Mock private DepartmentQueryService departmentQueryService;
+    @Mock private DepartmentalVisibilityService departmentalVisibilityService;
+
+    @InjectMocks
+    private TaskResponseAssembler assembler;
+
+    private static final Long VIEWER_ID = 1L;
+    private static final Long OWNER_ID = 2L;
+    private static final Long DEPT_ID = 10L;
+
+    private Task projectTask;
+    private Task otherProjectTask;
+
+    @BeforeEach
+    void setUp() {
+        projectTask = createTask(100L, 500L);
+        otherProjectTask = createTask(101L, 501L);
+    }
+
+    @Nested
+    @DisplayName("Batch loading")
+    class BatchLoading {
+
+        @Test
+        @DisplayName("Should issue one query per lookup for the whole list")
+        void toDto_MultipleTasks_LoadsEachLookupOnce() {
+            when(taskAssigneeRepository.findByTaskIdIn(Set.of(100L, 101L)))
+                .thenReturn(List.of(assignee(100L, VIEWER_ID), assignee(101L, OWNER_ID)));
+            when(subtaskRepository.findByTaskIdInAndNotDeleted(Set.of(100L, 101L)))
+                .thenReturn(List.of(subtask(900L, 100L, 500L, OWNER_ID)));
+            when(taskRepository.findWithTagsByIdIn(Set.of(100L, 101L)))
+                .thenReturn(List.of(projectTask, otherProjectTask));
+            when(userRepository.findAllById(Set.of(OWNER_ID)))
+                .thenReturn(List.of(createUser(OWNER_ID, DEPT_ID)));
+            when(departmentQueryService.getByIds(Set.of(DEPT_ID)))
+                .thenReturn(List.of(DepartmentDto.builder().id(DEPT_ID).name("Engineering").build()));
+            when(projectService.getProjectsByIds(Set.of(500L, 501L)))
+                .thenReturn(List.of(project(500L, "Alpha"), project(501L, "Beta")));
+            when(projectService.getOwnedProjectIds(VIEWER_ID, Set.of(500L, 501L)))
+                .thenReturn(Set.of(501L));
+
+            TaskResponseAssembler.TaskBatch batch = assembler.load(List.of(projectTask, otherProjectTask), VIEWER_ID);
+            List<TaskResponseDto> result = List.of(
+                batch.toDto(projectTask, batch.canEdit(projectTask), false),
+                batch.toDto(otherProjectTask, batch.canEdit(otherProjectTask), false));
+
+            assertThat(result).extracting(TaskResponseDto::getProjectName).containsExactly("Alpha", "Beta");
+            assertThat(result).extracting(TaskResponseDto::getOwnerDepartment).containsOnly("Engineering");
+            assertThat(result).extracting(TaskResponseDto::isUserHasEditAccess).containsExactly(true, true);
+            assertThat(result.get(0).getAssignedUserIds()).containsExactly(VIEWER_ID);
+            assertThat(result.get(0).getTags()).containsExactly("urgent");
+            assertThat(result.get(0).getSubtasks()).hasSize(1);
+            assertThat(result.get(0).getSubtasks().get(0).isUserHasEditAccess()).isTrue();
+            assertThat(result.get(0).getSubtasks().get(0).isUserHasDeleteAccess()).isFalse();
+            assertThat(result.get(1).getSubtasks()).isEmpty();
+
+            verify(taskAssigneeRepository, times(1)).findByTaskIdIn(anyCollection());
+            verify(subtaskRepository, times(1)).findByTaskIdInAndNotDeleted(anyCollection());
+            verify(projectService, times(1)).getOwnedProjectIds(anyLong(), anyCollection());
+            verify(projectService, never()).isUserProjectOwner(anyLong(), anyLong());
+        }
+
+        @Test
+        @DisplayName("Should skip project name lookup for personal task batches")
+        void loadWithoutProjectNames_DoesNotResolveProjects() {
+            TaskResponseAssembler.TaskBatch batch = assembler.loadWithoutProjectNames(List.of(projectTask), VIEWER_ID);
+
+            TaskResponseDto dto = batch.toDto(projectTask, true, true);
+
+            assertThat(dto.getProjectName()).isNull();
+            verify(projectService, never()).getProjectsByIds(any());
+        }
+
+        @Test
+        @DisplayName("Should fall back to empty data when a lookup fails")
+        void toDto_LookupFails_DegradesGracefully() {
+            when(subtaskRepository.findByTaskIdInAndNotDeleted(anyCollection()))
+                .thenThrow(new RuntimeException("db down"));
+
+            TaskResponseDto dto = assembler.load(List.of(projectTask), VIEWER_ID).toDto(projectTask, false, false);
+
+            assertThat(dto.getSubtasks()).isEmpty();
+            assertThat(dto.getTags()).containsExactly("urgent");
+        }
+    }
+
+    @Nested
+    @DisplayName("Permissions")
+    class Permissions {
+
+        @Test
+        @DisplayName("Project owner can delete a task assigned within a visible department")
+        void canDelete_ProjectOwnerWithVisibleAssignee_ReturnsTrue() {
+            when(userRepository.findById(VIEWER_ID)).thenReturn(Optional.of(createUser(VIEWER_ID, DEPT_ID)));
+            when(departmentalVisibilityService.visibleDepartmentsForAssignedDept(DEPT_ID)).thenReturn(Set.of(DEPT_ID));
+            when(taskAssigneeRepository.findByTaskIdIn(Set.of(100L))).thenReturn(List.of(assignee(100L, OWNER_ID)));
+            when(userRepository.findAllById(Set.of(OWNER_ID))).thenReturn(List.of(createUser(OWNER_ID, DEPT_ID)));
+            when(projectService.getOwnedProjectIds(VIEWER_ID, Set.of(500L))).thenReturn(Set.of(500L));
+
+            assertThat(assembler.load(List.of(projectTask), VIEWER_ID).canDelete(projectTask)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Project owner cannot delete a task outside their visible departments")
+        void canDelete_AssigneeOutsideVisibleDepartments_ReturnsFalse() {
+            when(userRepository.findById(VIEWER_ID)).thenReturn(Optional.of(createUser(VIEWER_ID, DEPT_ID)));
+            when(departmentalVisibilityService.visibleDepartmentsForAssignedDept(DEPT_ID)).thenReturn(Set.of(DEPT_ID));
+            when(taskAssigneeRepository.findByTaskIdIn(Set.of(100L))).thenReturn(List.of(assignee(100L, OWNER_ID)));
+            when(userRepository.findAllById(Set.of(OWNER_ID))).thenReturn(List.of(createUser(OWNER_ID, 99L)));
+
+            assertThat(assembler.load(List.of(projectTask), VIEWER_ID).canDelete(projectTask)).isFalse();
+            verify(projectService, never()).getOwnedProjectIds(anyLong(), anyCollection());
+        }
+
+        @Test
+        @DisplayName("Only assignees can delete personal tasks")
+        void canDelete_PersonalTask_RequiresAssignee() {
+            Task personalTask = createTask(102L, null);
+            when(userRepository.findById(VIEWER_ID)).thenReturn(Optional.of(createUser(VIEWER_ID, DEPT_ID)));
+            when(taskAssigneeRepository.findByTaskIdIn(Set.of(102L))).thenReturn(List.of(assignee(102L, VIEWER_ID)));
+
+            assertThat(assembler.load(List.of(personalTask), VIEWER_ID).canDelete(personalTask)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Unknown viewer cannot delete")
+        void canDelete_UnknownViewer_ReturnsFalse() {
+            when(userRepository.findById(VIEWER_ID)).thenReturn(Optional.empty());
+
+            assertThat(assembler.load(List.of(projectTask), VIEWER_ID).canDelete(projectTask)).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("Virtual instances use the occurrence as start date and due date")
+    void toVirtualDto_TemplateWithDueDate_UsesOccurrence() {
+        OffsetDateTime occurrence = OffsetDateTime.parse("2025-01-06T09:00:00Z");
+        projectTask.setDueDateTime(OffsetDateTime.parse("2025-01-01T09:00:00Z"));
+
+        TaskResponseDto dto = assembler.load(List.of(projectTask), VIEWER_ID)
+            .toVirtualDto(projectTask, occurrence, true, false);
+
+        assertThat(dto.getStartDate()).isEqualTo(occurrence);
+        assertThat(dto.getDueDateTime()).isEqualTo(occurrence);
+        assertThat(dto.getIsRecurring()).isTrue();
+    }
+
+    private Task createTask(Long id, Long projectId) {
+        Task task = new Task();
+        task.setId(id);
+        task.setProjectId(projectId);
+        task.setOwnerId(OWNER_ID);
+        task.setTaskType(TaskType.FEATURE);
+        task.setTitle("Task " + id);
+        task.setStatus(Status.TODO);
+        Tag tag = new Tag();
+        tag.setTagName("urgent");
+        task.setTags(Set.of(tag));
+        return task;
+    }
+
+    private Subtask subtask(Long id, Long taskId, Long projectId, Long createdBy) {
+        Subtask subtask = new Subtask();
+        subtask.setId(id);
+        subtask.setTaskId(taskId);
+        subtask.setProjectId(projectId);
+        subtask.setTaskType(TaskType.FEATURE);
+        subtask.setTitle("Subtask " + id);
+        subtask.setCreatedBy(createdBy);
+        return subtask;
+    }
+
+    private TaskAssignee assignee(Long taskId, Long userId) {
+        TaskAssignee assignee = new TaskAssignee();
+        assignee.setTaskId(taskId);
+        assignee.setUserId(userId);
+        return assignee;
+    }
+
+    private User createUser(Long id, Long departmentId) {
+        User user = new User();
+        user.setId(id);
+        user.setUserName("User " + id);
+        user.setDepartmentId(departmentId);
+        return user;
+    }
+
+    private ProjectResponseDto project(Long id, String name) {
+        return ProjectResponseDto.builder().id(id).name(name).build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.spmorangle.crm.taskmanagement.repository;
+
+import com.spmorangle.crm.taskmanagement.enums.Status;
+import com.spmorangle.crm.taskmanagement.enums.TaskType;
+import com.spmorangle.crm.taskmanagement.model.Task;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@DisplayName("TaskRepository notification scan Tests")
+class TaskRepositoryNotificationScanTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private static final OffsetDateTime NOW = OffsetDateTime.of(2025, 6, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    @DisplayName("Overdue candidates exclude notified, completed and deleted tasks and page by id")
+    void findOverdueNotificationCandidates_OnlyPendingTasks() {
+        Task pending1 = persistTask(NOW.minusDays(3), Status.TODO, false);
+        Task pending2 = persistTask(NOW.minusDays(2), Status.IN_PROGRESS, false);
+        Task notified = persistTask(NOW.minusDays(3), Status.TODO, false);
+        notified.setHasSentOverdue(true);
+        persistTask(NOW.minusDays(3), Status.COMPLETED, false);
+        Task deleted = persistTask(NOW.minusDays(3), Status.TODO, false);
+        deleted.setDeleteInd(true);
+        persistTask(NOW.plusHours(1), Status.TODO, false);
+        entityManager.flush();
+
+        OffsetDateTime threshold = NOW.minusHours(24);
+        List<Task> firstPage = taskRepository.findOverdueNotificationCandidates(threshold, 0L, PageRequest.of(0, 1));
+        List<Task> secondPage = taskRepository.findOverdueNotificationCandidates(
+                threshold, firstPage.get(0).getId(), PageRequest.of(0, 1));
+
+        assertThat(firstPage).extracting(Task::getId).containsExactly(pending1.getId());
+        assertThat(secondPage).extracting(Task::getId).containsExactly(pending2.getId());
+    }
+
+    @Test
+    @DisplayName("Pre due candidates use the 12h window for rescheduled tasks and skip tasks already due")
+    void findPreDueNotificationCandidates_AppliesWindows() {
+        Task standard = persistTask(NOW.plusHours(20), Status.TODO, false);
+        persistTask(NOW.plusHours(20), Status.TODO, true);
+        Task rescheduled = persistTask(NOW.plusHours(10), Status.TODO, true);
+        persistTask(NOW.plusHours(30), Status.TODO, false);
+        persistTask(NOW.minusHours(1), Status.TODO, false);
+        Task notified = persistTask(NOW.plusHours(5), Status.TODO, false);
+        notified.setHasSentPreDue(true);
+        entityManager.flush();
+
+        List<Task> candidates = taskRepository.findPreDueNotificationCandidates(
+                NOW, NOW.plusHours(24), NOW.plusHours(12), 0L, PageRequest.of(0, 10));
+
+        assertThat(candidates).extracting(Task::getId).containsExactly(standard.getId(), rescheduled.getId());
+    }
+
+    @Test
+    @DisplayName("Bulk flag update only touches rows that are still unflagged")
+    void markOverdueNotificationSent_UpdatesUnflaggedRows() {
+        Task pending = persistTask(NOW.minusDays(3), Status.TODO, false);
+        Task notified = persistTask(NOW.minusDays(3), Status.TODO, false);
+        notified.setHasSentOverdue(true);
+        entityManager.flush();
+
+        int updated = taskRepository.markOverdueNotificationSent(List.of(pending.getId(), notified.getId()), -1L);
+        entityManager.clear();
+
+        assertThat(updated).isEqualTo(1);
+        Task reloaded = entityManager.find(Task.class, pending.getId());
+        assertThat(reloaded.getHasSentOverdue()).isTrue();
+        assertThat(reloaded.getUpdatedBy()).isEqualTo(-1L);
+    }
+
+    private Task persistTask(OffsetDateTime due, Status status, boolean rescheduled) {
+        Task task = new Task();
+        task.setProjectId(1L);
+        task.setOwnerId(10L);
+        task.setTaskType(TaskType.FEATURE);
+        task.setTitle("Task");
+        task.setStatus(status);
+        task.setDueDateTime(due);
+        task.setIsRescheduled(rescheduled);
+        task.setCreatedAt(NOW.minusDays(10));
+        task.setCreatedBy(10L);
+        return entityManager.persist(task);
+    }
+}
@@ -0,0 +1,189 @@
+package com.spmorangle.crm.taskmanagement.repository;
+
+import com.spmorangle.crm.taskmanagement.dto.TaskPageRequestDto;
+import com.spmorangle.crm.taskmanagement.enums.Status;
+import com.spmorangle.crm.taskmanagement.enums.TaskSortKey;
+import com.spmorangle.crm.taskmanagement.enums.TaskType;
+import com.spmorangle.crm.taskmanagement.model.Tag;
+import com.spmorangle.crm.taskmanagement.model.Task;
+import com.spmorangle.crm.taskmanagement.model.TaskAssignee;
+import com.spmorangle.crm.taskmanagement.util.TaskCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@DisplayName("TaskRepository keyset pagination Tests")
+class TaskRepositoryPaginationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private static final Long USER_ID = 10L;
+    private static final Long OTHER_USER_ID = 11L;
+    private static final Long PROJECT_ID = 500L;
+    private static final OffsetDateTime BASE = OffsetDateTime.of(2025, 1, 1, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    private Tag urgent;
+    private Tag backend;
+    private List<Long> dueOrder;
+
+    @BeforeEach
+    void setUp() {
+        urgent = persistTag("urgent");
+        backend = persistTag("backend");
+
+        // Two tasks share a due date so the id tie-breaker is exercised; two have no due date
+        Task t1 = persistTask(BASE.plusDays(2), BASE.plusHours(1), Status.TODO, 1, Set.of(urgent));
+        Task t2 = persistTask(BASE.plusDays(1), BASE.plusHours(2), Status.IN_PROGRESS, 2, Set.of(urgent, backend));
+        Task t3 = persistTask(BASE.plusDays(1), BASE.plusHours(3), Status.TODO, 1, Set.of());
+        Task t4 = persistTask(null, BASE.plusHours(4), Status.TODO, 3, Set.of(backend));
+        Task t5 = persistTask(BASE.plusDays(3), BASE.plusHours(5), Status.COMPLETED, 1, Set.of(urgent));
+        Task t6 = persistTask(null, BASE.plusHours(6), Status.TODO, 1, Set.of());
+        Task deleted = persistTask(BASE, BASE, Status.TODO, 1, Set.of());
+        deleted.setDeleteInd(true);
+
+        for (Task task : List.of(t1, t2, t3, t4, t5, t6, deleted)) {
+            assign(task, USER_ID);
+        }
+        Task someoneElses = persistTask(BASE, BASE, Status.TODO, 1, Set.of());
+        assign(someoneElses, OTHER_USER_ID);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        dueOrder = List.of(t2.getId(), t3.getId(), t1.getId(), t5.getId(), t4.getId(), t6.getId());
+    }
+
+    @Nested
+    @DisplayName("findTaskPage")
+    class FindTaskPageTests {
+
+        @Test
+        @DisplayName("Walking pages by due date visits every task once, undated tasks last")
+        void findTaskPage_DueDate_WalksAllPagesInOrder() {
+            TaskPageRequestDto request = TaskPageRequestDto.builder().sort(TaskSortKey.DUE_DATE).build();
+
+            List<Long> visited = walk(request, 2);
+
+            assertThat(visited).containsExactlyElementsOf(dueOrder);
+        }
+
+        @Test
+        @DisplayName("Walking pages by created date returns newest first")
+        void findTaskPage_CreatedAt_WalksNewestFirst() {
+            TaskPageRequestDto request = TaskPageRequestDto.builder().sort(TaskSortKey.CREATED_AT).build();
+
+            List<Long> visited = walk(request, 4);
+
+            assertThat(visited).hasSize(6);
+            assertThat(visited).isSortedAccordingTo((a, b) -> Long.compare(b, a));
+        }
+
+        @Test
+        @DisplayName("Status, priority and tag filters are applied in the query")
+        void findTaskPage_Filters_AppliedServerSide() {
+            TaskPageRequestDto byStatus = TaskPageRequestDto.builder().status(Status.TODO).priority(1).build();
+            TaskPageRequestDto byTags = TaskPageRequestDto.builder().tags(List.of(" URGENT ", "backend")).build();
+
+            assertThat(taskRepository.findTaskPage(USER_ID, null, byStatus, null, 10))
+                .extracting(Task::getId)
+                .containsExactly(dueOrder.get(1), dueOrder.get(2), dueOrder.get(5));
+            assertThat(taskRepository.findTaskPage(USER_ID, null, byTags, null, 10))
+                .extracting(Task::getId)
+                .containsExactly(dueOrder.get(0));
+        }
+
+        @Test
+        @DisplayName("Project scope ignores assignees and excludes deleted tasks")
+        void findTaskPage_ProjectScope_ReturnsProjectTasks() {
+            TaskPageRequestDto request = TaskPageRequestDto.builder().build();
+
+            assertThat(taskRepository.findTaskPage(null, PROJECT_ID, request, null, 20)).hasSize(7);
+        }
+
+        @Test
+        @DisplayName("Scope must be either a user or a project")
+        void findTaskPage_BothScopes_Throws() {
+            TaskPageRequestDto request = TaskPageRequestDto.builder().build();
+
+            // Repository exception translation wraps the IllegalArgumentException
+            assertThatThrownBy(() -> taskRepository.findTaskPage(USER_ID, PROJECT_ID, request, null, 10))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("streamTasks emits the same ordering as the paged query")
+    void streamTasks_DueDate_MatchesPagedOrder() {
+        TaskPageRequestDto request = TaskPageRequestDto.builder().build();
+
+        try (Stream<Task> tasks = taskRepository.streamTasks(USER_ID, null, request)) {
+            assertThat(tasks.map(Task::getId).toList()).containsExactlyElementsOf(dueOrder);
+        }
+    }
+
+    private List<Long> walk(TaskPageRequestDto request, int pageSize) {
+        List<Long> visited = new ArrayList<>();
+        TaskCursor cursor = null;
+        while (true) {
+            List<Task> page = taskRepository.findTaskPage(USER_ID, null, request, cursor, pageSize);
+            page.forEach(task -> visited.add(task.getId()));
+            if (page.size() < pageSize) {
+                return visited;
+            }
+            // Round-trip through the encoded form, as a client would
+            String encoded = TaskCursor.after(page.get(page.size() - 1), request.getSort()).encode();
+            cursor = TaskCursor.decode(encoded, request.getSort());
+        }
+    }
+
+    private Tag persistTag(String name) {
+        Tag tag = new Tag();
+        tag.setTagName(name);
+        return entityManager.persist(tag);
+    }
+
+    private Task persistTask(OffsetDateTime due, OffsetDateTime createdAt, Status status, Integer priority, Set<Tag> tags) {
+        Task task = new Task();
+        task.setProjectId(PROJECT_ID);
+        task.setOwnerId(USER_ID);
+        task.setTaskType(TaskType.FEATURE);
+        task.setTitle("Task");
+        task.setStatus(status);
+        task.setPriority(priority);
+        task.setDueDateTime(due);
+        task.setCreatedAt(createdAt);
+        task.setCreatedBy(USER_ID);
+        task.setTags(new HashSet<>(tags));
+        return entityManager.persist(task);
+    }
+
+    private void assign(Task task, Long userId) {
+        TaskAssignee assignee = new TaskAssignee();
+        assignee.setTaskId(task.getId());
+        assignee.setUserId(userId);
+        assignee.setAssignedId(USER_ID);
+        entityManager.persist(assignee);
+    }
+}
@@ -1,5 +1,6 @@
 package com.spmorangle.crm.taskmanagement.service.impl;
 
+import com.spmorangle.common.util.BoundedLruCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -7,8 +8,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.OffsetDateTime;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -240,4 +243,49 @@ class RecurrenceServiceImplTest {
             assertThat(result.get(0)).isAfterOrEqualTo(start);
         }
     }
+
+    @Nested
+    @DisplayName("Occurrence cache Tests")
+    class OccurrenceCacheTests {
+
+        private final String rruleStr = "FREQ=DAILY;COUNT=10";
+        private final OffsetDateTime start = OffsetDateTime.parse("2024-01-01T09:00:00Z");
+        private final OffsetDateTime end = OffsetDateTime.parse("2024-01-31T09:00:00Z");
+
+        @Test
+        @DisplayName("Epoch millis match the OffsetDateTime occurrences")
+        void generateOccurrenceEpochMillis_MatchesGenerateOccurrence() {
+            long[] millis = recurrenceService.generateOccurrenceEpochMillis(rruleStr, start, end);
+            List<OffsetDateTime> occurrences = recurrenceService.generateOccurrence(rruleStr, start, end);
+
+            assertThat(millis).hasSize(10);
+            assertThat(occurrences).extracting(o -> o.toInstant().toEpochMilli())
+                    .containsExactly(Arrays.stream(millis).boxed().toArray(Long[]::new));
+        }
+
+        @Test
+        @DisplayName("Callers get a copy, so mutating the result does not corrupt the cache")
+        void generateOccurrenceEpochMillis_ReturnsDefensiveCopy() {
+            long[] first = recurrenceService.generateOccurrenceEpochMillis(rruleStr, start, end);
+            long expected = first[0];
+            first[0] = 0L;
+
+            assertThat(recurrenceService.generateOccurrenceEpochMillis(rruleStr, start, end)[0]).isEqualTo(expected);
+        }
+
+        @Test
+        @DisplayName("evictRule drops the compiled rule and all of its windows only")
+        void evictRule_RemovesOnlyThatRule() {
+            recurrenceService.generateOccurrence(rruleStr, start, end);
+            recurrenceService.generateOccurrence(rruleStr, start.plusDays(1), end);
+            recurrenceService.generateOccurrence("FREQ=WEEKLY;COUNT=3", start, end);
+
+            recurrenceService.evictRule(rruleStr);
+
+            BoundedLruCache<?, ?> windows = (BoundedLruCache<?, ?>) ReflectionTestUtils.getField(recurrenceService, "occurrenceWindows");
+            BoundedLruCache<?, ?> rules = (BoundedLruCache<?, ?>) ReflectionTestUtils.getField(recurrenceService, "compiledRules");
+            assertThat(windows.size()).isEqualTo(1);
+            assertThat(rules.size()).isEqualTo(1);
+        }
+    }
 }
@@ -3,6 +3,7 @@ package com.spmorangle.crm.taskmanagement.service.impl;
 import com.spmorangle.common.model.User;
 import com.spmorangle.common.repository.UserRepository;
 import com.spmorangle.crm.departmentmgmt.dto.DepartmentDto;
+import com.spmorangle.crm.departmentmgmt.hierarchy.VisibleUsers;
 import com.spmorangle.crm.departmentmgmt.service.DepartmentQueryService;
 import com.spmorangle.crm.departmentmgmt.service.DepartmentalVisibilityService;
 import com.spmorangle.crm.notification.messaging.publisher.NotificationMessagePublisher;
@@ -11,7 +12,10 @@ import com.spmorangle.crm.reporting.service.ReportService;
 import com.spmorangle.crm.taskmanagement.dto.TaskResponseDto;
 import com.spmorangle.crm.taskmanagement.enums.Status;
 import com.spmorangle.crm.taskmanagement.enums.TaskType;
+import com.spmorangle.crm.taskmanagement.mapper.TaskResponseAssembler;
 import com.spmorangle.crm.taskmanagement.model.Task;
+import com.spmorangle.crm.taskmanagement.model.TaskAssignee;
+import com.spmorangle.crm.taskmanagement.repository.SubtaskRepository;
 import com.spmorangle.crm.taskmanagement.repository.TaskAssigneeRepository;
 import com.spmorangle.crm.taskmanagement.repository.TaskRepository;
 import com.spmorangle.crm.taskmanagement.service.*;
@@ -23,6 +27,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.OffsetDateTime;
 import java.util.*;
@@ -47,7 +53,7 @@ class TaskServiceDepartmentFilteringTest {
 
     @Mock private TaskRepository taskRepository;
     @Mock private CollaboratorService collaboratorService;
-    @Mock private SubtaskService subtaskService;
+    @Mock private SubtaskRepository subtaskRepository;
     @Mock private ProjectService projectService;
     @Mock private TagService tagService;
     @Mock private RecurrenceService recurrenceService;
@@ -57,6 +63,7 @@ class TaskServiceDepartmentFilteringTest {
     @Mock private ReportService reportService;
     @Mock private DepartmentQueryService departmentQueryService;
     @Mock private DepartmentalVisibilityService departmentalVisibilityService;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private TaskServiceImpl taskService;
@@ -68,6 +75,10 @@ class TaskServiceDepartmentFilteringTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(taskService, "taskResponseAssembler", new TaskResponseAssembler(
+                taskRepository, subtaskRepository, taskAssigneeRepository, userRepository,
+                projectService, departmentQueryService, departmentalVisibilityService));
+
         // Default mocks to prevent NullPointerException (lenient for tests that don't use them)
         lenient().when(collaboratorService.getTasksForWhichUserIsCollaborator(anyLong()))
             .thenReturn(Collections.emptyList());
@@ -80,10 +91,6 @@ class TaskServiceDepartmentFilteringTest {
         lenient().when(collaboratorService.isUserTaskCollaborator(anyLong(), anyLong()))
             .thenReturn(false);
 
-        // Mock subtaskService to return empty lists
-        lenient().when(subtaskService.getSubtasksByTaskId(anyLong(), anyLong()))
-            .thenReturn(Collections.emptyList());
-
         // Mock taskRepository.findById() to return a task for canUserDeleteTask() checks
         lenient().when(taskRepository.findById(anyLong()))
             .thenAnswer(invocation -> {
@@ -105,12 +112,10 @@ class TaskServiceDepartmentFilteringTest {
             // Given
             User user = createUser(USER_ID, DEPT_A_ID);
             Task task = createTask(10L, USER_ID);
-            User assignee = createUser(5L, DEPT_A_ID);
             DepartmentDto deptA = createDepartment(DEPT_A_ID, "Department A", null);
 
-            // Mock user lookup - for viewing user and assignee
+            // Mock user lookup - for viewing user
             when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
-            when(userRepository.findById(5L)).thenReturn(Optional.of(assignee));
 
             // Mock department query by ID
             when(departmentQueryService.getById(DEPT_A_ID))
@@ -124,13 +129,12 @@ class TaskServiceDepartmentFilteringTest {
             when(taskRepository.findUserTasks(USER_ID)).thenReturn(List.of(task));
 
             // Mock assignee lookup
-            when(taskAssigneeRepository.findAssigneeIdsByTaskId(task.getId()))
-                .thenReturn(new ArrayList<>(List.of(5L)));
+            when(taskAssigneeRepository.findByTaskIdIn(Set.of(task.getId())))
+                .thenReturn(List.of(createAssignee(task.getId(), 5L)));
 
-            // Mock visibility check - assignee's dept is visible
-            // Second parameter is the assignee USER ID (5L), not department ID
-            when(departmentalVisibilityService.canUserSeeTask(Set.of(DEPT_A_ID), 5L))
-                .thenReturn(true);
+            // Mock visible members - the assignee (5L) belongs to Dept A
+            when(departmentalVisibilityService.visibleUsersForDepartments(Set.of(DEPT_A_ID)))
+                .thenReturn(VisibleUsers.of(List.of(USER_ID, 5L)));
 
             // When
             List<TaskResponseDto> result = taskService.getAllUserTasks(USER_ID);
@@ -151,13 +155,11 @@ class TaskServiceDepartmentFilteringTest {
             // Given
             User user = createUser(USER_ID, DEPT_A_ID);
             Task task = createTask(10L, USER_ID);
-            User assignee = createUser(5L, DEPT_A1_ID);
             DepartmentDto deptA = createDepartment(DEPT_A_ID, "Department A", null);
             DepartmentDto deptA1 = createDepartment(DEPT_A1_ID, "Department A.1", DEPT_A_ID);
 
-            // Mock user lookup - for viewing user and assignee
+            // Mock user lookup - for viewing user
             when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
-            when(userRepository.findById(5L)).thenReturn(Optional.of(assignee));
 
             when(departmentQueryService.getById(DEPT_A_ID))
                 .thenReturn(Optional.of(deptA));
@@ -167,12 +169,12 @@ class TaskServiceDepartmentFilteringTest {
                 .thenReturn(Set.of(DEPT_A_ID, DEPT_A1_ID));
 
             when(taskRepository.findUserTasks(USER_ID)).thenReturn(List.of(task));
-            when(taskAssigneeRepository.findAssigneeIdsByTaskId(task.getId()))
-                .thenReturn(new ArrayList<>(List.of(5L)));
+            when(taskAssigneeRepository.findByTaskIdIn(Set.of(task.getId())))
+                .thenReturn(List.of(createAssignee(task.getId(), 5L)));
 
-            // Second parameter is the assignee USER ID (5L), not department ID
-            when(departmentalVisibilityService.canUserSeeTask(Set.of(DEPT_A_ID, DEPT_A1_ID), 5L))
-                .thenReturn(true);
+            // Visible members of Dept A and A.1 include the assignee (5L)
+            when(departmentalVisibilityService.visibleUsersForDepartments(Set.of(DEPT_A_ID, DEPT_A1_ID)))
+                .thenReturn(VisibleUsers.of(List.of(USER_ID, 5L)));
 
             // When
             List<TaskResponseDto> result = taskService.getAllUserTasks(USER_ID);
@@ -192,8 +194,6 @@ class TaskServiceDepartmentFilteringTest {
             // Given
             User user = createUser(USER_ID, DEPT_A_ID);
             Task task = createTask(10L, 99L);
-            User taskOwner = createUser(99L, DEPT_B_ID);
-            User assignee = createUser(5L, DEPT_B_ID);
             DepartmentDto deptA = createDepartment(DEPT_A_ID, "Department A", null);
 
             when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
@@ -203,16 +203,12 @@ class TaskServiceDepartmentFilteringTest {
                 .thenReturn(Set.of(DEPT_A_ID, DEPT_A1_ID));
 
             when(taskRepository.findUserTasks(USER_ID)).thenReturn(List.of(task));
-            when(taskAssigneeRepository.findAssigneeIdsByTaskId(task.getId()))
-                .thenReturn(new ArrayList<>(List.of(5L)));
+            when(taskAssigneeRepository.findByTaskIdIn(Set.of(task.getId())))
+                .thenReturn(List.of(createAssignee(task.getId(), 5L)));
 
-            // Mock both owner and assignee from Dept B
-            when(userRepository.findById(99L)).thenReturn(Optional.of(taskOwner));
-            when(userRepository.findById(5L)).thenReturn(Optional.of(assignee));
-
-            // User cannot see Dept B
-            when(departmentalVisibilityService.canUserSeeTask(Set.of(DEPT_A_ID, DEPT_A1_ID), DEPT_B_ID))
-                .thenReturn(false);
+            // Owner (99L) and assignee (5L) are in Dept B, so neither is a visible member
+            when(departmentalVisibilityService.visibleUsersForDepartments(Set.of(DEPT_A_ID, DEPT_A1_ID)))
+                .thenReturn(VisibleUsers.of(List.of(USER_ID)));
 
             // When
             List<TaskResponseDto> result = taskService.getAllUserTasks(USER_ID);
@@ -232,12 +228,10 @@ class TaskServiceDepartmentFilteringTest {
             // Given
             User user = createUser(USER_ID, DEPT_A_ID);
             Task task = createTask(10L, USER_ID);
-            User assigneeA = createUser(5L, DEPT_A_ID);
             DepartmentDto deptA = createDepartment(DEPT_A_ID, "Department A", null);
 
-            // Mock user lookup - for viewing user and assignee
+            // Mock user lookup - for viewing user
             when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
-            when(userRepository.findById(5L)).thenReturn(Optional.of(assigneeA));
 
             when(departmentQueryService.getById(DEPT_A_ID))
                 .thenReturn(Optional.of(deptA));
@@ -245,12 +239,12 @@ class TaskServiceDepartmentFilteringTest {
                 .thenReturn(Set.of(DEPT_A_ID, DEPT_A1_ID));
 
             when(taskRepository.findUserTasks(USER_ID)).thenReturn(List.of(task));
-            when(taskAssigneeRepository.findAssigneeIdsByTaskId(task.getId()))
-                .thenReturn(new ArrayList<>(List.of(5L)));
+            when(taskAssigneeRepository.findByTaskIdIn(Set.of(task.getId())))
+                .thenReturn(List.of(createAssignee(task.getId(), 5L)));
 
-            // Second parameter is the assignee USER ID (5L), not department ID
-            when(departmentalVisibilityService.canUserSeeTask(Set.of(DEPT_A_ID, DEPT_A1_ID), 5L))
-                .thenReturn(true);
+            // Visible members of Dept A and A.1 include the assignee (5L)
+            when(departmentalVisibilityService.visibleUsersForDepartments(Set.of(DEPT_A_ID, DEPT_A1_ID)))
+                .thenReturn(VisibleUsers.of(List.of(USER_ID, 5L)));
 
             // When
             List<TaskResponseDto> result = taskService.getAllUserTasks(USER_ID);
@@ -273,8 +267,6 @@ class TaskServiceDepartmentFilteringTest {
 
             when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
             when(taskRepository.findUserTasks(USER_ID)).thenReturn(List.of(task));
-            lenient().when(taskAssigneeRepository.findAssigneeIdsByTaskId(task.getId()))
-                .thenReturn(new ArrayList<>());
 
             // When
             List<TaskResponseDto> result = taskService.getAllUserTasks(USER_ID);
@@ -289,7 +281,6 @@ class TaskServiceDepartmentFilteringTest {
             // Given
             User user = createUser(USER_ID, DEPT_A_ID);
             Task task = createTask(10L, USER_ID);
-            User assigneeWithoutDept = createUser(5L, null);
             DepartmentDto deptA = createDepartment(DEPT_A_ID, "Department A", null);
 
             when(userRepository.findById(USER_ID)).thenReturn(Optional.of(user));
@@ -299,9 +290,11 @@ class TaskServiceDepartmentFilteringTest {
                 .thenReturn(Set.of(DEPT_A_ID));
 
             when(taskRepository.findUserTasks(USER_ID)).thenReturn(List.of(task));
-            when(taskAssigneeRepository.findAssigneeIdsByTaskId(task.getId()))
-                .thenReturn(new ArrayList<>(List.of(5L)));
-            when(userRepository.findById(5L)).thenReturn(Optional.of(assigneeWithoutDept));
+            when(taskAssigneeRepository.findByTaskIdIn(Set.of(task.getId())))
+                .thenReturn(List.of(createAssignee(task.getId(), 5L)));
+            // The assignee (5L) has no department, so only the viewer is a visible member
+            when(departmentalVisibilityService.visibleUsersForDepartments(Set.of(DEPT_A_ID)))
+                .thenReturn(VisibleUsers.of(List.of(USER_ID)));
 
             // When
             List<TaskResponseDto> result = taskService.getAllUserTasks(USER_ID);
@@ -336,6 +329,13 @@ class TaskServiceDepartmentFilteringTest {
         return task;
     }
 
+    private TaskAssignee createAssignee(Long taskId, Long userId) {
+        TaskAssignee assignee = new TaskAssignee();
+        assignee.setTaskId(taskId);
+        assignee.setUserId(userId);
+        return assignee;
+    }
+
     private DepartmentDto createDepartment(Long id, String name, Long parentId) {
         return DepartmentDto.builder()
             .id(id)
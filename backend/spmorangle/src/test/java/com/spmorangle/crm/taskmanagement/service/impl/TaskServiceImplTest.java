@@ -4,6 +4,7 @@ import com.spmorangle.common.enums.UserType;
 import com.spmorangle.common.model.User;
 import com.spmorangle.common.repository.UserRepository;
 import com.spmorangle.crm.departmentmgmt.dto.DepartmentDto;
+import com.spmorangle.crm.departmentmgmt.hierarchy.VisibleUsers;
 import com.spmorangle.crm.departmentmgmt.model.Department;
 import com.spmorangle.crm.departmentmgmt.repository.DepartmentRepository;
 import com.spmorangle.crm.departmentmgmt.service.DepartmentQueryService;
@@ -15,34 +16,45 @@ import com.spmorangle.crm.taskmanagement.dto.AddCollaboratorRequestDto;
 import com.spmorangle.crm.taskmanagement.dto.AddCollaboratorResponseDto;
 import com.spmorangle.crm.taskmanagement.dto.CreateTaskDto;
 import com.spmorangle.crm.taskmanagement.dto.CreateTaskResponseDto;
+import com.spmorangle.crm.taskmanagement.dto.TaskPageRequestDto;
+import com.spmorangle.crm.taskmanagement.dto.TaskPageResponseDto;
 import com.spmorangle.crm.taskmanagement.dto.TaskResponseDto;
 import com.spmorangle.crm.taskmanagement.dto.UpdateTaskDto;
 import com.spmorangle.crm.taskmanagement.dto.UpdateTaskResponseDto;
 import com.spmorangle.crm.taskmanagement.enums.Status;
+import com.spmorangle.crm.taskmanagement.enums.TaskSortKey;
 import com.spmorangle.crm.taskmanagement.enums.TaskType;
 import com.spmorangle.crm.taskmanagement.model.Tag;
+import com.spmorangle.crm.taskmanagement.event.TaskDeadlineChangedEvent;
+import com.spmorangle.crm.taskmanagement.event.TaskReportingChangedEvent;
+import com.spmorangle.crm.taskmanagement.mapper.TaskResponseAssembler;
 import com.spmorangle.crm.taskmanagement.model.Task;
 import com.spmorangle.crm.taskmanagement.model.TaskAssignee;
+import com.spmorangle.crm.taskmanagement.repository.SubtaskRepository;
 import com.spmorangle.crm.taskmanagement.repository.TaskAssigneeRepository;
 import com.spmorangle.crm.taskmanagement.repository.TaskRepository;
 import com.spmorangle.crm.taskmanagement.service.CollaboratorService;
-import com.spmorangle.crm.taskmanagement.service.SubtaskService;
 import com.spmorangle.crm.taskmanagement.service.TagService;
 import com.spmorangle.crm.taskmanagement.service.RecurrenceService;
+import com.spmorangle.crm.taskmanagement.util.TaskCursor;
 import com.spmorangle.crm.reporting.service.ReportService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -51,11 +63,14 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
@@ -79,7 +94,7 @@ class TaskServiceImplTest {
     private CollaboratorService collaboratorService;
 
     @Mock
-    private SubtaskService subtaskService;
+    private SubtaskRepository subtaskRepository;
 
     @Mock
     private ProjectService projectService;
@@ -111,6 +126,9 @@ class TaskServiceImplTest {
     @Mock
     private DepartmentalVisibilityService departmentalVisibilityService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private TaskServiceImpl taskService;
 
@@ -122,6 +140,10 @@ class TaskServiceImplTest {
     @BeforeEach
     void setUp() {
         fixedDateTime = OffsetDateTime.now();
+        ReflectionTestUtils.setField(taskService, "taskResponseAssembler", new TaskResponseAssembler(
+                taskRepository, subtaskRepository, taskAssigneeRepository, userRepository,
+                projectService, departmentQueryService, departmentalVisibilityService));
+
 
         testTask1 = createTestTask(1L, 101L, 201L, "Task 1", "Description 1",
                                   Status.TODO, Arrays.asList("tag1", "tag2"));
@@ -132,9 +154,6 @@ class TaskServiceImplTest {
         testTask3 = createTestTask(3L, 103L, 201L, "Task 3", null,
                                   Status.COMPLETED, Collections.emptyList());
 
-        // Mock subtaskService to return empty lists for all task IDs (lenient for tests that don't use it)
-        lenient().when(subtaskService.getSubtasksByTaskId(anyLong(), anyLong())).thenReturn(Collections.emptyList());
-
         lenient().when(projectService.getProjectOwners(any())).thenReturn(Collections.emptyMap());
         // Mock isUserProjectMember to return true by default (user is a member of the project)
         lenient().when(projectService.isUserProjectMember(anyLong(), anyLong())).thenReturn(true);
@@ -188,6 +207,16 @@ class TaskServiceImplTest {
                 .build());
         });
 
+        lenient().when(departmentQueryService.getByIds(any())).thenAnswer(invocation -> {
+            Collection<Long> deptIds = invocation.getArgument(0);
+            return deptIds.stream()
+                .map(deptId -> DepartmentDto.builder()
+                    .id(deptId)
+                    .name("Dept " + deptId)
+                    .build())
+                .toList();
+        });
+
         // Mock getDescendants for department hierarchy - critical for visibility filtering
         lenient().when(departmentQueryService.getDescendants(anyLong(), eq(true)))
             .thenAnswer(invocation -> {
@@ -230,15 +259,18 @@ class TaskServiceImplTest {
             return deptId != null ? Set.of(deptId) : Set.of();
         });
 
-        lenient().when(departmentalVisibilityService.canUserSeeTask(any(), anyLong())).thenReturn(true);
+        lenient().when(departmentalVisibilityService.visibleUsersForDepartments(any())).thenReturn(VisibleUsers.of(List.of(201L)));
 
         // Mock taskAssigneeRepository to return task assignees for visibility checks
         // By default, return the owner ID (201L) as assignee for all test tasks so they are visible
-        lenient().when(taskAssigneeRepository.findAssigneeIdsByTaskId(anyLong())).thenAnswer(invocation -> {
-            Long taskId = invocation.getArgument(0);
-            // For all test tasks created with owner 201L, return that as assignee
-            // This allows visibility checks to pass
-            return List.of(201L);
+        lenient().when(taskAssigneeRepository.findByTaskIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> taskIds = invocation.getArgument(0);
+            return taskIds.stream().map(taskId -> {
+                TaskAssignee assignee = new TaskAssignee();
+                assignee.setTaskId(taskId);
+                assignee.setUserId(201L);
+                return assignee;
+            }).toList();
         });
 
         // Mock collaboratorService methods for default behavior
@@ -301,13 +333,6 @@ class TaskServiceImplTest {
             Long userId = 201L;
             List<Task> expectedTasks = Arrays.asList(testTask1, testTask2, testTask3);
             when(taskRepository.findUserTasks(userId)).thenReturn(expectedTasks);
-            // Setup mocks for canUserDeleteTask
-            when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask1));
-            when(taskRepository.findById(2L)).thenReturn(Optional.of(testTask2));
-            when(taskRepository.findById(3L)).thenReturn(Optional.of(testTask3));
-            when(projectService.isUserProjectOwner(userId, 101L)).thenReturn(false);
-            when(projectService.isUserProjectOwner(userId, 102L)).thenReturn(false);
-            when(projectService.isUserProjectOwner(userId, 103L)).thenReturn(false);
 
             // When
             List<TaskResponseDto> result = taskService.getAllUserTasks(userId);
@@ -375,8 +400,6 @@ class TaskServiceImplTest {
             Long userId = 201L;
             List<Task> singleTaskList = Collections.singletonList(testTask1);
             when(taskRepository.findUserTasks(userId)).thenReturn(singleTaskList);
-            when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask1));
-            when(projectService.isUserProjectOwner(userId, 101L)).thenReturn(false);
 
             // When
             List<TaskResponseDto> result = taskService.getAllUserTasks(userId);
@@ -398,8 +421,6 @@ class TaskServiceImplTest {
             Task taskWithNullDescription = createTestTask(4L, 104L, 201L, "Task with null desc",
                                                          null, Status.TODO, Collections.emptyList());
             when(taskRepository.findUserTasks(userId)).thenReturn(Collections.singletonList(taskWithNullDescription));
-            when(taskRepository.findById(4L)).thenReturn(Optional.of(taskWithNullDescription));
-            when(projectService.isUserProjectOwner(userId, 104L)).thenReturn(false);
 
             // When
             List<TaskResponseDto> result = taskService.getAllUserTasks(userId);
@@ -419,8 +440,6 @@ class TaskServiceImplTest {
             Task taskWithEmptyTags = createTestTask(5L, 105L, 201L, "Task with empty tags",
                                                    "Description", Status.BLOCKED, Collections.emptyList());
             when(taskRepository.findUserTasks(userId)).thenReturn(Collections.singletonList(taskWithEmptyTags));
-            when(taskRepository.findById(5L)).thenReturn(Optional.of(taskWithEmptyTags));
-            when(projectService.isUserProjectOwner(userId, 105L)).thenReturn(false);
 
             // When
             List<TaskResponseDto> result = taskService.getAllUserTasks(userId);
@@ -440,8 +459,6 @@ class TaskServiceImplTest {
             Task taskWithNullTags = createTestTask(6L, 106L, 201L, "Task with null tags",
                                                   "Description", Status.TODO, null);
             when(taskRepository.findUserTasks(userId)).thenReturn(Collections.singletonList(taskWithNullTags));
-            when(taskRepository.findById(6L)).thenReturn(Optional.of(taskWithNullTags));
-            when(projectService.isUserProjectOwner(userId, 106L)).thenReturn(false);
 
             // When
             List<TaskResponseDto> result = taskService.getAllUserTasks(userId);
@@ -464,14 +481,6 @@ class TaskServiceImplTest {
 
             List<Task> allStatusTasks = Arrays.asList(todoTask, inProgressTask, completedTask, blockedTask);
             when(taskRepository.findUserTasks(userId)).thenReturn(allStatusTasks);
-            when(taskRepository.findById(1L)).thenReturn(Optional.of(todoTask));
-            when(taskRepository.findById(2L)).thenReturn(Optional.of(inProgressTask));
-            when(taskRepository.findById(3L)).thenReturn(Optional.of(completedTask));
-            when(taskRepository.findById(4L)).thenReturn(Optional.of(blockedTask));
-            when(projectService.isUserProjectOwner(userId, 101L)).thenReturn(false);
-            when(projectService.isUserProjectOwner(userId, 102L)).thenReturn(false);
-            when(projectService.isUserProjectOwner(userId, 103L)).thenReturn(false);
-            when(projectService.isUserProjectOwner(userId, 104L)).thenReturn(false);
 
             // When
             List<TaskResponseDto> result = taskService.getAllUserTasks(userId);
@@ -506,8 +515,6 @@ class TaskServiceImplTest {
             Long userId = 201L;
             List<Task> largeTasks = Collections.nCopies(100, testTask1);
             when(taskRepository.findUserTasks(userId)).thenReturn(largeTasks);
-            when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask1));
-            when(projectService.isUserProjectOwner(userId, 101L)).thenReturn(false);
 
             // When
             List<TaskResponseDto> result = taskService.getAllUserTasks(userId);
@@ -558,13 +565,7 @@ class TaskServiceImplTest {
             Long userId = 201L;
             List<Task> orderedTasks = Arrays.asList(testTask3, testTask1, testTask2); // Different order
             when(taskRepository.findUserTasks(userId)).thenReturn(orderedTasks);
-            when(taskRepository.findById(3L)).thenReturn(Optional.of(testTask3));
-            when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask1));
-            when(taskRepository.findById(2L)).thenReturn(Optional.of(testTask2));
 
-            when(projectService.isUserProjectOwner(userId, 103L)).thenReturn(false);
-            when(projectService.isUserProjectOwner(userId, 101L)).thenReturn(false);
-            when(projectService.isUserProjectOwner(userId, 102L)).thenReturn(false);
 
             // When
             List<TaskResponseDto> result = taskService.getAllUserTasks(userId);
@@ -586,8 +587,6 @@ class TaskServiceImplTest {
             String longDescription = "B".repeat(2000);
             Task taskWithLongContent = createTestTask(7L, 107L, 201L, longTitle, longDescription, Status.TODO, null);
             when(taskRepository.findUserTasks(userId)).thenReturn(Collections.singletonList(taskWithLongContent));
-            when(taskRepository.findById(7L)).thenReturn(Optional.of(taskWithLongContent));
-            when(projectService.isUserProjectOwner(userId, 107L)).thenReturn(false);
 
             // When
             List<TaskResponseDto> result = taskService.getAllUserTasks(userId);
@@ -608,8 +607,6 @@ class TaskServiceImplTest {
             String specialDescription = "Description with unicode: 你好世界 🚀💯 ñáéíóú";
             Task taskWithSpecialChars = createTestTask(8L, 108L, 201L, specialTitle, specialDescription, Status.IN_PROGRESS, null);
             when(taskRepository.findUserTasks(userId)).thenReturn(Collections.singletonList(taskWithSpecialChars));
-            when(taskRepository.findById(8L)).thenReturn(Optional.of(taskWithSpecialChars));
-            when(projectService.isUserProjectOwner(userId, 108L)).thenReturn(false);
 
             // When
             List<TaskResponseDto> result = taskService.getAllUserTasks(userId);
@@ -632,8 +629,6 @@ class TaskServiceImplTest {
             }
             Task taskWithManyTags = createTestTask(9L, 109L, 201L, "Task with many tags", "Description", Status.BLOCKED, manyTags);
             when(taskRepository.findUserTasks(userId)).thenReturn(Collections.singletonList(taskWithManyTags));
-            when(taskRepository.findById(9L)).thenReturn(Optional.of(taskWithManyTags));
-            when(projectService.isUserProjectOwner(userId, 109L)).thenReturn(false);
 
             // When
             List<TaskResponseDto> result = taskService.getAllUserTasks(userId);
@@ -653,8 +648,6 @@ class TaskServiceImplTest {
             List<String> duplicateTags = Arrays.asList("duplicate", "unique", "duplicate", "another", "duplicate");
             Task taskWithDuplicates = createTestTask(10L, 110L, 201L, "Task with duplicates", "Description", Status.TODO, duplicateTags);
             when(taskRepository.findUserTasks(userId)).thenReturn(Collections.singletonList(taskWithDuplicates));
-            when(taskRepository.findById(10L)).thenReturn(Optional.of(taskWithDuplicates));
-            when(projectService.isUserProjectOwner(userId, 110L)).thenReturn(false);
 
             // When
             List<TaskResponseDto> result = taskService.getAllUserTasks(userId);
@@ -680,15 +673,7 @@ class TaskServiceImplTest {
                 whitespaceTask // Whitespace and empty tags
             );
             when(taskRepository.findUserTasks(userId)).thenReturn(mixedTasks);
-            when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask1));
-            when(taskRepository.findById(3L)).thenReturn(Optional.of(testTask3));
-            when(taskRepository.findById(11L)).thenReturn(Optional.of(emptyTitleTask));
-            when(taskRepository.findById(12L)).thenReturn(Optional.of(whitespaceTask));
 
-            when(projectService.isUserProjectOwner(userId, 101L)).thenReturn(false);
-            when(projectService.isUserProjectOwner(userId, 103L)).thenReturn(false);
-            when(projectService.isUserProjectOwner(userId, 111L)).thenReturn(false);
-            when(projectService.isUserProjectOwner(userId, 112L)).thenReturn(false);
 
             // When
             List<TaskResponseDto> result = taskService.getAllUserTasks(userId);
@@ -717,8 +702,6 @@ class TaskServiceImplTest {
             // Given
             Long userId = 201L;
             when(taskRepository.findUserTasks(userId)).thenReturn(Arrays.asList(testTask1));
-            when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask1));
-            when(projectService.isUserProjectOwner(userId, 101L)).thenReturn(false);
 
             // When
             taskService.getAllUserTasks(userId);
@@ -733,10 +716,6 @@ class TaskServiceImplTest {
             // Given
             Long userId = 201L;
             when(taskRepository.findUserTasks(userId)).thenReturn(Arrays.asList(testTask1, testTask2));
-            when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask1));
-            when(taskRepository.findById(2L)).thenReturn(Optional.of(testTask2));
-            when(projectService.isUserProjectOwner(userId, 101L)).thenReturn(false);
-            when(projectService.isUserProjectOwner(userId, 102L)).thenReturn(false);
 
             // When - Simulate multiple calls (in real scenario these would be from different threads)
             List<TaskResponseDto> result1 = taskService.getAllUserTasks(userId);
@@ -2214,17 +2193,10 @@ class TaskServiceImplTest {
 
             when(taskRepository.findByProjectIdAndNotDeleted(projectId))
                 .thenReturn(Collections.singletonList(ownedTask));
-            when(taskRepository.findById(taskId)).thenReturn(Optional.of(ownedTask));
             when(userRepository.findById(userId)).thenReturn(Optional.of(user));
             when(projectService.isUserProjectMember(userId, projectId)).thenReturn(true);
-            when(taskAssigneeRepository.findAssigneeIdsByTaskId(taskId))
-                .thenReturn(List.of(userId));
             when(taskAssigneeRepository.findByTaskIdIn(Set.of(taskId)))
                 .thenReturn(List.of(assignee));
-            when(collaboratorService.getTasksForWhichUserIsCollaborator(userId))
-                .thenReturn(Collections.singletonList(taskId));
-            when(projectService.isUserProjectOwner(userId, projectId)).thenReturn(false);
-            when(departmentalVisibilityService.canUserSeeTask(any(), anyLong())).thenReturn(true);
             when(departmentQueryService.getDescendants(departmentId, true))
                 .thenReturn(List.of(DepartmentDto.builder().id(departmentId).name("Dept").parentId(null).build()));
             when(userRepository.findByDepartmentIds(Set.of(departmentId), userId))
@@ -2259,17 +2231,11 @@ class TaskServiceImplTest {
 
             when(taskRepository.findByProjectIdAndNotDeleted(projectId))
                 .thenReturn(Collections.singletonList(task));
-            when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
             when(userRepository.findById(userId)).thenReturn(Optional.of(user));
             when(projectService.isUserProjectMember(userId, projectId)).thenReturn(true);
-            when(taskAssigneeRepository.findAssigneeIdsByTaskId(taskId))
-                .thenReturn(List.of(201L)); // Task assignee
             when(taskAssigneeRepository.findByTaskIdIn(Set.of(taskId)))
                 .thenReturn(List.of(taskAssignee));
-            when(collaboratorService.getTasksForWhichUserIsCollaborator(userId))
-                .thenReturn(Collections.emptyList());
-            when(projectService.isUserProjectOwner(userId, projectId)).thenReturn(true);
-            when(departmentalVisibilityService.canUserSeeTask(any(), anyLong())).thenReturn(true);
+            when(projectService.getOwnedProjectIds(userId, Set.of(projectId))).thenReturn(Set.of(projectId));
             when(departmentQueryService.getDescendants(departmentId, true))
                 .thenReturn(List.of(DepartmentDto.builder().id(departmentId).name("Dept").parentId(null).build()));
             when(userRepository.findByDepartmentIds(Set.of(departmentId), userId))
@@ -2302,17 +2268,10 @@ class TaskServiceImplTest {
 
             when(taskRepository.findByProjectIdAndNotDeleted(projectId))
                 .thenReturn(Collections.singletonList(task));
-            when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
             when(userRepository.findById(userId)).thenReturn(Optional.of(user));
             when(projectService.isUserProjectMember(userId, projectId)).thenReturn(true);
-            when(taskAssigneeRepository.findAssigneeIdsByTaskId(taskId))
-                .thenReturn(List.of(userId)); // User is assignee
             when(taskAssigneeRepository.findByTaskIdIn(Set.of(taskId)))
                 .thenReturn(List.of(assignee));
-            when(collaboratorService.getTasksForWhichUserIsCollaborator(userId))
-                .thenReturn(Collections.singletonList(taskId));
-            when(projectService.isUserProjectOwner(userId, projectId)).thenReturn(false);
-            when(departmentalVisibilityService.canUserSeeTask(any(), anyLong())).thenReturn(true);
             when(departmentQueryService.getDescendants(departmentId, true))
                 .thenReturn(List.of(DepartmentDto.builder().id(departmentId).name("Dept").parentId(null).build()));
             when(userRepository.findByDepartmentIds(Set.of(departmentId), userId))
@@ -2351,33 +2310,21 @@ class TaskServiceImplTest {
             assignee2.setTaskId(2L);
             assignee2.setUserId(userId);
 
+            User otherAssignee = createUser(203L);
             TaskAssignee assignee3 = new TaskAssignee();
             assignee3.setTaskId(3L);
-            assignee3.setUserId(userId);
+            assignee3.setUserId(otherAssignee.getId());
 
             when(taskRepository.findByProjectIdAndNotDeleted(projectId))
                 .thenReturn(Arrays.asList(ownedTask, collaboratorTask, otherTask));
-            when(taskRepository.findById(1L)).thenReturn(Optional.of(ownedTask));
-            when(taskRepository.findById(2L)).thenReturn(Optional.of(collaboratorTask));
-            when(taskRepository.findById(3L)).thenReturn(Optional.of(otherTask));
             when(userRepository.findById(userId)).thenReturn(Optional.of(user));
             when(projectService.isUserProjectMember(userId, projectId)).thenReturn(true);
-            when(taskAssigneeRepository.findAssigneeIdsByTaskId(1L))
-                .thenReturn(List.of(userId));
-            when(taskAssigneeRepository.findAssigneeIdsByTaskId(2L))
-                .thenReturn(List.of(userId));
-            when(taskAssigneeRepository.findAssigneeIdsByTaskId(3L))
-                .thenReturn(List.of(userId));
             when(taskAssigneeRepository.findByTaskIdIn(Set.of(1L, 2L, 3L)))
                 .thenReturn(List.of(assignee1, assignee2, assignee3));
-            when(collaboratorService.getTasksForWhichUserIsCollaborator(userId))
-                .thenReturn(Arrays.asList(1L, 2L));
-            when(projectService.isUserProjectOwner(userId, projectId)).thenReturn(false);
-            when(departmentalVisibilityService.canUserSeeTask(any(), anyLong())).thenReturn(true);
             when(departmentQueryService.getDescendants(departmentId, true))
                 .thenReturn(List.of(DepartmentDto.builder().id(departmentId).name("Dept").parentId(null).build()));
             when(userRepository.findByDepartmentIds(Set.of(departmentId), userId))
-                .thenReturn(List.of(user));
+                .thenReturn(List.of(user, otherAssignee));
 
             // When
             List<TaskResponseDto> result = taskService.getProjectTasks(userId, projectId);
@@ -2412,8 +2359,6 @@ class TaskServiceImplTest {
 
             when(taskRepository.findByProjectIdAndNotDeleted(projectId))
                 .thenReturn(List.of(externalTask));
-            when(collaboratorService.getTasksForWhichUserIsCollaborator(userId))
-                .thenReturn(Collections.emptyList());
 
             assertThatThrownBy(() -> taskService.getProjectTasks(userId, projectId))
                 .isInstanceOf(AccessDeniedException.class)
@@ -2421,6 +2366,71 @@ class TaskServiceImplTest {
         }
     }
 
+    @Nested
+    @DisplayName("Keyset Page Tests")
+    class KeysetPageTests {
+
+        @Test
+        @DisplayName("Should return a full page with a cursor when more rows exist")
+        void getUserTasksPage_MoreRows_ReturnsCursor() {
+            Long userId = 201L;
+            TaskPageRequestDto request = TaskPageRequestDto.builder().limit(2).build();
+            testTask1.setDueDateTime(fixedDateTime.plusDays(1));
+            testTask2.setDueDateTime(fixedDateTime.plusDays(2));
+            when(taskRepository.findTaskPage(userId, null, request, null, 3))
+                .thenReturn(List.of(testTask1, testTask2, testTask3));
+
+            TaskPageResponseDto page = taskService.getUserTasksPage(userId, request);
+
+            assertThat(page.getItems()).extracting(TaskResponseDto::getId).containsExactly(1L, 2L);
+            assertThat(page.isHasMore()).isTrue();
+            TaskCursor next = TaskCursor.decode(page.getNextCursor(), TaskSortKey.DUE_DATE);
+            assertThat(next.taskId()).isEqualTo(2L);
+            assertThat(next.sortValue().toInstant()).isEqualTo(testTask2.getDueDateTime().toInstant());
+        }
+
+        @Test
+        @DisplayName("Should return no cursor on the last page")
+        void getUserTasksPage_LastPage_NoCursor() {
+            Long userId = 201L;
+            TaskPageRequestDto request = TaskPageRequestDto.builder().limit(5).build();
+            when(taskRepository.findTaskPage(userId, null, request, null, 6))
+                .thenReturn(List.of(testTask1));
+
+            TaskPageResponseDto page = taskService.getUserTasksPage(userId, request);
+
+            assertThat(page.getItems()).hasSize(1);
+            assertThat(page.isHasMore()).isFalse();
+            assertThat(page.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should reject a malformed cursor before querying")
+        void getUserTasksPage_BadCursor_Throws() {
+            TaskPageRequestDto request = TaskPageRequestDto.builder().cursor("%%%").build();
+
+            assertThatThrownBy(() -> taskService.getUserTasksPage(201L, request))
+                .isInstanceOf(IllegalArgumentException.class);
+            verify(taskRepository, never()).findTaskPage(any(), any(), any(), any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should stream every task and clear the persistence context per chunk")
+        void streamUserTasks_EmitsAllTasks() {
+            Long userId = 201L;
+            TaskPageRequestDto request = TaskPageRequestDto.builder().build();
+            when(taskRepository.streamTasks(userId, null, request))
+                .thenReturn(Stream.of(testTask1, testTask2, testTask3));
+            List<TaskResponseDto> emitted = new ArrayList<>();
+
+            long count = taskService.streamUserTasks(userId, request, emitted::add);
+
+            assertThat(count).isEqualTo(3);
+            assertThat(emitted).extracting(TaskResponseDto::getId).containsExactly(1L, 2L, 3L);
+            verify(taskRepository).clearPersistenceContext();
+        }
+    }
+
     @Nested
     @DisplayName("Time Tracking Integration Tests")
     class TimeTrackingIntegrationTests {
@@ -2655,4 +2665,116 @@ class TaskServiceImplTest {
             verify(reportService, never()).endTimeTracking(anyLong(), anyLong());
         }
     }
+
+    @Nested
+    @DisplayName("Recurrence Cache Eviction Tests")
+    class RecurrenceCacheEvictionTests {
+
+        private Task task;
+        private final Long taskId = 1L;
+        private final Long userId = 201L;
+
+        @BeforeEach
+        void setUp() {
+            task = createTestTask(taskId, 101L, userId, "Recurring", "Description", Status.TODO, Collections.emptyList());
+            task.setIsRecurring(true);
+            task.setRecurrenceRuleStr("FREQ=DAILY;COUNT=5");
+            task.setStartDate(OffsetDateTime.parse("2025-01-01T09:00:00Z"));
+            task.setEndDate(OffsetDateTime.parse("2025-02-01T09:00:00Z"));
+
+            when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+            when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(collaboratorService.isUserTaskCollaborator(taskId, userId)).thenReturn(true);
+        }
+
+        @Test
+        @DisplayName("Should evict the previous rule when the recurrence rule changes")
+        void updateTask_RuleChanged_EvictsOldRule() {
+            UpdateTaskDto updateDto = UpdateTaskDto.builder()
+                .taskId(taskId)
+                .recurrenceRuleStr("FREQ=WEEKLY;COUNT=5")
+                .build();
+
+            taskService.updateTask(updateDto, userId);
+
+            verify(recurrenceService).evictRule("FREQ=DAILY;COUNT=5");
+        }
+
+        @Test
+        @DisplayName("Should not evict when recurrence fields are unchanged")
+        void updateTask_TitleOnly_DoesNotEvict() {
+            UpdateTaskDto updateDto = UpdateTaskDto.builder()
+                .taskId(taskId)
+                .title("Renamed")
+                .build();
+
+            taskService.updateTask(updateDto, userId);
+
+            verify(recurrenceService, never()).evictRule(anyString());
+        }
+    }
+
+    @Nested
+    @DisplayName("Reminder Deadline Event Tests")
+    class DeadlineEventTests {
+
+        private Task task;
+        private final Long taskId = 1L;
+        private final Long userId = 201L;
+
+        @BeforeEach
+        void setUp() {
+            task = createTestTask(taskId, 101L, userId, "Task", "Description", Status.TODO, Collections.emptyList());
+            task.setDueDateTime(OffsetDateTime.parse("2025-03-01T09:00:00Z"));
+
+            when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+            when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(collaboratorService.isUserTaskCollaborator(taskId, userId)).thenReturn(true);
+        }
+
+        @Test
+        @DisplayName("Should publish the new deadline when the due date changes")
+        void updateTask_DueDateChanged_PublishesEvent() {
+            UpdateTaskDto updateDto = UpdateTaskDto.builder()
+                .taskId(taskId)
+                .dueDateTime("2025-03-05T09:00:00Z")
+                .build();
+
+            taskService.updateTask(updateDto, userId);
+
+            ArgumentCaptor<TaskDeadlineChangedEvent> captor = ArgumentCaptor.forClass(TaskDeadlineChangedEvent.class);
+            verify(eventPublisher).publishEvent(captor.capture());
+            assertThat(captor.getValue().dueDateTime()).isEqualTo(OffsetDateTime.parse("2025-03-05T09:00:00Z"));
+            assertThat(captor.getValue().rescheduled()).isTrue();
+            assertThat(captor.getValue().active()).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should not publish when neither due date, reschedule flag nor status change")
+        void updateTask_TitleOnly_DoesNotPublish() {
+            UpdateTaskDto updateDto = UpdateTaskDto.builder()
+                .taskId(taskId)
+                .title("Renamed")
+                .build();
+
+            taskService.updateTask(updateDto, userId);
+
+            verify(eventPublisher, never()).publishEvent(any(Object.class));
+        }
+
+        @Test
+        @DisplayName("Should publish a reporting change with the owner and creation time when the status changes")
+        void updateTask_StatusChanged_PublishesReportingEvent() {
+            task.setCreatedAt(OffsetDateTime.parse("2025-02-10T08:00:00Z"));
+            UpdateTaskDto updateDto = UpdateTaskDto.builder()
+                .taskId(taskId)
+                .status(Status.BLOCKED)
+                .build();
+
+            taskService.updateTask(updateDto, userId);
+
+            verify(eventPublisher).publishEvent(
+                new TaskReportingChangedEvent(taskId, userId, OffsetDateTime.parse("2025-02-10T08:00:00Z")));
+        }
+    }
 }
@@ -0,0 +1,62 @@
+package com.spmorangle.crm.taskmanagement.util;
+
+import com.spmorangle.crm.taskmanagement.enums.TaskSortKey;
+import com.spmorangle.crm.taskmanagement.model.Task;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("TaskCursor Tests")
+class TaskCursorTest {
+
+    @Test
+    @DisplayName("Should round-trip a due date cursor with full precision")
+    void encodeDecode_DueDate_RoundTrips() {
+        Task task = new Task();
+        task.setId(42L);
+        task.setDueDateTime(OffsetDateTime.of(2025, 3, 4, 10, 15, 30, 123_456_000, ZoneOffset.ofHours(8)));
+
+        TaskCursor cursor = TaskCursor.after(task, TaskSortKey.DUE_DATE);
+        TaskCursor decoded = TaskCursor.decode(cursor.encode(), TaskSortKey.DUE_DATE);
+
+        assertThat(decoded.taskId()).isEqualTo(42L);
+        assertThat(decoded.sortValue().toInstant()).isEqualTo(task.getDueDateTime().toInstant());
+    }
+
+    @Test
+    @DisplayName("Should keep a null due date to mark the undated tail")
+    void encodeDecode_NullDueDate_RoundTrips() {
+        Task task = new Task();
+        task.setId(7L);
+
+        TaskCursor decoded = TaskCursor.decode(TaskCursor.after(task, TaskSortKey.DUE_DATE).encode(), TaskSortKey.DUE_DATE);
+
+        assertThat(decoded.sortValue()).isNull();
+        assertThat(decoded.taskId()).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor issued for another sort")
+    void decode_DifferentSort_Throws() {
+        Task task = new Task();
+        task.setId(1L);
+        task.setCreatedAt(OffsetDateTime.now());
+        String encoded = TaskCursor.after(task, TaskSortKey.CREATED_AT).encode();
+
+        assertThatThrownBy(() -> TaskCursor.decode(encoded, TaskSortKey.DUE_DATE))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursors")
+    void decode_Garbage_Throws() {
+        assertThatThrownBy(() -> TaskCursor.decode("not-a-cursor!", TaskSortKey.DUE_DATE))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Invalid cursor");
+    }
+}
@@ -0,0 +1,84 @@
+package com.spmorangle.crm.usermanagement.cache;
+
+import com.spmorangle.common.model.User;
+import com.spmorangle.common.repository.UserRepository;
+import com.spmorangle.crm.usermanagement.cache.RecipientProfileCache.RecipientProfile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RecipientProfileCache Tests")
+class RecipientProfileCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private RecipientProfileCache recipientProfileCache;
+
+    @Test
+    @DisplayName("Should load only the users that are not cached, in one query")
+    void getAll_PartiallyCached_LoadsMissingUsersOnce() {
+        when(userRepository.findByIdIn(List.of(1L))).thenReturn(List.of(user(1L, "one@test.com", true)));
+        when(userRepository.findByIdIn(List.of(2L, 3L))).thenReturn(List.of(user(2L, "two@test.com", false)));
+
+        recipientProfileCache.get(1L);
+        Map<Long, RecipientProfile> profiles = recipientProfileCache.getAll(List.of(1L, 2L, 3L));
+
+        assertThat(profiles).containsOnlyKeys(1L, 2L);
+        assertThat(profiles.get(1L).email()).isEqualTo("one@test.com");
+        assertThat(profiles.get(2L).active()).isFalse();
+        assertThat(recipientProfileCache.stats().hits()).isEqualTo(1);
+        assertThat(recipientProfileCache.stats().misses()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should reload a user after it is invalidated")
+    void invalidate_CachedUser_ReloadsOnNextGet() {
+        when(userRepository.findByIdIn(List.of(1L)))
+                .thenReturn(List.of(user(1L, "old@test.com", true)))
+                .thenReturn(List.of(user(1L, "new@test.com", true)));
+
+        assertThat(recipientProfileCache.get(1L).email()).isEqualTo("old@test.com");
+        assertThat(recipientProfileCache.get(1L).email()).isEqualTo("old@test.com");
+        recipientProfileCache.invalidate(1L);
+
+        assertThat(recipientProfileCache.get(1L).email()).isEqualTo("new@test.com");
+        verify(userRepository, times(2)).findByIdIn(anyList());
+    }
+
+    @Test
+    @DisplayName("Should reload a user once its entry has expired")
+    void get_ExpiredEntry_ReloadsUser() {
+        ReflectionTestUtils.setField(recipientProfileCache, "ttlMillis", -1L);
+        when(userRepository.findByIdIn(List.of(1L))).thenReturn(List.of(user(1L, "one@test.com", true)));
+
+        recipientProfileCache.get(1L);
+        recipientProfileCache.get(1L);
+
+        verify(userRepository, times(2)).findByIdIn(anyList());
+    }
+
+    private static User user(Long id, String email, boolean active) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        user.setUserName("User " + id);
+        user.setIsActive(active);
+        return user;
+    }
+}
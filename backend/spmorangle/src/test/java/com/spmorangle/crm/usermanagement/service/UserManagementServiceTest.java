@@ -3,6 +3,8 @@ package com.spmorangle.crm.usermanagement.service;
 import com.spmorangle.common.converter.UserConverter;
 import com.spmorangle.common.model.User;
 import com.spmorangle.common.repository.UserRepository;
+import com.spmorangle.crm.departmentmgmt.hierarchy.DepartmentMemberIndex;
+import com.spmorangle.crm.usermanagement.cache.RecipientProfileCache;
 import com.spmorangle.crm.usermanagement.dto.CreateUserDto;
 import com.spmorangle.crm.usermanagement.dto.UpdateUserRoleDto;
 import com.spmorangle.crm.usermanagement.dto.UserResponseDto;
@@ -40,6 +42,12 @@ class UserManagementServiceTest {
     @Mock
     private CognitoServiceImpl cognitoService;
 
+    @Mock
+    private DepartmentMemberIndex departmentMemberIndex;
+
+    @Mock
+    private RecipientProfileCache recipientProfileCache;
+
     @InjectMocks
     private UserManagementServiceImpl userManagementService;
 
@@ -223,6 +231,8 @@ class UserManagementServiceTest {
         // Assert
         verify(cognitoService).disableUser("john.doe@example.com");
         verify(cognitoService).deleteUser("john.doe@example.com");
+        verify(departmentMemberIndex).onUserRemoved(1L);
+        verify(recipientProfileCache).invalidate(1L);
         verify(userRepository).delete(testUser);
     }
 
@@ -385,6 +395,7 @@ class UserManagementServiceTest {
         // Assert
         verify(cognitoService).disableUser("john.doe@example.com");
         verify(userRepository).updateUserIsActiveById(1L, false);
+        verify(recipientProfileCache).invalidate(1L);
     }
 
     @Test